@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import org.hibernate.engine.HibernateIterator;
 import org.hibernate.transform.ResultTransformer;
 import org.hibernate.type.Type;
 
@@ -138,6 +139,27 @@ public interface Query extends BasicQueryContract {
 	@Override
 	public Query setCacheRegion(String cacheRegion);
 
+	/**
+	 * Obtain the scope declared for the cached results of this query.
+	 *
+	 * @return The scope, or {@code null} if none was declared
+	 *
+	 * @see #setCacheScope(QueryCacheScope)
+	 */
+	public QueryCacheScope getCacheScope();
+
+	/**
+	 * Declare which instances of an entity this query reads, so that its cached results are only invalidated by
+	 * writes to those instances.  Only meaningful for {@link #setCacheable cacheable} queries.
+	 *
+	 * @param scope The scope, or {@code null} to depend on all the rows of the query spaces
+	 *
+	 * @return {@code this}, for method chaining
+	 *
+	 * @see QueryCacheScope
+	 */
+	public Query setCacheScope(QueryCacheScope scope);
+
 	@Override
 	public Query setTimeout(int timeout);
 
@@ -273,6 +295,33 @@ public interface Query extends BasicQueryContract {
 	 */
 	public ScrollableResults scroll(ScrollMode scrollMode);
 
+	/**
+	 * Return the query results as an <tt>Iterator</tt> reading rows lazily from a forward-only JDBC
+	 * result set. If the query contains multiple results per row, the results are returned in an
+	 * instance of <tt>Object[]</tt>.<br>
+	 * <br>
+	 * Unless the query defines a fetch size, the one configured by
+	 * {@link org.hibernate.cfg.AvailableSettings#QUERY_STREAM_FETCH_SIZE} is used.  The underlying
+	 * result set is closed once the results are exhausted; otherwise the iterator must be closed
+	 * through {@link HibernateIterator#close()} or {@link Hibernate#close(Iterator)}.
+	 *
+	 * @return the result iterator
+	 *
+	 * @see #stream(boolean)
+	 */
+	public HibernateIterator stream();
+
+	/**
+	 * Return the query results as an <tt>Iterator</tt> reading rows lazily from a forward-only JDBC
+	 * result set, as per {@link #stream()}.
+	 *
+	 * @param evictConsumed Should the entities of a row be evicted from the session once the next row
+	 * is requested, so that the persistence context does not grow with the number of rows read?
+	 *
+	 * @return the result iterator
+	 */
+	public HibernateIterator stream(boolean evictConsumed);
+
 	/**
 	 * Return the query results as a <tt>List</tt>. If the query contains
 	 * multiple results per row, the results are returned in an instance
@@ -0,0 +1,152 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Declares which instances of an entity the results of a cacheable query depend on: a range of identifiers, or
+ * one natural id value.  The cached results of a query with a scope are then only invalidated by writes to those
+ * instances, rather than by every write to the tables of the entity.
+ * <p/>
+ * The scope is a promise made by the application: the query must not read other rows of the tables of the entity
+ * (tables of other entities and collections it reads are checked as usual).  Scoped invalidation requires
+ * {@link org.hibernate.cfg.AvailableSettings#USE_LOCAL_UPDATE_TIMESTAMPS}; without it, the scope is ignored.
+ * Bulk updates and deletes, as well as writes whose id or natural id is not known, invalidate all scoped results.
+ *
+ * @see Query#setCacheScope(QueryCacheScope)
+ */
+public final class QueryCacheScope {
+	private final String entityName;
+	private final Serializable lowerId;
+	private final Serializable upperId;
+	private final Map<String, Object> naturalIdValues;
+
+	private QueryCacheScope(
+			String entityName,
+			Serializable lowerId,
+			Serializable upperId,
+			Map<String, Object> naturalIdValues) {
+		if ( entityName == null ) {
+			throw new IllegalArgumentException( "Entity name cannot be null" );
+		}
+		this.entityName = entityName;
+		this.lowerId = lowerId;
+		this.upperId = upperId;
+		this.naturalIdValues = naturalIdValues;
+	}
+
+	/**
+	 * Limits the scope to the instances of an entity whose identifier is within the given bounds.
+	 *
+	 * @param entityName The entity name
+	 * @param lowerId The lowest identifier, inclusive; {@code null} for no lower bound
+	 * @param upperId The highest identifier, inclusive; {@code null} for no upper bound
+	 *
+	 * @return The scope
+	 */
+	public static QueryCacheScope idRange(String entityName, Serializable lowerId, Serializable upperId) {
+		return new QueryCacheScope( entityName, lowerId, upperId, null );
+	}
+
+	/**
+	 * Limits the scope to the instances of an entity whose identifier is within the given bounds.
+	 *
+	 * @param entityClass The entity type
+	 * @param lowerId The lowest identifier, inclusive; {@code null} for no lower bound
+	 * @param upperId The highest identifier, inclusive; {@code null} for no upper bound
+	 *
+	 * @return The scope
+	 */
+	public static QueryCacheScope idRange(Class entityClass, Serializable lowerId, Serializable upperId) {
+		return idRange( entityClass.getName(), lowerId, upperId );
+	}
+
+	/**
+	 * Limits the scope to the instance of an entity with the given natural id.
+	 *
+	 * @param entityName The entity name
+	 * @param naturalIdValues The value of each natural id property, by property name
+	 *
+	 * @return The scope
+	 */
+	public static QueryCacheScope naturalId(String entityName, Map<String, ?> naturalIdValues) {
+		if ( naturalIdValues == null || naturalIdValues.isEmpty() ) {
+			throw new IllegalArgumentException( "Natural id values cannot be empty" );
+		}
+		return new QueryCacheScope(
+				entityName,
+				null,
+				null,
+				Collections.unmodifiableMap( new HashMap<String, Object>( naturalIdValues ) )
+		);
+	}
+
+	/**
+	 * Limits the scope to the instance of an entity with the given natural id.
+	 *
+	 * @param entityClass The entity type
+	 * @param naturalIdValues The value of each natural id property, by property name
+	 *
+	 * @return The scope
+	 */
+	public static QueryCacheScope naturalId(Class entityClass, Map<String, ?> naturalIdValues) {
+		return naturalId( entityClass.getName(), naturalIdValues );
+	}
+
+	public String getEntityName() {
+		return entityName;
+	}
+
+	public Serializable getLowerId() {
+		return lowerId;
+	}
+
+	public Serializable getUpperId() {
+		return upperId;
+	}
+
+	/**
+	 * The natural id values of a natural id scope.
+	 *
+	 * @return The natural id values by property name, or {@code null} for an identifier range
+	 */
+	public Map<String, Object> getNaturalIdValues() {
+		return naturalIdValues;
+	}
+
+	public boolean isNaturalId() {
+		return naturalIdValues != null;
+	}
+
+	@Override
+	public String toString() {
+		return isNaturalId()
+				? "QueryCacheScope(" + entityName + " with natural id " + naturalIdValues + ")"
+				: "QueryCacheScope(" + entityName + " with id in [" + lowerId + ", " + upperId + "])";
+	}
+}
@@ -29,6 +29,7 @@ import org.hibernate.AssertionFailure;
 import org.hibernate.action.spi.AfterTransactionCompletionProcess;
 import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
 import org.hibernate.action.spi.Executable;
+import org.hibernate.cache.spi.NaturalIdCacheKey;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.event.service.spi.EventListenerGroup;
 import org.hibernate.event.service.spi.EventListenerRegistry;
@@ -148,6 +149,58 @@ public abstract class EntityAction
 		return persister.getPropertySpaces();
 	}
 
+	/**
+	 * The keys of the entity instance written by this action.  They are recorded along with the invalidation of
+	 * its query spaces, so that cached query results declaring a {@link org.hibernate.QueryCacheScope} which does
+	 * not include the instance stay valid.
+	 *
+	 * @return The cache key and natural id cache keys of the instance, or {@code null} if they are not known
+	 */
+	public Object[] getQueryCacheInvalidationKeys() {
+		return null;
+	}
+
+	/**
+	 * Build the {@link #getQueryCacheInvalidationKeys() keys} of the entity instance written.
+	 *
+	 * @param id The entity identifier
+	 * @param naturalIdValues The natural id values of the instance (before and after an update)
+	 *
+	 * @return The keys, or {@code null} if the identifier or natural id values are not known
+	 */
+	protected Object[] buildQueryCacheInvalidationKeys(Serializable id, Object[]... naturalIdValues) {
+		if ( id == null || id instanceof DelayedPostInsertIdentifier ) {
+			return null;
+		}
+		final Object cacheKey = session.generateCacheKey( id, persister.getIdentifierType(), persister.getRootEntityName() );
+		if ( !persister.hasNaturalIdentifier() ) {
+			return new Object[] { cacheKey };
+		}
+		final Object[] keys = new Object[ naturalIdValues.length + 1 ];
+		keys[0] = cacheKey;
+		for ( int i = 0; i < naturalIdValues.length; i++ ) {
+			if ( naturalIdValues[i] == null ) {
+				return null;
+			}
+			keys[i + 1] = new NaturalIdCacheKey( naturalIdValues[i], persister, session );
+		}
+		return keys;
+	}
+
+	/**
+	 * Extract the natural id values from the state of the entity instance.
+	 *
+	 * @param state The entity state
+	 *
+	 * @return The natural id values, or {@code null} if the entity has no natural id or the state is not known
+	 */
+	protected Object[] extractNaturalIdValues(Object[] state) {
+		if ( state == null || !persister.hasNaturalIdentifier() ) {
+			return null;
+		}
+		return session.getPersistenceContext().getNaturalIdHelper().extractNaturalIdValues( state, persister );
+	}
+
 	@Override
 	public void beforeExecutions() {
 		throw new AssertionFailure( "beforeExecutions() called for non-collection action" );
@@ -187,6 +187,11 @@ public class EntityDeleteAction extends EntityAction {
 		}
 	}
 
+	@Override
+	public Object[] getQueryCacheInvalidationKeys() {
+		return buildQueryCacheInvalidationKeys( getId(), naturalIdValues );
+	}
+
 	@Override
 	public void doAfterTransactionCompletion(boolean success, SessionImplementor session) throws HibernateException {
 		if ( getPersister().hasCache() ) {
@@ -124,6 +124,11 @@ public final class EntityIdentityInsertAction extends AbstractEntityInsertAction
 		markExecuted();
 	}
 
+	@Override
+	public Object[] getQueryCacheInvalidationKeys() {
+		return buildQueryCacheInvalidationKeys( generatedId, extractNaturalIdValues( getState() ) );
+	}
+
 	@Override
 	public boolean needsAfterTransactionCompletion() {
 		//TODO: simply remove this override if we fix the above todos
@@ -208,6 +208,11 @@ public final class EntityInsertAction extends AbstractEntityInsertAction {
 		return veto;
 	}
 
+	@Override
+	public Object[] getQueryCacheInvalidationKeys() {
+		return buildQueryCacheInvalidationKeys( getId(), extractNaturalIdValues( getState() ) );
+	}
+
 	@Override
 	public void doAfterTransactionCompletion(boolean success, SessionImplementor session) throws HibernateException {
 		final EntityPersister persister = getPersister();
@@ -308,6 +308,11 @@ public final class EntityUpdateAction extends EntityAction {
 		return false;
 	}
 
+	@Override
+	public Object[] getQueryCacheInvalidationKeys() {
+		return buildQueryCacheInvalidationKeys( getId(), previousNaturalIdValues, extractNaturalIdValues( state ) );
+	}
+
 	@Override
 	public void doAfterTransactionCompletion(boolean success, SessionImplementor session) throws CacheException {
 		final EntityPersister persister = getPersister();
@@ -31,11 +31,12 @@ import java.util.Set;
 import javax.persistence.EntityNotFoundException;
 
 import org.hibernate.HibernateException;
+import org.hibernate.QueryCacheScope;
 import org.hibernate.UnresolvableObjectException;
 import org.hibernate.cache.CacheException;
-import org.hibernate.cache.spi.QueryCache;
 import org.hibernate.cache.spi.QueryKey;
 import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.ScopedQueryCache;
 import org.hibernate.cache.spi.UpdateTimestampsCache;
 import org.hibernate.cfg.Settings;
 import org.hibernate.engine.spi.SessionImplementor;
@@ -49,12 +50,12 @@ import org.jboss.logging.Logger;
  * The standard implementation of the Hibernate QueryCache interface.  This
  * implementation is very good at recognizing stale query results and
  * and re-running queries when it detects this condition, re-caching the new
- * results.
+ * results.  Query results with a {@link QueryCacheScope} are checked against the writes made within that scope.
  *
  * @author Gavin King
  * @author Steve Ebersole
  */
-public class StandardQueryCache implements QueryCache {
+public class StandardQueryCache implements ScopedQueryCache {
 	private static final CoreMessageLogger LOG = Logger.getMessageLogger(
 			CoreMessageLogger.class,
 			StandardQueryCache.class.getName()
@@ -154,6 +155,16 @@ public class StandardQueryCache implements QueryCache {
 		return true;
 	}
 
+	@Override
+	public List get(
+			final QueryKey key,
+			final Type[] returnTypes,
+			final boolean isNaturalKeyLookup,
+			final Set<Serializable> spaces,
+			final SessionImplementor session) throws HibernateException {
+		return get( key, returnTypes, isNaturalKeyLookup, spaces, null, session );
+	}
+
 	@Override
 	@SuppressWarnings({ "unchecked" })
 	public List get(
@@ -161,6 +172,7 @@ public class StandardQueryCache implements QueryCache {
 			final Type[] returnTypes,
 			final boolean isNaturalKeyLookup,
 			final Set<Serializable> spaces,
+			final QueryCacheScope scope,
 			final SessionImplementor session) throws HibernateException {
 		if ( DEBUGGING ) {
 			LOG.debugf( "Checking cached query results in region: %s", cacheRegion.getName() );
@@ -177,7 +189,7 @@ public class StandardQueryCache implements QueryCache {
 		}
 
 		final Long timestamp = (Long) cacheable.get( 0 );
-		if ( !isNaturalKeyLookup && !isUpToDate( spaces, timestamp, session ) ) {
+		if ( !isNaturalKeyLookup && !isUpToDate( spaces, timestamp, scope, session ) ) {
 			if ( DEBUGGING ) {
 				LOG.debug( "Cached query results were not up-to-date" );
 			}
@@ -188,46 +200,53 @@ public class StandardQueryCache implements QueryCache {
 			LOG.debug( "Returning cached query results" );
 		}
 		final boolean singleResult = returnTypes.length == 1;
-		for ( int i = 1; i < cacheable.size(); i++ ) {
-			if ( singleResult ) {
-				returnTypes[0].beforeAssemble( (Serializable) cacheable.get( i ), session );
-			}
-			else {
-				TypeHelper.beforeAssemble( (Serializable[]) cacheable.get( i ), returnTypes, session );
-			}
-		}
-
-		final List result = new ArrayList( cacheable.size() - 1 );
-		for ( int i = 1; i < cacheable.size(); i++ ) {
-			try {
+		// entities are resolved one by one, let them be read ahead from the second level cache as a whole
+		session.getPersistenceContext().getBatchFetchQueue().beginCacheReadAhead();
+		try {
+			for ( int i = 1; i < cacheable.size(); i++ ) {
 				if ( singleResult ) {
-					result.add( returnTypes[0].assemble( (Serializable) cacheable.get( i ), session, null ) );
+					returnTypes[0].beforeAssemble( (Serializable) cacheable.get( i ), session );
 				}
 				else {
-					result.add(
-							TypeHelper.assemble( (Serializable[]) cacheable.get( i ), returnTypes, session, null )
-					);
+					TypeHelper.beforeAssemble( (Serializable[]) cacheable.get( i ), returnTypes, session );
 				}
-				logCachedResultRowDetails( returnTypes, result.get( i - 1 ) );
 			}
-			catch ( RuntimeException ex ) {
-				if ( isNaturalKeyLookup ) {
-					// potentially perform special handling for natural-id look ups.
-					if ( UnresolvableObjectException.class.isInstance( ex )
-							|| EntityNotFoundException.class.isInstance( ex ) ) {
-						if ( DEBUGGING ) {
-							LOG.debug( "Unable to reassemble cached natural-id query result" );
-						}
-						cacheRegion.evict( key );
 
-						// EARLY EXIT !!!!!
-						return null;
+			final List result = new ArrayList( cacheable.size() - 1 );
+			for ( int i = 1; i < cacheable.size(); i++ ) {
+				try {
+					if ( singleResult ) {
+						result.add( returnTypes[0].assemble( (Serializable) cacheable.get( i ), session, null ) );
+					}
+					else {
+						result.add(
+								TypeHelper.assemble( (Serializable[]) cacheable.get( i ), returnTypes, session, null )
+						);
+					}
+					logCachedResultRowDetails( returnTypes, result.get( i - 1 ) );
+				}
+				catch ( RuntimeException ex ) {
+					if ( isNaturalKeyLookup ) {
+						// potentially perform special handling for natural-id look ups.
+						if ( UnresolvableObjectException.class.isInstance( ex )
+								|| EntityNotFoundException.class.isInstance( ex ) ) {
+							if ( DEBUGGING ) {
+								LOG.debug( "Unable to reassemble cached natural-id query result" );
+							}
+							cacheRegion.evict( key );
+
+							// EARLY EXIT !!!!!
+							return null;
+						}
 					}
+					throw ex;
 				}
-				throw ex;
 			}
+			return result;
+		}
+		finally {
+			session.getPersistenceContext().getBatchFetchQueue().endCacheReadAhead();
 		}
-		return result;
 	}
 
 	private List getCachedResults(QueryKey key, SessionImplementor session) {
@@ -250,6 +269,16 @@ public class StandardQueryCache implements QueryCache {
 		return updateTimestampsCache.isUpToDate( spaces, timestamp, session );
 	}
 
+	protected boolean isUpToDate(Set<Serializable> spaces, Long timestamp, QueryCacheScope scope, SessionImplementor session) {
+		if ( scope == null ) {
+			return isUpToDate( spaces, timestamp, session );
+		}
+		if ( DEBUGGING ) {
+			LOG.debugf( "Checking query spaces are up-to-date: %s, within %s", spaces, scope );
+		}
+		return updateTimestampsCache.isUpToDate( spaces, timestamp, scope, session );
+	}
+
 	@Override
 	public String toString() {
 		return "StandardQueryCache(" + cacheRegion.getName() + ')';
@@ -23,10 +23,19 @@
  */
 package org.hibernate.cache.spi;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.internal.util.compare.EqualsHelper;
+import org.hibernate.internal.util.io.CompactValueInput;
+import org.hibernate.internal.util.io.CompactValueOutput;
+import org.hibernate.type.StandardBasicTypes;
 import org.hibernate.type.Type;
 
 /**
@@ -42,6 +51,8 @@ public class CacheKey implements Serializable {
 	private final String entityOrRoleName;
 	private final String tenantId;
 	private final int hashCode;
+	// not part of the default serialized form, which stays as it always was
+	private final transient boolean compactSerialForm;
 
 	/**
 	 * Construct a new key for a collection or entity instance.
@@ -65,6 +76,16 @@ public class CacheKey implements Serializable {
 		this.entityOrRoleName = entityOrRoleName;
 		this.tenantId = tenantId;
 		this.hashCode = calculateHashCode( type, factory );
+		this.compactSerialForm = factory != null && factory.getSettings().isBinaryCacheEntriesEnabled();
+	}
+
+	private CacheKey(Serializable id, Type type, String entityOrRoleName, String tenantId, int hashCode) {
+		this.key = id;
+		this.type = type;
+		this.entityOrRoleName = entityOrRoleName;
+		this.tenantId = tenantId;
+		this.hashCode = hashCode;
+		this.compactSerialForm = true;
 	}
 
 	private int calculateHashCode(Type type, SessionFactoryImplementor factory) {
@@ -113,4 +134,83 @@ public class CacheKey implements Serializable {
 		// Used to be required for OSCache
 		return entityOrRoleName + '#' + key.toString();
 	}
+
+	private Object writeReplace() {
+		return compactSerialForm ? new SerialForm( this ) : this;
+	}
+
+	/**
+	 * The serialized form of a CacheKey created while {@link org.hibernate.cfg.AvailableSettings#USE_BINARY_CACHE_ENTRIES}
+	 * is enabled, written by replicating or overflowing cache providers.  Writes the id compactly and the usual
+	 * identifier types by name instead of serializing the type instance.  Keys created with the setting disabled
+	 * keep the default serialized form.
+	 */
+	static final class SerialForm implements Externalizable {
+		private static final long serialVersionUID = 1L;
+
+		private static final Map<String, Type> IDENTIFIER_TYPES = new HashMap<String, Type>();
+
+		static {
+			final Type[] types = {
+					StandardBasicTypes.LONG,
+					StandardBasicTypes.INTEGER,
+					StandardBasicTypes.SHORT,
+					StandardBasicTypes.STRING,
+					StandardBasicTypes.BIG_INTEGER,
+					StandardBasicTypes.BIG_DECIMAL,
+					StandardBasicTypes.UUID_BINARY,
+					StandardBasicTypes.UUID_CHAR
+			};
+			for ( Type type : types ) {
+				IDENTIFIER_TYPES.put( type.getName(), type );
+			}
+		}
+
+		private CacheKey cacheKey;
+
+		/**
+		 * Used by deserialization only.
+		 */
+		public SerialForm() {
+		}
+
+		SerialForm(CacheKey cacheKey) {
+			this.cacheKey = cacheKey;
+		}
+
+		@Override
+		public void writeExternal(ObjectOutput out) throws IOException {
+			final CompactValueOutput output = new CompactValueOutput( out );
+			output.writeValue( cacheKey.key );
+			output.writeString( cacheKey.entityOrRoleName );
+			output.writeString( cacheKey.tenantId );
+			final Type type = cacheKey.type;
+			if ( IDENTIFIER_TYPES.get( type.getName() ) == type ) {
+				output.writeString( type.getName() );
+			}
+			else {
+				output.writeString( null );
+				out.writeObject( type );
+			}
+			out.writeInt( cacheKey.hashCode );
+		}
+
+		@Override
+		public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+			final CompactValueInput input = new CompactValueInput( in );
+			final Serializable key = (Serializable) input.readValue();
+			final String entityOrRoleName = input.readString();
+			final String tenantId = input.readString();
+			final String typeName = input.readString();
+			final Type type = typeName == null ? (Type) in.readObject() : IDENTIFIER_TYPES.get( typeName );
+			if ( type == null ) {
+				throw new IOException( "Unknown identifier type : " + typeName );
+			}
+			cacheKey = new CacheKey( key, type, entityOrRoleName, tenantId, in.readInt() );
+		}
+
+		private Object readResolve() {
+			return cacheKey;
+		}
+	}
 }
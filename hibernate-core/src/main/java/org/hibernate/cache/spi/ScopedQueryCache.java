@@ -0,0 +1,61 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.spi;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.HibernateException;
+import org.hibernate.QueryCacheScope;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.type.Type;
+
+/**
+ * Optional contract for query caches able to honor the {@link QueryCacheScope} declared by a query when checking
+ * whether its cached results are up-to-date.  Query caches not implementing it ignore the scope.
+ */
+public interface ScopedQueryCache extends QueryCache {
+	/**
+	 * Get results from the cache, checking them against the writes made within the given scope only.
+	 *
+	 * @param key The cache key
+	 * @param returnTypes The result types
+	 * @param isNaturalKeyLookup Was this a natural id lookup?
+	 * @param spaces The query spaces (used in invalidation plus validation checks)
+	 * @param scope The scope declared by the query
+	 * @param session The originating session
+	 *
+	 * @return The cached results; may be null.
+	 *
+	 * @throws HibernateException Indicates a problem delegating to the underlying cache.
+	 */
+	public List get(
+			QueryKey key,
+			Type[] returnTypes,
+			boolean isNaturalKeyLookup,
+			Set<Serializable> spaces,
+			QueryCacheScope scope,
+			SessionImplementor session) throws HibernateException;
+}
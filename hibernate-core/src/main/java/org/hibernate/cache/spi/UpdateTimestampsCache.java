@@ -24,14 +24,21 @@
 package org.hibernate.cache.spi;
 
 import java.io.Serializable;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.hibernate.QueryCacheScope;
 import org.hibernate.cache.CacheException;
 import org.hibernate.cfg.Settings;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.internal.CoreMessageLogger;
+import org.hibernate.internal.util.collections.ArrayHelper;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
 
 import org.jboss.logging.Logger;
 
@@ -41,6 +48,18 @@ import org.jboss.logging.Logger;
  * to a higher value than the timeouts of any of the query caches. In fact, we
  * recommend that the the underlying cache not be configured for expiry at all.
  * Note, in particular, that an LRU cache expiry policy is never appropriate.
+ * <p/>
+ * If {@link org.hibernate.cfg.AvailableSettings#USE_LOCAL_UPDATE_TIMESTAMPS} is enabled, the timestamps are
+ * also kept in a local, lock-free snapshot which up-to-date checks consult instead of the underlying region.
+ * A snapshot entry is trusted for {@link org.hibernate.cfg.AvailableSettings#LOCAL_UPDATE_TIMESTAMPS_TTL}
+ * milliseconds after it was last written or read from the region; after that the region is read again, so
+ * that invalidations made by other nodes are picked up.
+ * <p/>
+ * In that mode, the invalidations made locally are also recorded along with the keys of the entities written (their
+ * {@link CacheKey} and {@link NaturalIdCacheKey}), so that the results of queries declaring a {@link QueryCacheScope}
+ * are only invalidated by writes within that scope.  Invalidations without keys (bulk operations, collection
+ * changes), invalidations read from the region and, past a thousand keys per space, the
+ * recorded keys themselves count as writes to every scope.
  *
  * @author Gavin King
  * @author Mikheil Kapanadze
@@ -53,9 +72,13 @@ public class UpdateTimestampsCache {
 	 */
 	public static final String REGION_NAME = UpdateTimestampsCache.class.getName();
 
+	private static final int MAX_INVALIDATION_KEYS = 1000;
 
 	private final SessionFactoryImplementor factory;
 	private final TimestampsRegion region;
+	private final ConcurrentMap<Serializable, LocalTimestamp> localTimestamps;
+	private final long localTimestampsTtl;
+	private final ConcurrentMap<Serializable, ScopedInvalidations> scopedInvalidations;
 
 	/**
 	 * Constructs an UpdateTimestampsCache.
@@ -71,6 +94,24 @@ public class UpdateTimestampsCache {
 
 		LOG.startingUpdateTimestampsCache( regionName );
 		this.region = settings.getRegionFactory().buildTimestampsRegion( regionName, props );
+		this.localTimestamps = settings.isLocalUpdateTimestampsEnabled()
+				? new ConcurrentHashMap<Serializable, LocalTimestamp>()
+				: null;
+		this.localTimestampsTtl = settings.getLocalUpdateTimestampsTtl();
+		this.scopedInvalidations = settings.isLocalUpdateTimestampsEnabled()
+				? new ConcurrentHashMap<Serializable, ScopedInvalidations>()
+				: null;
+	}
+
+	/**
+	 * Are invalidations recorded along with the keys of the entities written, for queries declaring a
+	 * {@link QueryCacheScope}?
+	 *
+	 * @return {@code true} if the invalidation keys passed to {@link #preInvalidate(Serializable[], Map, SessionImplementor)}
+	 * and {@link #invalidate(Serializable[], Map, SessionImplementor)} are used
+	 */
+	public boolean isTrackingInvalidationKeys() {
+		return scopedInvalidations != null;
 	}
 
 	/**
@@ -94,6 +135,23 @@ public class UpdateTimestampsCache {
 	 * @throws CacheException Indicated problem delegating to underlying region.
 	 */
 	public void preInvalidate(Serializable[] spaces, SessionImplementor session) throws CacheException {
+		preInvalidate( spaces, null, session );
+	}
+
+	/**
+	 * Perform pre-invalidation, recording the keys of the entities written to some of the spaces.
+	 *
+	 * @param spaces The spaces to pre-invalidate
+	 * @param invalidationKeys The keys of the entities written, by space; spaces without keys are invalidated as a
+	 * whole
+	 * @param session The originating session
+	 *
+	 * @throws CacheException Indicated problem delegating to underlying region.
+	 */
+	public void preInvalidate(
+			Serializable[] spaces,
+			Map<Serializable, Set<Object>> invalidationKeys,
+			SessionImplementor session) throws CacheException {
 		final boolean stats = factory != null && factory.getStatistics().isStatisticsEnabled();
 
 		final Long ts = region.nextTimestamp() + region.getTimeout();
@@ -113,6 +171,8 @@ public class UpdateTimestampsCache {
 			finally {
 				session.getEventListenerManager().cachePutEnd();
 			}
+			recordScopedInvalidation( space, ts, invalidationKeys );
+			putLocalTimestamp( space, ts );
 
 			if ( stats ) {
 				factory.getStatisticsImplementor().updateTimestampsCachePut();
@@ -130,6 +190,23 @@ public class UpdateTimestampsCache {
 	 * @throws CacheException Indicated problem delegating to underlying region.
 	 */
 	public void invalidate(Serializable[] spaces, SessionImplementor session) throws CacheException {
+		invalidate( spaces, null, session );
+	}
+
+	/**
+	 * Perform invalidation, recording the keys of the entities written to some of the spaces.
+	 *
+	 * @param spaces The spaces to invalidate
+	 * @param invalidationKeys The keys of the entities written, by space; spaces without keys are invalidated as a
+	 * whole
+	 * @param session The originating session
+	 *
+	 * @throws CacheException Indicated problem delegating to underlying region.
+	 */
+	public void invalidate(
+			Serializable[] spaces,
+			Map<Serializable, Set<Object>> invalidationKeys,
+			SessionImplementor session) throws CacheException {
 		final boolean stats = factory != null && factory.getStatistics().isStatisticsEnabled();
 
 		final Long ts = region.nextTimestamp();
@@ -149,6 +226,8 @@ public class UpdateTimestampsCache {
 			finally {
 				session.getEventListenerManager().cachePutEnd();
 			}
+			recordScopedInvalidation( space, ts, invalidationKeys );
+			putLocalTimestamp( space, ts );
 
 			if ( stats ) {
 				factory.getStatisticsImplementor().updateTimestampsCachePut();
@@ -156,6 +235,37 @@ public class UpdateTimestampsCache {
 		}
 	}
 
+	private void putLocalTimestamp(Serializable space, Long ts) {
+		if ( localTimestamps != null ) {
+			localTimestamps.put( space, new LocalTimestamp( ts ) );
+		}
+	}
+
+	private void recordScopedInvalidation(Serializable space, Long ts, Map<Serializable, Set<Object>> invalidationKeys) {
+		if ( scopedInvalidations == null ) {
+			return;
+		}
+		final Set<Object> keys = invalidationKeys == null ? null : invalidationKeys.get( space );
+		if ( keys == null ) {
+			getScopedInvalidations( space ).invalidate( ts );
+		}
+		else {
+			getScopedInvalidations( space ).invalidate( keys, ts );
+		}
+	}
+
+	private ScopedInvalidations getScopedInvalidations(Serializable space) {
+		ScopedInvalidations invalidations = scopedInvalidations.get( space );
+		if ( invalidations == null ) {
+			invalidations = new ScopedInvalidations();
+			final ScopedInvalidations existing = scopedInvalidations.putIfAbsent( space, invalidations );
+			if ( existing != null ) {
+				invalidations = existing;
+			}
+		}
+		return invalidations;
+	}
+
 	/**
 	 * Perform an up-to-date check for the given set of query spaces.
 	 *
@@ -172,28 +282,73 @@ public class UpdateTimestampsCache {
 		final boolean stats = factory != null && factory.getStatistics().isStatisticsEnabled();
 
 		for ( Serializable space : spaces ) {
-			final Long lastUpdate = getLastUpdateTimestampForSpace( space, session );
-			if ( lastUpdate == null ) {
-				if ( stats ) {
-					factory.getStatisticsImplementor().updateTimestampsCacheMiss();
-				}
-				//the last update timestamp was lost from the cache
-				//(or there were no updates since startup!)
-				//updateTimestamps.put( space, new Long( updateTimestamps.nextTimestamp() ) );
-				//result = false; // safer
+			if ( !isUpToDate( space, timestamp, stats, session ) ) {
+				return false;
 			}
-			else {
-				if ( DEBUG_ENABLED ) {
-					LOG.debugf(
-							"[%s] last update timestamp: %s",
-							space,
-							lastUpdate + ", result set timestamp: " + timestamp
-					);
-				}
-				if ( stats ) {
-					factory.getStatisticsImplementor().updateTimestampsCacheHit();
+		}
+		return true;
+	}
+
+	private boolean isUpToDate(Serializable space, Long timestamp, boolean stats, SessionImplementor session) {
+		final Long lastUpdate = getLastUpdateTimestampForSpace( space, session );
+		if ( lastUpdate == null ) {
+			if ( stats ) {
+				factory.getStatisticsImplementor().updateTimestampsCacheMiss();
+			}
+			//the last update timestamp was lost from the cache
+			//(or there were no updates since startup!)
+			//updateTimestamps.put( space, new Long( updateTimestamps.nextTimestamp() ) );
+			//result = false; // safer
+		}
+		else {
+			if ( DEBUG_ENABLED ) {
+				LOG.debugf(
+						"[%s] last update timestamp: %s",
+						space,
+						lastUpdate + ", result set timestamp: " + timestamp
+				);
+			}
+			if ( stats ) {
+				factory.getStatisticsImplementor().updateTimestampsCacheHit();
+			}
+			if ( lastUpdate >= timestamp ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Perform an up-to-date check for the given set of query spaces, only considering the writes made within the
+	 * given scope to the spaces of its entity.  Without {@link #isTrackingInvalidationKeys() key tracking}, this is
+	 * the same as {@link #isUpToDate(Set, Long, SessionImplementor)}.
+	 *
+	 * @param spaces The spaces to check
+	 * @param timestamp The timestamp against which to check.
+	 * @param scope The scope declared by the query
+	 * @param session The originating session
+	 *
+	 * @return Whether all those spaces are up-to-date
+	 *
+	 * @throws CacheException Indicated problem delegating to underlying region.
+	 */
+	public boolean isUpToDate(
+			Set<Serializable> spaces,
+			Long timestamp,
+			QueryCacheScope scope,
+			SessionImplementor session) throws CacheException {
+		if ( scopedInvalidations == null || scope == null ) {
+			return isUpToDate( spaces, timestamp, session );
+		}
+		final boolean stats = factory != null && factory.getStatistics().isStatisticsEnabled();
+		final ResolvedScope resolvedScope = new ResolvedScope( scope, session );
+		for ( Serializable space : spaces ) {
+			if ( !isUpToDate( space, timestamp, stats, session ) ) {
+				if ( !resolvedScope.covers( space ) ) {
+					return false;
 				}
-				if ( lastUpdate >= timestamp ) {
+				final ScopedInvalidations invalidations = scopedInvalidations.get( space );
+				if ( invalidations == null || !invalidations.isUpToDate( timestamp, resolvedScope ) ) {
 					return false;
 				}
 			}
@@ -202,6 +357,14 @@ public class UpdateTimestampsCache {
 	}
 
 	private Long getLastUpdateTimestampForSpace(Serializable space, SessionImplementor session) {
+		LocalTimestamp local = null;
+		if ( localTimestamps != null ) {
+			local = localTimestamps.get( space );
+			if ( local != null && !local.isStale( localTimestampsTtl ) ) {
+				return local.timestamp;
+			}
+		}
+
 		Long ts = null;
 		try {
 			session.getEventListenerManager().cacheGetStart();
@@ -210,6 +373,31 @@ public class UpdateTimestampsCache {
 		finally {
 			session.getEventListenerManager().cacheGetEnd( ts != null );
 		}
+
+		if ( localTimestamps != null ) {
+			if ( ts == null ) {
+				// the region lost the entry; keep trusting what we know locally
+				return local == null ? null : local.timestamp;
+			}
+			if ( scopedInvalidations != null && ( local == null || ts > local.timestamp ) ) {
+				// not an invalidation made here, so the keys written are unknown
+				getScopedInvalidations( space ).invalidateFromRegion( ts );
+			}
+			// (re)seed the snapshot from the region, unless a local invalidation got there in the meantime
+			final LocalTimestamp refreshed = new LocalTimestamp( ts );
+			if ( local == null ) {
+				final LocalTimestamp current = localTimestamps.putIfAbsent( space, refreshed );
+				if ( current != null ) {
+					ts = current.timestamp;
+				}
+			}
+			else if ( !localTimestamps.replace( space, local, refreshed ) ) {
+				final LocalTimestamp current = localTimestamps.get( space );
+				if ( current != null ) {
+					ts = current.timestamp;
+				}
+			}
+		}
 		return ts;
 	}
 
@@ -219,6 +407,10 @@ public class UpdateTimestampsCache {
 	 * @throws CacheException Indicates problem delegating call to underlying region.
 	 */
 	public void clear() throws CacheException {
+		if ( localTimestamps != null ) {
+			localTimestamps.clear();
+			scopedInvalidations.clear();
+		}
 		region.evictAll();
 	}
 
@@ -250,4 +442,136 @@ public class UpdateTimestampsCache {
 		return "UpdateTimestampsCache";
 	}
 
+	/**
+	 * The invalidations made to a space, along with the keys of the entities written.  Written under the lock of
+	 * the instance, read without locking.
+	 */
+	private static final class ScopedInvalidations {
+		private final ConcurrentMap<Object, Long> keyed = new ConcurrentHashMap<Object, Long>();
+		// the latest invalidation not limited to known keys
+		private volatile long unkeyed = Long.MIN_VALUE;
+
+		private synchronized void invalidate(long ts) {
+			// like the region, an invalidation replaces the pre-invalidation timestamp
+			unkeyed = ts;
+		}
+
+		private synchronized void invalidateFromRegion(long ts) {
+			if ( ts > unkeyed ) {
+				unkeyed = ts;
+			}
+		}
+
+		private synchronized void invalidate(Set<Object> keys, long ts) {
+			for ( Object key : keys ) {
+				keyed.put( key, ts );
+			}
+			if ( keyed.size() > MAX_INVALIDATION_KEYS ) {
+				long latest = unkeyed;
+				for ( Long keyedTs : keyed.values() ) {
+					latest = Math.max( latest, keyedTs );
+				}
+				// publish the folded timestamp before dropping the keys it stands for
+				unkeyed = latest;
+				keyed.clear();
+			}
+		}
+
+		private boolean isUpToDate(long timestamp, ResolvedScope scope) {
+			// keys first: once they are dropped, the folded timestamp is visible
+			for ( Map.Entry<Object, Long> entry : keyed.entrySet() ) {
+				if ( entry.getValue() >= timestamp && scope.matches( entry.getKey() ) ) {
+					return false;
+				}
+			}
+			return unkeyed < timestamp;
+		}
+	}
+
+	/**
+	 * A {@link QueryCacheScope} resolved against the mapping of its entity.
+	 */
+	private static final class ResolvedScope {
+		private final String rootEntityName;
+		private final Serializable[] spaces;
+		private final Type identifierType;
+		private final Serializable lowerId;
+		private final Serializable upperId;
+		private final NaturalIdCacheKey naturalIdKey;
+
+		private ResolvedScope(QueryCacheScope scope, SessionImplementor session) {
+			final EntityPersister persister = session.getFactory().getEntityPersister( scope.getEntityName() );
+			this.rootEntityName = persister.getRootEntityName();
+			this.spaces = persister.getQuerySpaces();
+			this.identifierType = persister.getIdentifierType();
+			this.lowerId = scope.getLowerId();
+			this.upperId = scope.getUpperId();
+			if ( scope.isNaturalId() ) {
+				final String[] propertyNames = persister.getPropertyNames();
+				final int[] naturalIdPropertyIndexes = persister.getNaturalIdentifierProperties();
+				final Object[] naturalIdValues = new Object[ naturalIdPropertyIndexes.length ];
+				for ( int i = 0; i < naturalIdPropertyIndexes.length; i++ ) {
+					naturalIdValues[i] = scope.getNaturalIdValues().get( propertyNames[ naturalIdPropertyIndexes[i] ] );
+				}
+				this.naturalIdKey = new NaturalIdCacheKey( naturalIdValues, persister, session );
+			}
+			else {
+				this.naturalIdKey = null;
+			}
+		}
+
+		private boolean covers(Serializable space) {
+			return ArrayHelper.contains( spaces, space );
+		}
+
+		private boolean matches(Object key) {
+			if ( key instanceof CacheKey ) {
+				final CacheKey cacheKey = (CacheKey) key;
+				if ( !rootEntityName.equals( cacheKey.getEntityOrRoleName() ) ) {
+					// another entity mapped to the same table
+					return true;
+				}
+				// writes to entities with a natural id also record their natural id keys
+				return naturalIdKey == null && isInRange( cacheKey.getKey() );
+			}
+			if ( key instanceof NaturalIdCacheKey ) {
+				final NaturalIdCacheKey naturalIdCacheKey = (NaturalIdCacheKey) key;
+				if ( !rootEntityName.equals( naturalIdCacheKey.getEntityName() ) ) {
+					return true;
+				}
+				return naturalIdKey != null && naturalIdKey.equals( naturalIdCacheKey );
+			}
+			return true;
+		}
+
+		private boolean isInRange(Serializable id) {
+			try {
+				return ( lowerId == null || identifierType.compare( lowerId, id ) <= 0 )
+						&& ( upperId == null || identifierType.compare( id, upperId ) <= 0 );
+			}
+			catch (RuntimeException e) {
+				// not comparable, assume it is
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * An update timestamp held in the local snapshot, along with the time it was last synchronized with
+	 * the region.
+	 */
+	private static final class LocalTimestamp {
+		private final Long timestamp;
+		private final long synchronizedAt;
+
+		private LocalTimestamp(Long timestamp) {
+			this.timestamp = timestamp;
+			this.synchronizedAt = System.currentTimeMillis();
+		}
+
+		private boolean isStale(long ttl) {
+			return System.currentTimeMillis() - synchronizedAt >= ttl;
+		}
+	}
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.spi.entry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.io.CompactValueInput;
+import org.hibernate.internal.util.io.CompactValueOutput;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.Type;
+
+/**
+ * Binary CacheEntry format for entities.  Used to store the entry into the second-level cache as a compact
+ * byte array, written by {@link CompactValueOutput}, so that the entry carries no class descriptors or
+ * per-object overhead when the cache provider serializes or stores it off-heap.
+ * <p/>
+ * The encoding is driven by the entity's property types: a value of a basic property whose type maps to one of
+ * the {@link CompactValueOutput#isTypedClass typed classes} is written without a tag byte, a leading bit set
+ * recording which values were written that way.  Null values, values of association, component or custom
+ * types, and values of an unexpected class are written tagged.  The property types used are those of the
+ * entry's concrete subclass, so that entries of subclasses with additional properties read back through a
+ * superclass persister.
+ */
+public class BinaryCacheEntry implements CacheEntryStructure {
+	private static final byte FORMAT_VERSION = 1;
+
+	private final EntityPersister persister;
+	private final Class[] typedClasses;
+
+	/**
+	 * Constructs a BinaryCacheEntry strategy
+	 *
+	 * @param persister The persister whose data needs to be structured.
+	 */
+	public BinaryCacheEntry(EntityPersister persister) {
+		this.persister = persister;
+		this.typedClasses = determineTypedClasses( persister.getPropertyTypes() );
+	}
+
+	private static Class[] determineTypedClasses(Type[] types) {
+		final Class[] typedClasses = new Class[ types.length ];
+		for ( int i = 0; i < types.length; i++ ) {
+			final Type type = types[i];
+			if ( type.isAssociationType() || type.isComponentType() || !( type instanceof BasicType ) ) {
+				continue;
+			}
+			final Class returnedClass = type.getReturnedClass();
+			if ( CompactValueOutput.isTypedClass( returnedClass ) ) {
+				typedClasses[i] = returnedClass;
+			}
+		}
+		return typedClasses;
+	}
+
+	private Class[] typedClasses(EntityPersister subclassPersister) {
+		if ( subclassPersister == persister ) {
+			return typedClasses;
+		}
+		final CacheEntryStructure structure = subclassPersister.getCacheEntryStructure();
+		if ( structure instanceof BinaryCacheEntry ) {
+			return ( (BinaryCacheEntry) structure ).typedClasses;
+		}
+		return determineTypedClasses( subclassPersister.getPropertyTypes() );
+	}
+
+	private static boolean isTyped(Class[] typedClasses, int index, Object value) {
+		return index < typedClasses.length
+				&& typedClasses[index] != null
+				&& value != null
+				&& value.getClass() == typedClasses[index];
+	}
+
+	@Override
+	public Object structure(Object item) {
+		final CacheEntry entry = (CacheEntry) item;
+		final Serializable[] state = entry.getDisassembledState();
+		final Class[] typedClasses = typedClasses( persister.getFactory().getEntityPersister( entry.getSubclass() ) );
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream( 16 + state.length * 8 );
+		try {
+			final DataOutputStream dataOutput = new DataOutputStream( bytes );
+			final CompactValueOutput output = new CompactValueOutput( dataOutput );
+			dataOutput.writeByte( FORMAT_VERSION );
+			output.writeString( entry.getSubclass() );
+			dataOutput.writeBoolean( entry.areLazyPropertiesUnfetched() );
+			output.writeValue( entry.getVersion() );
+			output.writeVarLong( state.length );
+			final byte[] typedFlags = new byte[ ( state.length + 7 ) / 8 ];
+			for ( int i = 0; i < state.length; i++ ) {
+				if ( isTyped( typedClasses, i, state[i] ) ) {
+					typedFlags[i / 8] |= 1 << ( i % 8 );
+				}
+			}
+			dataOutput.write( typedFlags );
+			for ( int i = 0; i < state.length; i++ ) {
+				if ( ( typedFlags[i / 8] & ( 1 << ( i % 8 ) ) ) != 0 ) {
+					output.writeTypedValue( typedClasses[i], state[i] );
+				}
+				else {
+					output.writeValue( state[i] );
+				}
+			}
+			dataOutput.flush();
+		}
+		catch (IOException e) {
+			throw new CacheException( "Unable to write binary cache entry for " + persister.getEntityName(), e );
+		}
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public Object destructure(Object structured, SessionFactoryImplementor factory) {
+		final DataInputStream dataInput = new DataInputStream( new ByteArrayInputStream( (byte[]) structured ) );
+		final CompactValueInput input = new CompactValueInput( dataInput );
+		try {
+			final byte formatVersion = dataInput.readByte();
+			if ( formatVersion != FORMAT_VERSION ) {
+				throw new CacheException( "Unsupported binary cache entry format : " + formatVersion );
+			}
+			final EntityPersister subclassPersister = factory.getEntityPersister( input.readString() );
+			// use the persister's name instance rather than the freshly decoded copy
+			final String subclass = subclassPersister.getEntityName();
+			final Class[] typedClasses = typedClasses( subclassPersister );
+			final boolean lazyPropertiesUnfetched = dataInput.readBoolean();
+			final Object version = input.readValue();
+			final Serializable[] state = new Serializable[ (int) input.readVarLong() ];
+			final byte[] typedFlags = new byte[ ( state.length + 7 ) / 8 ];
+			dataInput.readFully( typedFlags );
+			for ( int i = 0; i < state.length; i++ ) {
+				if ( ( typedFlags[i / 8] & ( 1 << ( i % 8 ) ) ) != 0 ) {
+					if ( i >= typedClasses.length || typedClasses[i] == null ) {
+						throw new CacheException( "Binary cache entry does not match the mapping of " + subclass );
+					}
+					state[i] = (Serializable) input.readTypedValue( typedClasses[i] );
+				}
+				else {
+					state[i] = (Serializable) input.readValue();
+				}
+			}
+			return new StandardCacheEntryImpl( state, subclass, lazyPropertiesUnfetched, version );
+		}
+		catch (IOException e) {
+			throw new CacheException( "Unable to read binary cache entry for " + persister.getEntityName(), e );
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.spi.entry;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.hibernate.internal.util.io.CompactValueInput;
+import org.hibernate.internal.util.io.CompactValueOutput;
+
+/**
+ * Writes second-level cache entries in the compact form of {@link CompactValueOutput}, for cache providers which
+ * keep their entries serialized (off-heap stores for example).  {@link StandardCacheEntryImpl} and
+ * {@link CollectionCacheEntry} are written field by field, so no class descriptors are written for them; any other
+ * entry is written as a single value.
+ *
+ * @see CompactValueOutput
+ */
+public final class CompactCacheEntrySerializer {
+	private static final byte OTHER = 0;
+	private static final byte STANDARD_ENTRY = 1;
+	private static final byte COLLECTION_ENTRY = 2;
+
+	private CompactCacheEntrySerializer() {
+	}
+
+	/**
+	 * Write a cache entry.
+	 *
+	 * @param entry The entry, as handed to the cache region
+	 * @param out The output to write to
+	 *
+	 * @throws IOException Indicates a problem writing to the output
+	 */
+	public static void write(Object entry, DataOutput out) throws IOException {
+		final CompactValueOutput output = new CompactValueOutput( out );
+		if ( entry != null && entry.getClass() == StandardCacheEntryImpl.class ) {
+			final StandardCacheEntryImpl standardEntry = (StandardCacheEntryImpl) entry;
+			final Serializable[] state = standardEntry.getDisassembledState();
+			out.writeByte( STANDARD_ENTRY );
+			output.writeString( standardEntry.getSubclass() );
+			out.writeBoolean( standardEntry.areLazyPropertiesUnfetched() );
+			output.writeValue( standardEntry.getVersion() );
+			output.writeVarLong( state.length );
+			for ( Serializable value : state ) {
+				output.writeValue( value );
+			}
+		}
+		else if ( entry != null && entry.getClass() == CollectionCacheEntry.class ) {
+			out.writeByte( COLLECTION_ENTRY );
+			output.writeValue( ( (CollectionCacheEntry) entry ).getState() );
+		}
+		else {
+			out.writeByte( OTHER );
+			output.writeValue( entry );
+		}
+	}
+
+	/**
+	 * Read a cache entry written by {@link #write}.
+	 *
+	 * @param in The input to read from
+	 *
+	 * @return The entry
+	 *
+	 * @throws IOException Indicates a problem reading from the input
+	 */
+	public static Object read(DataInput in) throws IOException {
+		final CompactValueInput input = new CompactValueInput( in );
+		final byte kind = in.readByte();
+		switch ( kind ) {
+			case STANDARD_ENTRY: {
+				final String subclass = input.readString();
+				final boolean lazyPropertiesUnfetched = in.readBoolean();
+				final Object version = input.readValue();
+				final Serializable[] state = new Serializable[ (int) input.readVarLong() ];
+				for ( int i = 0; i < state.length; i++ ) {
+					state[i] = (Serializable) input.readValue();
+				}
+				return new StandardCacheEntryImpl( state, subclass, lazyPropertiesUnfetched, version );
+			}
+			case COLLECTION_ENTRY: {
+				return new CollectionCacheEntry( (Serializable) input.readValue() );
+			}
+			case OTHER: {
+				return input.readValue();
+			}
+			default: {
+				throw new IOException( "Unknown cache entry kind : " + kind );
+			}
+		}
+	}
+}
@@ -43,6 +43,21 @@ public interface AvailableSettings {
 	 */
 	String SESSION_FACTORY_NAME_IS_JNDI = "hibernate.session_factory_name_is_jndi";
 
+	/**
+	 * The number of threads used to build the {@link org.hibernate.SessionFactory}: entity and collection
+	 * persisters, their loaders and the named query plans checked at startup.  A value greater than 1 builds
+	 * independent pieces of each phase concurrently; the phases themselves still run in dependency order.
+	 * Default is 1, which builds everything on the calling thread.
+	 */
+	String SESSION_FACTORY_BUILD_THREADS = "hibernate.session_factory.build_threads";
+
+	/**
+	 * Should entity persisters defer generating their per-lock-mode loaders, unique key loaders, locking
+	 * strategies and snapshot/version select SQL until first used, rather than building all of them when the
+	 * {@link org.hibernate.SessionFactory} is built?  Default is {@code false}.
+	 */
+	String LAZY_PERSISTER_INITIALIZATION = "hibernate.persister.lazy_initialization";
+
 	/**
 	 * Names the {@link org.hibernate.engine.jdbc.connections.spi.ConnectionProvider} to use for obtaining
 	 * JDBC connections.  Can either reference an instance of
@@ -188,6 +203,12 @@ public interface AvailableSettings {
 	 * Maximum JDBC batch size. A nonzero value enables batch updates.
 	 */
 	String STATEMENT_BATCH_SIZE = "hibernate.jdbc.batch_size";
+	/**
+	 * Maximum number of idle prepared statements kept open per connection for re-use by later executions of
+	 * the same SQL, least recently used first out.  <tt>0</tt> (the default) disables the cache; leave it
+	 * disabled when the connection pool or driver already caches statements.
+	 */
+	String STATEMENT_CACHE_SIZE = "hibernate.jdbc.statement_cache_size";
 	/**
 	 * Select a custom batcher.
 	 */
@@ -309,6 +330,20 @@ public interface AvailableSettings {
 	 * The <tt>QueryCacheFactory</tt> implementation class.
 	 */
 	String QUERY_CACHE_FACTORY = "hibernate.cache.query_cache_factory";
+	/**
+	 * Keep a local snapshot of the update timestamps used to validate cached query results (disabled by
+	 * default).  Up-to-date checks then read the snapshot instead of the timestamps region, which is still
+	 * written to on invalidation.  Snapshot entries are re-read from the region once they are older than
+	 * {@link #LOCAL_UPDATE_TIMESTAMPS_TTL}, so invalidations made by other nodes of a clustered region are
+	 * seen after at most that delay.  Local invalidations also record the ids and natural ids written, so that
+	 * queries declaring a {@link org.hibernate.QueryCacheScope} are only invalidated by writes within it.
+	 */
+	String USE_LOCAL_UPDATE_TIMESTAMPS = "hibernate.cache.use_local_update_timestamps";
+	/**
+	 * The number of milliseconds a local update timestamp is trusted before it is re-read from the timestamps
+	 * region (1000 by default).  A value of 0 re-reads the region on every up-to-date check.
+	 */
+	String LOCAL_UPDATE_TIMESTAMPS_TTL = "hibernate.cache.local_update_timestamps_ttl";
 	/**
 	 * Enable the second-level cache (enabled by default)
 	 */
@@ -325,6 +360,12 @@ public interface AvailableSettings {
 	 * Enable use of structured second-level cache entries
 	 */
 	String USE_STRUCTURED_CACHE = "hibernate.cache.use_structured_entries";
+	/**
+	 * Store entity data in the second-level cache in a compact binary form rather than as an array of
+	 * disassembled values (disabled by default).  Reduces the size of entries kept by serializing or off-heap
+	 * cache providers.  Ignored when structured entries are enabled.
+	 */
+	String USE_BINARY_CACHE_ENTRIES = "hibernate.cache.use_binary_entries";
 	/**
 	 * Enables the automatic eviction of a bi-directional association's collection cache when an element in the
 	 * ManyToOne collection is added/updated/removed without properly managing the change on the OneToMany side.
@@ -360,6 +401,13 @@ public interface AvailableSettings {
 	 */
 	String QUERY_STARTUP_CHECKING = "hibernate.query.startup_check";
 
+	/**
+	 * Names a file in which the named HQL queries that passed the {@link #QUERY_STARTUP_CHECKING startup check}
+	 * are recorded, together with a hash of the mappings they were checked against.  On later starts with the
+	 * same mappings those queries are not translated again just to be checked.  Not set by default.
+	 */
+	String QUERY_STARTUP_CHECK_CACHE = "hibernate.query.startup_check_cache";
+
 	/**
 	 * Auto export/update schema using hbm2ddl tool. Valid values are <tt>update</tt>,
 	 * <tt>create</tt>, <tt>create-drop</tt> and <tt>validate</tt>.
@@ -395,8 +443,8 @@ public interface AvailableSettings {
 	String SQL_EXCEPTION_CONVERTER = "hibernate.jdbc.sql_exception_converter";
 
 	/**
-	 * Enable wrapping of JDBC result sets in order to speed up column name lookups for
-	 * broken JDBC drivers
+	 * Enable wrapping of JDBC result sets so that loaders read columns by index instead of by name (disabled
+	 * by default).  The column aliases of a query are resolved to indexes once and re-used for every execution.
 	 */
 	String WRAP_RESULT_SETS = "hibernate.jdbc.wrap_result_sets";
 
@@ -471,12 +519,28 @@ public interface AvailableSettings {
 	 */
 	String QUERY_PLAN_CACHE_MAX_SIZE = "hibernate.query.plan_cache_max_size";
 
+	/**
+	 * The approximate memory budget, in bytes, of the plans held by
+	 * {@link org.hibernate.engine.query.spi.QueryPlanCache}.  Each plan is weighed by an estimate of its retained
+	 * size (source query, generated SQL and parameter metadata), so a few plans for very large queries (e.g. generated
+	 * IN-lists) cannot crowd the heap the way {@link #QUERY_PLAN_CACHE_MAX_SIZE} alone would allow.  Plans are
+	 * evicted, least recently used first, once either bound is exceeded.  A plan heavier than the whole budget is kept
+	 * aside, outside of it, until the next such plan replaces it.  Unbounded by default.
+	 */
+	String QUERY_PLAN_CACHE_MAX_WEIGHT = "hibernate.query.plan_cache_max_weight";
+
 	/**
 	 * The maximum number of {@link org.hibernate.engine.query.spi.ParameterMetadata} maintained 
 	 * by {@link org.hibernate.engine.query.spi.QueryPlanCache}. Default is 128.
 	 */
 	String QUERY_PLAN_CACHE_PARAMETER_METADATA_MAX_SIZE = "hibernate.query.plan_parameter_metadata_max_size";
 
+	/**
+	 * The JDBC fetch size applied to {@link org.hibernate.Query#stream()} results when the query does not
+	 * define one itself.  Defaults to {@link #STATEMENT_FETCH_SIZE}, and to 100 if that is not set either.
+	 */
+	String QUERY_STREAM_FETCH_SIZE = "hibernate.query.stream_fetch_size";
+
 	/**
 	 * Should we not use contextual LOB creation (aka based on {@link java.sql.Connection#createBlob()} et al).
 	 */
@@ -0,0 +1,295 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cfg;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Version;
+import org.hibernate.internal.CoreMessageLogger;
+import org.hibernate.internal.util.SerializationHelper;
+import org.hibernate.type.SerializationException;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Persists a fully bound {@link Configuration} (the {@link org.hibernate.mapping.PersistentClass},
+ * {@link org.hibernate.mapping.Collection} and {@link org.hibernate.mapping.Table} model together with named
+ * queries, imports and settings) to a binary snapshot file, so that later starts can skip parsing and binding
+ * the mapping sources.  The archetypes registered in the {@link org.hibernate.archetype.ArchetypeRepository}
+ * are written along with it, in their ADL form, and registered again when the snapshot is read.  Typical usage:
+ * <pre>
+ * Configuration cfg = ConfigurationSnapshot.read( snapshotFile, mappingUrls );
+ * if ( cfg == null ) {
+ *     cfg = new Configuration();
+ *     // add the mapping sources...
+ *     ConfigurationSnapshot.write( cfg, snapshotFile, mappingUrls );
+ * }
+ * SessionFactory sf = cfg.buildSessionFactory( serviceRegistry );
+ * </pre>
+ * The snapshot header lists every mapping source (by URL, in sorted order) with its last-modified time.  A
+ * snapshot is only used if it was written by the same Hibernate version, in the same format, from exactly the
+ * same sources with the same last-modified times; otherwise {@link #read} returns {@code null} and the caller
+ * rebuilds.  Sources whose last-modified time is unknown cannot be validated, so no snapshot is written for them.
+ */
+public final class ConfigurationSnapshot {
+	private static final CoreMessageLogger LOG = Logger.getMessageLogger(
+			CoreMessageLogger.class,
+			ConfigurationSnapshot.class.getName()
+	);
+
+	private static final int MAGIC = 0x48424D53;
+	private static final short FORMAT_VERSION = 3;
+	private static final String ADL_ENCODING = "UTF-8";
+
+	private ConfigurationSnapshot() {
+	}
+
+	/**
+	 * Determine the modification time of each of the given mapping sources, keyed and sorted by URL.
+	 *
+	 * @param sources The mapping documents, archetypes, annotated class files, etc.
+	 *
+	 * @return The modification times, 0 where unknown
+	 */
+	private static SortedMap<String,Long> lastModified(URL... sources) {
+		final SortedMap<String,Long> result = new TreeMap<String,Long>();
+		for ( URL source : sources ) {
+			try {
+				final URLConnection connection = source.openConnection();
+				// avoid caching (and locking) jar files just to read a timestamp
+				connection.setUseCaches( false );
+				result.put( source.toExternalForm(), connection.getLastModified() );
+				// with caching disabled, closing the stream also releases an opened jar file
+				connection.getInputStream().close();
+			}
+			catch (IOException e) {
+				throw new HibernateException( "Unable to determine last modification time of " + source, e );
+			}
+		}
+		return result;
+	}
+
+	private static String unknownSource(Map<String,Long> sourcesLastModified) {
+		for ( Map.Entry<String,Long> entry : sourcesLastModified.entrySet() ) {
+			if ( entry.getValue() == 0 ) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Bind the mappings of the given configuration (if not done yet) and write them to a snapshot file.  The
+	 * file is written under a temporary name and then renamed, so concurrent readers never see a partial
+	 * snapshot.  Nothing is written if the last-modified time of one of the sources is unknown.
+	 *
+	 * @param cfg The configuration
+	 * @param snapshot The snapshot file
+	 * @param sources The mapping sources of the configuration
+	 */
+	public static void write(Configuration cfg, File snapshot, URL... sources) {
+		cfg.buildMappings();
+
+		final SortedMap<String,Long> sourcesLastModified = lastModified( sources );
+		final String unknownSource = unknownSource( sourcesLastModified );
+		if ( unknownSource != null ) {
+			LOG.warnf(
+					"Not writing configuration snapshot [%s], last modification time of [%s] is unknown",
+					snapshot,
+					unknownSource
+			);
+			return;
+		}
+
+		final File parent = snapshot.getAbsoluteFile().getParentFile();
+		if ( parent != null && !parent.exists() && !parent.mkdirs() ) {
+			throw new HibernateException( "Unable to create directory for configuration snapshot: " + parent );
+		}
+		final File temp = new File( parent, snapshot.getName() + ".tmp" );
+		try {
+			final DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream( new FileOutputStream( temp ) )
+			);
+			out.writeInt( MAGIC );
+			out.writeShort( FORMAT_VERSION );
+			out.writeUTF( Version.getVersionString() );
+			out.writeInt( sourcesLastModified.size() );
+			for ( Map.Entry<String,Long> entry : sourcesLastModified.entrySet() ) {
+				out.writeUTF( entry.getKey() );
+				out.writeLong( entry.getValue() );
+			}
+			writeArchetypes( cfg, out );
+			// closes the stream
+			SerializationHelper.serialize( cfg, out );
+		}
+		catch (IOException e) {
+			temp.delete();
+			throw new HibernateException( "Unable to write configuration snapshot: " + snapshot, e );
+		}
+		catch (SerializationException e) {
+			temp.delete();
+			throw new HibernateException( "Unable to write configuration snapshot: " + snapshot, e );
+		}
+
+		if ( snapshot.exists() && !snapshot.delete() ) {
+			temp.delete();
+			throw new HibernateException( "Unable to replace configuration snapshot: " + snapshot );
+		}
+		if ( !temp.renameTo( snapshot ) ) {
+			temp.delete();
+			throw new HibernateException( "Unable to write configuration snapshot: " + snapshot );
+		}
+		LOG.debugf( "Wrote configuration snapshot [%s]", snapshot );
+	}
+
+	/**
+	 * Read a configuration from a snapshot file.
+	 *
+	 * @param snapshot The snapshot file
+	 * @param sources The current mapping sources of the configuration
+	 *
+	 * @return The configuration, or {@code null} if there is no usable snapshot: it does not exist, is stale
+	 * (sources were added, removed or modified), was written by another Hibernate version or cannot be read
+	 */
+	public static Configuration read(File snapshot, URL... sources) {
+		if ( !snapshot.isFile() ) {
+			LOG.debugf( "No configuration snapshot found at [%s]", snapshot );
+			return null;
+		}
+		final SortedMap<String,Long> sourcesLastModified = lastModified( sources );
+		final String unknownSource = unknownSource( sourcesLastModified );
+		if ( unknownSource != null ) {
+			LOG.debugf(
+					"Ignoring configuration snapshot [%s], last modification time of [%s] is unknown",
+					snapshot,
+					unknownSource
+			);
+			return null;
+		}
+		try {
+			final DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( snapshot ) ) );
+			try {
+				if ( in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION ) {
+					LOG.warnf( "Ignoring configuration snapshot [%s] in unknown format", snapshot );
+					return null;
+				}
+				final String version = in.readUTF();
+				if ( !Version.getVersionString().equals( version ) ) {
+					LOG.debugf( "Ignoring configuration snapshot [%s] written by Hibernate %s", snapshot, version );
+					return null;
+				}
+				if ( !sourcesLastModified.equals( readSources( in ) ) ) {
+					LOG.debugf( "Ignoring stale configuration snapshot [%s]", snapshot );
+					return null;
+				}
+				final Map<String,byte[]> archetypes = readArchetypes( in );
+				// closes the stream
+				final Configuration cfg = (Configuration) SerializationHelper.deserialize( in );
+				if ( !registerArchetypes( cfg, archetypes ) ) {
+					LOG.warnf( "Ignoring configuration snapshot [%s] with archetypes which cannot be parsed", snapshot );
+					return null;
+				}
+				LOG.debugf( "Read configuration snapshot [%s]", snapshot );
+				return cfg;
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch (IOException e) {
+			LOG.warnf( e, "Unable to read configuration snapshot [%s]", snapshot );
+			return null;
+		}
+		catch (SerializationException e) {
+			LOG.warnf( e, "Unable to read configuration snapshot [%s]", snapshot );
+			return null;
+		}
+	}
+
+	private static Map<String,Long> readSources(DataInputStream in) throws IOException {
+		final int count = in.readInt();
+		final Map<String,Long> sources = new TreeMap<String,Long>();
+		for ( int i = 0; i < count; i++ ) {
+			final String source = in.readUTF();
+			sources.put( source, in.readLong() );
+		}
+		return sources;
+	}
+
+	private static void writeArchetypes(Configuration cfg, DataOutputStream out) throws IOException {
+		final Set<String> archetypeIds = cfg.getArchetypeIds();
+		out.writeInt( archetypeIds.size() );
+		for ( String archetypeId : archetypeIds ) {
+			final String adl = cfg.getArchetypeString( archetypeId );
+			if ( adl == null ) {
+				throw new HibernateException( "Unable to write archetype to configuration snapshot: " + archetypeId );
+			}
+			out.writeUTF( archetypeId );
+			final byte[] bytes = adl.getBytes( ADL_ENCODING );
+			out.writeInt( bytes.length );
+			out.write( bytes );
+		}
+	}
+
+	private static Map<String,byte[]> readArchetypes(DataInputStream in) throws IOException {
+		final int count = in.readInt();
+		final Map<String,byte[]> archetypes = new LinkedHashMap<String,byte[]>();
+		for ( int i = 0; i < count; i++ ) {
+			final String archetypeId = in.readUTF();
+			final byte[] bytes = new byte[in.readInt()];
+			in.readFully( bytes );
+			archetypes.put( archetypeId, bytes );
+		}
+		return archetypes;
+	}
+
+	private static boolean registerArchetypes(Configuration cfg, Map<String,byte[]> archetypes) {
+		for ( Map.Entry<String,byte[]> entry : archetypes.entrySet() ) {
+			// archetypes are held statically, so they may be registered already
+			if ( cfg.getArchetypeString( entry.getKey() ) == null ) {
+				cfg.addArchetype( new ByteArrayInputStream( entry.getValue() ) );
+				if ( cfg.getArchetypeString( entry.getKey() ) == null ) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
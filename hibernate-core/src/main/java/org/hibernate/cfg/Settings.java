@@ -53,14 +53,21 @@ public final class Settings {
 	private String defaultSchemaName;
 	private String defaultCatalogName;
 	private Integer jdbcFetchSize;
+	private int queryStreamFetchSize;
+	private int jdbcStatementCacheSize;
 	private String sessionFactoryName;
 	private boolean sessionFactoryNameAlsoJndiName;
+	private int sessionFactoryBuildThreads;
+	private boolean lazyPersisterInitializationEnabled;
 	private boolean autoCreateSchema;
 	private boolean autoDropSchema;
 	private boolean autoUpdateSchema;
 	private boolean autoValidateSchema;
 	private boolean queryCacheEnabled;
+	private boolean localUpdateTimestampsEnabled;
+	private int localUpdateTimestampsTtl;
 	private boolean structuredCacheEntriesEnabled;
+	private boolean binaryCacheEntriesEnabled;
 	private boolean secondLevelCacheEnabled;
 	private boolean autoEvictCollectionCache;
 	private String cacheRegionPrefix;
@@ -83,6 +90,7 @@ public final class Settings {
 	private boolean dataDefinitionInTransactionSupported;
 	private boolean strictJPAQLCompliance;
 	private boolean namedQueryStartupCheckingEnabled;
+	private String namedQueryCheckCacheFile;
 	private EntityTuplizerFactory entityTuplizerFactory;
 	private boolean checkNullability;
 	private NullPrecedence defaultNullPrecedence;
@@ -158,6 +166,14 @@ public final class Settings {
 		return jdbcFetchSize;
 	}
 
+	public int getQueryStreamFetchSize() {
+		return queryStreamFetchSize;
+	}
+
+	public int getJdbcStatementCacheSize() {
+		return jdbcStatementCacheSize;
+	}
+
 	public String getSessionFactoryName() {
 		return sessionFactoryName;
 	}
@@ -166,6 +182,14 @@ public final class Settings {
 		return sessionFactoryNameAlsoJndiName;
 	}
 
+	public int getSessionFactoryBuildThreads() {
+		return sessionFactoryBuildThreads;
+	}
+
+	public boolean isLazyPersisterInitializationEnabled() {
+		return lazyPersisterInitializationEnabled;
+	}
+
 	public boolean isAutoCreateSchema() {
 		return autoCreateSchema;
 	}
@@ -190,6 +214,14 @@ public final class Settings {
 		return queryCacheEnabled;
 	}
 
+	public boolean isLocalUpdateTimestampsEnabled() {
+		return localUpdateTimestampsEnabled;
+	}
+
+	public int getLocalUpdateTimestampsTtl() {
+		return localUpdateTimestampsTtl;
+	}
+
 	public boolean isCommentsEnabled() {
 		return commentsEnabled;
 	}
@@ -246,6 +278,10 @@ public final class Settings {
 		return structuredCacheEntriesEnabled;
 	}
 
+	public boolean isBinaryCacheEntriesEnabled() {
+		return binaryCacheEntriesEnabled;
+	}
+
 	public boolean isDirectReferenceCacheEntriesEnabled() {
 		return directReferenceCacheEntriesEnabled;
 	}
@@ -274,6 +310,10 @@ public final class Settings {
 		return namedQueryStartupCheckingEnabled;
 	}
 
+	public String getNamedQueryCheckCacheFile() {
+		return namedQueryCheckCacheFile;
+	}
+
 	public EntityTuplizerFactory getEntityTuplizerFactory() {
 		return entityTuplizerFactory;
 	}
@@ -328,6 +368,14 @@ public final class Settings {
 		jdbcFetchSize = integer;
 	}
 
+	void setQueryStreamFetchSize(int queryStreamFetchSize) {
+		this.queryStreamFetchSize = queryStreamFetchSize;
+	}
+
+	void setJdbcStatementCacheSize(int jdbcStatementCacheSize) {
+		this.jdbcStatementCacheSize = jdbcStatementCacheSize;
+	}
+
 	void setSessionFactoryName(String string) {
 		sessionFactoryName = string;
 	}
@@ -336,6 +384,14 @@ public final class Settings {
 		this.sessionFactoryNameAlsoJndiName = sessionFactoryNameAlsoJndiName;
 	}
 
+	void setSessionFactoryBuildThreads(int sessionFactoryBuildThreads) {
+		this.sessionFactoryBuildThreads = sessionFactoryBuildThreads;
+	}
+
+	void setLazyPersisterInitializationEnabled(boolean lazyPersisterInitializationEnabled) {
+		this.lazyPersisterInitializationEnabled = lazyPersisterInitializationEnabled;
+	}
+
 	void setAutoCreateSchema(boolean b) {
 		autoCreateSchema = b;
 	}
@@ -360,6 +416,14 @@ public final class Settings {
 		queryCacheEnabled = b;
 	}
 
+	void setLocalUpdateTimestampsEnabled(boolean localUpdateTimestampsEnabled) {
+		this.localUpdateTimestampsEnabled = localUpdateTimestampsEnabled;
+	}
+
+	void setLocalUpdateTimestampsTtl(int localUpdateTimestampsTtl) {
+		this.localUpdateTimestampsTtl = localUpdateTimestampsTtl;
+	}
+
 	void setCommentsEnabled(boolean commentsEnabled) {
 		this.commentsEnabled = commentsEnabled;
 	}
@@ -416,6 +480,10 @@ public final class Settings {
 		this.structuredCacheEntriesEnabled = structuredCacheEntriesEnabled;
 	}
 
+	void setBinaryCacheEntriesEnabled(boolean binaryCacheEntriesEnabled) {
+		this.binaryCacheEntriesEnabled = binaryCacheEntriesEnabled;
+	}
+
 	void setDefaultEntityMode(EntityMode defaultEntityMode) {
 		this.defaultEntityMode = defaultEntityMode;
 	}
@@ -440,6 +508,10 @@ public final class Settings {
 		this.namedQueryStartupCheckingEnabled = namedQueryStartupCheckingEnabled;
 	}
 
+	void setNamedQueryCheckCacheFile(String namedQueryCheckCacheFile) {
+		this.namedQueryCheckCacheFile = namedQueryCheckCacheFile;
+	}
+
 	void setEntityTuplizerFactory(EntityTuplizerFactory entityTuplizerFactory) {
 		this.entityTuplizerFactory = entityTuplizerFactory;
 	}
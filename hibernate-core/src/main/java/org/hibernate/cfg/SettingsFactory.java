@@ -90,6 +90,18 @@ public class SettingsFactory implements Serializable {
 				ConfigurationHelper.getBoolean( AvailableSettings.SESSION_FACTORY_NAME_IS_JNDI, props, true )
 		);
 
+		int buildThreads = ConfigurationHelper.getInt( AvailableSettings.SESSION_FACTORY_BUILD_THREADS, props, 1 );
+		if ( debugEnabled ) {
+			LOG.debugf( "SessionFactory build threads: %s", buildThreads );
+		}
+		settings.setSessionFactoryBuildThreads( buildThreads );
+
+		boolean lazyPersisterInitialization = ConfigurationHelper.getBoolean( AvailableSettings.LAZY_PERSISTER_INITIALIZATION, props, false );
+		if ( debugEnabled ) {
+			LOG.debugf( "Lazy persister initialization: %s", enabledDisabled( lazyPersisterInitialization ) );
+		}
+		settings.setLazyPersisterInitializationEnabled( lazyPersisterInitialization );
+
 		//JDBC and connection settings:
 
 		//Interrogate JDBC metadata
@@ -174,6 +186,22 @@ public class SettingsFactory implements Serializable {
 		}
 		settings.setJdbcFetchSize(statementFetchSize);
 
+		int queryStreamFetchSize = ConfigurationHelper.getInt(
+				AvailableSettings.QUERY_STREAM_FETCH_SIZE,
+				properties,
+				statementFetchSize != null && statementFetchSize > 0 ? statementFetchSize : 100
+		);
+		if ( debugEnabled ) {
+			LOG.debugf( "Query stream fetch size: %s", queryStreamFetchSize );
+		}
+		settings.setQueryStreamFetchSize( queryStreamFetchSize );
+
+		int statementCacheSize = ConfigurationHelper.getInt( AvailableSettings.STATEMENT_CACHE_SIZE, properties, 0 );
+		if ( debugEnabled ) {
+			LOG.debugf( "JDBC statement cache size: %s", statementCacheSize );
+		}
+		settings.setJdbcStatementCacheSize( statementCacheSize );
+
 		MultiTenancyStrategy multiTenancyStrategy = MultiTenancyStrategy.determineMultiTenancyStrategy( properties );
 		if ( debugEnabled ) {
 			LOG.debugf( "multi-tenancy strategy : %s", multiTenancyStrategy );
@@ -290,6 +318,23 @@ public class SettingsFactory implements Serializable {
 		settings.setQueryCacheEnabled( useQueryCache );
 		if (useQueryCache) {
 			settings.setQueryCacheFactory( createQueryCacheFactory( properties, serviceRegistry ) );
+
+			boolean useLocalUpdateTimestamps = ConfigurationHelper.getBoolean(
+					AvailableSettings.USE_LOCAL_UPDATE_TIMESTAMPS, properties
+			);
+			if ( debugEnabled ) {
+				LOG.debugf( "Local update timestamps: %s", enabledDisabled(useLocalUpdateTimestamps) );
+			}
+			settings.setLocalUpdateTimestampsEnabled( useLocalUpdateTimestamps );
+			if ( useLocalUpdateTimestamps ) {
+				int localUpdateTimestampsTtl = ConfigurationHelper.getInt(
+						AvailableSettings.LOCAL_UPDATE_TIMESTAMPS_TTL, properties, 1000
+				);
+				if ( debugEnabled ) {
+					LOG.debugf( "Local update timestamps TTL: %s ms", localUpdateTimestampsTtl );
+				}
+				settings.setLocalUpdateTimestampsTtl( localUpdateTimestampsTtl );
+			}
 		}
 
 		settings.setRegionFactory( serviceRegistry.getService( RegionFactory.class ) );
@@ -317,6 +362,12 @@ public class SettingsFactory implements Serializable {
 		}
 		settings.setStructuredCacheEntriesEnabled( useStructuredCacheEntries );
 
+		boolean useBinaryCacheEntries = ConfigurationHelper.getBoolean( AvailableSettings.USE_BINARY_CACHE_ENTRIES, properties, false );
+		if ( debugEnabled ) {
+			LOG.debugf( "Binary second-level cache entries: %s", enabledDisabled(useBinaryCacheEntries) );
+		}
+		settings.setBinaryCacheEntriesEnabled( useBinaryCacheEntries );
+
 		boolean useDirectReferenceCacheEntries = ConfigurationHelper.getBoolean(
 				AvailableSettings.USE_DIRECT_REFERENCE_CACHE_ENTRIES,
 				properties,
@@ -380,6 +431,12 @@ public class SettingsFactory implements Serializable {
 		}
 		settings.setNamedQueryStartupCheckingEnabled( namedQueryChecking );
 
+		String namedQueryCheckCache = ConfigurationHelper.getString( AvailableSettings.QUERY_STARTUP_CHECK_CACHE, properties );
+		if ( debugEnabled && namedQueryCheckCache != null ) {
+			LOG.debugf( "Named query check cache : %s", namedQueryCheckCache );
+		}
+		settings.setNamedQueryCheckCacheFile( namedQueryCheckCache );
+
 		boolean checkNullability = ConfigurationHelper.getBoolean(AvailableSettings.CHECK_NULLABILITY, properties, true);
 		if ( debugEnabled ) {
 			LOG.debugf( "Check Nullability in Core (should be disabled when Bean Validation is on): %s", enabledDisabled(checkNullability) );
@@ -219,6 +219,9 @@ public class PersistentArrayHolder extends AbstractPersistentCollection {
 		final Serializable[] cached = (Serializable[]) disassembled;
 		array = Array.newInstance( persister.getElementClass(), cached.length );
 
+		for ( Serializable element : cached ) {
+			persister.getElementType().beforeAssemble( element, getSession() );
+		}
 		for ( int i=0; i<cached.length; i++ ) {
 			Array.set( array, i, persister.getElementType().assemble( cached[i], getSession(), owner ) );
 		}
@@ -189,6 +189,9 @@ public class PersistentBag extends AbstractPersistentCollection implements List
 		final Serializable[] array = (Serializable[]) disassembled;
 		final int size = array.length;
 		beforeInitialize( persister, size );
+		for ( Serializable item : array ) {
+			persister.getElementType().beforeAssemble( item, getSession() );
+		}
 		for ( Serializable item : array ) {
 			final Object element = persister.getElementType().assemble( item, getSession(), owner );
 			if ( element != null ) {
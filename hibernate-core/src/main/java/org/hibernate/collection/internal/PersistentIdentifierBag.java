@@ -101,6 +101,9 @@ public class PersistentIdentifierBag extends AbstractPersistentCollection implem
 		final Serializable[] array = (Serializable[]) disassembled;
 		final int size = array.length;
 		beforeInitialize( persister, size );
+		for ( int i = 0; i < size; i+=2 ) {
+			persister.getElementType().beforeAssemble( array[i+1], getSession() );
+		}
 		for ( int i = 0; i < size; i+=2 ) {
 			identifiers.put(
 				(i/2),
@@ -415,6 +415,9 @@ public class PersistentList extends AbstractPersistentCollection implements List
 		final Serializable[] array = (Serializable[]) disassembled;
 		final int size = array.length;
 		beforeInitialize( persister, size );
+		for ( Serializable arrayElement : array ) {
+			persister.getElementType().beforeAssemble( arrayElement, getSession() );
+		}
 		for ( Serializable arrayElement : array ) {
 			list.add( persister.getElementType().assemble( arrayElement, getSession(), owner ) );
 		}
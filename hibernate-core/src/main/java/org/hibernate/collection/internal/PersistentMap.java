@@ -475,6 +475,10 @@ public class PersistentMap extends AbstractPersistentCollection implements Map {
 		final Serializable[] array = (Serializable[]) disassembled;
 		final int size = array.length;
 		beforeInitialize( persister, size );
+		for ( int i = 0; i < size; i+=2 ) {
+			persister.getIndexType().beforeAssemble( array[i], getSession() );
+			persister.getElementType().beforeAssemble( array[i+1], getSession() );
+		}
 		for ( int i = 0; i < size; i+=2 ) {
 			map.put(
 					persister.getIndexType().assemble( array[i], getSession(), owner ),
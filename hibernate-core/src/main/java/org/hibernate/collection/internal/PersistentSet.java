@@ -141,6 +141,9 @@ public class PersistentSet extends AbstractPersistentCollection implements java.
 		final Serializable[] array = (Serializable[]) disassembled;
 		final int size = array.length;
 		beforeInitialize( persister, size );
+		for ( Serializable arrayElement : array ) {
+			persister.getElementType().beforeAssemble( arrayElement, getSession() );
+		}
 		for ( Serializable arrayElement : array ) {
 			final Object assembledArrayElement = persister.getElementType().assemble( arrayElement, getSession(), owner );
 			if ( assembledArrayElement != null ) {
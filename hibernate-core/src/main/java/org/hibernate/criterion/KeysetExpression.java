@@ -0,0 +1,124 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.criterion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.Criteria;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.TypedValue;
+import org.hibernate.internal.util.StringHelper;
+
+/**
+ * A keyset ("seek") pagination restriction: constrains the ordered key tuple formed by a list of
+ * properties to sort strictly after (or before, when descending) a given tuple of values.
+ * <p/>
+ * Where the dialect supports row value comparisons this is rendered as {@code (a, b) > (?, ?)};
+ * otherwise the equivalent expansion {@code a >= ? and (a > ? or (a = ? and b > ?))} is used, the
+ * leading term keeping an index on the first column usable.
+ *
+ * @see Restrictions#keysetAfter
+ * @see Restrictions#keysetBefore
+ */
+public class KeysetExpression implements Criterion {
+	private final String[] propertyNames;
+	private final Object[] values;
+	private final boolean descending;
+
+	protected KeysetExpression(String[] propertyNames, Object[] values, boolean descending) {
+		if ( propertyNames.length == 0 ) {
+			throw new IllegalArgumentException( "Keyset restriction requires at least one property" );
+		}
+		if ( propertyNames.length != values.length ) {
+			throw new IllegalArgumentException( "Keyset restriction requires one value per property" );
+		}
+		this.propertyNames = propertyNames;
+		this.values = values;
+		this.descending = descending;
+	}
+
+	@Override
+	public String toSqlString(Criteria criteria, CriteriaQuery criteriaQuery) throws HibernateException {
+		final String[] columns = new String[propertyNames.length];
+		for ( int i = 0; i < propertyNames.length; i++ ) {
+			final String[] propertyColumns = criteriaQuery.findColumns( propertyNames[i], criteria );
+			if ( propertyColumns.length != 1 ) {
+				throw new HibernateException( "Keyset restriction may only be used with single-column properties" );
+			}
+			columns[i] = propertyColumns[0];
+		}
+
+		final String op = descending ? " < ?" : " > ?";
+		if ( columns.length == 1 ) {
+			return columns[0] + op;
+		}
+		if ( useRowValueComparison( criteriaQuery ) ) {
+			return '(' + StringHelper.join( ", ", columns ) + ") " + op.charAt( 1 ) + " ("
+					+ StringHelper.repeat( "?", columns.length, ", " ) + ')';
+		}
+
+		final String leadingOp = descending ? " <= ?" : " >= ?";
+		final StringBuilder buf = new StringBuilder( columns[0] ).append( leadingOp ).append( " and " );
+		for ( int i = 0; i < columns.length - 1; i++ ) {
+			buf.append( '(' ).append( columns[i] ).append( op ).append( " or (" ).append( columns[i] ).append( " = ? and " );
+		}
+		buf.append( columns[columns.length - 1] ).append( op );
+		for ( int i = 0; i < columns.length - 1; i++ ) {
+			buf.append( "))" );
+		}
+		return buf.toString();
+	}
+
+	@Override
+	public TypedValue[] getTypedValues(Criteria criteria, CriteriaQuery criteriaQuery) throws HibernateException {
+		final List<TypedValue> list = new ArrayList<TypedValue>();
+		if ( propertyNames.length == 1 || useRowValueComparison( criteriaQuery ) ) {
+			for ( int i = 0; i < propertyNames.length; i++ ) {
+				list.add( criteriaQuery.getTypedValue( criteria, propertyNames[i], values[i] ) );
+			}
+		}
+		else {
+			list.add( criteriaQuery.getTypedValue( criteria, propertyNames[0], values[0] ) );
+			for ( int i = 0; i < propertyNames.length - 1; i++ ) {
+				final TypedValue typedValue = criteriaQuery.getTypedValue( criteria, propertyNames[i], values[i] );
+				list.add( typedValue );
+				list.add( typedValue );
+			}
+			final int last = propertyNames.length - 1;
+			list.add( criteriaQuery.getTypedValue( criteria, propertyNames[last], values[last] ) );
+		}
+		return list.toArray( new TypedValue[list.size()] );
+	}
+
+	private static boolean useRowValueComparison(CriteriaQuery criteriaQuery) {
+		return criteriaQuery.getFactory().getDialect().supportsRowValueConstructorSyntaxInComparison();
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.asList( propertyNames ) + ( descending ? " < " : " > " ) + Arrays.asList( values );
+	}
+}
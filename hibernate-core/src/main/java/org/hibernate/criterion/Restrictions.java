@@ -253,6 +253,41 @@ public class Restrictions {
 		return new BetweenExpression( propertyName, lo, hi );
 	}
 
+	/**
+	 * Apply a keyset ("seek") constraint selecting the rows which sort after the given key
+	 * tuple when ordered ascending by the named properties.  Combined with
+	 * {@link org.hibernate.Criteria#setMaxResults} this pages through a result without the
+	 * cost of skipping an offset; the query must be ordered (ascending) by the same properties,
+	 * the last of which should be unique.
+	 *
+	 * @param propertyNames The names of the ordering properties
+	 * @param values The values of those properties on the last row of the previous page
+	 *
+	 * @return The Criterion
+	 *
+	 * @see KeysetExpression
+	 */
+	public static Criterion keysetAfter(String[] propertyNames, Object[] values) {
+		return new KeysetExpression( propertyNames, values, false );
+	}
+
+	/**
+	 * Apply a keyset ("seek") constraint selecting the rows which sort before the given key
+	 * tuple when ordered ascending by the named properties; the query itself should then be
+	 * ordered descending by the same properties.
+	 *
+	 * @param propertyNames The names of the ordering properties
+	 * @param values The values of those properties on the last row of the previous page
+	 *
+	 * @return The Criterion
+	 *
+	 * @see #keysetAfter
+	 * @see KeysetExpression
+	 */
+	public static Criterion keysetBefore(String[] propertyNames, Object[] values) {
+		return new KeysetExpression( propertyNames, values, true );
+	}
+
 	/**
 	 * Apply an "in" constraint to the named property.
 	 *
@@ -2313,6 +2313,19 @@ public abstract class Dialect implements ConversionContext {
 		return false;
 	}
 
+	/**
+	 * If the dialect supports {@link #supportsRowValueConstructorSyntax() row values},
+	 * does it offer such support for the ordering comparison operators as well?
+	 * <p/>
+	 * For example, "... where (LAST_NAME, ID) &gt; (?, ?) ..."
+	 *
+	 * @return True if this SQL dialect is known to support "row value
+	 * constructor" syntax with &lt;, &lt;=, &gt; and &gt;=; false otherwise.
+	 */
+	public boolean supportsRowValueConstructorSyntaxInComparison() {
+		return false;
+	}
+
 	/**
 	 * Should LOBs (both BLOB and CLOB) be bound using stream operations (i.e.
 	 * {@link java.sql.PreparedStatement#setBinaryStream}).
@@ -506,6 +506,11 @@ public class PostgreSQL81Dialect extends Dialect {
 	public boolean supportsRowValueConstructorSyntax() {
 		return true;
 	}
+
+	@Override
+	public boolean supportsRowValueConstructorSyntaxInComparison() {
+		return true;
+	}
 	
 	@Override
 	public String getForUpdateNowaitString() {
@@ -24,11 +24,17 @@
 package org.hibernate.engine.internal;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.hibernate.cache.spi.CacheKey;
 import org.hibernate.cache.spi.NaturalIdCacheKey;
+import org.hibernate.cache.spi.access.BulkRegionAccessStrategy;
 import org.hibernate.cache.spi.access.NaturalIdRegionAccessStrategy;
 import org.hibernate.cache.spi.access.RegionAccessStrategy;
+import org.hibernate.engine.spi.BatchFetchQueue;
 import org.hibernate.engine.spi.SessionImplementor;
 
 /**
@@ -64,6 +70,102 @@ public final class CacheHelper {
 			SessionImplementor session,
 			CacheKey cacheKey,
 			RegionAccessStrategy cacheAccessStrategy) {
+		final Object readAhead = session.getPersistenceContext()
+				.getBatchFetchQueue()
+				.getCacheReadAheadEntry( cacheKey, cacheAccessStrategy );
+		if ( readAhead != BatchFetchQueue.NOT_READ_AHEAD ) {
+			return (Serializable) readAhead;
+		}
 		return fromSharedCache( session, (Object) cacheKey, cacheAccessStrategy );
 	}
+
+	/**
+	 * Look up several keys of the same region in one call to the access strategy, if it is a
+	 * {@link BulkRegionAccessStrategy}, or one key at a time otherwise.
+	 *
+	 * @param session The session doing the lookup
+	 * @param cacheKeys The keys to look up
+	 * @param cacheAccessStrategy The access strategy of the region holding the keys
+	 *
+	 * @return The cached values keyed by cache key; keys not found in the cache are absent
+	 */
+	public static Map<Object, Object> fromSharedCache(
+			SessionImplementor session,
+			Collection<CacheKey> cacheKeys,
+			RegionAccessStrategy cacheAccessStrategy) {
+		Map<Object, Object> cachedValues = Collections.emptyMap();
+		try {
+			session.getEventListenerManager().cacheGetStart();
+			cachedValues = getAll( cacheAccessStrategy, cacheKeys, session.getTimestamp() );
+		}
+		finally {
+			session.getEventListenerManager().cacheGetEnd( !cachedValues.isEmpty() );
+		}
+		return cachedValues;
+	}
+
+	/**
+	 * Retrieve several items through the access strategy, in one call if it is a {@link BulkRegionAccessStrategy},
+	 * one key at a time otherwise.
+	 *
+	 * @param cacheAccessStrategy The access strategy of the region holding the keys
+	 * @param keys The keys of the items to be retrieved
+	 * @param txTimestamp a timestamp prior to the transaction start time
+	 *
+	 * @return The cached objects keyed by their key; keys without a cached object are absent
+	 */
+	public static Map<Object, Object> getAll(
+			RegionAccessStrategy cacheAccessStrategy,
+			Collection<?> keys,
+			long txTimestamp) {
+		if ( cacheAccessStrategy instanceof BulkRegionAccessStrategy ) {
+			return ( (BulkRegionAccessStrategy) cacheAccessStrategy ).getAll( keys, txTimestamp );
+		}
+		final Map<Object, Object> cachedValues = new HashMap<Object, Object>();
+		for ( Object key : keys ) {
+			final Object cachedValue = cacheAccessStrategy.get( key, txTimestamp );
+			if ( cachedValue != null ) {
+				cachedValues.put( key, cachedValue );
+			}
+		}
+		return cachedValues;
+	}
+
+	/**
+	 * Cache several items loaded from the database through the access strategy, in one call if it is a
+	 * {@link BulkRegionAccessStrategy}, one item at a time otherwise.
+	 *
+	 * @param cacheAccessStrategy The access strategy of the region to put the items in
+	 * @param keys The item keys
+	 * @param values The items
+	 * @param txTimestamp a timestamp prior to the transaction start time
+	 * @param versions The item version numbers
+	 * @param minimalPutOverride Explicit minimalPut flag
+	 *
+	 * @return The number of items successfully cached
+	 */
+	public static int putFromLoadAll(
+			RegionAccessStrategy cacheAccessStrategy,
+			Object[] keys,
+			Object[] values,
+			long txTimestamp,
+			Object[] versions,
+			boolean minimalPutOverride) {
+		if ( cacheAccessStrategy instanceof BulkRegionAccessStrategy ) {
+			return ( (BulkRegionAccessStrategy) cacheAccessStrategy ).putFromLoadAll(
+					keys,
+					values,
+					txTimestamp,
+					versions,
+					minimalPutOverride
+			);
+		}
+		int puts = 0;
+		for ( int i = 0; i < keys.length; i++ ) {
+			if ( cacheAccessStrategy.putFromLoad( keys[i], values[i], txTimestamp, versions[i], minimalPutOverride ) ) {
+				puts++;
+			}
+		}
+		return puts;
+	}
 }
@@ -0,0 +1,1149 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.engine.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * A ResultSet wrapper which turns every access by column label into an access by column index.
+ * <p/>
+ * Labels are resolved through the (shared) {@link ColumnNameCache} only the first time they are seen by this
+ * wrapper; from then on they are found in a small table keyed by the identity of the label instance.  Loaders
+ * pass the same alias instances for every row, so reading rows involves neither string hashing nor the
+ * driver's label lookup.  A loader may also {@link #bind} the aliases of its query to the indexes it resolved on
+ * a previous execution before reading the first row.
+ * <p/>
+ * The JDBC 4.1 methods are delegated reflectively, so the wrapper keeps working with Java 6 and JDBC 4.0 drivers.
+ */
+public class ColumnIndexResultSet implements ResultSet {
+	// stop remembering labels past this many distinct instances; they are then not re-used between rows anyway
+	private static final int MAX_REMEMBERED_LABELS = 1024;
+	// ResultSet#getObject(int, Class), or null before JDBC 4.1
+	private static final Method GET_OBJECT_AS_TYPE = resolveGetObjectAsType();
+
+	private final ResultSet delegate;
+	private final ColumnNameCache columnNameCache;
+
+	private String[] labels = new String[32];
+	private int[] indexes = new int[32];
+	private int labelCount;
+
+	/**
+	 * Constructs a ColumnIndexResultSet
+	 *
+	 * @param delegate The wrapped result set
+	 * @param columnNameCache The cache for resolving labels not seen by this wrapper yet
+	 */
+	public ColumnIndexResultSet(ResultSet delegate, ColumnNameCache columnNameCache) {
+		this.delegate = delegate;
+		this.columnNameCache = columnNameCache;
+	}
+
+	/**
+	 * Access the wrapped result set.
+	 *
+	 * @return The wrapped result set
+	 */
+	public ResultSet getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Bind column labels to their indexes up front, e.g. from a plan resolved on a previous execution of the same
+	 * query, so that reading rows does not need to resolve them.  Labels with an index below 1 are skipped.
+	 *
+	 * @param columnLabels The label instances which will be used to read columns
+	 * @param columnIndexes The index of each label's column
+	 */
+	public void bind(String[] columnLabels, int[] columnIndexes) {
+		for ( int i = 0; i < columnLabels.length && labelCount < MAX_REMEMBERED_LABELS; i++ ) {
+			if ( columnIndexes[i] > 0 && !isBound( columnLabels[i] ) ) {
+				remember( columnLabels[i], columnIndexes[i] );
+			}
+		}
+	}
+
+	private boolean isBound(String columnLabel) {
+		final int mask = labels.length - 1;
+		int i = System.identityHashCode( columnLabel ) & mask;
+		String label;
+		while ( ( label = labels[i] ) != null ) {
+			if ( label == columnLabel ) {
+				return true;
+			}
+			i = ( i + 1 ) & mask;
+		}
+		return false;
+	}
+
+	private int columnIndex(String columnLabel) throws SQLException {
+		final String[] labels = this.labels;
+		final int mask = labels.length - 1;
+		int i = System.identityHashCode( columnLabel ) & mask;
+		String label;
+		while ( ( label = labels[i] ) != null ) {
+			if ( label == columnLabel ) {
+				return indexes[i];
+			}
+			i = ( i + 1 ) & mask;
+		}
+
+		final int index = columnNameCache.getIndexForColumnName( columnLabel, delegate );
+		if ( labelCount < MAX_REMEMBERED_LABELS ) {
+			remember( columnLabel, index );
+		}
+		return index;
+	}
+
+	private void remember(String columnLabel, int index) {
+		if ( ( labelCount + 1 ) * 2 > labels.length ) {
+			final String[] oldLabels = labels;
+			final int[] oldIndexes = indexes;
+			labels = new String[oldLabels.length * 2];
+			indexes = new int[oldLabels.length * 2];
+			labelCount = 0;
+			for ( int i = 0; i < oldLabels.length; i++ ) {
+				if ( oldLabels[i] != null ) {
+					remember( oldLabels[i], oldIndexes[i] );
+				}
+			}
+		}
+		final int mask = labels.length - 1;
+		int i = System.identityHashCode( columnLabel ) & mask;
+		while ( labels[i] != null ) {
+			i = ( i + 1 ) & mask;
+		}
+		labels[i] = columnLabel;
+		indexes[i] = index;
+		labelCount++;
+	}
+
+	@Override
+	public boolean absolute(int row) throws SQLException {
+		return delegate.absolute( row );
+	}
+
+	@Override
+	public void afterLast() throws SQLException {
+		delegate.afterLast();
+	}
+
+	@Override
+	public void beforeFirst() throws SQLException {
+		delegate.beforeFirst();
+	}
+
+	@Override
+	public void cancelRowUpdates() throws SQLException {
+		delegate.cancelRowUpdates();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		delegate.clearWarnings();
+	}
+
+	@Override
+	public void close() throws SQLException {
+		delegate.close();
+	}
+
+	@Override
+	public void deleteRow() throws SQLException {
+		delegate.deleteRow();
+	}
+
+	@Override
+	public int findColumn(String columnLabel) throws SQLException {
+		return columnIndex( columnLabel );
+	}
+
+	@Override
+	public boolean first() throws SQLException {
+		return delegate.first();
+	}
+
+	@Override
+	public Array getArray(int columnIndex) throws SQLException {
+		return delegate.getArray( columnIndex );
+	}
+
+	@Override
+	public Array getArray(String columnLabel) throws SQLException {
+		return delegate.getArray( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public InputStream getAsciiStream(int columnIndex) throws SQLException {
+		return delegate.getAsciiStream( columnIndex );
+	}
+
+	@Override
+	public InputStream getAsciiStream(String columnLabel) throws SQLException {
+		return delegate.getAsciiStream( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+		return delegate.getBigDecimal( columnIndex );
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+		return delegate.getBigDecimal( columnIndex, scale );
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+		return delegate.getBigDecimal( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+		return delegate.getBigDecimal( columnIndex( columnLabel ), scale );
+	}
+
+	@Override
+	public InputStream getBinaryStream(int columnIndex) throws SQLException {
+		return delegate.getBinaryStream( columnIndex );
+	}
+
+	@Override
+	public InputStream getBinaryStream(String columnLabel) throws SQLException {
+		return delegate.getBinaryStream( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Blob getBlob(int columnIndex) throws SQLException {
+		return delegate.getBlob( columnIndex );
+	}
+
+	@Override
+	public Blob getBlob(String columnLabel) throws SQLException {
+		return delegate.getBlob( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public boolean getBoolean(int columnIndex) throws SQLException {
+		return delegate.getBoolean( columnIndex );
+	}
+
+	@Override
+	public boolean getBoolean(String columnLabel) throws SQLException {
+		return delegate.getBoolean( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public byte getByte(int columnIndex) throws SQLException {
+		return delegate.getByte( columnIndex );
+	}
+
+	@Override
+	public byte getByte(String columnLabel) throws SQLException {
+		return delegate.getByte( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public byte[] getBytes(int columnIndex) throws SQLException {
+		return delegate.getBytes( columnIndex );
+	}
+
+	@Override
+	public byte[] getBytes(String columnLabel) throws SQLException {
+		return delegate.getBytes( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Reader getCharacterStream(int columnIndex) throws SQLException {
+		return delegate.getCharacterStream( columnIndex );
+	}
+
+	@Override
+	public Reader getCharacterStream(String columnLabel) throws SQLException {
+		return delegate.getCharacterStream( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Clob getClob(int columnIndex) throws SQLException {
+		return delegate.getClob( columnIndex );
+	}
+
+	@Override
+	public Clob getClob(String columnLabel) throws SQLException {
+		return delegate.getClob( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public int getConcurrency() throws SQLException {
+		return delegate.getConcurrency();
+	}
+
+	@Override
+	public String getCursorName() throws SQLException {
+		return delegate.getCursorName();
+	}
+
+	@Override
+	public Date getDate(int columnIndex) throws SQLException {
+		return delegate.getDate( columnIndex );
+	}
+
+	@Override
+	public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+		return delegate.getDate( columnIndex, cal );
+	}
+
+	@Override
+	public Date getDate(String columnLabel) throws SQLException {
+		return delegate.getDate( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+		return delegate.getDate( columnIndex( columnLabel ), cal );
+	}
+
+	@Override
+	public double getDouble(int columnIndex) throws SQLException {
+		return delegate.getDouble( columnIndex );
+	}
+
+	@Override
+	public double getDouble(String columnLabel) throws SQLException {
+		return delegate.getDouble( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return delegate.getFetchDirection();
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return delegate.getFetchSize();
+	}
+
+	@Override
+	public float getFloat(int columnIndex) throws SQLException {
+		return delegate.getFloat( columnIndex );
+	}
+
+	@Override
+	public float getFloat(String columnLabel) throws SQLException {
+		return delegate.getFloat( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public int getHoldability() throws SQLException {
+		return delegate.getHoldability();
+	}
+
+	@Override
+	public int getInt(int columnIndex) throws SQLException {
+		return delegate.getInt( columnIndex );
+	}
+
+	@Override
+	public int getInt(String columnLabel) throws SQLException {
+		return delegate.getInt( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public long getLong(int columnIndex) throws SQLException {
+		return delegate.getLong( columnIndex );
+	}
+
+	@Override
+	public long getLong(String columnLabel) throws SQLException {
+		return delegate.getLong( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return delegate.getMetaData();
+	}
+
+	@Override
+	public Reader getNCharacterStream(int columnIndex) throws SQLException {
+		return delegate.getNCharacterStream( columnIndex );
+	}
+
+	@Override
+	public Reader getNCharacterStream(String columnLabel) throws SQLException {
+		return delegate.getNCharacterStream( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public NClob getNClob(int columnIndex) throws SQLException {
+		return delegate.getNClob( columnIndex );
+	}
+
+	@Override
+	public NClob getNClob(String columnLabel) throws SQLException {
+		return delegate.getNClob( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public String getNString(int columnIndex) throws SQLException {
+		return delegate.getNString( columnIndex );
+	}
+
+	@Override
+	public String getNString(String columnLabel) throws SQLException {
+		return delegate.getNString( columnIndex( columnLabel ) );
+	}
+
+	// JDBC 4.1; not part of the Java 6 ResultSet, so delegated reflectively
+	public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+		if ( GET_OBJECT_AS_TYPE == null ) {
+			throw new SQLFeatureNotSupportedException( "ResultSet#getObject(int, Class) requires JDBC 4.1" );
+		}
+		try {
+			return type.cast( GET_OBJECT_AS_TYPE.invoke( delegate, columnIndex, type ) );
+		}
+		catch (InvocationTargetException e) {
+			if ( e.getTargetException() instanceof SQLException ) {
+				throw (SQLException) e.getTargetException();
+			}
+			if ( e.getTargetException() instanceof AbstractMethodError ) {
+				throw new SQLFeatureNotSupportedException( "ResultSet#getObject(int, Class) requires a JDBC 4.1 driver" );
+			}
+			throw new SQLException( "Unable to delegate ResultSet#getObject(int, Class)", e.getTargetException() );
+		}
+		catch (IllegalAccessException e) {
+			throw new SQLException( "Unable to delegate ResultSet#getObject(int, Class)", e );
+		}
+	}
+
+	private static Method resolveGetObjectAsType() {
+		try {
+			return ResultSet.class.getMethod( "getObject", int.class, Class.class );
+		}
+		catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public Object getObject(int columnIndex) throws SQLException {
+		return delegate.getObject( columnIndex );
+	}
+
+	@Override
+	public Object getObject(int columnIndex, Map<String,Class<?>> map) throws SQLException {
+		return delegate.getObject( columnIndex, map );
+	}
+
+	// JDBC 4.1, see getObject(int, Class)
+	public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+		return getObject( columnIndex( columnLabel ), type );
+	}
+
+	@Override
+	public Object getObject(String columnLabel) throws SQLException {
+		return delegate.getObject( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Object getObject(String columnLabel, Map<String,Class<?>> map) throws SQLException {
+		return delegate.getObject( columnIndex( columnLabel ), map );
+	}
+
+	@Override
+	public Ref getRef(int columnIndex) throws SQLException {
+		return delegate.getRef( columnIndex );
+	}
+
+	@Override
+	public Ref getRef(String columnLabel) throws SQLException {
+		return delegate.getRef( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public int getRow() throws SQLException {
+		return delegate.getRow();
+	}
+
+	@Override
+	public RowId getRowId(int columnIndex) throws SQLException {
+		return delegate.getRowId( columnIndex );
+	}
+
+	@Override
+	public RowId getRowId(String columnLabel) throws SQLException {
+		return delegate.getRowId( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public SQLXML getSQLXML(int columnIndex) throws SQLException {
+		return delegate.getSQLXML( columnIndex );
+	}
+
+	@Override
+	public SQLXML getSQLXML(String columnLabel) throws SQLException {
+		return delegate.getSQLXML( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public short getShort(int columnIndex) throws SQLException {
+		return delegate.getShort( columnIndex );
+	}
+
+	@Override
+	public short getShort(String columnLabel) throws SQLException {
+		return delegate.getShort( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Statement getStatement() throws SQLException {
+		return delegate.getStatement();
+	}
+
+	@Override
+	public String getString(int columnIndex) throws SQLException {
+		return delegate.getString( columnIndex );
+	}
+
+	@Override
+	public String getString(String columnLabel) throws SQLException {
+		return delegate.getString( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Time getTime(int columnIndex) throws SQLException {
+		return delegate.getTime( columnIndex );
+	}
+
+	@Override
+	public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+		return delegate.getTime( columnIndex, cal );
+	}
+
+	@Override
+	public Time getTime(String columnLabel) throws SQLException {
+		return delegate.getTime( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+		return delegate.getTime( columnIndex( columnLabel ), cal );
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex) throws SQLException {
+		return delegate.getTimestamp( columnIndex );
+	}
+
+	@Override
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+		return delegate.getTimestamp( columnIndex, cal );
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel) throws SQLException {
+		return delegate.getTimestamp( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+		return delegate.getTimestamp( columnIndex( columnLabel ), cal );
+	}
+
+	@Override
+	public int getType() throws SQLException {
+		return delegate.getType();
+	}
+
+	@Override
+	public URL getURL(int columnIndex) throws SQLException {
+		return delegate.getURL( columnIndex );
+	}
+
+	@Override
+	public URL getURL(String columnLabel) throws SQLException {
+		return delegate.getURL( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+		return delegate.getUnicodeStream( columnIndex );
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+		return delegate.getUnicodeStream( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return delegate.getWarnings();
+	}
+
+	@Override
+	public void insertRow() throws SQLException {
+		delegate.insertRow();
+	}
+
+	@Override
+	public boolean isAfterLast() throws SQLException {
+		return delegate.isAfterLast();
+	}
+
+	@Override
+	public boolean isBeforeFirst() throws SQLException {
+		return delegate.isBeforeFirst();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return delegate.isClosed();
+	}
+
+	@Override
+	public boolean isFirst() throws SQLException {
+		return delegate.isFirst();
+	}
+
+	@Override
+	public boolean isLast() throws SQLException {
+		return delegate.isLast();
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return delegate.isWrapperFor( iface );
+	}
+
+	@Override
+	public boolean last() throws SQLException {
+		return delegate.last();
+	}
+
+	@Override
+	public void moveToCurrentRow() throws SQLException {
+		delegate.moveToCurrentRow();
+	}
+
+	@Override
+	public void moveToInsertRow() throws SQLException {
+		delegate.moveToInsertRow();
+	}
+
+	@Override
+	public boolean next() throws SQLException {
+		return delegate.next();
+	}
+
+	@Override
+	public boolean previous() throws SQLException {
+		return delegate.previous();
+	}
+
+	@Override
+	public void refreshRow() throws SQLException {
+		delegate.refreshRow();
+	}
+
+	@Override
+	public boolean relative(int rows) throws SQLException {
+		return delegate.relative( rows );
+	}
+
+	@Override
+	public boolean rowDeleted() throws SQLException {
+		return delegate.rowDeleted();
+	}
+
+	@Override
+	public boolean rowInserted() throws SQLException {
+		return delegate.rowInserted();
+	}
+
+	@Override
+	public boolean rowUpdated() throws SQLException {
+		return delegate.rowUpdated();
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		delegate.setFetchDirection( direction );
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		delegate.setFetchSize( rows );
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return delegate.unwrap( iface );
+	}
+
+	@Override
+	public void updateArray(int columnIndex, Array x) throws SQLException {
+		delegate.updateArray( columnIndex, x );
+	}
+
+	@Override
+	public void updateArray(String columnLabel, Array x) throws SQLException {
+		delegate.updateArray( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream inputStream) throws SQLException {
+		delegate.updateAsciiStream( columnIndex, inputStream );
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream inputStream, int length) throws SQLException {
+		delegate.updateAsciiStream( columnIndex, inputStream, length );
+	}
+
+	@Override
+	public void updateAsciiStream(int columnIndex, InputStream inputStream, long length) throws SQLException {
+		delegate.updateAsciiStream( columnIndex, inputStream, length );
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream inputStream) throws SQLException {
+		delegate.updateAsciiStream( columnIndex( columnLabel ), inputStream );
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream inputStream, int length) throws SQLException {
+		delegate.updateAsciiStream( columnIndex( columnLabel ), inputStream, length );
+	}
+
+	@Override
+	public void updateAsciiStream(String columnLabel, InputStream inputStream, long length) throws SQLException {
+		delegate.updateAsciiStream( columnIndex( columnLabel ), inputStream, length );
+	}
+
+	@Override
+	public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+		delegate.updateBigDecimal( columnIndex, x );
+	}
+
+	@Override
+	public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+		delegate.updateBigDecimal( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream inputStream) throws SQLException {
+		delegate.updateBinaryStream( columnIndex, inputStream );
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream inputStream, int length) throws SQLException {
+		delegate.updateBinaryStream( columnIndex, inputStream, length );
+	}
+
+	@Override
+	public void updateBinaryStream(int columnIndex, InputStream inputStream, long length) throws SQLException {
+		delegate.updateBinaryStream( columnIndex, inputStream, length );
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream inputStream) throws SQLException {
+		delegate.updateBinaryStream( columnIndex( columnLabel ), inputStream );
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream inputStream, int length) throws SQLException {
+		delegate.updateBinaryStream( columnIndex( columnLabel ), inputStream, length );
+	}
+
+	@Override
+	public void updateBinaryStream(String columnLabel, InputStream inputStream, long length) throws SQLException {
+		delegate.updateBinaryStream( columnIndex( columnLabel ), inputStream, length );
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+		delegate.updateBlob( columnIndex, inputStream );
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+		delegate.updateBlob( columnIndex, inputStream, length );
+	}
+
+	@Override
+	public void updateBlob(int columnIndex, Blob x) throws SQLException {
+		delegate.updateBlob( columnIndex, x );
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+		delegate.updateBlob( columnIndex( columnLabel ), inputStream );
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+		delegate.updateBlob( columnIndex( columnLabel ), inputStream, length );
+	}
+
+	@Override
+	public void updateBlob(String columnLabel, Blob x) throws SQLException {
+		delegate.updateBlob( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+		delegate.updateBoolean( columnIndex, x );
+	}
+
+	@Override
+	public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+		delegate.updateBoolean( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateByte(int columnIndex, byte x) throws SQLException {
+		delegate.updateByte( columnIndex, x );
+	}
+
+	@Override
+	public void updateByte(String columnLabel, byte x) throws SQLException {
+		delegate.updateByte( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+		delegate.updateBytes( columnIndex, x );
+	}
+
+	@Override
+	public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+		delegate.updateBytes( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader reader) throws SQLException {
+		delegate.updateCharacterStream( columnIndex, reader );
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader reader, int length) throws SQLException {
+		delegate.updateCharacterStream( columnIndex, reader, length );
+	}
+
+	@Override
+	public void updateCharacterStream(int columnIndex, Reader reader, long length) throws SQLException {
+		delegate.updateCharacterStream( columnIndex, reader, length );
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+		delegate.updateCharacterStream( columnIndex( columnLabel ), reader );
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+		delegate.updateCharacterStream( columnIndex( columnLabel ), reader, length );
+	}
+
+	@Override
+	public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+		delegate.updateCharacterStream( columnIndex( columnLabel ), reader, length );
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Reader reader) throws SQLException {
+		delegate.updateClob( columnIndex, reader );
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+		delegate.updateClob( columnIndex, reader, length );
+	}
+
+	@Override
+	public void updateClob(int columnIndex, Clob x) throws SQLException {
+		delegate.updateClob( columnIndex, x );
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Reader reader) throws SQLException {
+		delegate.updateClob( columnIndex( columnLabel ), reader );
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+		delegate.updateClob( columnIndex( columnLabel ), reader, length );
+	}
+
+	@Override
+	public void updateClob(String columnLabel, Clob x) throws SQLException {
+		delegate.updateClob( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateDate(int columnIndex, Date x) throws SQLException {
+		delegate.updateDate( columnIndex, x );
+	}
+
+	@Override
+	public void updateDate(String columnLabel, Date x) throws SQLException {
+		delegate.updateDate( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateDouble(int columnIndex, double x) throws SQLException {
+		delegate.updateDouble( columnIndex, x );
+	}
+
+	@Override
+	public void updateDouble(String columnLabel, double x) throws SQLException {
+		delegate.updateDouble( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateFloat(int columnIndex, float x) throws SQLException {
+		delegate.updateFloat( columnIndex, x );
+	}
+
+	@Override
+	public void updateFloat(String columnLabel, float x) throws SQLException {
+		delegate.updateFloat( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateInt(int columnIndex, int length) throws SQLException {
+		delegate.updateInt( columnIndex, length );
+	}
+
+	@Override
+	public void updateInt(String columnLabel, int length) throws SQLException {
+		delegate.updateInt( columnIndex( columnLabel ), length );
+	}
+
+	@Override
+	public void updateLong(int columnIndex, long length) throws SQLException {
+		delegate.updateLong( columnIndex, length );
+	}
+
+	@Override
+	public void updateLong(String columnLabel, long length) throws SQLException {
+		delegate.updateLong( columnIndex( columnLabel ), length );
+	}
+
+	@Override
+	public void updateNCharacterStream(int columnIndex, Reader reader) throws SQLException {
+		delegate.updateNCharacterStream( columnIndex, reader );
+	}
+
+	@Override
+	public void updateNCharacterStream(int columnIndex, Reader reader, long length) throws SQLException {
+		delegate.updateNCharacterStream( columnIndex, reader, length );
+	}
+
+	@Override
+	public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+		delegate.updateNCharacterStream( columnIndex( columnLabel ), reader );
+	}
+
+	@Override
+	public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+		delegate.updateNCharacterStream( columnIndex( columnLabel ), reader, length );
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+		delegate.updateNClob( columnIndex, reader );
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+		delegate.updateNClob( columnIndex, reader, length );
+	}
+
+	@Override
+	public void updateNClob(int columnIndex, NClob x) throws SQLException {
+		delegate.updateNClob( columnIndex, x );
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+		delegate.updateNClob( columnIndex( columnLabel ), reader );
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+		delegate.updateNClob( columnIndex( columnLabel ), reader, length );
+	}
+
+	@Override
+	public void updateNClob(String columnLabel, NClob x) throws SQLException {
+		delegate.updateNClob( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateNString(int columnIndex, String x) throws SQLException {
+		delegate.updateNString( columnIndex, x );
+	}
+
+	@Override
+	public void updateNString(String columnLabel, String x) throws SQLException {
+		delegate.updateNString( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateNull(int columnIndex) throws SQLException {
+		delegate.updateNull( columnIndex );
+	}
+
+	@Override
+	public void updateNull(String columnLabel) throws SQLException {
+		delegate.updateNull( columnIndex( columnLabel ) );
+	}
+
+	@Override
+	public void updateObject(int columnIndex, Object x) throws SQLException {
+		delegate.updateObject( columnIndex, x );
+	}
+
+	@Override
+	public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+		delegate.updateObject( columnIndex, x, scaleOrLength );
+	}
+
+	@Override
+	public void updateObject(String columnLabel, Object x) throws SQLException {
+		delegate.updateObject( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+		delegate.updateObject( columnIndex( columnLabel ), x, scaleOrLength );
+	}
+
+	@Override
+	public void updateRef(int columnIndex, Ref x) throws SQLException {
+		delegate.updateRef( columnIndex, x );
+	}
+
+	@Override
+	public void updateRef(String columnLabel, Ref x) throws SQLException {
+		delegate.updateRef( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateRow() throws SQLException {
+		delegate.updateRow();
+	}
+
+	@Override
+	public void updateRowId(int columnIndex, RowId x) throws SQLException {
+		delegate.updateRowId( columnIndex, x );
+	}
+
+	@Override
+	public void updateRowId(String columnLabel, RowId x) throws SQLException {
+		delegate.updateRowId( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateSQLXML(int columnIndex, SQLXML x) throws SQLException {
+		delegate.updateSQLXML( columnIndex, x );
+	}
+
+	@Override
+	public void updateSQLXML(String columnLabel, SQLXML x) throws SQLException {
+		delegate.updateSQLXML( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateShort(int columnIndex, short x) throws SQLException {
+		delegate.updateShort( columnIndex, x );
+	}
+
+	@Override
+	public void updateShort(String columnLabel, short x) throws SQLException {
+		delegate.updateShort( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateString(int columnIndex, String x) throws SQLException {
+		delegate.updateString( columnIndex, x );
+	}
+
+	@Override
+	public void updateString(String columnLabel, String x) throws SQLException {
+		delegate.updateString( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateTime(int columnIndex, Time x) throws SQLException {
+		delegate.updateTime( columnIndex, x );
+	}
+
+	@Override
+	public void updateTime(String columnLabel, Time x) throws SQLException {
+		delegate.updateTime( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+		delegate.updateTimestamp( columnIndex, x );
+	}
+
+	@Override
+	public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+		delegate.updateTimestamp( columnIndex( columnLabel ), x );
+	}
+
+	@Override
+	public boolean wasNull() throws SQLException {
+		return delegate.wasNull();
+	}
+}
@@ -42,7 +42,11 @@ import org.jboss.logging.Logger;
  *
  * @author Steve Ebersole
  * @author Gail Badner
+ *
+ * @deprecated No longer used by the default {@link org.hibernate.engine.jdbc.spi.ResultSetWrapper}; use
+ * {@link ColumnIndexResultSet} instead.
  */
+@Deprecated
 public class ResultSetWrapperProxy implements InvocationHandler {
 	private static final CoreMessageLogger LOG = Logger.getMessageLogger(
 			CoreMessageLogger.class,
@@ -0,0 +1,409 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.engine.jdbc.connections.internal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.HibernateException;
+import org.hibernate.internal.CoreLogging;
+import org.hibernate.internal.CoreMessageLogger;
+
+/**
+ * The connection pool behind {@link DriverManagerConnectionProviderImpl}.
+ * <p/>
+ * Borrowing never blocks on a lock: idle connections are kept in a lock-free queue.  By default a new connection
+ * is opened whenever none is idle, and connections returned while more than the maximum size are open are closed.
+ * In blocking mode, a fair semaphore instead bounds the number of borrowed connections to the maximum size (and
+ * orders the threads waiting for one, up to the maximum wait).  Connections idle for a while are validated on
+ * checkout within a time budget, unless the driver turns out not to implement {@link Connection#isValid}, in which
+ * case validation is disabled for the pool.  {@link #evict()} is expected to
+ * be called periodically to close connections idle for too long or past their maximum lifetime, to keep the
+ * pool at its minimum size and to report connections borrowed for suspiciously long.
+ */
+public class ConnectionPool implements ConnectionPoolMBean {
+	private static final CoreMessageLogger log = CoreLogging.messageLogger( ConnectionPool.class );
+
+	private static class PooledConnection {
+		private final Connection connection;
+		private final long createdAt;
+		private volatile long lastUsedAt;
+		private volatile long borrowedAt;
+		private volatile Throwable borrowStack;
+		private volatile boolean leakReported;
+
+		private PooledConnection(Connection connection, long createdAt) {
+			this.connection = connection;
+			this.createdAt = createdAt;
+			this.lastUsedAt = createdAt;
+		}
+	}
+
+	private final ConnectionCreator connectionCreator;
+	private final int minSize;
+	private final int maxSize;
+	private final long maxWait;
+	private final int validationTimeout;
+	private final long validationIdleThreshold;
+	private final long idleTimeout;
+	private final long maxLifetime;
+	private final long leakDetectionThreshold;
+
+	private final Semaphore permits;
+	private final ConcurrentLinkedQueue<PooledConnection> idleConnections = new ConcurrentLinkedQueue<PooledConnection>();
+	private final ConcurrentMap<Connection,PooledConnection> borrowedConnections = new ConcurrentHashMap<Connection,PooledConnection>();
+	private final AtomicInteger openCount = new AtomicInteger();
+
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong evictedCount = new AtomicLong();
+	private final AtomicLong invalidCount = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong leakCount = new AtomicLong();
+
+	private volatile boolean active = true;
+	private volatile boolean validationSupported = true;
+
+	/**
+	 * Constructs a ConnectionPool.
+	 *
+	 * @param connectionCreator Creates the physical connections
+	 * @param minSize The number of connections to keep open, even when idle
+	 * @param maxSize The maximum number of connections to keep open, or in blocking mode to lend at the same time
+	 * @param blocking Whether to wait for a connection to be returned rather than open more than {@code maxSize}
+	 * @param maxWait How long to wait for a connection in blocking mode, in milliseconds
+	 * @param validationTimeout The time budget for validating a connection, in seconds; {@code 0} disables validation
+	 * @param validationIdleThreshold How long a connection may stay idle before it is validated on checkout,
+	 * in milliseconds
+	 * @param idleTimeout How long a connection may stay idle, in milliseconds; {@code 0} for no limit
+	 * @param maxLifetime How long a connection may be used, in milliseconds; {@code 0} for no limit
+	 * @param leakDetectionThreshold How long a connection may be borrowed before being reported as a possible leak,
+	 * in milliseconds; {@code 0} disables leak detection
+	 */
+	ConnectionPool(
+			ConnectionCreator connectionCreator,
+			int minSize,
+			int maxSize,
+			boolean blocking,
+			long maxWait,
+			int validationTimeout,
+			long validationIdleThreshold,
+			long idleTimeout,
+			long maxLifetime,
+			long leakDetectionThreshold) {
+		this.connectionCreator = connectionCreator;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.maxWait = maxWait;
+		this.validationTimeout = validationTimeout;
+		this.validationIdleThreshold = validationIdleThreshold;
+		this.idleTimeout = idleTimeout;
+		this.maxLifetime = maxLifetime;
+		this.leakDetectionThreshold = leakDetectionThreshold;
+		this.permits = blocking ? new Semaphore( maxSize, true ) : null;
+	}
+
+	/**
+	 * Open connections up to the given number.
+	 *
+	 * @param size The number of connections to have open
+	 */
+	void fill(int size) {
+		while ( active && openCount.get() < size ) {
+			idleConnections.offer( create() );
+		}
+	}
+
+	/**
+	 * Borrow a connection.  In blocking mode, waits at most the configured maximum wait for one to become available.
+	 *
+	 * @return The connection
+	 *
+	 * @throws SQLException Indicates no connection became available in time
+	 */
+	public Connection borrow() throws SQLException {
+		if ( !active ) {
+			throw new HibernateException( "Connection pool is no longer active" );
+		}
+		if ( permits != null ) {
+			acquirePermit();
+		}
+		boolean borrowed = false;
+		try {
+			PooledConnection pooledConnection;
+			while ( ( pooledConnection = idleConnections.poll() ) != null ) {
+				if ( isUsable( pooledConnection ) ) {
+					break;
+				}
+			}
+			if ( pooledConnection == null ) {
+				pooledConnection = create();
+			}
+			pooledConnection.borrowedAt = System.currentTimeMillis();
+			if ( leakDetectionThreshold > 0 ) {
+				pooledConnection.borrowStack = new Exception( "Connection borrowed here" );
+				pooledConnection.leakReported = false;
+			}
+			borrowedConnections.put( pooledConnection.connection, pooledConnection );
+			borrowCount.incrementAndGet();
+			borrowed = true;
+			return pooledConnection.connection;
+		}
+		finally {
+			if ( !borrowed && permits != null ) {
+				permits.release();
+			}
+		}
+	}
+
+	private void acquirePermit() throws SQLException {
+		try {
+			if ( !permits.tryAcquire( maxWait, TimeUnit.MILLISECONDS ) ) {
+				timeoutCount.incrementAndGet();
+				throw new SQLException(
+						"Timed out after " + maxWait + "ms waiting for a pooled connection [" + connectionCreator.getUrl()
+								+ "; " + maxSize + " connections in use]"
+				);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException( "Interrupted while waiting for a pooled connection", e );
+		}
+	}
+
+	/**
+	 * Return a borrowed connection to the pool.
+	 *
+	 * @param connection The connection
+	 */
+	public void release(Connection connection) {
+		final PooledConnection pooledConnection = borrowedConnections.remove( connection );
+		if ( pooledConnection == null ) {
+			// not (or no longer) lent by this pool
+			closeQuietly( connection );
+			return;
+		}
+		try {
+			final long now = System.currentTimeMillis();
+			pooledConnection.borrowStack = null;
+			if ( !active || isExpired( pooledConnection, now ) || openCount.get() > maxSize ) {
+				// closes connections opened beyond the maximum size as well
+				evictedCount.incrementAndGet();
+				discard( pooledConnection );
+			}
+			else {
+				pooledConnection.lastUsedAt = now;
+				idleConnections.offer( pooledConnection );
+			}
+		}
+		finally {
+			if ( permits != null ) {
+				permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Close idle connections which were idle for too long or which exceeded their maximum lifetime, open
+	 * connections up to the minimum size, and report possibly leaked connections.
+	 */
+	public void evict() {
+		final long now = System.currentTimeMillis();
+		final Iterator<PooledConnection> itr = idleConnections.iterator();
+		while ( itr.hasNext() ) {
+			final PooledConnection pooledConnection = itr.next();
+			final boolean idleTooLong = idleTimeout > 0
+					&& now - pooledConnection.lastUsedAt > idleTimeout
+					&& openCount.get() > minSize;
+			if ( ( idleTooLong || isExpired( pooledConnection, now ) ) && idleConnections.remove( pooledConnection ) ) {
+				evictedCount.incrementAndGet();
+				discard( pooledConnection );
+			}
+		}
+
+		fill( minSize );
+
+		if ( leakDetectionThreshold > 0 ) {
+			for ( PooledConnection pooledConnection : borrowedConnections.values() ) {
+				final Throwable borrowStack = pooledConnection.borrowStack;
+				if ( borrowStack != null
+						&& !pooledConnection.leakReported
+						&& now - pooledConnection.borrowedAt > leakDetectionThreshold ) {
+					pooledConnection.leakReported = true;
+					leakCount.incrementAndGet();
+					log.warnf(
+							borrowStack,
+							"Connection [%s] has been borrowed for more than %sms, possibly leaked",
+							pooledConnection.connection,
+							leakDetectionThreshold
+					);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Close the pool: closes the idle connections now, and borrowed ones when they are returned.
+	 */
+	public void close() {
+		active = false;
+		PooledConnection pooledConnection;
+		while ( ( pooledConnection = idleConnections.poll() ) != null ) {
+			discard( pooledConnection );
+		}
+	}
+
+	private boolean isUsable(PooledConnection pooledConnection) {
+		final long now = System.currentTimeMillis();
+		if ( isExpired( pooledConnection, now ) ) {
+			evictedCount.incrementAndGet();
+			discard( pooledConnection );
+			return false;
+		}
+		if ( validationTimeout > 0
+				&& validationSupported
+				&& now - pooledConnection.lastUsedAt >= validationIdleThreshold ) {
+			boolean valid;
+			try {
+				valid = pooledConnection.connection.isValid( validationTimeout );
+			}
+			catch (SQLException e) {
+				valid = false;
+			}
+			catch (LinkageError e) {
+				// a pre-JDBC4 driver (AbstractMethodError); checking again on every borrow would only fail again
+				disableValidation( e );
+				valid = true;
+			}
+			if ( !valid ) {
+				log.debugf( "Discarding pooled connection which failed validation [%s]", pooledConnection.connection );
+				invalidCount.incrementAndGet();
+				discard( pooledConnection );
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private synchronized void disableValidation(LinkageError e) {
+		if ( validationSupported ) {
+			validationSupported = false;
+			log.warnf( "JDBC driver does not support Connection#isValid, disabling connection validation [%s]", e );
+		}
+	}
+
+	private boolean isExpired(PooledConnection pooledConnection, long now) {
+		return maxLifetime > 0 && now - pooledConnection.createdAt > maxLifetime;
+	}
+
+	private PooledConnection create() {
+		final Connection connection = connectionCreator.createConnection();
+		openCount.incrementAndGet();
+		createdCount.incrementAndGet();
+		return new PooledConnection( connection, System.currentTimeMillis() );
+	}
+
+	private void discard(PooledConnection pooledConnection) {
+		openCount.decrementAndGet();
+		closeQuietly( pooledConnection.connection );
+	}
+
+	private static void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		}
+		catch (SQLException e) {
+			log.unableToClosePooledConnection( e );
+		}
+	}
+
+	@Override
+	public int getMinSize() {
+		return minSize;
+	}
+
+	@Override
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public int getOpenCount() {
+		return openCount.get();
+	}
+
+	@Override
+	public int getIdleCount() {
+		return idleConnections.size();
+	}
+
+	@Override
+	public int getActiveCount() {
+		return borrowedConnections.size();
+	}
+
+	@Override
+	public int getWaitingCount() {
+		return permits == null ? 0 : permits.getQueueLength();
+	}
+
+	@Override
+	public long getBorrowCount() {
+		return borrowCount.get();
+	}
+
+	@Override
+	public long getCreatedCount() {
+		return createdCount.get();
+	}
+
+	@Override
+	public long getEvictedCount() {
+		return evictedCount.get();
+	}
+
+	@Override
+	public long getInvalidCount() {
+		return invalidCount.get();
+	}
+
+	@Override
+	public long getTimeoutCount() {
+		return timeoutCount.get();
+	}
+
+	@Override
+	public long getLeakCount() {
+		return leakCount.get();
+	}
+}
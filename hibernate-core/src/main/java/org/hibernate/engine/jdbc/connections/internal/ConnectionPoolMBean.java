@@ -0,0 +1,89 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.engine.jdbc.connections.internal;
+
+/**
+ * Management interface of the built-in {@link ConnectionPool}.
+ */
+public interface ConnectionPoolMBean {
+	/**
+	 * @return The number of connections the pool keeps open, even when idle
+	 */
+	public int getMinSize();
+
+	/**
+	 * @return The maximum number of connections kept open, or in blocking mode which can be borrowed at the same time
+	 */
+	public int getMaxSize();
+
+	/**
+	 * @return The number of open connections, idle or borrowed
+	 */
+	public int getOpenCount();
+
+	/**
+	 * @return The number of idle connections
+	 */
+	public int getIdleCount();
+
+	/**
+	 * @return The number of borrowed connections
+	 */
+	public int getActiveCount();
+
+	/**
+	 * @return The number of threads waiting for a connection (always {@code 0} unless in blocking mode)
+	 */
+	public int getWaitingCount();
+
+	/**
+	 * @return The number of connections borrowed so far
+	 */
+	public long getBorrowCount();
+
+	/**
+	 * @return The number of physical connections created so far
+	 */
+	public long getCreatedCount();
+
+	/**
+	 * @return The number of connections closed because they were idle for too long or reached their maximum lifetime
+	 */
+	public long getEvictedCount();
+
+	/**
+	 * @return The number of connections closed because they failed validation
+	 */
+	public long getInvalidCount();
+
+	/**
+	 * @return The number of borrow attempts which gave up waiting for a connection
+	 */
+	public long getTimeoutCount();
+
+	/**
+	 * @return The number of connections reported as possibly leaked
+	 */
+	public long getLeakCount();
+}
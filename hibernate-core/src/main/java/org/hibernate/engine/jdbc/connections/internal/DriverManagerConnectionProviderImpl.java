@@ -28,7 +28,6 @@ import java.sql.Driver;
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -44,16 +43,16 @@ import org.hibernate.internal.util.ReflectHelper;
 import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.service.UnknownUnwrapTypeException;
 import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Manageable;
 import org.hibernate.service.spi.ServiceException;
 import org.hibernate.service.spi.ServiceRegistryAwareService;
 import org.hibernate.service.spi.ServiceRegistryImplementor;
 import org.hibernate.service.spi.Stoppable;
 
 /**
- * A connection provider that uses the {@link java.sql.DriverManager} directly to open connections and provides
- * a very rudimentary connection pool.
- * <p/>
- * IMPL NOTE : not intended for production use!
+ * A connection provider that uses the {@link java.sql.DriverManager} directly to open connections and pools
+ * them in a {@link ConnectionPool}.  The pool does not offer the features of a full-blown connection pool
+ * (statement caching, connection customizers, ...), so a dedicated pool may still be preferable.
  * <p/>
  * Thanks to Oleg Varaksin and his article on object pooling using the {@link java.util.concurrent} package, from
  * which much of the pooling code here is derived.  See http://ovaraksin.blogspot.com/2013/08/simple-and-lightweight-pool.html
@@ -62,7 +61,7 @@ import org.hibernate.service.spi.Stoppable;
  * @author Steve Ebersole
  */
 public class DriverManagerConnectionProviderImpl
-		implements ConnectionProvider, Configurable, Stoppable, ServiceRegistryAwareService {
+		implements ConnectionProvider, Configurable, Stoppable, ServiceRegistryAwareService, Manageable {
 
 	private static final CoreMessageLogger log = CoreLogging.messageLogger( DriverManagerConnectionProviderImpl.class );
 
@@ -70,10 +69,23 @@ public class DriverManagerConnectionProviderImpl
 	public static final String INITIAL_SIZE = "hibernate.connection.initial_pool_size";
 	// in TimeUnit.SECONDS
 	public static final String VALIDATION_INTERVAL = "hibernate.connection.pool_validation_interval";
+	public static final String BLOCKING = "hibernate.connection.pool_blocking";
+	// in TimeUnit.MILLISECONDS
+	public static final String MAX_WAIT = "hibernate.connection.pool_max_wait";
+	// in TimeUnit.SECONDS
+	public static final String VALIDATION_TIMEOUT = "hibernate.connection.pool_validation_timeout";
+	// in TimeUnit.MILLISECONDS
+	public static final String VALIDATION_IDLE_THRESHOLD = "hibernate.connection.pool_validation_idle_threshold";
+	// in TimeUnit.SECONDS
+	public static final String IDLE_TIMEOUT = "hibernate.connection.pool_idle_timeout";
+	// in TimeUnit.SECONDS
+	public static final String MAX_LIFETIME = "hibernate.connection.pool_max_lifetime";
+	// in TimeUnit.SECONDS
+	public static final String LEAK_DETECTION_THRESHOLD = "hibernate.connection.pool_leak_detection_threshold";
 
 	private boolean active = true;
 
-	private ConcurrentLinkedQueue<Connection> connections = new ConcurrentLinkedQueue<Connection>();
+	private ConnectionPool pool;
 	private ConnectionCreator connectionCreator;
 	private ScheduledExecutorService executorService;
 
@@ -98,48 +110,42 @@ public class DriverManagerConnectionProviderImpl
 		final int maxSize = ConfigurationHelper.getInt( AvailableSettings.POOL_SIZE, configurationValues, 20 );
 		final int initialSize = ConfigurationHelper.getInt( INITIAL_SIZE, configurationValues, minSize );
 		final long validationInterval = ConfigurationHelper.getLong( VALIDATION_INTERVAL, configurationValues, 30 );
+		final boolean blocking = ConfigurationHelper.getBoolean( BLOCKING, configurationValues, false );
+		final long maxWait = ConfigurationHelper.getLong( MAX_WAIT, configurationValues, 30000 );
+		final int validationTimeout = ConfigurationHelper.getInt( VALIDATION_TIMEOUT, configurationValues, 5 );
+		final long validationIdleThreshold = ConfigurationHelper.getLong( VALIDATION_IDLE_THRESHOLD, configurationValues, 500 );
+		final long idleTimeout = ConfigurationHelper.getLong( IDLE_TIMEOUT, configurationValues, 600 );
+		final long maxLifetime = ConfigurationHelper.getLong( MAX_LIFETIME, configurationValues, 1800 );
+		final long leakDetectionThreshold = ConfigurationHelper.getLong( LEAK_DETECTION_THRESHOLD, configurationValues, 0 );
 
 		log.hibernateConnectionPoolSize( maxSize, minSize );
 
+		pool = new ConnectionPool(
+				connectionCreator,
+				minSize,
+				maxSize,
+				blocking,
+				maxWait,
+				validationTimeout,
+				validationIdleThreshold,
+				TimeUnit.SECONDS.toMillis( idleTimeout ),
+				TimeUnit.SECONDS.toMillis( maxLifetime ),
+				TimeUnit.SECONDS.toMillis( leakDetectionThreshold )
+		);
+
 		log.debugf( "Initializing Connection pool with %s Connections", initialSize );
-		for ( int i = 0; i < initialSize; i++ ) {
-			connections.add( connectionCreator.createConnection() );
-		}
+		pool.fill( initialSize );
 
 		executorService = Executors.newSingleThreadScheduledExecutor();
 		executorService.scheduleWithFixedDelay(
 				new Runnable() {
-					private boolean primed;
 					@Override
 					public void run() {
-						int size = connections.size();
-
-						if ( !primed && size >= minSize ) {
-							// IMPL NOTE : the purpose of primed is to allow the pool to lazily reach its
-							// defined min-size.
-							log.debug( "Connection pool now considered primed; min-size will be maintained" );
-							primed = true;
-						}
-
-						if ( size < minSize && primed ) {
-							int numberToBeAdded = minSize - size;
-							log.debugf( "Adding %s Connections to the pool", numberToBeAdded );
-							for (int i = 0; i < numberToBeAdded; i++) {
-								connections.add( connectionCreator.createConnection() );
-							}
+						try {
+							pool.evict();
 						}
-						else if ( size > maxSize ) {
-							int numberToBeRemoved = size - maxSize;
-							log.debugf( "Removing %s Connections from the pool", numberToBeRemoved );
-							for ( int i = 0; i < numberToBeRemoved; i++ ) {
-								Connection connection = connections.poll();
-								try {
-									connection.close();
-								}
-								catch (SQLException e) {
-									log.unableToCloseConnection( e );
-								}
-							}
+						catch (RuntimeException e) {
+							log.debugf( "Unable to maintain the connection pool [%s]", e.getMessage() );
 						}
 					}
 				},
@@ -228,12 +234,7 @@ public class DriverManagerConnectionProviderImpl
 			throw new HibernateException( "Connection pool is no longer active" );
 		}
 
-		Connection connection;
-		if ( (connection = connections.poll()) == null ) {
-			connection = connectionCreator.createConnection();
-		}
-
-		return connection;
+		return pool.borrow();
 	}
 
 	@Override
@@ -242,7 +243,33 @@ public class DriverManagerConnectionProviderImpl
 			return;
 		}
 
-		this.connections.offer( conn );
+		pool.release( conn );
+	}
+
+	/**
+	 * Access the underlying pool, e.g. for its metrics.
+	 *
+	 * @return The connection pool
+	 */
+	public ConnectionPoolMBean getPool() {
+		return pool;
+	}
+
+	@Override
+	public String getManagementDomain() {
+		// use Hibernate default domain
+		return null;
+	}
+
+	@Override
+	public String getManagementServiceType() {
+		// use Hibernate default scheme
+		return null;
+	}
+
+	@Override
+	public Object getManagementBean() {
+		return pool;
 	}
 
 
@@ -287,13 +314,8 @@ public class DriverManagerConnectionProviderImpl
 		}
 		executorService = null;
 
-		for ( Connection connection : connections ) {
-			try {
-				connection.close();
-			}
-			catch (SQLException e) {
-				log.unableToClosePooledConnection( e );
-			}
+		if ( pool != null ) {
+			pool.close();
 		}
 	}
 
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -83,6 +84,7 @@ public class JdbcCoordinatorImpl implements JdbcCoordinator {
 
 	private final HashMap<Statement,Set<ResultSet>> xref = new HashMap<Statement,Set<ResultSet>>();
 	private final Set<ResultSet> unassociatedResultSets = new HashSet<ResultSet>();
+	private final Map<Statement,PreparedStatementCache.Key> cacheableStatements = new HashMap<Statement,PreparedStatementCache.Key>();
 	private final transient SqlExceptionHelper exceptionHelper;
 
 	private Statement lastQuery;
@@ -366,6 +368,26 @@ public class JdbcCoordinatorImpl implements JdbcCoordinator {
 		xref.put( statement, null );
 	}
 
+	/**
+	 * Access the cache of idle prepared statements.
+	 *
+	 * @return The statement cache, or {@code null} if statement caching is disabled
+	 */
+	PreparedStatementCache statementCache() {
+		final int statementCacheSize = sessionFactory().getSettings().getJdbcStatementCacheSize();
+		return statementCacheSize > 0 ? logicalConnection.getStatementCache( statementCacheSize ) : null;
+	}
+
+	/**
+	 * Register a statement as eligible to be cached, instead of closed, on release.
+	 *
+	 * @param statement The prepared statement
+	 * @param key The key under which to cache the statement
+	 */
+	void registerCacheable(PreparedStatement statement, PreparedStatementCache.Key key) {
+		cacheableStatements.put( statement, key );
+	}
+
 	@Override
 	@SuppressWarnings({ "unchecked" })
 	public void registerLastQuery(Statement statement) {
@@ -501,6 +523,7 @@ public class JdbcCoordinatorImpl implements JdbcCoordinator {
 			close( entry.getKey() );
 		}
 		xref.clear();
+		cacheableStatements.clear();
 
 		closeAll( unassociatedResultSets );
 	}
@@ -542,7 +565,9 @@ public class JdbcCoordinatorImpl implements JdbcCoordinator {
 				// EARLY EXIT!!!
 				return;
 			}
-			statement.close();
+			if ( !offerToStatementCache( statement ) ) {
+				statement.close();
+			}
 			if ( lastQuery == statement ) {
 				lastQuery = null;
 			}
@@ -556,6 +581,23 @@ public class JdbcCoordinatorImpl implements JdbcCoordinator {
 		}
 	}
 
+	private boolean offerToStatementCache(Statement statement) throws SQLException {
+		final PreparedStatementCache.Key key = cacheableStatements.remove( statement );
+		if ( key == null || !logicalConnection.isPhysicallyConnected() ) {
+			return false;
+		}
+		final PreparedStatementCache statementCache = statementCache();
+		final PreparedStatement preparedStatement = (PreparedStatement) statement;
+		preparedStatement.clearParameters();
+		preparedStatement.clearWarnings();
+		if ( statementCache.getDefaultFetchSize() >= 0
+				&& preparedStatement.getFetchSize() != statementCache.getDefaultFetchSize() ) {
+			preparedStatement.setFetchSize( statementCache.getDefaultFetchSize() );
+		}
+		statementCache.offer( key, preparedStatement );
+		return true;
+	}
+
 	@SuppressWarnings({ "unchecked" })
 	protected void close(ResultSet resultSet) {
 		LOG.tracev( "Closing result set [{0}]", resultSet );
@@ -61,6 +61,7 @@ public class LogicalConnectionImpl implements LogicalConnectionImplementor {
 	);
 
 	private transient Connection physicalConnection;
+	private transient PreparedStatementCache statementCache;
 
 	private final transient ConnectionReleaseMode connectionReleaseMode;
 	private final transient JdbcServices jdbcServices;
@@ -148,6 +149,26 @@ public class LogicalConnectionImpl implements LogicalConnectionImplementor {
 		observers.remove( connectionObserver );
 	}
 
+	/**
+	 * Access the cache of idle prepared statements of the current physical connection, creating it if needed.
+	 *
+	 * @param maxSize The maximum number of statements to cache
+	 *
+	 * @return The statement cache
+	 */
+	PreparedStatementCache getStatementCache(int maxSize) {
+		if ( statementCache == null ) {
+			statementCache = new PreparedStatementCache( maxSize );
+		}
+		return statementCache;
+	}
+
+	private void clearStatementCache() {
+		if ( statementCache != null ) {
+			statementCache.clear();
+		}
+	}
+
 	@Override
 	public boolean isOpen() {
 		return !isClosed;
@@ -178,6 +199,7 @@ public class LogicalConnectionImpl implements LogicalConnectionImplementor {
 		LOG.trace( "Closing logical connection" );
 		final Connection c = isUserSuppliedConnection ? physicalConnection : null;
 		try {
+			clearStatementCache();
 			if ( !isUserSuppliedConnection && physicalConnection != null ) {
 				releaseConnection();
 			}
@@ -248,6 +270,7 @@ public class LogicalConnectionImpl implements LogicalConnectionImplementor {
 			return;
 		}
 		try {
+			clearStatementCache();
 			if ( !physicalConnection.isClosed() ) {
 				getJdbcServices().getSqlExceptionHelper().logAndClearWarnings( physicalConnection );
 			}
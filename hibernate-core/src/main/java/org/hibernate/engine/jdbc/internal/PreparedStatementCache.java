@@ -0,0 +1,179 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.engine.jdbc.internal;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.internal.CoreMessageLogger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Keeps idle prepared statements of one physical connection for re-use, least recently used first out.
+ * <p/>
+ * A statement is only held here while nobody uses it: {@link #take} hands it out and removes it, and the
+ * statement gets {@link #offer offered} back once it is released.
+ */
+class PreparedStatementCache {
+	private static final CoreMessageLogger LOG = Logger.getMessageLogger(
+			CoreMessageLogger.class,
+			PreparedStatementCache.class.getName()
+	);
+
+	private final int maxSize;
+	private final LinkedHashMap<Key,PreparedStatement> statements;
+	private int defaultFetchSize = -1;
+	private int hits;
+	private int misses;
+
+	PreparedStatementCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.statements = new LinkedHashMap<Key,PreparedStatement>( 16, 0.75f, true ) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key,PreparedStatement> eldest) {
+				if ( size() > PreparedStatementCache.this.maxSize ) {
+					close( eldest.getValue() );
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Take an idle statement for the given key out of the cache.
+	 *
+	 * @param key The statement key
+	 *
+	 * @return The statement, or {@code null} if none is idle
+	 */
+	PreparedStatement take(Key key) {
+		final PreparedStatement statement = statements.remove( key );
+		if ( statement == null ) {
+			misses++;
+		}
+		else {
+			hits++;
+		}
+		return statement;
+	}
+
+	/**
+	 * Put a released statement (back) into the cache.  The statement must already be cleaned up.
+	 *
+	 * @param key The statement key
+	 * @param statement The statement
+	 */
+	void offer(Key key, PreparedStatement statement) {
+		final PreparedStatement previous = statements.put( key, statement );
+		if ( previous != null && previous != statement ) {
+			close( previous );
+		}
+	}
+
+	/**
+	 * The fetch size of newly prepared statements, for resetting released ones.
+	 *
+	 * @return The default fetch size, or {@code -1} if not known yet
+	 */
+	int getDefaultFetchSize() {
+		return defaultFetchSize;
+	}
+
+	void setDefaultFetchSize(int defaultFetchSize) {
+		this.defaultFetchSize = defaultFetchSize;
+	}
+
+	/**
+	 * Close all idle statements; to be called before the physical connection is released.
+	 */
+	void clear() {
+		if ( LOG.isDebugEnabled() ) {
+			LOG.debugf( "Clearing prepared statement cache [%s hits, %s misses]", hits, misses );
+		}
+		final Iterator<PreparedStatement> itr = statements.values().iterator();
+		while ( itr.hasNext() ) {
+			close( itr.next() );
+			itr.remove();
+		}
+	}
+
+	private static void close(PreparedStatement statement) {
+		try {
+			statement.close();
+		}
+		catch (SQLException e) {
+			LOG.debugf( "Unable to release cached JDBC statement [%s]", e.getMessage() );
+		}
+	}
+
+	/**
+	 * Identifies statements which can be used interchangeably: the same SQL, prepared the same way.
+	 */
+	static final class Key {
+		private final String sql;
+		private final int resultSetType;
+		private final int autoGeneratedKeys;
+		private final String[] columnNames;
+		private final int hashCode;
+
+		Key(String sql, int resultSetType, int autoGeneratedKeys, String[] columnNames) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.autoGeneratedKeys = autoGeneratedKeys;
+			this.columnNames = columnNames;
+			int result = sql.hashCode();
+			result = 31 * result + resultSetType;
+			result = 31 * result + autoGeneratedKeys;
+			result = 31 * result + Arrays.hashCode( columnNames );
+			this.hashCode = result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( !( o instanceof Key ) ) {
+				return false;
+			}
+			final Key that = (Key) o;
+			return hashCode == that.hashCode
+					&& resultSetType == that.resultSetType
+					&& autoGeneratedKeys == that.autoGeneratedKeys
+					&& sql.equals( that.sql )
+					&& Arrays.equals( columnNames, that.columnNames );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
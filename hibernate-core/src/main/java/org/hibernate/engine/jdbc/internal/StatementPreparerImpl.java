@@ -44,6 +44,9 @@ import org.hibernate.engine.jdbc.spi.StatementPreparer;
  * @author Brett Meyer
 */
 class StatementPreparerImpl implements StatementPreparer {
+	// auto-generated keys mode for statements prepared without one
+	private static final int NO_KEYS_MODE = -1;
+
 	private JdbcCoordinatorImpl jdbcCoordinator;
 
 	/**
@@ -97,7 +100,7 @@ class StatementPreparerImpl implements StatementPreparer {
 	}
 
 	private StatementPreparationTemplate buildPreparedStatementPreparationTemplate(String sql, final boolean isCallable) {
-		return new StatementPreparationTemplate( sql ) {
+		return new StatementPreparationTemplate( sql, isCallable, ResultSet.TYPE_FORWARD_ONLY, NO_KEYS_MODE, null ) {
 			@Override
 			protected PreparedStatement doPrepare() throws SQLException {
 				return isCallable
@@ -119,7 +122,7 @@ class StatementPreparerImpl implements StatementPreparer {
 			checkAutoGeneratedKeysSupportEnabled();
 		}
 		jdbcCoordinator.executeBatch();
-		return new StatementPreparationTemplate( sql ) {
+		return new StatementPreparationTemplate( sql, false, ResultSet.TYPE_FORWARD_ONLY, autoGeneratedKeys, null ) {
 			public PreparedStatement doPrepare() throws SQLException {
 				return connection().prepareStatement( sql, autoGeneratedKeys );
 			}
@@ -130,7 +133,7 @@ class StatementPreparerImpl implements StatementPreparer {
 	public PreparedStatement prepareStatement(String sql, final String[] columnNames) {
 		checkAutoGeneratedKeysSupportEnabled();
 		jdbcCoordinator.executeBatch();
-		return new StatementPreparationTemplate( sql ) {
+		return new StatementPreparationTemplate( sql, false, ResultSet.TYPE_FORWARD_ONLY, NO_KEYS_MODE, columnNames ) {
 			public PreparedStatement doPrepare() throws SQLException {
 				return connection().prepareStatement( sql, columnNames );
 			}
@@ -146,7 +149,7 @@ class StatementPreparerImpl implements StatementPreparer {
 			if ( ! settings().isScrollableResultSetsEnabled() ) {
 				throw new AssertionFailure("scrollable result sets are not enabled");
 			}
-			final PreparedStatement ps = new QueryStatementPreparationTemplate( sql ) {
+			final PreparedStatement ps = new QueryStatementPreparationTemplate( sql, isCallable, scrollMode.toResultSetType() ) {
 				public PreparedStatement doPrepare() throws SQLException {
 						return isCallable
 								? connection().prepareCall( sql, scrollMode.toResultSetType(), ResultSet.CONCUR_READ_ONLY )
@@ -157,7 +160,7 @@ class StatementPreparerImpl implements StatementPreparer {
 			return ps;
 		}
 		else {
-			final PreparedStatement ps = new QueryStatementPreparationTemplate( sql ) {
+			final PreparedStatement ps = new QueryStatementPreparationTemplate( sql, isCallable, ResultSet.TYPE_FORWARD_ONLY ) {
 				public PreparedStatement doPrepare() throws SQLException {
 						return isCallable
 								? connection().prepareCall( sql )
@@ -171,15 +174,36 @@ class StatementPreparerImpl implements StatementPreparer {
 
 	private abstract class StatementPreparationTemplate {
 		protected final String sql;
+		private final PreparedStatementCache statementCache;
+		private final PreparedStatementCache.Key cacheKey;
 
-		protected StatementPreparationTemplate(String sql) {
+		protected StatementPreparationTemplate(
+				String sql,
+				boolean isCallable,
+				int resultSetType,
+				int autoGeneratedKeys,
+				String[] columnNames) {
 			this.sql = jdbcCoordinator.getTransactionCoordinator().getTransactionContext().onPrepareStatement( sql );
+			// callable statements are not cached, as their registered out parameters cannot be reset
+			this.statementCache = isCallable ? null : jdbcCoordinator.statementCache();
+			this.cacheKey = statementCache == null
+					? null
+					: new PreparedStatementCache.Key( this.sql, resultSetType, autoGeneratedKeys, columnNames );
 		}
 
 		public PreparedStatement prepareStatement() {
 			try {
 				jdbcCoordinator.getLogicalConnection().getJdbcServices().getSqlStatementLogger().logStatement( sql );
 
+				if ( statementCache != null ) {
+					final PreparedStatement cachedStatement = statementCache.take( cacheKey );
+					if ( cachedStatement != null ) {
+						setStatementTimeout( cachedStatement );
+						register( cachedStatement );
+						return cachedStatement;
+					}
+				}
+
 				final PreparedStatement preparedStatement;
 				try {
 					jdbcCoordinator.getTransactionCoordinator().getTransactionContext().startPrepareStatement();
@@ -200,10 +224,23 @@ class StatementPreparerImpl implements StatementPreparer {
 		protected abstract PreparedStatement doPrepare() throws SQLException;
 
 		public void postProcess(PreparedStatement preparedStatement) throws SQLException {
-			jdbcCoordinator.register( preparedStatement );
+			if ( statementCache != null && statementCache.getDefaultFetchSize() < 0 ) {
+				statementCache.setDefaultFetchSize( preparedStatement.getFetchSize() );
+			}
+			register( preparedStatement );
 			logicalConnection().notifyObserversStatementPrepared();
 		}
 
+		/**
+		 * Register a newly prepared or re-used statement with the coordinator.
+		 */
+		public void register(PreparedStatement preparedStatement) throws SQLException {
+			jdbcCoordinator.register( preparedStatement );
+			if ( cacheKey != null ) {
+				jdbcCoordinator.registerCacheable( preparedStatement, cacheKey );
+			}
+		}
+
 		private void setStatementTimeout(PreparedStatement preparedStatement) throws SQLException {
 			final int remainingTransactionTimeOutPeriod = jdbcCoordinator.determineRemainingTransactionTimeOutPeriod();
 			if ( remainingTransactionTimeOutPeriod > 0 ) {
@@ -213,12 +250,12 @@ class StatementPreparerImpl implements StatementPreparer {
 	}
 
 	private abstract class QueryStatementPreparationTemplate extends StatementPreparationTemplate {
-		protected QueryStatementPreparationTemplate(String sql) {
-			super( sql );
+		protected QueryStatementPreparationTemplate(String sql, boolean isCallable, int resultSetType) {
+			super( sql, isCallable, resultSetType, NO_KEYS_MODE, null );
 		}
 
-		public void postProcess(PreparedStatement preparedStatement) throws SQLException {
-			super.postProcess( preparedStatement );
+		public void register(PreparedStatement preparedStatement) throws SQLException {
+			super.register( preparedStatement );
 			setStatementFetchSize( preparedStatement );
 		}
 	}
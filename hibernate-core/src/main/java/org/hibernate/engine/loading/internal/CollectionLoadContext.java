@@ -39,6 +39,7 @@ import org.hibernate.HibernateException;
 import org.hibernate.cache.spi.CacheKey;
 import org.hibernate.cache.spi.entry.CollectionCacheEntry;
 import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.internal.CacheHelper;
 import org.hibernate.engine.spi.CollectionEntry;
 import org.hibernate.engine.spi.CollectionKey;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
@@ -269,16 +270,21 @@ public class CollectionLoadContext {
 			LOG.debugf( "%s collections were found in result set for role: %s", count, persister.getRole() );
 		}
 
+		final PendingCachePuts cachePuts = new PendingCachePuts();
 		for ( LoadingCollectionEntry matchedCollectionEntry : matchedCollectionEntries ) {
-			endLoadingCollection( matchedCollectionEntry, persister );
+			endLoadingCollection( matchedCollectionEntry, persister, cachePuts );
 		}
+		putCollectionsInCache( cachePuts, persister );
 
 		if ( debugEnabled ) {
 			LOG.debugf( "%s collections initialized for role: %s", count, persister.getRole() );
 		}
 	}
 
-	private void endLoadingCollection(LoadingCollectionEntry lce, CollectionPersister persister) {
+	private void endLoadingCollection(
+			LoadingCollectionEntry lce,
+			CollectionPersister persister,
+			PendingCachePuts cachePuts) {
 		LOG.tracev( "Ending loading collection [{0}]", lce );
 		final SessionImplementor session = getLoadContext().getPersistenceContext().getSession();
 
@@ -310,7 +316,7 @@ public class CollectionLoadContext {
 				// and this is not a forced initialization during flush
 				&& session.getCacheMode().isPutEnabled() && !ce.isDoremove();
 		if ( addToCache ) {
-			addCollectionToCache( lce, persister );
+			addCollectionToCache( lce, persister, cachePuts );
 		}
 
 		if ( LOG.isDebugEnabled() ) {
@@ -325,14 +331,15 @@ public class CollectionLoadContext {
 	}
 
 	/**
-	 * Add the collection to the second-level cache
+	 * Prepare the collection for the second-level cache; the actual put is done for all the collections of the
+	 * result set at once by {@link #putCollectionsInCache}
 	 *
 	 * @param lce The entry representing the collection to add
 	 * @param persister The persister
+	 * @param cachePuts The puts collected so far
 	 */
-	private void addCollectionToCache(LoadingCollectionEntry lce, CollectionPersister persister) {
+	private void addCollectionToCache(LoadingCollectionEntry lce, CollectionPersister persister, PendingCachePuts cachePuts) {
 		final SessionImplementor session = getLoadContext().getPersistenceContext().getSession();
-		final SessionFactoryImplementor factory = session.getFactory();
 
 		final boolean debugEnabled = LOG.isDebugEnabled();
 		if ( debugEnabled ) {
@@ -386,18 +393,42 @@ public class CollectionLoadContext {
 		final CollectionCacheEntry entry = new CollectionCacheEntry( lce.getCollection(), persister );
 		final CacheKey cacheKey = session.generateCacheKey( lce.getKey(), persister.getKeyType(), persister.getRole() );
 
+		cachePuts.keys.add( cacheKey );
+		cachePuts.values.add( persister.getCacheEntryStructure().structure( entry ) );
+		cachePuts.versions.add( version );
+	}
+
+	/**
+	 * Add the prepared collections to the second-level cache, in a single call to the cache access strategy if it
+	 * supports bulk puts
+	 *
+	 * @param cachePuts The prepared puts
+	 * @param persister The persister
+	 */
+	private void putCollectionsInCache(PendingCachePuts cachePuts, CollectionPersister persister) {
+		if ( cachePuts.keys.isEmpty() ) {
+			return;
+		}
+
+		final SessionImplementor session = getLoadContext().getPersistenceContext().getSession();
+		final SessionFactoryImplementor factory = session.getFactory();
+
 		try {
 			session.getEventListenerManager().cachePutStart();
-			final boolean put = persister.getCacheAccessStrategy().putFromLoad(
-					cacheKey,
-					persister.getCacheEntryStructure().structure( entry ),
+			final int puts = CacheHelper.putFromLoadAll(
+					persister.getCacheAccessStrategy(),
+					cachePuts.keys.toArray(),
+					cachePuts.values.toArray(),
 					session.getTimestamp(),
-					version,
+					cachePuts.versions.toArray(),
 					factory.getSettings().isMinimalPutsEnabled() && session.getCacheMode()!= CacheMode.REFRESH
 			);
 
-			if ( put && factory.getStatistics().isStatisticsEnabled() ) {
-				factory.getStatisticsImplementor().secondLevelCachePut( persister.getCacheAccessStrategy().getRegion().getName() );
+			if ( factory.getStatistics().isStatisticsEnabled() ) {
+				final String regionName = persister.getCacheAccessStrategy().getRegion().getName();
+				for ( int i = 0; i < puts; i++ ) {
+					factory.getStatisticsImplementor().secondLevelCachePut( regionName );
+				}
 			}
 		}
 		finally {
@@ -405,6 +436,15 @@ public class CollectionLoadContext {
 		}
 	}
 
+	/**
+	 * The second-level cache puts of the collections being ended together
+	 */
+	private static class PendingCachePuts {
+		private final List<CacheKey> keys = new ArrayList<CacheKey>();
+		private final List<Object> values = new ArrayList<Object>();
+		private final List<Object> versions = new ArrayList<Object>();
+	}
+
 	void cleanup() {
 		if ( !localLoadingCollectionKeys.isEmpty() ) {
 			LOG.localLoadingCollectionKeysCount( localLoadingCollectionKeys.size() );
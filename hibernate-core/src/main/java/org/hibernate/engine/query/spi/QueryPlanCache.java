@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.hibernate.Filter;
 import org.hibernate.MappingException;
@@ -41,6 +42,7 @@ import org.hibernate.internal.CoreLogging;
 import org.hibernate.internal.CoreMessageLogger;
 import org.hibernate.internal.FilterImpl;
 import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.internal.util.collections.BoundedWeightedConcurrentCache;
 import org.hibernate.internal.util.collections.CollectionHelper;
 import org.hibernate.internal.util.config.ConfigurationHelper;
 
@@ -49,6 +51,7 @@ import org.hibernate.internal.util.config.ConfigurationHelper;
  *
  * @see Environment#QUERY_PLAN_CACHE_PARAMETER_METADATA_MAX_SIZE
  * @see Environment#QUERY_PLAN_CACHE_MAX_SIZE
+ * @see Environment#QUERY_PLAN_CACHE_MAX_WEIGHT
  *
  * @author Steve Ebersole
  */
@@ -67,9 +70,9 @@ public class QueryPlanCache implements Serializable {
 	private final SessionFactoryImplementor factory;
 
 	/**
-	 * the cache of the actual plans...
+	 * the cache of the actual plans, bounded by count and by estimated retained size...
 	 */
-	private final BoundedConcurrentHashMap queryPlanCache;
+	private final BoundedWeightedConcurrentCache<Object,Object> queryPlanCache;
 
 	/**
 	 * simple cache of param metadata based on query string.  Ideally, the original "user-supplied query"
@@ -113,7 +116,21 @@ public class QueryPlanCache implements Serializable {
 			);
 		}
 
-		queryPlanCache = new BoundedConcurrentHashMap( maxQueryPlanCount, 20, BoundedConcurrentHashMap.Eviction.LIRS );
+		long maxQueryPlanWeight = ConfigurationHelper.getLong(
+				Environment.QUERY_PLAN_CACHE_MAX_WEIGHT,
+				factory.getProperties(),
+				-1
+		);
+		if ( maxQueryPlanWeight <= 0 ) {
+			maxQueryPlanWeight = Long.MAX_VALUE;
+		}
+
+		queryPlanCache = new BoundedWeightedConcurrentCache<Object,Object>(
+				maxQueryPlanCount,
+				maxQueryPlanWeight,
+				new QueryPlanWeigher(),
+				new QueryPlanEvictionListener( factory )
+		);
 		parameterMetadataCache = new BoundedConcurrentHashMap<String, ParameterMetadata>(
 				maxParameterMetadataCount,
 				20,
@@ -187,10 +204,13 @@ public class QueryPlanCache implements Serializable {
 		HQLQueryPlan value = (HQLQueryPlan) queryPlanCache.get( key );
 		if ( value == null ) {
 			LOG.tracev( "Unable to locate HQL query plan in cache; generating ({0})", queryString );
+			final long start = System.nanoTime();
 			value = new HQLQueryPlan( queryString, shallow, enabledFilters, factory );
+			queryPlanCompiled( queryString, start );
 			queryPlanCache.putIfAbsent( key, value );
 		} else {
 			LOG.tracev( "Located HQL query plan in cache ({0})", queryString );
+			queryPlanCacheHit( queryString );
 		}
 		return value;
 	}
@@ -222,11 +242,14 @@ public class QueryPlanCache implements Serializable {
 					collectionRole,
 					filterString
 			);
+			final long start = System.nanoTime();
 			value = new FilterQueryPlan( filterString, collectionRole, shallow, enabledFilters,factory );
+			queryPlanCompiled( filterString, start );
 			queryPlanCache.putIfAbsent( key, value );
 		}
 		else {
 			LOG.tracev( "Located collection-filter query plan in cache ({0} : {1})", collectionRole, filterString );
+			queryPlanCacheHit( filterString );
 		}
 		return value;
 	}
@@ -246,15 +269,53 @@ public class QueryPlanCache implements Serializable {
 		NativeSQLQueryPlan value = (NativeSQLQueryPlan) queryPlanCache.get( spec );
 		if ( value == null ) {
 			LOG.tracev( "Unable to locate native-sql query plan in cache; generating ({0})", spec.getQueryString() );
+			final long start = System.nanoTime();
 			value = new NativeSQLQueryPlan( spec, factory);
+			queryPlanCompiled( spec.getQueryString(), start );
 			queryPlanCache.putIfAbsent( spec, value );
 		}
 		else {
 			LOG.tracev( "Located native-sql query plan in cache ({0})", spec.getQueryString() );
+			queryPlanCacheHit( spec.getQueryString() );
 		}
 		return value;
 	}
 
+	private void queryPlanCacheHit(String query) {
+		if ( factory.getStatistics().isStatisticsEnabled() ) {
+			factory.getStatisticsImplementor().queryPlanCacheHit( query );
+		}
+	}
+
+	private void queryPlanCompiled(String query, long startNanos) {
+		if ( factory.getStatistics().isStatisticsEnabled() ) {
+			factory.getStatisticsImplementor().queryPlanCacheMiss(
+					query,
+					TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startNanos )
+			);
+		}
+	}
+
+	/**
+	 * Get the number of plans currently cached.
+	 *
+	 * @return The number of cached plans
+	 */
+	public int getQueryPlanCount() {
+		return queryPlanCache.size();
+	}
+
+	/**
+	 * Get the summed estimated size, in bytes, of the plans currently cached.
+	 *
+	 * @return The estimated size of the cached plans
+	 *
+	 * @see Environment#QUERY_PLAN_CACHE_MAX_WEIGHT
+	 */
+	public long getQueryPlanWeight() {
+		return queryPlanCache.getWeight();
+	}
+
 	/**
 	 * clean up QueryPlanCache when SessionFactory is closed
 	 */
@@ -264,6 +325,72 @@ public class QueryPlanCache implements Serializable {
 		parameterMetadataCache.clear();
 	}
 
+	/**
+	 * Estimates the retained size of a plan from the strings it holds (source query and generated SQL, 2 bytes
+	 * per char) plus a fixed allowance per plan, per translator (AST-derived metadata) and per parameter, the latter
+	 * dominating for generated IN-lists.
+	 */
+	private static class QueryPlanWeigher implements BoundedWeightedConcurrentCache.Weigher<Object>, Serializable {
+		private static final int PLAN_OVERHEAD = 512;
+		private static final int TRANSLATOR_OVERHEAD = 2048;
+		private static final int PARAMETER_OVERHEAD = 64;
+
+		@Override
+		public long weigh(Object plan) {
+			if ( plan instanceof HQLQueryPlan ) {
+				final HQLQueryPlan hqlPlan = (HQLQueryPlan) plan;
+				long weight = PLAN_OVERHEAD + chars( hqlPlan.getSourceQuery() );
+				for ( String sql : hqlPlan.getSqlStrings() ) {
+					weight += chars( sql );
+				}
+				weight += (long) hqlPlan.getTranslators().length * TRANSLATOR_OVERHEAD;
+				return weight + parameters( hqlPlan.getParameterMetadata() );
+			}
+			else if ( plan instanceof NativeSQLQueryPlan ) {
+				final NativeSQLQueryPlan sqlPlan = (NativeSQLQueryPlan) plan;
+				return PLAN_OVERHEAD
+						+ chars( sqlPlan.getSourceQuery() )
+						+ chars( sqlPlan.getCustomQuery().getSQL() );
+			}
+			return PLAN_OVERHEAD;
+		}
+
+		private static long chars(String string) {
+			return string == null ? 0 : 2L * string.length();
+		}
+
+		private static long parameters(ParameterMetadata parameterMetadata) {
+			if ( parameterMetadata == null ) {
+				return 0;
+			}
+			final long count = parameterMetadata.getOrdinalParameterCount()
+					+ parameterMetadata.getNamedParameterNames().size();
+			return count * PARAMETER_OVERHEAD;
+		}
+	}
+
+	private static class QueryPlanEvictionListener
+			implements BoundedConcurrentHashMap.EvictionListener<Object,Object>, Serializable {
+		private final transient SessionFactoryImplementor factory;
+
+		private QueryPlanEvictionListener(SessionFactoryImplementor factory) {
+			this.factory = factory;
+		}
+
+		@Override
+		public void onEntryEviction(Map<Object,Object> evicted) {
+			LOG.tracev( "Evicted {0} query plans from cache", evicted.size() );
+			if ( factory != null && factory.getStatistics().isStatisticsEnabled() ) {
+				factory.getStatisticsImplementor().queryPlanCacheEviction( evicted.size() );
+			}
+		}
+
+		@Override
+		public void onEntryChosenForEviction(Object internalCacheEntry) {
+			// Do nothing.
+		}
+	}
+
 	private static class HQLQueryPlanKey implements Serializable {
 		private final String query;
 		private final boolean shallow;
@@ -46,6 +46,7 @@ import org.hibernate.action.internal.BulkOperationCleanupAction;
 import org.hibernate.action.internal.CollectionRecreateAction;
 import org.hibernate.action.internal.CollectionRemoveAction;
 import org.hibernate.action.internal.CollectionUpdateAction;
+import org.hibernate.action.internal.EntityAction;
 import org.hibernate.action.internal.EntityDeleteAction;
 import org.hibernate.action.internal.EntityIdentityInsertAction;
 import org.hibernate.action.internal.EntityInsertAction;
@@ -285,7 +286,10 @@ public class ActionQueue {
 	private void registerCleanupActions(Executable executable) {
 		beforeTransactionProcesses.register( executable.getBeforeTransactionCompletionProcess() );
 		if ( session.getFactory().getSettings().isQueryCacheEnabled() ) {
-			invalidateSpaces( executable.getPropertySpaces() );
+			invalidateSpaces(
+					executable.getPropertySpaces(),
+					collectInvalidationKeys( Collections.singletonList( executable ) )
+			);
 		}
 		afterTransactionProcesses.register( executable.getAfterTransactionCompletionProcess() );
 	}
@@ -464,7 +468,10 @@ public class ActionQueue {
 				// We still invalidate all spaces. I don't see this as a big deal - after all, RuntimeExceptions are
 				// unexpected.
 				Set<Serializable> propertySpaces = list.getQuerySpaces();
-				invalidateSpaces( propertySpaces.toArray( new Serializable[propertySpaces.size()] ) );
+				invalidateSpaces(
+						propertySpaces.toArray( new Serializable[propertySpaces.size()] ),
+						collectInvalidationKeys( list )
+				);
 			}
 		}
 
@@ -488,15 +495,62 @@ public class ActionQueue {
 	 * This method is now called once per execution of an ExecutableList or once for execution of an Execution.
 	 * 
 	 * @param spaces The spaces to invalidate
+	 * @param invalidationKeys The keys of the entities written, by space, if known (see
+	 * {@link #collectInvalidationKeys})
 	 */
-	private void invalidateSpaces(Serializable... spaces) {
+	private void invalidateSpaces(Serializable[] spaces, Map<Serializable, Set<Object>> invalidationKeys) {
 		if ( spaces != null && spaces.length > 0 ) {
 			for ( Serializable s : spaces ) {
-				afterTransactionProcesses.addSpaceToInvalidate( (String) s );
+				afterTransactionProcesses.addSpaceToInvalidate(
+						(String) s,
+						invalidationKeys == null ? null : invalidationKeys.get( s )
+				);
 			}
 			// Performance win: If we are processing an ExecutableList, this will only be called once
-			session.getFactory().getUpdateTimestampsCache().preInvalidate( spaces, session );
+			session.getFactory().getUpdateTimestampsCache().preInvalidate( spaces, invalidationKeys, session );
+		}
+	}
+
+	/**
+	 * Collect the keys of the entities written by the given actions, by query space, when the update timestamps
+	 * track them for scoped query cache invalidation.  Spaces written by an action without keys (collection and
+	 * bulk actions, or entity actions whose instance is not fully known) are left out, and so invalidated as a
+	 * whole.
+	 *
+	 * @param executables The executed actions
+	 *
+	 * @return The keys by space, or {@code null} if the update timestamps do not track them
+	 */
+	private Map<Serializable, Set<Object>> collectInvalidationKeys(Iterable<? extends Executable> executables) {
+		if ( !session.getFactory().getUpdateTimestampsCache().isTrackingInvalidationKeys() ) {
+			return null;
+		}
+		final Map<Serializable, Set<Object>> invalidationKeys = new HashMap<Serializable, Set<Object>>();
+		final Set<Serializable> unkeyedSpaces = new HashSet<Serializable>();
+		for ( Executable executable : executables ) {
+			final Serializable[] spaces = executable.getPropertySpaces();
+			if ( spaces == null ) {
+				continue;
+			}
+			final Object[] keys = executable instanceof EntityAction
+					? ( (EntityAction) executable ).getQueryCacheInvalidationKeys()
+					: null;
+			for ( Serializable space : spaces ) {
+				if ( keys == null ) {
+					unkeyedSpaces.add( space );
+					invalidationKeys.remove( space );
+				}
+				else if ( !unkeyedSpaces.contains( space ) ) {
+					Set<Object> spaceKeys = invalidationKeys.get( space );
+					if ( spaceKeys == null ) {
+						spaceKeys = new HashSet<Object>();
+						invalidationKeys.put( space, spaceKeys );
+					}
+					Collections.addAll( spaceKeys, keys );
+				}
+			}
 		}
+		return invalidationKeys;
 	}
 
 	/**
@@ -687,6 +741,8 @@ public class ActionQueue {
 	private static class AfterTransactionCompletionProcessQueue {
 		private SessionImplementor session;
 		private Set<String> querySpacesToInvalidate = new HashSet<String>();
+		// the keys of the entities written to the spaces only invalidated by entity actions knowing them
+		private Map<Serializable, Set<Object>> invalidationKeys = new HashMap<Serializable, Set<Object>>();
 		// Concurrency handling required when transaction completion process is dynamically registered
 		// inside event listener (HHH-7478).
 		private Queue<AfterTransactionCompletionProcess> processes = new ConcurrentLinkedQueue<AfterTransactionCompletionProcess>();
@@ -695,8 +751,21 @@ public class ActionQueue {
 			this.session = session;
 		}
 
-		public void addSpaceToInvalidate(String space) {
-			querySpacesToInvalidate.add( space );
+		public void addSpaceToInvalidate(String space, Set<Object> keys) {
+			if ( querySpacesToInvalidate.add( space ) ) {
+				if ( keys != null ) {
+					invalidationKeys.put( space, new HashSet<Object>( keys ) );
+				}
+			}
+			else if ( keys == null ) {
+				invalidationKeys.remove( space );
+			}
+			else {
+				final Set<Object> spaceKeys = invalidationKeys.get( space );
+				if ( spaceKeys != null ) {
+					spaceKeys.addAll( keys );
+				}
+			}
 		}
 
 		public void register(AfterTransactionCompletionProcess process) {
@@ -724,10 +793,12 @@ public class ActionQueue {
 			if ( session.getFactory().getSettings().isQueryCacheEnabled() ) {
 				session.getFactory().getUpdateTimestampsCache().invalidate(
 						querySpacesToInvalidate.toArray( new String[querySpacesToInvalidate.size()] ),
+						invalidationKeys,
 						session
 				);
 			}
 			querySpacesToInvalidate.clear();
+			invalidationKeys.clear();
 		}
 	}
 
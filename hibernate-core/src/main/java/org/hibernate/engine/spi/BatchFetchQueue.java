@@ -24,19 +24,24 @@
 package org.hibernate.engine.spi;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import org.hibernate.EntityMode;
 import org.hibernate.cache.spi.CacheKey;
+import org.hibernate.cache.spi.access.RegionAccessStrategy;
 import org.hibernate.collection.spi.PersistentCollection;
 import org.hibernate.engine.internal.CacheHelper;
 import org.hibernate.internal.CoreLogging;
 import org.hibernate.persister.collection.CollectionPersister;
 import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
 
 import org.jboss.logging.Logger;
 
@@ -52,6 +57,11 @@ import org.jboss.logging.Logger;
 public class BatchFetchQueue {
 	private static final Logger LOG = CoreLogging.logger( BatchFetchQueue.class );
 
+	/**
+	 * Returned by {@link #getCacheReadAheadEntry} for keys which were not registered for read ahead.
+	 */
+	public static final Object NOT_READ_AHEAD = new Object();
+
 	private final PersistenceContext context;
 
 	/**
@@ -76,6 +86,22 @@ public class BatchFetchQueue {
 	private final Map<String, LinkedHashMap<CollectionEntry, PersistentCollection>> batchLoadableCollections =
 			new HashMap<String, LinkedHashMap <CollectionEntry, PersistentCollection>>(8);
 
+	/**
+	 * Used to hold the second level cache keys of the entities about to be resolved one after the other, segmented by
+	 * the access strategy of their region.  The first lookup of one of these keys reads all the keys of the region,
+	 * see {@link #getCacheReadAheadEntry}.  Only kept between {@link #beginCacheReadAhead} and
+	 * {@link #endCacheReadAhead}; lazily created since most sessions never read ahead.
+	 */
+	private Map<RegionAccessStrategy, LinkedHashSet<CacheKey>> cacheReadAheadKeys;
+
+	/**
+	 * The entries read ahead from the second level cache and not yet resolved, keyed by cache key.  Keys which were
+	 * not found in the cache map to null.
+	 */
+	private Map<Object, Object> cacheReadAheadEntries;
+
+	private int cacheReadAheadDepth;
+
 	/**
 	 * Constructs a queue for the given context.
 	 *
@@ -94,6 +120,7 @@ public class BatchFetchQueue {
 		batchLoadableEntityKeys.clear();
 		batchLoadableCollections.clear();
 		subselectsByEntityKey.clear();
+		clearCacheReadAhead();
 	}
 
 
@@ -183,50 +210,32 @@ public class BatchFetchQueue {
 			final Serializable id,
 			final int batchSize,
 			final EntityMode entityMode) {
-		Serializable[] ids = new Serializable[batchSize];
-		ids[0] = id; //first element of array is reserved for the actual instance we are loading!
-		int i = 1;
-		int end = -1;
-		boolean checkForEnd = false;
+		final BatchBuilder batch = new BatchBuilder(
+				context.getSession(),
+				persister.hasCache() ? persister.getCacheAccessStrategy() : null,
+				cacheReadAheadEntries,
+				id,
+				batchSize
+		);
 
 		// TODO: this needn't exclude subclasses...
 
 		LinkedHashSet<EntityKey> set =  batchLoadableEntityKeys.get( persister.getEntityName() );
 		if ( set != null ) {
 			for ( EntityKey key : set ) {
-				if ( checkForEnd && i == end ) {
+				if ( batch.isComplete() ) {
 					//the first id found after the given id
-					return ids;
+					break;
 				}
 				if ( persister.getIdentifierType().isEqual( id, key.getIdentifier() ) ) {
-					end = i;
+					batch.requested();
 				}
 				else {
-					if ( !isCached( key, persister ) ) {
-						ids[i++] = key.getIdentifier();
-					}
-				}
-				if ( i == batchSize ) {
-					i = 1; // end of array, start filling again from start
-					if ( end != -1 ) {
-						checkForEnd = true;
-					}
+					batch.candidate( key.getIdentifier(), persister.getIdentifierType(), key.getEntityName() );
 				}
 			}
 		}
-		return ids; //we ran out of ids to try
-	}
-
-	private boolean isCached(EntityKey entityKey, EntityPersister persister) {
-		if ( persister.hasCache() ) {
-			final CacheKey key = context.getSession().generateCacheKey(
-					entityKey.getIdentifier(),
-					persister.getIdentifierType(),
-					entityKey.getEntityName()
-			);
-			return CacheHelper.fromSharedCache( context.getSession(), key, persister.getCacheAccessStrategy() ) != null;
-		}
-		return false;
+		return batch.build(); //we ran out of ids to try
 	}
 	
 
@@ -272,12 +281,13 @@ public class BatchFetchQueue {
 			final Serializable id,
 			final int batchSize) {
 
-		Serializable[] keys = new Serializable[batchSize];
-		keys[0] = id;
-
-		int i = 1;
-		int end = -1;
-		boolean checkForEnd = false;
+		final BatchBuilder batch = new BatchBuilder(
+				context.getSession(),
+				collectionPersister.hasCache() ? collectionPersister.getCacheAccessStrategy() : null,
+				null,
+				id,
+				batchSize
+		);
 
 		final LinkedHashMap<CollectionEntry, PersistentCollection> map =  batchLoadableCollections.get( collectionPersister.getRole() );
 		if ( map != null ) {
@@ -300,8 +310,9 @@ public class BatchFetchQueue {
 					continue;
 				}
 
-				if ( checkForEnd && i == end ) {
-					return keys; //the first key found after the given key
+				if ( batch.isComplete() ) {
+					//the first key found after the given key
+					break;
 				}
 
 				final boolean isEqual = collectionPersister.getKeyType().isEqual(
@@ -311,34 +322,216 @@ public class BatchFetchQueue {
 				);
 
 				if ( isEqual ) {
-					end = i;
-					//checkForEnd = false;
+					batch.requested();
 				}
-				else if ( !isCached( ce.getLoadedKey(), collectionPersister ) ) {
-					keys[i++] = ce.getLoadedKey();
-					//count++;
+				else {
+					batch.candidate( ce.getLoadedKey(), collectionPersister.getKeyType(), collectionPersister.getRole() );
 				}
+			}
+		}
+		return batch.build(); //we ran out of keys to try
+	}
+
+	// second level cache read ahead support ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+	/**
+	 * Starts collecting the second level cache keys of entities about to be resolved, typically while assembling
+	 * a cached collection or query result.  Calls may be nested; every call must be paired with a call to
+	 * {@link #endCacheReadAhead}.
+	 */
+	public void beginCacheReadAhead() {
+		cacheReadAheadDepth++;
+	}
+
+	/**
+	 * Ends the scope started by {@link #beginCacheReadAhead}.  When the outermost scope ends, the keys and entries
+	 * which were not resolved are dropped, so that entries read ahead never outlive the assembly they were read for.
+	 */
+	public void endCacheReadAhead() {
+		if ( --cacheReadAheadDepth == 0 ) {
+			clearCacheReadAhead();
+		}
+	}
+
+	private void clearCacheReadAhead() {
+		cacheReadAheadKeys = null;
+		cacheReadAheadEntries = null;
+	}
+
+	/**
+	 * Register the second level cache key of an entity about to be resolved.  Ignored outside of a
+	 * {@link #beginCacheReadAhead} scope.
+	 * <p/>
+	 * As for {@link #addBatchLoadableEntityKey}, the entity should have been checked for existence within the
+	 * {@link PersistenceContext}.
+	 *
+	 * @param key The cache key of the entity
+	 * @param cacheAccessStrategy The access strategy of the region caching the entity
+	 */
+	public void addCacheReadAheadKey(CacheKey key, RegionAccessStrategy cacheAccessStrategy) {
+		if ( cacheReadAheadDepth == 0 ) {
+			return;
+		}
+		if ( cacheReadAheadKeys == null ) {
+			cacheReadAheadKeys = new HashMap<RegionAccessStrategy, LinkedHashSet<CacheKey>>( 4 );
+		}
+		LinkedHashSet<CacheKey> keys = cacheReadAheadKeys.get( cacheAccessStrategy );
+		if ( keys == null ) {
+			keys = new LinkedHashSet<CacheKey>( 16 );
+			cacheReadAheadKeys.put( cacheAccessStrategy, keys );
+		}
+		keys.add( key );
+	}
 
-				if ( i == batchSize ) {
-					i = 1; //end of array, start filling again from start
-					if ( end != -1 ) {
-						checkForEnd = true;
-					}
+	/**
+	 * Resolve a second level cache lookup from the entries read ahead.  If the key was registered but not read yet,
+	 * all the keys registered for the same region are read from it first: in a single call if its access strategy is
+	 * a {@link org.hibernate.cache.spi.access.BulkRegionAccessStrategy}, one key at a time otherwise.  Each entry is
+	 * handed out once; later lookups of the same key go to the region again.
+	 *
+	 * @param key The cache key being looked up
+	 * @param cacheAccessStrategy The access strategy of the region holding the key
+	 *
+	 * @return The cached value, null if it is not in the cache, or {@link #NOT_READ_AHEAD} if the key was not
+	 * registered for read ahead
+	 */
+	public Object getCacheReadAheadEntry(CacheKey key, RegionAccessStrategy cacheAccessStrategy) {
+		if ( cacheReadAheadEntries != null && cacheReadAheadEntries.containsKey( key ) ) {
+			return cacheReadAheadEntries.remove( key );
+		}
+		if ( cacheReadAheadKeys == null ) {
+			return NOT_READ_AHEAD;
+		}
+		final LinkedHashSet<CacheKey> keys = cacheReadAheadKeys.get( cacheAccessStrategy );
+		if ( keys == null || !keys.contains( key ) ) {
+			return NOT_READ_AHEAD;
+		}
+		cacheReadAheadKeys.remove( cacheAccessStrategy );
+
+		final Map<Object, Object> cached = CacheHelper.fromSharedCache( context.getSession(), keys, cacheAccessStrategy );
+		if ( cacheReadAheadEntries == null ) {
+			cacheReadAheadEntries = new HashMap<Object, Object>( keys.size() * 2 );
+		}
+		for ( CacheKey readAhead : keys ) {
+			cacheReadAheadEntries.put( readAhead, cached.get( readAhead ) );
+		}
+		return cacheReadAheadEntries.remove( key );
+	}
+
+	/**
+	 * Fills a batch the way it has always been filled: keys registered after the requested one are preferred,
+	 * wrapping around the batch until the requested key has been passed again, and keys already held by the second
+	 * level cache are skipped.  The candidate keys are buffered so that the cache is asked about a whole buffer of
+	 * keys at once rather than about each key in turn.
+	 */
+	private static final class BatchBuilder {
+		private final SessionImplementor session;
+		private final RegionAccessStrategy cacheAccessStrategy;
+		private final Map<Object, Object> knownCacheEntries;
+		private final Serializable[] ids;
+		private int i = 1;
+		private int end = -1;
+		private boolean checkForEnd;
+
+		private final List<Serializable> pendingIds;
+		private final List<CacheKey> pendingCacheKeys;
+
+		private BatchBuilder(
+				SessionImplementor session,
+				RegionAccessStrategy cacheAccessStrategy,
+				Map<Object, Object> knownCacheEntries,
+				Serializable id,
+				int batchSize) {
+			this.session = session;
+			this.cacheAccessStrategy = cacheAccessStrategy;
+			this.knownCacheEntries = knownCacheEntries == null
+					? Collections.<Object, Object>emptyMap()
+					: knownCacheEntries;
+			this.ids = new Serializable[batchSize];
+			//first element of array is reserved for the actual instance we are loading!
+			this.ids[0] = id;
+			if ( cacheAccessStrategy == null ) {
+				this.pendingIds = null;
+				this.pendingCacheKeys = null;
+			}
+			else {
+				this.pendingIds = new ArrayList<Serializable>( batchSize );
+				this.pendingCacheKeys = new ArrayList<CacheKey>( batchSize );
+			}
+		}
+
+		private boolean isComplete() {
+			return checkForEnd && i == end;
+		}
+
+		private void requested() {
+			flush();
+			if ( !isComplete() ) {
+				end = i;
+				wrapIfFull();
+			}
+		}
+
+		private void candidate(Serializable id, Type type, String entityOrRoleName) {
+			if ( cacheAccessStrategy == null ) {
+				add( id );
+				return;
+			}
+			final CacheKey cacheKey = session.generateCacheKey( id, type, entityOrRoleName );
+			if ( knownCacheEntries.containsKey( cacheKey ) ) {
+				// already read ahead, no need to ask the cache again
+				flush();
+				if ( knownCacheEntries.get( cacheKey ) == null ) {
+					add( id );
 				}
+				return;
+			}
+			pendingIds.add( id );
+			pendingCacheKeys.add( cacheKey );
+			if ( pendingIds.size() == ids.length ) {
+				flush();
 			}
 		}
-		return keys; //we ran out of keys to try
-	}
 
-	private boolean isCached(Serializable collectionKey, CollectionPersister persister) {
-		if ( persister.hasCache() ) {
-			CacheKey cacheKey = context.getSession().generateCacheKey(
-					collectionKey,
-					persister.getKeyType(),
-					persister.getRole()
-			);
-			return CacheHelper.fromSharedCache( context.getSession(), cacheKey, persister.getCacheAccessStrategy() ) != null;
+		private Serializable[] build() {
+			flush();
+			return ids;
+		}
+
+		private void flush() {
+			if ( pendingIds == null || pendingIds.isEmpty() ) {
+				return;
+			}
+			if ( isComplete() ) {
+				pendingIds.clear();
+				pendingCacheKeys.clear();
+				return;
+			}
+			final Map<Object, Object> cached = CacheHelper.fromSharedCache( session, pendingCacheKeys, cacheAccessStrategy );
+			for ( int j = 0; j < pendingIds.size(); j++ ) {
+				if ( !cached.containsKey( pendingCacheKeys.get( j ) ) ) {
+					add( pendingIds.get( j ) );
+				}
+			}
+			pendingIds.clear();
+			pendingCacheKeys.clear();
+		}
+
+		private void add(Serializable id) {
+			if ( isComplete() ) {
+				return;
+			}
+			ids[i++] = id;
+			wrapIfFull();
+		}
+
+		private void wrapIfFull() {
+			if ( i == ids.length ) {
+				i = 1; //end of array, start filling again from start
+				if ( end != -1 ) {
+					checkForEnd = true;
+				}
+			}
 		}
-		return false;
 	}
 }
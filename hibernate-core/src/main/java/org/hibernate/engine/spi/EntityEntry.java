@@ -311,8 +311,12 @@ public final class EntityEntry implements Serializable {
 	@SuppressWarnings( {"SimplifiableIfStatement"})
 	private boolean isUnequivocallyNonDirty(Object entity) {
 
-		if(entity instanceof SelfDirtinessTracker)
-			return ((SelfDirtinessTracker) entity).$$_hibernate_hasDirtyAttributes();
+		if ( entity instanceof SelfDirtinessTracker && !getPersister().hasMutableProperties() ) {
+			// the enhanced entity tracks its own changes, so a clean tracker means no property
+			// values need to be extracted or compared against the loaded state during flush; values
+			// of mutable types can be changed in place without the tracker knowing, though
+			return !( (SelfDirtinessTracker) entity ).$$_hibernate_hasDirtyAttributes();
+		}
 
 		final CustomEntityDirtinessStrategy customEntityDirtinessStrategy =
 				persistenceContext.getSession().getFactory().getCustomEntityDirtinessStrategy();
@@ -33,6 +33,7 @@ import java.util.StringTokenizer;
 
 import org.hibernate.HibernateException;
 import org.hibernate.LockOptions;
+import org.hibernate.QueryCacheScope;
 import org.hibernate.QueryException;
 import org.hibernate.ScrollMode;
 import org.hibernate.dialect.Dialect;
@@ -60,6 +61,7 @@ public final class QueryParameters {
 	private RowSelection rowSelection;
 	private boolean cacheable;
 	private String cacheRegion;
+	private QueryCacheScope cacheScope;
 	private String comment;
 	private List<String> queryHints;
 	private ScrollMode scrollMode;
@@ -315,6 +317,14 @@ public final class QueryParameters {
 		this.cacheRegion = cacheRegion;
 	}
 
+	public QueryCacheScope getCacheScope() {
+		return cacheScope;
+	}
+
+	public void setCacheScope(QueryCacheScope cacheScope) {
+		this.cacheScope = cacheScope;
+	}
+
 	public void validateParameters() throws QueryException {
 		final int types = positionalParameterTypes == null ? 0 : positionalParameterTypes.length;
 		final int values = positionalParameterValues == null ? 0 : positionalParameterValues.length;
@@ -584,6 +594,7 @@ public final class QueryParameters {
 				this.optionalId,
 				this.resultTransformer
 		);
+		copy.cacheScope = this.cacheScope;
 		copy.processedSQL = this.processedSQL;
 		copy.processedPositionalParameterTypes = this.processedPositionalParameterTypes;
 		copy.processedPositionalParameterValues = this.processedPositionalParameterValues;
@@ -42,4 +42,19 @@ public interface SessionBuilderImplementor extends SessionBuilder {
 	 * @return {@code this}, for method chaining
 	 */
 	public SessionBuilder owner(SessionOwner sessionOwner);
+
+	/**
+	 * Should the session be opened in read-only mode.  All entities are loaded read-only, so no loaded
+	 * state snapshots are kept for them, and the session never flushes; write operations are rejected.
+	 * First-level identity and lazy loading behave as in any other session.
+	 * <p/>
+	 * Kept off {@link SessionBuilder} so that existing implementations of that contract are not broken.
+	 *
+	 * @param readOnly Should the session be read-only
+	 *
+	 * @return {@code this}, for method chaining
+	 *
+	 * @see org.hibernate.Session#setDefaultReadOnly
+	 */
+	public SessionBuilderImplementor readOnly(boolean readOnly);
 }
@@ -33,6 +33,7 @@ import org.hibernate.Session;
 import org.hibernate.StaleObjectStateException;
 import org.hibernate.action.internal.DelayedPostInsertIdentifier;
 import org.hibernate.action.internal.EntityUpdateAction;
+import org.hibernate.bytecode.instrumentation.spi.LazyPropertyInitializer;
 import org.hibernate.engine.internal.Nullability;
 import org.hibernate.engine.internal.Versioning;
 import org.hibernate.engine.spi.EntityEntry;
@@ -500,9 +501,7 @@ public class DefaultFlushEntityEventListener implements FlushEntityEventListener
 
 		if ( dirtyProperties == null ) {
 			if ( entity instanceof SelfDirtinessTracker ) {
-				if ( ( (SelfDirtinessTracker) entity ).$$_hibernate_hasDirtyAttributes() ) {
-					dirtyProperties = persister.resolveAttributeIndexes( ( (SelfDirtinessTracker) entity ).$$_hibernate_getDirtyAttributes() );
-				}
+				dirtyProperties = findTrackedDirty( (SelfDirtinessTracker) entity, values, loadedState, persister, session );
 			}
 			else {
 				// see if the custom dirtiness strategy can tell us...
@@ -593,6 +592,57 @@ public class DefaultFlushEntityEventListener implements FlushEntityEventListener
 
 	}
 
+	/**
+	 * Find the dirty properties of an entity tracking its own dirty attributes.  The tracker does not see values of
+	 * mutable types (dates, arrays, components...) being changed in place, so those properties are still compared
+	 * against the loaded state.
+	 *
+	 * @return The dirty properties, or null if they cannot be told without a full dirty check
+	 */
+	private int[] findTrackedDirty(
+			SelfDirtinessTracker entity,
+			Object[] values,
+			Object[] loadedState,
+			EntityPersister persister,
+			SessionImplementor session) {
+		final int[] tracked = entity.$$_hibernate_hasDirtyAttributes()
+				? persister.resolveAttributeIndexes( entity.$$_hibernate_getDirtyAttributes() )
+				: ArrayHelper.EMPTY_INT_ARRAY;
+		if ( loadedState == null || !persister.hasMutableProperties() ) {
+			return tracked.length == 0 ? null : tracked;
+		}
+
+		final Type[] types = persister.getPropertyTypes();
+		final boolean[] checkable = persister.getPropertyCheckability();
+		final boolean[] dirty = new boolean[types.length];
+		for ( int index : tracked ) {
+			dirty[index] = true;
+		}
+		int count = tracked.length;
+		for ( int i = 0; i < types.length; i++ ) {
+			if ( !dirty[i]
+					&& checkable[i]
+					&& types[i].isMutable()
+					&& values[i] != LazyPropertyInitializer.UNFETCHED_PROPERTY
+					&& loadedState[i] != LazyPropertyInitializer.UNFETCHED_PROPERTY
+					&& types[i].isDirty( loadedState[i], values[i], session ) ) {
+				dirty[i] = true;
+				count++;
+			}
+		}
+		if ( count == tracked.length ) {
+			return tracked;
+		}
+		final int[] dirtyProperties = new int[count];
+		int counter = 0;
+		for ( int i = 0; i < dirty.length; i++ ) {
+			if ( dirty[i] ) {
+				dirtyProperties[counter++] = i;
+			}
+		}
+		return dirtyProperties;
+	}
+
 	private class DirtyCheckAttributeInfoImpl implements CustomEntityDirtinessStrategy.AttributeInformation {
 		private final FlushEntityEvent event;
 		private final EntityPersister persister;
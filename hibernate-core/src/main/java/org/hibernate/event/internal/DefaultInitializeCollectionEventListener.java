@@ -157,7 +157,14 @@ public class DefaultInitializeCollectionEventListener implements InitializeColle
 		);
 
 		final PersistenceContext persistenceContext = source.getPersistenceContext();
-		cacheEntry.assemble( collection, persister, persistenceContext.getCollectionOwner( id, persister ) );
+		// the cached elements are resolved one by one, let them be read ahead from the second level cache as a whole
+		persistenceContext.getBatchFetchQueue().beginCacheReadAhead();
+		try {
+			cacheEntry.assemble( collection, persister, persistenceContext.getCollectionOwner( id, persister ) );
+		}
+		finally {
+			persistenceContext.getBatchFetchQueue().endCacheReadAhead();
+		}
 		persistenceContext.getCollectionEntry( collection ).postInitialize( collection );
 		// addInitializedCollection(collection, persister, id);
 		return true;
@@ -0,0 +1,195 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.id.enhanced;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.HibernateException;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.internal.CoreMessageLogger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Variation of {@link PooledLoOptimizer} which does not serialize generation on a monitor.
+ * <p/>
+ * Values are handed out from the current block through an atomic cursor.  Once half of a block has been handed
+ * out, the thread crossing that mark reserves the next block from the database (if no other thread is already
+ * doing so), so that the switch to the next block normally does not need a database round-trip.  Threads only
+ * wait for one another when a block runs out before the next one could be reserved.
+ * <p/>
+ * As with {@link PooledLoOptimizer}, the database value is interpreted as the low end of the reserved range.
+ * Reserved blocks are not handed out in strict order, and values of a reserved but unused block are lost on
+ * shutdown.
+ *
+ * @see PooledLoOptimizer
+ */
+public class ConcurrentPooledLoOptimizer extends AbstractOptimizer {
+	private static final CoreMessageLogger log = Logger.getMessageLogger(
+			CoreMessageLogger.class,
+			ConcurrentPooledLoOptimizer.class.getName()
+	);
+
+	private static class Block {
+		private final IntegralDataTypeHolder sourceValue;
+		private final IntegralDataTypeHolder firstValue;
+		private final int size;
+		private final AtomicInteger cursor = new AtomicInteger();
+
+		private Block(IntegralDataTypeHolder sourceValue, int incrementSize) {
+			this.sourceValue = sourceValue;
+			// handle cases where initial-value is less that one (hsqldb for instance).
+			final IntegralDataTypeHolder value = sourceValue.copy();
+			int skipped = 0;
+			while ( value.lt( 1 ) ) {
+				value.increment();
+				skipped++;
+			}
+			this.firstValue = value;
+			this.size = incrementSize - skipped;
+		}
+	}
+
+	private static class GenerationState {
+		private final ReentrantLock reservationLock = new ReentrantLock();
+		private volatile Block current;
+		private volatile Block reserved;
+		private volatile IntegralDataTypeHolder lastSourceValue;
+	}
+
+	private final int reservationThreshold;
+	private final GenerationState noTenantState = new GenerationState();
+	private final ConcurrentMap<String,GenerationState> tenantSpecificState = new ConcurrentHashMap<String, GenerationState>();
+
+	/**
+	 * Constructs a ConcurrentPooledLoOptimizer.
+	 *
+	 * @param returnClass The Java type of the values to be generated
+	 * @param incrementSize The increment size.
+	 */
+	public ConcurrentPooledLoOptimizer(Class returnClass, int incrementSize) {
+		super( returnClass, incrementSize );
+		if ( incrementSize < 1 ) {
+			throw new HibernateException( "increment size cannot be less than 1" );
+		}
+		this.reservationThreshold = incrementSize / 2;
+		if ( log.isTraceEnabled() ) {
+			log.tracev(
+					"Creating concurrent pooled optimizer (lo) with [incrementSize={0}; returnClass={1}]",
+					incrementSize,
+					returnClass.getName()
+			);
+		}
+	}
+
+	@Override
+	public Serializable generate(AccessCallback callback) {
+		final GenerationState generationState = locateGenerationState( callback.getTenantIdentifier() );
+		while ( true ) {
+			final Block block = generationState.current;
+			if ( block != null ) {
+				final int offset = block.cursor.getAndIncrement();
+				if ( offset < block.size ) {
+					if ( offset == reservationThreshold && generationState.reserved == null ) {
+						reserveNextBlock( generationState, callback );
+					}
+					return block.firstValue.copy().add( offset ).makeValue();
+				}
+			}
+			switchBlock( generationState, block, callback );
+		}
+	}
+
+	private void reserveNextBlock(GenerationState generationState, AccessCallback callback) {
+		// whoever is already reserving will publish the block; no need to wait for it
+		if ( generationState.reservationLock.tryLock() ) {
+			try {
+				if ( generationState.reserved == null ) {
+					generationState.reserved = fetchBlock( generationState, callback );
+				}
+			}
+			finally {
+				generationState.reservationLock.unlock();
+			}
+		}
+	}
+
+	private void switchBlock(GenerationState generationState, Block exhausted, AccessCallback callback) {
+		generationState.reservationLock.lock();
+		try {
+			if ( generationState.current == exhausted ) {
+				Block next = generationState.reserved;
+				if ( next == null ) {
+					next = fetchBlock( generationState, callback );
+				}
+				else {
+					generationState.reserved = null;
+				}
+				generationState.current = next;
+			}
+		}
+		finally {
+			generationState.reservationLock.unlock();
+		}
+	}
+
+	private Block fetchBlock(GenerationState generationState, AccessCallback callback) {
+		final IntegralDataTypeHolder sourceValue = callback.getNextValue();
+		generationState.lastSourceValue = sourceValue;
+		return new Block( sourceValue.copy(), incrementSize );
+	}
+
+	private GenerationState locateGenerationState(String tenantIdentifier) {
+		if ( tenantIdentifier == null ) {
+			return noTenantState;
+		}
+		GenerationState state = tenantSpecificState.get( tenantIdentifier );
+		if ( state == null ) {
+			state = new GenerationState();
+			final GenerationState existing = tenantSpecificState.putIfAbsent( tenantIdentifier, state );
+			if ( existing != null ) {
+				state = existing;
+			}
+		}
+		return state;
+	}
+
+	@Override
+	public IntegralDataTypeHolder getLastSourceValue() {
+		final IntegralDataTypeHolder lastSourceValue = noTenantState.lastSourceValue;
+		if ( lastSourceValue == null ) {
+			throw new IllegalStateException( "Could not locate previous generation state for no-tenant" );
+		}
+		return lastSourceValue;
+	}
+
+	@Override
+	public boolean applyIncrementSizeToSourceValues() {
+		return true;
+	}
+}
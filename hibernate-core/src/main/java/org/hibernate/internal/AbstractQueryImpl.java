@@ -47,20 +47,26 @@ import org.hibernate.MappingException;
 import org.hibernate.NonUniqueResultException;
 import org.hibernate.PropertyNotFoundException;
 import org.hibernate.Query;
+import org.hibernate.QueryCacheScope;
 import org.hibernate.QueryException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.HibernateIterator;
 import org.hibernate.engine.query.spi.HQLQueryPlan;
 import org.hibernate.engine.query.spi.ParameterMetadata;
 import org.hibernate.engine.spi.QueryParameters;
 import org.hibernate.engine.spi.RowSelection;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.engine.spi.TypedValue;
+import org.hibernate.event.spi.EventSource;
 import org.hibernate.hql.internal.classic.ParserHelper;
 import org.hibernate.internal.util.MarkerObject;
 import org.hibernate.internal.util.ReflectHelper;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.internal.util.collections.ArrayHelper;
+import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.property.Getter;
 import org.hibernate.proxy.HibernateProxyHelper;
 import org.hibernate.transform.ResultTransformer;
@@ -102,6 +108,7 @@ public abstract class AbstractQueryImpl implements Query {
 	private RowSelection selection;
 	private boolean cacheable;
 	private String cacheRegion;
+	private QueryCacheScope cacheScope;
 	private String comment;
 	private final List<String> queryHints = new ArrayList<String>();
 	private FlushMode flushMode;
@@ -165,6 +172,35 @@ public abstract class AbstractQueryImpl implements Query {
 		return this;
 	}
 
+	@Override
+	public QueryCacheScope getCacheScope() {
+		return cacheScope;
+	}
+
+	@Override
+	public Query setCacheScope(QueryCacheScope cacheScope) {
+		if ( cacheScope != null && cacheScope.isNaturalId() ) {
+			final EntityPersister persister = session.getFactory().getEntityPersister( cacheScope.getEntityName() );
+			if ( !persister.hasNaturalIdentifier() ) {
+				throw new QueryException( "Entity [" + persister.getEntityName() + "] does not define a natural id" );
+			}
+			final String[] propertyNames = persister.getPropertyNames();
+			for ( int naturalIdPropertyIndex : persister.getNaturalIdentifierProperties() ) {
+				if ( !cacheScope.getNaturalIdValues().containsKey( propertyNames[naturalIdPropertyIndex] ) ) {
+					throw new QueryException(
+							"Natural id property [" + propertyNames[naturalIdPropertyIndex] + "] missing from " + cacheScope
+					);
+				}
+			}
+		}
+		else if ( cacheScope != null ) {
+			// fail fast on unknown entity names
+			session.getFactory().getEntityPersister( cacheScope.getEntityName() );
+		}
+		this.cacheScope = cacheScope;
+		return this;
+	}
+
 	@Override
 	public FlushMode getFlushMode() {
 		return flushMode;
@@ -254,6 +290,30 @@ public abstract class AbstractQueryImpl implements Query {
 		return this;
 	}
 
+	@Override
+	public HibernateIterator stream() throws HibernateException {
+		return stream( false );
+	}
+
+	@Override
+	public HibernateIterator stream(boolean evictConsumed) throws HibernateException {
+		final Integer fetchSize = selection.getFetchSize();
+		if ( fetchSize == null ) {
+			selection.setFetchSize( session.getFactory().getSettings().getQueryStreamFetchSize() );
+		}
+		final ScrollableResults results;
+		try {
+			results = scroll( ScrollMode.FORWARD_ONLY );
+		}
+		finally {
+			selection.setFetchSize( fetchSize );
+		}
+		return new ScrollableResultsIterator(
+				results,
+				evictConsumed && session instanceof EventSource ? (EventSource) session : null
+		);
+	}
+
 	public Type[] getReturnTypes() throws HibernateException {
 		return session.getFactory().getReturnTypes( queryString );
 	}
@@ -1010,6 +1070,7 @@ public abstract class AbstractQueryImpl implements Query {
 				resultTransformer
 		);
 		queryParameters.setQueryPlan( queryPlan );
+		queryParameters.setCacheScope( cacheScope );
 		return queryParameters;
 	}
 	
@@ -0,0 +1,135 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.HibernateException;
+
+/**
+ * Runs the independent tasks making up one phase of the {@link SessionFactoryImpl} build.  With a single
+ * thread (the default) the tasks simply run in order on the calling thread; otherwise they run on a pool
+ * of daemon threads which lives only for the duration of the phase.
+ * <p/>
+ * Each call to {@link #invokeAll} is a barrier: it returns only once every task has completed, so tasks of
+ * a later phase may depend on anything produced by an earlier one (collection persisters on entity persisters,
+ * loaders on all persisters, and so on).
+ */
+final class BootstrapExecutor {
+	private final int threads;
+
+	BootstrapExecutor(int threads) {
+		this.threads = threads;
+	}
+
+	boolean isParallel() {
+		return threads > 1;
+	}
+
+	/**
+	 * Run the given tasks, returning their results in task order.  If any task fails, the exception of the
+	 * first failed task (in task order) is rethrown once all of them have finished.
+	 */
+	<T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+		final List<T> results = new ArrayList<T>( tasks.size() );
+		if ( !isParallel() || tasks.size() < 2 ) {
+			for ( Callable<T> task : tasks ) {
+				results.add( call( task ) );
+			}
+			return results;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min( threads, tasks.size() ),
+				new BootstrapThreadFactory( Thread.currentThread().getContextClassLoader() )
+		);
+		try {
+			final List<Future<T>> futures = executor.invokeAll( tasks );
+			for ( Future<T> future : futures ) {
+				results.add( future.get() );
+			}
+			return results;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HibernateException( "Interrupted while building SessionFactory", e );
+		}
+		catch (ExecutionException e) {
+			throw rethrow( e.getCause() );
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static <T> T call(Callable<T> task) {
+		try {
+			return task.call();
+		}
+		catch (Exception e) {
+			throw rethrow( e );
+		}
+	}
+
+	private static RuntimeException rethrow(Throwable t) {
+		if ( t instanceof RuntimeException ) {
+			throw (RuntimeException) t;
+		}
+		if ( t instanceof Error ) {
+			throw (Error) t;
+		}
+		throw new HibernateException( "Unable to build SessionFactory", t );
+	}
+
+	private static class BootstrapThreadFactory implements ThreadFactory {
+		private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+		private final ClassLoader contextClassLoader;
+		private final int poolNumber = POOL_NUMBER.incrementAndGet();
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		private BootstrapThreadFactory(ClassLoader contextClassLoader) {
+			this.contextClassLoader = contextClassLoader;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			final Thread thread = new Thread(
+					r,
+					"hibernate-bootstrap-" + poolNumber + "-" + threadNumber.incrementAndGet()
+			);
+			thread.setDaemon( true );
+			thread.setContextClassLoader( contextClassLoader );
+			return thread;
+		}
+	}
+}
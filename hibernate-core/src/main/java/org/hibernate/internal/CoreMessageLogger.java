@@ -1674,4 +1674,20 @@ public interface CoreMessageLogger extends BasicLogger {
 					"(%2$s=true)"
 	)
 	void applyingExplicitDiscriminatorColumnForJoined(String className, String overrideSetting);
+
+	@LogMessage(level = INFO)
+	@Message(value = "Query plan cache hits: %s", id = 458)
+	void queryPlanCacheHits(long queryPlanCacheHitCount);
+
+	@LogMessage(level = INFO)
+	@Message(value = "Query plan cache misses: %s", id = 459)
+	void queryPlanCacheMisses(long queryPlanCacheMissCount);
+
+	@LogMessage(level = INFO)
+	@Message(value = "Query plan cache evictions: %s", id = 460)
+	void queryPlanCacheEvictions(long queryPlanCacheEvictionCount);
+
+	@LogMessage(level = INFO)
+	@Message(value = "Max query plan compilation time: %sms", id = 461)
+	void maxQueryPlanCompilationTime(long queryPlanCompilationMaxTime);
 }
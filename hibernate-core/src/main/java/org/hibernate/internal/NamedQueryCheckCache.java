@@ -0,0 +1,225 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Version;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.Joinable;
+import org.hibernate.persister.entity.Loadable;
+import org.hibernate.type.Type;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Records, in a file, the named HQL queries which compiled successfully during the startup check, keyed by a
+ * hash of everything the HQL translation depends upon (dialect, imports, entity and collection mappings).  On a
+ * later start against the same mappings those queries need not be translated again just to be checked; they
+ * are compiled on first use as usual.
+ *
+ * @see org.hibernate.cfg.AvailableSettings#QUERY_STARTUP_CHECK_CACHE
+ */
+final class NamedQueryCheckCache {
+	private static final Logger log = Logger.getLogger( NamedQueryCheckCache.class );
+
+	private static final int MAGIC = 0x48514343;
+	private static final short FORMAT_VERSION = 1;
+
+	private final File file;
+	private final String mappingHash;
+
+	NamedQueryCheckCache(File file, String mappingHash) {
+		this.file = file;
+		this.mappingHash = mappingHash;
+	}
+
+	/**
+	 * The query strings recorded for the current mappings; empty if there is no such record.
+	 */
+	Set<String> load() {
+		if ( !file.isFile() ) {
+			return Collections.emptySet();
+		}
+		try {
+			final DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+			try {
+				if ( in.readInt() != MAGIC
+						|| in.readShort() != FORMAT_VERSION
+						|| !Version.getVersionString().equals( in.readUTF() )
+						|| !mappingHash.equals( in.readUTF() ) ) {
+					log.debugf( "Ignoring named query check cache [%s] recorded for other mappings", file );
+					return Collections.emptySet();
+				}
+				final int count = in.readInt();
+				final Set<String> queryStrings = new HashSet<String>();
+				for ( int i = 0; i < count; i++ ) {
+					queryStrings.add( readString( in ) );
+				}
+				return queryStrings;
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch (IOException e) {
+			log.warnf( e, "Unable to read named query check cache [%s]", file );
+			return Collections.emptySet();
+		}
+	}
+
+	/**
+	 * Record the given query strings for the current mappings.  Failures are logged; the cache is only an
+	 * optimization.
+	 */
+	void store(Collection<String> queryStrings) {
+		final File parent = file.getAbsoluteFile().getParentFile();
+		final File temp = new File( parent, file.getName() + ".tmp" );
+		try {
+			if ( parent != null && !parent.exists() && !parent.mkdirs() ) {
+				throw new IOException( "Unable to create directory " + parent );
+			}
+			final DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream( new FileOutputStream( temp ) )
+			);
+			try {
+				out.writeInt( MAGIC );
+				out.writeShort( FORMAT_VERSION );
+				out.writeUTF( Version.getVersionString() );
+				out.writeUTF( mappingHash );
+				out.writeInt( queryStrings.size() );
+				for ( String queryString : queryStrings ) {
+					writeString( out, queryString );
+				}
+			}
+			finally {
+				out.close();
+			}
+			if ( file.exists() && !file.delete() ) {
+				throw new IOException( "Unable to replace " + file );
+			}
+			if ( !temp.renameTo( file ) ) {
+				throw new IOException( "Unable to rename " + temp );
+			}
+			log.debugf( "Recorded %s checked named queries in [%s]", queryStrings.size(), file );
+		}
+		catch (IOException e) {
+			temp.delete();
+			log.warnf( e, "Unable to write named query check cache [%s]", file );
+		}
+	}
+
+	// query strings may exceed the 64K limit of writeUTF
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		final byte[] bytes = value.getBytes( "UTF-8" );
+		out.writeInt( bytes.length );
+		out.write( bytes );
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		final byte[] bytes = new byte[in.readInt()];
+		in.readFully( bytes );
+		return new String( bytes, "UTF-8" );
+	}
+
+	/**
+	 * Hash the parts of the SessionFactory that HQL translation depends upon.
+	 */
+	static String mappingHash(SessionFactoryImplementor factory, Map<String,String> imports) {
+		final StringBuilder buf = new StringBuilder( factory.getDialect().getClass().getName() );
+		buf.append( '\n' ).append( new TreeMap<String,String>( imports ) );
+
+		for ( EntityPersister persister : new TreeMap<String,EntityPersister>( factory.getEntityPersisters() ).values() ) {
+			buf.append( "\nentity " ).append( persister.getEntityName() );
+			if ( persister instanceof Joinable ) {
+				buf.append( ' ' ).append( ( (Joinable) persister ).getTableName() );
+			}
+			buf.append( ' ' ).append( persister.getIdentifierPropertyName() )
+					.append( ':' ).append( persister.getIdentifierType().getName() );
+			if ( persister instanceof Loadable ) {
+				appendColumns( buf, ( (Loadable) persister ).getIdentifierColumnNames() );
+			}
+			final String[] propertyNames = persister.getPropertyNames();
+			final Type[] propertyTypes = persister.getPropertyTypes();
+			for ( int i = 0; i < propertyNames.length; i++ ) {
+				buf.append( ' ' ).append( propertyNames[i] ).append( ':' ).append( propertyTypes[i].getName() );
+				if ( persister instanceof Loadable ) {
+					appendColumns( buf, ( (Loadable) persister ).getPropertyColumnNames( i ) );
+				}
+			}
+		}
+
+		for ( CollectionPersister persister : new TreeMap<String,CollectionPersister>( factory.getCollectionPersisters() ).values() ) {
+			buf.append( "\ncollection " ).append( persister.getRole() );
+			if ( persister instanceof Joinable ) {
+				buf.append( ' ' ).append( ( (Joinable) persister ).getTableName() );
+			}
+			buf.append( ' ' ).append( persister.getElementType().getName() );
+			if ( persister.getIndexType() != null ) {
+				buf.append( ' ' ).append( persister.getIndexType().getName() );
+			}
+		}
+
+		try {
+			final byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( buf.toString().getBytes( "UTF-8" ) );
+			final StringBuilder hex = new StringBuilder( digest.length * 2 );
+			for ( byte b : digest ) {
+				hex.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new HibernateException( "Unable to hash mappings", e );
+		}
+		catch (IOException e) {
+			throw new HibernateException( "Unable to hash mappings", e );
+		}
+	}
+
+	private static void appendColumns(StringBuilder buf, String[] columns) {
+		if ( columns != null ) {
+			for ( String column : columns ) {
+				buf.append( ',' ).append( column );
+			}
+		}
+	}
+}
@@ -23,9 +23,14 @@
  */
 package org.hibernate.internal;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.hibernate.HibernateException;
 import org.hibernate.MappingException;
@@ -149,58 +154,113 @@ public class NamedQueryRepository {
 	}
 
 	public Map<String,HibernateException> checkNamedQueries(QueryPlanCache queryPlanCache) {
-		Map<String,HibernateException> errors = new HashMap<String,HibernateException>();
+		return checkNamedQueries( queryPlanCache, new BootstrapExecutor( 1 ), Collections.<String>emptySet() );
+	}
+
+	/**
+	 * Check the named queries, skipping the HQL queries whose query string is contained in
+	 * {@code checkedHqlQueryStrings} (known to compile against the current mappings).
+	 */
+	Map<String,HibernateException> checkNamedQueries(
+			final QueryPlanCache queryPlanCache,
+			BootstrapExecutor bootstrapExecutor,
+			Set<String> checkedHqlQueryStrings) {
+		// each check produces the failure for its query, or null
+		final List<String> names = new ArrayList<String>();
+		final List<Callable<HibernateException>> checks = new ArrayList<Callable<HibernateException>>();
 
 		// Check named HQL queries
 		log.debugf( "Checking %s named HQL queries", namedQueryDefinitionMap.size() );
-		for ( NamedQueryDefinition namedQueryDefinition : namedQueryDefinitionMap.values() ) {
-			// this will throw an error if there's something wrong.
-			try {
-				log.debugf( "Checking named query: %s", namedQueryDefinition.getName() );
-				//TODO: BUG! this currently fails for named queries for non-POJO entities
-				queryPlanCache.getHQLQueryPlan( namedQueryDefinition.getQueryString(), false, Collections.EMPTY_MAP );
+		for ( final NamedQueryDefinition namedQueryDefinition : namedQueryDefinitionMap.values() ) {
+			if ( checkedHqlQueryStrings.contains( namedQueryDefinition.getQueryString() ) ) {
+				log.debugf( "Skipping previously checked named query: %s", namedQueryDefinition.getName() );
+				continue;
 			}
-			catch ( HibernateException e ) {
-				errors.put( namedQueryDefinition.getName(), e );
-			}
-
-
+			names.add( namedQueryDefinition.getName() );
+			checks.add(
+					new Callable<HibernateException>() {
+						@Override
+						public HibernateException call() {
+							// this will throw an error if there's something wrong.
+							try {
+								log.debugf( "Checking named query: %s", namedQueryDefinition.getName() );
+								//TODO: BUG! this currently fails for named queries for non-POJO entities
+								queryPlanCache.getHQLQueryPlan( namedQueryDefinition.getQueryString(), false, Collections.EMPTY_MAP );
+								return null;
+							}
+							catch ( HibernateException e ) {
+								return e;
+							}
+						}
+					}
+			);
 		}
 
 		// Check native-sql queries
 		log.debugf( "Checking %s named SQL queries", namedSqlQueryDefinitionMap.size() );
-		for ( NamedSQLQueryDefinition namedSQLQueryDefinition : namedSqlQueryDefinitionMap.values() ) {
-			// this will throw an error if there's something wrong.
-			try {
-				log.debugf( "Checking named SQL query: %s", namedSQLQueryDefinition.getName() );
-				// TODO : would be really nice to cache the spec on the query-def so as to not have to re-calc the hash;
-				// currently not doable though because of the resultset-ref stuff...
-				NativeSQLQuerySpecification spec;
-				if ( namedSQLQueryDefinition.getResultSetRef() != null ) {
-					ResultSetMappingDefinition definition = getResultSetMappingDefinition( namedSQLQueryDefinition.getResultSetRef() );
-					if ( definition == null ) {
-						throw new MappingException( "Unable to find resultset-ref definition: " + namedSQLQueryDefinition.getResultSetRef() );
+		for ( final NamedSQLQueryDefinition namedSQLQueryDefinition : namedSqlQueryDefinitionMap.values() ) {
+			names.add( namedSQLQueryDefinition.getName() );
+			checks.add(
+					new Callable<HibernateException>() {
+						@Override
+						public HibernateException call() {
+							// this will throw an error if there's something wrong.
+							try {
+								log.debugf( "Checking named SQL query: %s", namedSQLQueryDefinition.getName() );
+								queryPlanCache.getNativeSQLQueryPlan( buildSpecification( namedSQLQueryDefinition ) );
+								return null;
+							}
+							catch ( HibernateException e ) {
+								return e;
+							}
+						}
 					}
-					spec = new NativeSQLQuerySpecification(
-							namedSQLQueryDefinition.getQueryString(),
-							definition.getQueryReturns(),
-							namedSQLQueryDefinition.getQuerySpaces()
-					);
-				}
-				else {
-					spec =  new NativeSQLQuerySpecification(
-							namedSQLQueryDefinition.getQueryString(),
-							namedSQLQueryDefinition.getQueryReturns(),
-							namedSQLQueryDefinition.getQuerySpaces()
-					);
-				}
-				queryPlanCache.getNativeSQLQueryPlan( spec );
+			);
+		}
+
+		final List<HibernateException> failures = bootstrapExecutor.invokeAll( checks );
+		Map<String,HibernateException> errors = new HashMap<String,HibernateException>();
+		for ( int i = 0; i < failures.size(); i++ ) {
+			if ( failures.get( i ) != null ) {
+				errors.put( names.get( i ), failures.get( i ) );
 			}
-			catch ( HibernateException e ) {
-				errors.put( namedSQLQueryDefinition.getName(), e );
+		}
+		return errors;
+	}
+
+	/**
+	 * The query strings of the named HQL queries, except those of the named queries given.
+	 */
+	Set<String> getNamedQueryStrings(Set<String> excludedQueryNames) {
+		final Set<String> queryStrings = new HashSet<String>();
+		for ( NamedQueryDefinition namedQueryDefinition : namedQueryDefinitionMap.values() ) {
+			if ( !excludedQueryNames.contains( namedQueryDefinition.getName() ) ) {
+				queryStrings.add( namedQueryDefinition.getQueryString() );
 			}
 		}
+		return queryStrings;
+	}
 
-		return errors;
+	private NativeSQLQuerySpecification buildSpecification(NamedSQLQueryDefinition namedSQLQueryDefinition) {
+		// TODO : would be really nice to cache the spec on the query-def so as to not have to re-calc the hash;
+		// currently not doable though because of the resultset-ref stuff...
+		if ( namedSQLQueryDefinition.getResultSetRef() != null ) {
+			ResultSetMappingDefinition definition = getResultSetMappingDefinition( namedSQLQueryDefinition.getResultSetRef() );
+			if ( definition == null ) {
+				throw new MappingException( "Unable to find resultset-ref definition: " + namedSQLQueryDefinition.getResultSetRef() );
+			}
+			return new NativeSQLQuerySpecification(
+					namedSQLQueryDefinition.getQueryString(),
+					definition.getQueryReturns(),
+					namedSQLQueryDefinition.getQuerySpaces()
+			);
+		}
+		else {
+			return new NativeSQLQuerySpecification(
+					namedSQLQueryDefinition.getQueryString(),
+					namedSQLQueryDefinition.getQueryReturns(),
+					namedSQLQueryDefinition.getQuerySpaces()
+			);
+		}
 	}
 }
@@ -0,0 +1,121 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.internal;
+
+import java.util.NoSuchElementException;
+
+import org.hibernate.HibernateException;
+import org.hibernate.JDBCException;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.HibernateIterator;
+import org.hibernate.event.spi.EventSource;
+
+/**
+ * An implementation of <tt>java.util.Iterator</tt> that is returned by <tt>stream()</tt> query
+ * execution methods.  Rows are read lazily from a forward-only {@link ScrollableResults}, which
+ * is closed as soon as the results are exhausted.
+ * <p/>
+ * Optionally, the entities of a row are evicted from the session once the row has been consumed
+ * (that is, when the next row is requested), so that the persistence context does not grow with
+ * the number of rows read.
+ */
+public final class ScrollableResultsIterator implements HibernateIterator {
+	private static final CoreMessageLogger LOG = CoreLogging.messageLogger( ScrollableResultsIterator.class );
+
+	private final ScrollableResults results;
+	private final EventSource evictingSession;
+
+	private Object[] consumedRow;
+	private boolean advanced;
+	private boolean hasNext;
+	private boolean closed;
+
+	/**
+	 * Constructs a ScrollableResultsIterator.
+	 *
+	 * @param results The forward-only results to iterate
+	 * @param evictingSession The session from which consumed entities should be evicted, or {@code null}
+	 * if consumed entities should stay associated with the session
+	 */
+	public ScrollableResultsIterator(ScrollableResults results, EventSource evictingSession) {
+		this.results = results;
+		this.evictingSession = evictingSession;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if ( closed ) {
+			return false;
+		}
+		if ( !advanced ) {
+			evictConsumedRow();
+			hasNext = results.next();
+			advanced = true;
+			if ( !hasNext ) {
+				LOG.debug( "Exhausted streamed results" );
+				close();
+			}
+		}
+		return hasNext;
+	}
+
+	@Override
+	public Object next() throws HibernateException {
+		if ( !hasNext() ) {
+			throw new NoSuchElementException( "No more results" );
+		}
+		advanced = false;
+		consumedRow = results.get();
+		return consumedRow.length == 1 ? consumedRow[0] : consumedRow;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException( "Streamed query results cannot be removed" );
+	}
+
+	@Override
+	public void close() throws JDBCException {
+		if ( !closed ) {
+			closed = true;
+			hasNext = false;
+			evictConsumedRow();
+			results.close();
+		}
+	}
+
+	private void evictConsumedRow() {
+		if ( consumedRow == null ) {
+			return;
+		}
+		if ( evictingSession != null && evictingSession.isOpen() ) {
+			for ( Object value : consumedRow ) {
+				if ( value != null && evictingSession.contains( value ) ) {
+					evictingSession.evict( value );
+				}
+			}
+		}
+		consumedRow = null;
+	}
+}
@@ -23,6 +23,7 @@
  */
 package org.hibernate.internal;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
@@ -39,6 +40,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.naming.Reference;
@@ -221,7 +223,7 @@ public final class SessionFactoryImpl
 	@SuppressWarnings( {"unchecked", "ThrowableResultOfMethodCallIgnored"})
 	public SessionFactoryImpl(
 			final Configuration cfg,
-			Mapping mapping,
+			final Mapping mapping,
 			final ServiceRegistry serviceRegistry,
 			Settings settings,
 			SessionFactoryObserver observer) throws HibernateException {
@@ -330,7 +332,7 @@ public final class SessionFactoryImpl
 			}
 		}
 
-		imports = new HashMap<String,String>( cfg.getImports() );
+		imports = new ConcurrentHashMap<String,String>( cfg.getImports() );
 
 		///////////////////////////////////////////////////////////////////////
 		// Prepare persisters and link them up with their cache
@@ -339,6 +341,10 @@ public final class SessionFactoryImpl
 		final RegionFactory regionFactory = cacheAccess.getRegionFactory();
 		final String cacheRegionPrefix = settings.getCacheRegionPrefix() == null ? "" : settings.getCacheRegionPrefix() + ".";
 		final PersisterFactory persisterFactory = serviceRegistry.getService( PersisterFactory.class );
+		final BootstrapExecutor bootstrapExecutor = new BootstrapExecutor( settings.getSessionFactoryBuildThreads() );
+		if ( bootstrapExecutor.isParallel() ) {
+			LOG.debugf( "Building SessionFactory using %s threads", settings.getSessionFactoryBuildThreads() );
+		}
 
 		// todo : consider removing this silliness and just have EntityPersister directly implement ClassMetadata
 		//		EntityPersister.getClassMetadata() for the internal impls simply "return this";
@@ -349,6 +355,8 @@ public final class SessionFactoryImpl
 		entityPersisters = new HashMap();
 		Map entityAccessStrategies = new HashMap();
 		Map<String,ClassMetadata> classMeta = new HashMap<String,ClassMetadata>();
+		final List<String> entityNames = new ArrayList<String>();
+		final List<Callable<EntityPersister>> entityPersisterTasks = new ArrayList<Callable<EntityPersister>>();
 		classes = cfg.getClassMappings();
 		while ( classes.hasNext() ) {
 			final PersistentClass model = (PersistentClass) classes.next();
@@ -397,24 +405,39 @@ public final class SessionFactoryImpl
 				}
 			}
 
-			EntityPersister cp = persisterFactory.createEntityPersister(
-					model,
-					accessStrategy,
-					naturalIdAccessStrategy,
-					this,
-					mapping
+			final EntityRegionAccessStrategy entityAccessStrategy = accessStrategy;
+			final NaturalIdRegionAccessStrategy entityNaturalIdAccessStrategy = naturalIdAccessStrategy;
+			entityNames.add( model.getEntityName() );
+			entityPersisterTasks.add(
+					new Callable<EntityPersister>() {
+						@Override
+						public EntityPersister call() {
+							return persisterFactory.createEntityPersister(
+									model,
+									entityAccessStrategy,
+									entityNaturalIdAccessStrategy,
+									SessionFactoryImpl.this,
+									mapping
+							);
+						}
+					}
 			);
-			entityPersisters.put( model.getEntityName(), cp );
-			classMeta.put( model.getEntityName(), cp.getClassMetadata() );
+		}
+		final List<EntityPersister> builtEntityPersisters = bootstrapExecutor.invokeAll( entityPersisterTasks );
+		for ( int i = 0; i < entityNames.size(); i++ ) {
+			final EntityPersister cp = builtEntityPersisters.get( i );
+			entityPersisters.put( entityNames.get( i ), cp );
+			classMeta.put( entityNames.get( i ), cp.getClassMetadata() );
 		}
 		this.classMetadata = Collections.unmodifiableMap(classMeta);
 
 		Map<String,Set<String>> tmpEntityToCollectionRoleMap = new HashMap<String,Set<String>>();
 		collectionPersisters = new HashMap<String,CollectionPersister>();
 		Map<String,CollectionMetadata> tmpCollectionMetadata = new HashMap<String,CollectionMetadata>();
+		final List<Callable<CollectionPersister>> collectionPersisterTasks = new ArrayList<Callable<CollectionPersister>>();
 		Iterator collections = cfg.getCollectionMappings();
 		while ( collections.hasNext() ) {
-			Collection model = (Collection) collections.next();
+			final Collection model = (Collection) collections.next();
 			final String cacheRegionName = cacheRegionPrefix + model.getCacheRegionName();
 			final AccessType accessType = AccessType.fromExternalName( model.getCacheConcurrencyStrategy() );
 			CollectionRegionAccessStrategy accessStrategy = null;
@@ -426,14 +449,26 @@ public final class SessionFactoryImpl
 				entityAccessStrategies.put( cacheRegionName, accessStrategy );
 				cacheAccess.addCacheRegion( cacheRegionName, collectionRegion );
 			}
-			CollectionPersister persister = persisterFactory.createCollectionPersister(
-					cfg,
-					model,
-					accessStrategy,
-					this
-			) ;
-			collectionPersisters.put( model.getRole(), persister );
-			tmpCollectionMetadata.put( model.getRole(), persister.getCollectionMetadata() );
+			final CollectionRegionAccessStrategy collectionAccessStrategy = accessStrategy;
+			collectionPersisterTasks.add(
+					new Callable<CollectionPersister>() {
+						@Override
+						public CollectionPersister call() {
+							return persisterFactory.createCollectionPersister(
+									cfg,
+									model,
+									collectionAccessStrategy,
+									SessionFactoryImpl.this
+							);
+						}
+					}
+			);
+		}
+		// collection persisters resolve their owner and element persisters, so are built only once all of the
+		// entity persisters exist
+		for ( CollectionPersister persister : bootstrapExecutor.invokeAll( collectionPersisterTasks ) ) {
+			collectionPersisters.put( persister.getRole(), persister );
+			tmpCollectionMetadata.put( persister.getRole(), persister.getCollectionMetadata() );
 			Type indexType = persister.getIndexType();
 			if ( indexType != null && indexType.isAssociationType() && !indexType.isAnyType() ) {
 				String entityName = ( ( AssociationType ) indexType ).getAssociatedEntityName( this );
@@ -476,13 +511,34 @@ public final class SessionFactoryImpl
 			persister.generateEntityDefinition();
 		}
 
+		// generating the SQL and loaders of one persister only reads the (already built) state of the others
+		final List<Callable<Void>> postInstantiateTasks = new ArrayList<Callable<Void>>();
+		for ( final EntityPersister persister : entityPersisters.values() ) {
+			postInstantiateTasks.add(
+					new Callable<Void>() {
+						@Override
+						public Void call() {
+							persister.postInstantiate();
+							return null;
+						}
+					}
+			);
+		}
+		for ( final CollectionPersister persister : collectionPersisters.values() ) {
+			postInstantiateTasks.add(
+					new Callable<Void>() {
+						@Override
+						public Void call() {
+							persister.postInstantiate();
+							return null;
+						}
+					}
+			);
+		}
+		bootstrapExecutor.invokeAll( postInstantiateTasks );
 		for ( EntityPersister persister : entityPersisters.values() ) {
-			persister.postInstantiate();
 			registerEntityNameResolvers( persister );
 		}
-		for ( CollectionPersister persister : collectionPersisters.values() ) {
-			persister.postInstantiate();
-		}
 
 		//JNDI + Serialization:
 
@@ -532,7 +588,7 @@ public final class SessionFactoryImpl
 
 		//checking for named queries
 		if ( settings.isNamedQueryStartupCheckingEnabled() ) {
-			final Map<String,HibernateException> errors = checkNamedQueries();
+			final Map<String,HibernateException> errors = checkNamedQueries( bootstrapExecutor, settings );
 			if ( ! errors.isEmpty() ) {
 				StringBuilder failingQueries = new StringBuilder( "Errors in named queries: " );
 				String sep = "";
@@ -882,7 +938,7 @@ public final class SessionFactoryImpl
 				new HashMap<String, ProcedureCallMemento>(  )
 		);
 
-		imports = new HashMap<String,String>();
+		imports = new ConcurrentHashMap<String,String>();
 		for ( Map.Entry<String,String> importEntry : metadata.getImports() ) {
 			imports.put( importEntry.getKey(), importEntry.getValue() );
 		}
@@ -1089,6 +1145,33 @@ public final class SessionFactoryImpl
 		return namedQueryRepository.checkNamedQueries( queryPlanCache );
 	}
 
+	private Map<String,HibernateException> checkNamedQueries(BootstrapExecutor bootstrapExecutor, Settings settings)
+			throws HibernateException {
+		if ( settings.getNamedQueryCheckCacheFile() == null ) {
+			return namedQueryRepository.checkNamedQueries(
+					queryPlanCache,
+					bootstrapExecutor,
+					Collections.<String>emptySet()
+			);
+		}
+
+		final NamedQueryCheckCache checkCache = new NamedQueryCheckCache(
+				new File( settings.getNamedQueryCheckCacheFile() ),
+				NamedQueryCheckCache.mappingHash( this, imports )
+		);
+		final Set<String> checked = checkCache.load();
+		final Map<String,HibernateException> errors = namedQueryRepository.checkNamedQueries(
+				queryPlanCache,
+				bootstrapExecutor,
+				checked
+		);
+		final Set<String> valid = namedQueryRepository.getNamedQueryStrings( errors.keySet() );
+		if ( !valid.equals( checked ) ) {
+			checkCache.store( valid );
+		}
+		return errors;
+	}
+
 	public EntityPersister getEntityPersister(String entityName) throws MappingException {
 		EntityPersister result = entityPersisters.get(entityName);
 		if ( result == null ) {
@@ -1553,6 +1636,7 @@ public final class SessionFactoryImpl
 		private boolean autoClose;
 		private boolean autoJoinTransactions = true;
 		private boolean flushBeforeCompletion;
+		private boolean readOnly;
 		private String tenantIdentifier;
 		private List<SessionEventListener> listeners;
 
@@ -1592,7 +1676,8 @@ public final class SessionFactoryImpl
 					flushBeforeCompletion,
 					autoClose,
 					connectionReleaseMode,
-					tenantIdentifier
+					tenantIdentifier,
+					readOnly
 			);
 
 			for ( SessionEventListener listener : listeners ) {
@@ -1650,6 +1735,12 @@ public final class SessionFactoryImpl
 			return this;
 		}
 
+		@Override
+		public SessionBuilderImplementor readOnly(boolean readOnly) {
+			this.readOnly = readOnly;
+			return this;
+		}
+
 		@Override
 		public SessionBuilder tenantIdentifier(String tenantIdentifier) {
 			this.tenantIdentifier = tenantIdentifier;
@@ -201,6 +201,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 	private transient boolean autoJoinTransactions = true;
 	private transient boolean flushBeforeCompletionEnabled;
 	private transient boolean autoCloseSessionEnabled;
+	private transient boolean readOnlySession;
 
 	private transient int dontFlushFromFind;
 
@@ -226,6 +227,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 	 * @param autoCloseSessionEnabled Should we auto close after completion of transaction
 	 * @param connectionReleaseMode The mode by which we should release JDBC connections.
 	 * @param tenantIdentifier The tenant identifier to use.  May be null
+	 * @param readOnlySession Should the session be opened in read-only mode
 	 */
 	SessionImpl(
 			final Connection connection,
@@ -238,7 +240,8 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 			final boolean flushBeforeCompletionEnabled,
 			final boolean autoCloseSessionEnabled,
 			final ConnectionReleaseMode connectionReleaseMode,
-			final String tenantIdentifier) {
+			final String tenantIdentifier,
+			final boolean readOnlySession) {
 		super( factory, tenantIdentifier );
 		this.timestamp = timestamp;
 		this.sessionOwner = sessionOwner;
@@ -249,6 +252,15 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 		this.autoCloseSessionEnabled = autoCloseSessionEnabled;
 		this.flushBeforeCompletionEnabled = flushBeforeCompletionEnabled;
 
+		this.readOnlySession = readOnlySession;
+		if ( readOnlySession ) {
+			// everything is loaded read-only (so no loaded state snapshots are kept) and the
+			// session never flushes
+			this.persistenceContext.setDefaultReadOnly( true );
+			this.flushMode = FlushMode.MANUAL;
+			this.flushBeforeCompletionEnabled = false;
+		}
+
 		if ( transactionCoordinator == null ) {
 			this.isTransactionCoordinatorShared = false;
 			this.connectionReleaseMode = connectionReleaseMode;
@@ -643,6 +655,21 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 		}
 	}
 
+	private void errorIfReadOnlySession() {
+		if ( readOnlySession ) {
+			throw new SessionException( "Session was opened read-only; write operations are not allowed" );
+		}
+	}
+
+	private void errorIfReadOnlySession(LockMode lockMode) {
+		// forced version increments write to the database
+		if ( lockMode == LockMode.PESSIMISTIC_FORCE_INCREMENT
+				|| lockMode == LockMode.OPTIMISTIC_FORCE_INCREMENT
+				|| lockMode == LockMode.FORCE ) {
+			errorIfReadOnlySession();
+		}
+	}
+
 	private void checkNoUnresolvedActionsBeforeOperation() {
 		if ( persistenceContext.getCascadeLevel() == 0 && actionQueue.hasUnresolvedEntityInsertActions() ) {
 			throw new IllegalStateException( "There are delayed insert actions before operation as cascade level 0." );
@@ -674,6 +701,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireSaveOrUpdate(SaveOrUpdateEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		checkNoUnresolvedActionsBeforeOperation();
 		for ( SaveOrUpdateEventListener listener : listeners( EventType.SAVE_UPDATE ) ) {
@@ -705,6 +733,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private Serializable fireSave(SaveOrUpdateEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		checkNoUnresolvedActionsBeforeOperation();
 		for ( SaveOrUpdateEventListener listener : listeners( EventType.SAVE ) ) {
@@ -729,6 +758,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireUpdate(SaveOrUpdateEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		checkNoUnresolvedActionsBeforeOperation();
 		for ( SaveOrUpdateEventListener listener : listeners( EventType.UPDATE ) ) {
@@ -765,6 +795,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireLock(LockEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession( event.getLockMode() );
 		checkTransactionSynchStatus();
 		for ( LockEventListener listener : listeners( EventType.LOCK ) ) {
 			listener.onLock( event );
@@ -801,6 +832,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void firePersist(PersistEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		checkNoUnresolvedActionsBeforeOperation();
 		for ( PersistEventListener listener : listeners( EventType.PERSIST ) ) {
@@ -838,6 +870,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void firePersistOnFlush(PersistEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		checkNoUnresolvedActionsBeforeOperation();
 		for ( PersistEventListener listener : listeners( EventType.PERSIST_ONFLUSH ) ) {
@@ -866,6 +899,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private Object fireMerge(MergeEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		checkNoUnresolvedActionsBeforeOperation();
 		for ( MergeEventListener listener : listeners( EventType.MERGE ) ) {
@@ -911,6 +945,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireDelete(DeleteEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		for ( DeleteEventListener listener : listeners( EventType.DELETE ) ) {
 			listener.onDelete( event );
@@ -1061,6 +1096,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireLoad(LoadEvent event, LoadType loadType) {
 		errorIfClosed();
+		errorIfReadOnlySession( event.getLockMode() );
 		checkTransactionSynchStatus();
 		for ( LoadEventListener listener : listeners( EventType.LOAD ) ) {
 			listener.onLoad( event, loadType );
@@ -1112,6 +1148,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireRefresh(RefreshEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession( event.getLockMode() );
 		checkTransactionSynchStatus();
 		for ( RefreshEventListener listener : listeners( EventType.REFRESH ) ) {
 			listener.onRefresh( event );
@@ -1121,6 +1158,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireRefresh(Map refreshedAlready, RefreshEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession( event.getLockMode() );
 		checkTransactionSynchStatus();
 		for ( RefreshEventListener listener : listeners( EventType.REFRESH ) ) {
 			listener.onRefresh( event, refreshedAlready );
@@ -1144,6 +1182,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	private void fireReplicate(ReplicateEvent event) {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		for ( ReplicateEventListener listener : listeners( EventType.REPLICATE ) ) {
 			listener.onReplicate( event );
@@ -1178,8 +1217,8 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 	 */
 	protected boolean autoFlushIfRequired(Set querySpaces) throws HibernateException {
 		errorIfClosed();
-		if ( ! isTransactionInProgress() ) {
-			// do not auto-flush while outside a transaction
+		if ( ! isTransactionInProgress() || readOnlySession ) {
+			// do not auto-flush while outside a transaction, nor in a read-only session
 			return false;
 		}
 		AutoFlushEvent event = new AutoFlushEvent( querySpaces, this );
@@ -1210,6 +1249,11 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 	public void flush() throws HibernateException {
 		errorIfClosed();
 		checkTransactionSynchStatus();
+		if ( readOnlySession ) {
+			// nothing can have been changed, so skip the flush machinery altogether
+			LOG.trace( "Skipping flush of read-only session" );
+			return;
+		}
 		if ( persistenceContext.getCascadeLevel() > 0 ) {
 			throw new HibernateException("Flush during cascade is dangerous");
 		}
@@ -1271,6 +1315,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 	@Override
 	public int executeUpdate(String query, QueryParameters queryParameters) throws HibernateException {
 		errorIfClosed();
+		errorIfReadOnlySession();
 		checkTransactionSynchStatus();
 		queryParameters.validateParameters();
 		HQLQueryPlan plan = getHQLQueryPlan( query, false );
@@ -1293,6 +1338,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
     public int executeNativeUpdate(NativeSQLQuerySpecification nativeQuerySpecification,
             QueryParameters queryParameters) throws HibernateException {
         errorIfClosed();
+        errorIfReadOnlySession();
         checkTransactionSynchStatus();
         queryParameters.validateParameters();
         NativeSQLQueryPlan plan = getNativeSQLQueryPlan( nativeQuerySpecification );
@@ -2011,6 +2057,9 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 
 	@Override
 	public void setDefaultReadOnly(boolean defaultReadOnly) {
+		if ( readOnlySession && !defaultReadOnly ) {
+			throw new SessionException( "Session was opened read-only; cannot make it modifiable" );
+		}
 		persistenceContext.setDefaultReadOnly( defaultReadOnly );
 	}
 
@@ -2024,6 +2073,9 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 	@Override
 	public void setReadOnly(Object entity, boolean readOnly) {
 		errorIfClosed();
+		if ( !readOnly ) {
+			errorIfReadOnlySession();
+		}
 		checkTransactionSynchStatus();
 		persistenceContext.setReadOnly( entity, readOnly );
 	}
@@ -2180,6 +2232,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 		cacheMode = CacheMode.valueOf( ( String ) ois.readObject() );
 		flushBeforeCompletionEnabled = ois.readBoolean();
 		autoCloseSessionEnabled = ois.readBoolean();
+		readOnlySession = ois.readBoolean();
 		interceptor = ( Interceptor ) ois.readObject();
 
 		factory = SessionFactoryImpl.deserialize( ois );
@@ -2222,6 +2275,7 @@ public final class SessionImpl extends AbstractSessionImpl implements EventSourc
 		oos.writeObject( cacheMode.name() );
 		oos.writeBoolean( flushBeforeCompletionEnabled );
 		oos.writeBoolean( autoCloseSessionEnabled );
+		oos.writeBoolean( readOnlySession );
 		// we need to writeObject() on this since interceptor is user defined
 		oos.writeObject( interceptor );
 
@@ -0,0 +1,270 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.internal.util.collections;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent cache bounded both by entry count and by the summed "weight" of its values, as reported by a
+ * {@link Weigher}.  Reads are lock-free; they only stamp the entry with a logical access time.  That clock only
+ * advances when an entry is added, so reads never write to shared state, and an entry already stamped since the last
+ * addition is not written to either.  Entries are thus only ordered as finely as the additions, which is all the
+ * eviction (only ever triggered by an addition) needs.  Once either bound is exceeded, the least recently accessed
+ * entries are evicted (under a lock, by a single thread at a time) until the cache is back below a low-water mark,
+ * which amortizes the cost of ordering the entries over many puts.
+ * <p/>
+ * A value weighing more than the whole budget cannot be cached along with the others.  The most recent such value is
+ * kept aside instead, outside of the budget, and replaced (as an eviction) by the next one.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class BoundedWeightedConcurrentCache<K, V> implements Serializable {
+	/**
+	 * Estimates the retained size of a cached value.
+	 */
+	public interface Weigher<V> {
+		/**
+		 * Estimate the weight of the given value.
+		 *
+		 * @param value The value
+		 *
+		 * @return The (non-negative) weight
+		 */
+		long weigh(V value);
+	}
+
+	private static final float LOW_WATER_MARK = 0.9f;
+
+	private final ConcurrentHashMap<K, Node<V>> map;
+	private final int maxEntries;
+	private final long maxWeight;
+	private final Weigher<? super V> weigher;
+	private final BoundedConcurrentHashMap.EvictionListener<K, V> evictionListener;
+
+	private final AtomicLong weight = new AtomicLong();
+	private final AtomicLong clock = new AtomicLong();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private volatile Oversized<K, V> oversized;
+
+	/**
+	 * Constructs a BoundedWeightedConcurrentCache
+	 *
+	 * @param maxEntries The maximum number of entries
+	 * @param maxWeight The maximum summed weight of all entries
+	 * @param weigher Estimates the weight of each value; must be serializable if the cache is to be
+	 * @param evictionListener Notified (outside of any lock) of evicted entries; may be {@code null}
+	 */
+	public BoundedWeightedConcurrentCache(
+			int maxEntries,
+			long maxWeight,
+			Weigher<? super V> weigher,
+			BoundedConcurrentHashMap.EvictionListener<K, V> evictionListener) {
+		if ( maxEntries <= 0 || maxWeight <= 0 ) {
+			throw new IllegalArgumentException( "Cache bounds must be positive" );
+		}
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		this.evictionListener = evictionListener;
+		this.map = new ConcurrentHashMap<K, Node<V>>( Math.min( maxEntries, 1024 ), 0.75f, 20 );
+	}
+
+	/**
+	 * Get the value cached under the given key, marking it as recently used.
+	 *
+	 * @param key The key
+	 *
+	 * @return The cached value, or {@code null}
+	 */
+	public V get(K key) {
+		final Node<V> node = map.get( key );
+		if ( node == null ) {
+			final Oversized<K, V> last = oversized;
+			return last != null && last.key.equals( key ) ? last.value : null;
+		}
+		// additions advance the clock by two, so a read ranks after the addition preceding it and before the next one
+		final long now = clock.get() + 1;
+		if ( node.lastAccess < now ) {
+			node.lastAccess = now;
+		}
+		return node.value;
+	}
+
+	/**
+	 * Cache the given value unless a value is already cached under that key.
+	 *
+	 * @param key The key
+	 * @param value The value
+	 *
+	 * @return The previously cached value, or {@code null} if there was none
+	 */
+	public V putIfAbsent(K key, V value) {
+		final long valueWeight = weigher.weigh( value );
+		if ( valueWeight > maxWeight ) {
+			return putOversized( key, value );
+		}
+		final Node<V> node = new Node<V>( value, valueWeight, clock.addAndGet( 2 ) );
+		final Node<V> existing = map.putIfAbsent( key, node );
+		if ( existing != null ) {
+			existing.lastAccess = node.lastAccess;
+			return existing.value;
+		}
+		if ( weight.addAndGet( valueWeight ) > maxWeight || map.size() > maxEntries ) {
+			evict();
+		}
+		return null;
+	}
+
+	private V putOversized(K key, V value) {
+		final Oversized<K, V> replaced;
+		evictionLock.lock();
+		try {
+			replaced = oversized;
+			if ( replaced != null && replaced.key.equals( key ) ) {
+				return replaced.value;
+			}
+			oversized = new Oversized<K, V>( key, value );
+		}
+		finally {
+			evictionLock.unlock();
+		}
+		if ( evictionListener != null && replaced != null ) {
+			evictionListener.onEntryEviction( Collections.singletonMap( replaced.key, replaced.value ) );
+		}
+		return null;
+	}
+
+	private void evict() {
+		if ( !evictionLock.tryLock() ) {
+			// another thread is already evicting
+			return;
+		}
+		Map<K, V> evicted = null;
+		try {
+			if ( weight.get() <= maxWeight && map.size() <= maxEntries ) {
+				return;
+			}
+			// snapshot the access stamps, concurrent reads keep updating them
+			final List<Candidate<K, V>> candidates = new ArrayList<Candidate<K, V>>( map.size() );
+			for ( Map.Entry<K, Node<V>> entry : map.entrySet() ) {
+				candidates.add( new Candidate<K, V>( entry.getKey(), entry.getValue() ) );
+			}
+			Collections.sort( candidates );
+
+			final long targetWeight = (long) ( maxWeight * LOW_WATER_MARK );
+			final int targetEntries = (int) ( maxEntries * LOW_WATER_MARK );
+			evicted = new HashMap<K, V>();
+			for ( Candidate<K, V> candidate : candidates ) {
+				if ( weight.get() <= targetWeight && map.size() <= targetEntries ) {
+					break;
+				}
+				if ( map.remove( candidate.key, candidate.node ) ) {
+					weight.addAndGet( -candidate.node.weight );
+					evicted.put( candidate.key, candidate.node.value );
+				}
+			}
+		}
+		finally {
+			evictionLock.unlock();
+		}
+		if ( evictionListener != null && evicted != null && !evicted.isEmpty() ) {
+			evictionListener.onEntryEviction( Collections.unmodifiableMap( evicted ) );
+		}
+	}
+
+	/**
+	 * @return The number of cached entries, including the oversized one kept aside
+	 */
+	public int size() {
+		return map.size() + ( oversized == null ? 0 : 1 );
+	}
+
+	/**
+	 * @return The summed weight of all cached entries, not counting the oversized one kept aside
+	 */
+	public long getWeight() {
+		return weight.get();
+	}
+
+	/**
+	 * Remove all entries.  Not reported to the eviction listener.
+	 */
+	public void clear() {
+		oversized = null;
+		for ( Map.Entry<K, Node<V>> entry : map.entrySet() ) {
+			if ( map.remove( entry.getKey(), entry.getValue() ) ) {
+				weight.addAndGet( -entry.getValue().weight );
+			}
+		}
+	}
+
+	private static final class Node<V> implements Serializable {
+		private final V value;
+		private final long weight;
+		private volatile long lastAccess;
+
+		private Node(V value, long weight, long lastAccess) {
+			this.value = value;
+			this.weight = weight;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private static final class Oversized<K, V> implements Serializable {
+		private final K key;
+		private final V value;
+
+		private Oversized(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	private static final class Candidate<K, V> implements Comparable<Candidate<K, V>> {
+		private final K key;
+		private final Node<V> node;
+		private final long lastAccess;
+
+		private Candidate(K key, Node<V> node) {
+			this.key = key;
+			this.node = node;
+			this.lastAccess = node.lastAccess;
+		}
+
+		@Override
+		public int compareTo(Candidate<K, V> other) {
+			return lastAccess < other.lastAccess ? -1 : ( lastAccess == other.lastAccess ? 0 : 1 );
+		}
+	}
+}
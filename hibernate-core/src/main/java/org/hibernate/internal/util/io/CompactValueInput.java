@@ -0,0 +1,255 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.internal.util.io;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.bytecode.instrumentation.spi.LazyPropertyInitializer;
+import org.hibernate.internal.util.SerializationHelper;
+import org.hibernate.property.BackrefPropertyAccessor;
+
+import static org.hibernate.internal.util.io.CompactValueOutput.BIG_DECIMAL;
+import static org.hibernate.internal.util.io.CompactValueOutput.BIG_INTEGER;
+import static org.hibernate.internal.util.io.CompactValueOutput.BYTE;
+import static org.hibernate.internal.util.io.CompactValueOutput.BYTES;
+import static org.hibernate.internal.util.io.CompactValueOutput.CHARACTER;
+import static org.hibernate.internal.util.io.CompactValueOutput.DATE;
+import static org.hibernate.internal.util.io.CompactValueOutput.DOUBLE;
+import static org.hibernate.internal.util.io.CompactValueOutput.FALSE;
+import static org.hibernate.internal.util.io.CompactValueOutput.FLOAT;
+import static org.hibernate.internal.util.io.CompactValueOutput.INTEGER;
+import static org.hibernate.internal.util.io.CompactValueOutput.LONG;
+import static org.hibernate.internal.util.io.CompactValueOutput.NULL;
+import static org.hibernate.internal.util.io.CompactValueOutput.OBJECT_ARRAY;
+import static org.hibernate.internal.util.io.CompactValueOutput.SERIALIZABLE_ARRAY;
+import static org.hibernate.internal.util.io.CompactValueOutput.SERIALIZED;
+import static org.hibernate.internal.util.io.CompactValueOutput.SHORT;
+import static org.hibernate.internal.util.io.CompactValueOutput.SQL_DATE;
+import static org.hibernate.internal.util.io.CompactValueOutput.STRING;
+import static org.hibernate.internal.util.io.CompactValueOutput.STRING_REF;
+import static org.hibernate.internal.util.io.CompactValueOutput.TIME;
+import static org.hibernate.internal.util.io.CompactValueOutput.TIMESTAMP;
+import static org.hibernate.internal.util.io.CompactValueOutput.TRUE;
+import static org.hibernate.internal.util.io.CompactValueOutput.UNFETCHED_PROPERTY;
+import static org.hibernate.internal.util.io.CompactValueOutput.UNKNOWN_BACKREF;
+import static org.hibernate.internal.util.io.CompactValueOutput.UTF_8;
+import static org.hibernate.internal.util.io.CompactValueOutput.UUID_VALUE;
+
+/**
+ * Reads values written by {@link CompactValueOutput}.
+ * <p/>
+ * Not thread-safe; use one instance per decoded unit.
+ *
+ * @see CompactValueOutput
+ */
+public class CompactValueInput {
+	private final DataInput in;
+	private final List<String> strings = new ArrayList<String>();
+
+	public CompactValueInput(DataInput in) {
+		this.in = in;
+	}
+
+	/**
+	 * Read a value.
+	 *
+	 * @return The value, may be {@code null}
+	 *
+	 * @throws IOException Indicates a problem reading from the underlying input, or malformed input
+	 */
+	public Object readValue() throws IOException {
+		final byte tag = in.readByte();
+		switch ( tag ) {
+			case NULL:
+				return null;
+			case TRUE:
+				return Boolean.TRUE;
+			case FALSE:
+				return Boolean.FALSE;
+			case STRING:
+			case STRING_REF:
+				return readStringValue( tag );
+			case UNFETCHED_PROPERTY:
+				return LazyPropertyInitializer.UNFETCHED_PROPERTY;
+			case UNKNOWN_BACKREF:
+				return BackrefPropertyAccessor.UNKNOWN;
+			default:
+				return readPayload( tag );
+		}
+	}
+
+	/**
+	 * Read a value written through {@link CompactValueOutput#writeTypedValue}.
+	 *
+	 * @param valueClass The class the value was written as
+	 *
+	 * @return The value
+	 *
+	 * @throws IOException Indicates a problem reading from the underlying input, or malformed input
+	 */
+	public Object readTypedValue(Class valueClass) throws IOException {
+		if ( valueClass == String.class ) {
+			return readStringValue( in.readByte() );
+		}
+		else if ( valueClass == Boolean.class ) {
+			return in.readBoolean();
+		}
+		else {
+			return readPayload( CompactValueOutput.tagOf( valueClass ) );
+		}
+	}
+
+	private Object readPayload(byte tag) throws IOException {
+		switch ( tag ) {
+			case INTEGER:
+				return (int) readVarLong();
+			case LONG:
+				return readVarLong();
+			case SHORT:
+				return (short) readVarLong();
+			case BYTE:
+				return in.readByte();
+			case CHARACTER:
+				return in.readChar();
+			case FLOAT:
+				return in.readFloat();
+			case DOUBLE:
+				return in.readDouble();
+			case BIG_DECIMAL: {
+				final int scale = (int) readVarLong();
+				return new BigDecimal( new BigInteger( readBytes() ), scale );
+			}
+			case BIG_INTEGER:
+				return new BigInteger( readBytes() );
+			case DATE:
+				return new java.util.Date( readVarLong() );
+			case TIMESTAMP: {
+				final java.sql.Timestamp timestamp = new java.sql.Timestamp( readVarLong() );
+				timestamp.setNanos( (int) readVarLong() );
+				return timestamp;
+			}
+			case SQL_DATE:
+				return new java.sql.Date( readVarLong() );
+			case TIME:
+				return new java.sql.Time( readVarLong() );
+			case BYTES:
+				return readBytes();
+			case OBJECT_ARRAY:
+				return readArrayElements( new Object[ readLength() ] );
+			case SERIALIZABLE_ARRAY:
+				return readArrayElements( new Serializable[ readLength() ] );
+			case UUID_VALUE:
+				return new UUID( in.readLong(), in.readLong() );
+			case SERIALIZED:
+				return SerializationHelper.deserialize( readBytes() );
+			default:
+				throw new IOException( "Unexpected value tag : " + tag );
+		}
+	}
+
+	/**
+	 * Read a string written through {@link CompactValueOutput#writeString}.
+	 *
+	 * @return The string, may be {@code null}
+	 *
+	 * @throws IOException Indicates a problem reading from the underlying input, or malformed input
+	 */
+	public String readString() throws IOException {
+		final byte tag = in.readByte();
+		if ( tag == NULL ) {
+			return null;
+		}
+		return readStringValue( tag );
+	}
+
+	/**
+	 * Read a (zig-zag encoded) variable length integer.
+	 *
+	 * @return The value
+	 *
+	 * @throws IOException Indicates a problem reading from the underlying input, or malformed input
+	 */
+	public long readVarLong() throws IOException {
+		final long raw = readUnsignedVarLong();
+		return ( raw >>> 1 ) ^ -( raw & 1 );
+	}
+
+	private long readUnsignedVarLong() throws IOException {
+		long value = 0;
+		int shift = 0;
+		while ( shift < 64 ) {
+			final byte b = in.readByte();
+			value |= (long) ( b & 0x7F ) << shift;
+			if ( ( b & 0x80 ) == 0 ) {
+				return value;
+			}
+			shift += 7;
+		}
+		throw new IOException( "Malformed variable length integer" );
+	}
+
+	private int readLength() throws IOException {
+		final long length = readUnsignedVarLong();
+		if ( length > Integer.MAX_VALUE ) {
+			throw new IOException( "Invalid length : " + length );
+		}
+		return (int) length;
+	}
+
+	private String readStringValue(byte tag) throws IOException {
+		if ( tag == STRING_REF ) {
+			final int index = readLength();
+			if ( index >= strings.size() ) {
+				throw new IOException( "Invalid string reference : " + index );
+			}
+			return strings.get( index );
+		}
+		if ( tag != STRING ) {
+			throw new IOException( "Expected a string, but found tag : " + tag );
+		}
+		final String value = new String( readBytes(), UTF_8 );
+		strings.add( value );
+		return value;
+	}
+
+	private byte[] readBytes() throws IOException {
+		final byte[] bytes = new byte[ readLength() ];
+		in.readFully( bytes );
+		return bytes;
+	}
+
+	private Object[] readArrayElements(Object[] array) throws IOException {
+		for ( int i = 0; i < array.length; i++ ) {
+			array[i] = readValue();
+		}
+		return array;
+	}
+}
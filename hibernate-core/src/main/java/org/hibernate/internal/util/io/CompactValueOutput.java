@@ -0,0 +1,338 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.internal.util.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.bytecode.instrumentation.spi.LazyPropertyInitializer;
+import org.hibernate.internal.util.SerializationHelper;
+import org.hibernate.property.BackrefPropertyAccessor;
+
+/**
+ * Writes values in a compact binary form, read back by {@link CompactValueInput}.
+ * <p/>
+ * Each value is written as a single tag byte followed by its payload: integral numbers as (zig-zag) varints,
+ * strings as UTF-8 with repeated strings replaced by a back-reference, and arrays element by element.  Only
+ * values of types not known here fall back to Java serialization, so no class descriptors are written for the
+ * values Hibernate typically disassembles into the second-level cache.  Callers which know the class of a value
+ * up front can also write it {@link #writeTypedValue without its tag}.
+ * <p/>
+ * Not thread-safe; use one instance per encoded unit.
+ *
+ * @see CompactValueInput
+ */
+public class CompactValueOutput {
+	static final byte NULL = 0;
+	static final byte TRUE = 1;
+	static final byte FALSE = 2;
+	static final byte INTEGER = 3;
+	static final byte LONG = 4;
+	static final byte SHORT = 5;
+	static final byte BYTE = 6;
+	static final byte CHARACTER = 7;
+	static final byte FLOAT = 8;
+	static final byte DOUBLE = 9;
+	static final byte STRING = 10;
+	static final byte STRING_REF = 11;
+	static final byte BIG_DECIMAL = 12;
+	static final byte BIG_INTEGER = 13;
+	static final byte DATE = 14;
+	static final byte TIMESTAMP = 15;
+	static final byte SQL_DATE = 16;
+	static final byte TIME = 17;
+	static final byte BYTES = 18;
+	static final byte OBJECT_ARRAY = 19;
+	static final byte SERIALIZABLE_ARRAY = 20;
+	static final byte UUID_VALUE = 21;
+	static final byte UNFETCHED_PROPERTY = 22;
+	static final byte UNKNOWN_BACKREF = 23;
+	static final byte SERIALIZED = 24;
+
+	static final String UTF_8 = "UTF-8";
+
+	private final DataOutput out;
+	private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+	public CompactValueOutput(DataOutput out) {
+		this.out = out;
+	}
+
+	/**
+	 * Write a value.
+	 *
+	 * @param value The value, may be {@code null}
+	 *
+	 * @throws IOException Indicates a problem writing to the underlying output
+	 */
+	public void writeValue(Object value) throws IOException {
+		if ( value == null ) {
+			out.writeByte( NULL );
+		}
+		else if ( value == LazyPropertyInitializer.UNFETCHED_PROPERTY ) {
+			out.writeByte( UNFETCHED_PROPERTY );
+		}
+		else if ( value == BackrefPropertyAccessor.UNKNOWN ) {
+			out.writeByte( UNKNOWN_BACKREF );
+		}
+		else {
+			final Class valueClass = value.getClass();
+			if ( valueClass == String.class ) {
+				writeStringValue( (String) value );
+			}
+			else if ( valueClass == Boolean.class ) {
+				out.writeByte( (Boolean) value ? TRUE : FALSE );
+			}
+			else {
+				final byte tag = tagOf( valueClass );
+				out.writeByte( tag );
+				writePayload( tag, value );
+			}
+		}
+	}
+
+	/**
+	 * Can values of the given class be written through {@link #writeTypedValue}?
+	 *
+	 * @param valueClass The value class
+	 *
+	 * @return {@code true} if the class is one of the scalar types written without Java serialization
+	 */
+	public static boolean isTypedClass(Class valueClass) {
+		if ( valueClass == String.class || valueClass == Boolean.class ) {
+			return true;
+		}
+		final byte tag = tagOf( valueClass );
+		return tag != SERIALIZED && tag != OBJECT_ARRAY && tag != SERIALIZABLE_ARRAY;
+	}
+
+	/**
+	 * Write a non-null value of a class the reader knows up front (for example from the mapped property
+	 * type), omitting the tag byte.  Read back through {@link CompactValueInput#readTypedValue}.
+	 *
+	 * @param valueClass The class of the value, which must be a {@link #isTypedClass typed class}
+	 * @param value The value, an instance of exactly {@code valueClass}
+	 *
+	 * @throws IOException Indicates a problem writing to the underlying output
+	 */
+	public void writeTypedValue(Class valueClass, Object value) throws IOException {
+		if ( valueClass == String.class ) {
+			writeStringValue( (String) value );
+		}
+		else if ( valueClass == Boolean.class ) {
+			out.writeBoolean( (Boolean) value );
+		}
+		else {
+			writePayload( tagOf( valueClass ), value );
+		}
+	}
+
+	static byte tagOf(Class valueClass) {
+		if ( valueClass == Long.class ) {
+			return LONG;
+		}
+		else if ( valueClass == Integer.class ) {
+			return INTEGER;
+		}
+		else if ( valueClass == Short.class ) {
+			return SHORT;
+		}
+		else if ( valueClass == Byte.class ) {
+			return BYTE;
+		}
+		else if ( valueClass == Character.class ) {
+			return CHARACTER;
+		}
+		else if ( valueClass == Double.class ) {
+			return DOUBLE;
+		}
+		else if ( valueClass == Float.class ) {
+			return FLOAT;
+		}
+		else if ( valueClass == BigDecimal.class ) {
+			return BIG_DECIMAL;
+		}
+		else if ( valueClass == BigInteger.class ) {
+			return BIG_INTEGER;
+		}
+		else if ( valueClass == java.util.Date.class ) {
+			return DATE;
+		}
+		else if ( valueClass == java.sql.Timestamp.class ) {
+			return TIMESTAMP;
+		}
+		else if ( valueClass == java.sql.Date.class ) {
+			return SQL_DATE;
+		}
+		else if ( valueClass == java.sql.Time.class ) {
+			return TIME;
+		}
+		else if ( valueClass == byte[].class ) {
+			return BYTES;
+		}
+		else if ( valueClass == Object[].class ) {
+			return OBJECT_ARRAY;
+		}
+		else if ( valueClass == Serializable[].class ) {
+			return SERIALIZABLE_ARRAY;
+		}
+		else if ( valueClass == UUID.class ) {
+			return UUID_VALUE;
+		}
+		else {
+			return SERIALIZED;
+		}
+	}
+
+	private void writePayload(byte tag, Object value) throws IOException {
+		switch ( tag ) {
+			case LONG:
+				writeVarLong( (Long) value );
+				break;
+			case INTEGER:
+				writeVarLong( (Integer) value );
+				break;
+			case SHORT:
+				writeVarLong( (Short) value );
+				break;
+			case BYTE:
+				out.writeByte( (Byte) value );
+				break;
+			case CHARACTER:
+				out.writeChar( (Character) value );
+				break;
+			case DOUBLE:
+				out.writeDouble( (Double) value );
+				break;
+			case FLOAT:
+				out.writeFloat( (Float) value );
+				break;
+			case BIG_DECIMAL: {
+				final BigDecimal decimal = (BigDecimal) value;
+				writeVarLong( decimal.scale() );
+				writeBytes( decimal.unscaledValue().toByteArray() );
+				break;
+			}
+			case BIG_INTEGER:
+				writeBytes( ( (BigInteger) value ).toByteArray() );
+				break;
+			case DATE:
+				writeVarLong( ( (java.util.Date) value ).getTime() );
+				break;
+			case TIMESTAMP: {
+				final java.sql.Timestamp timestamp = (java.sql.Timestamp) value;
+				writeVarLong( timestamp.getTime() );
+				writeVarLong( timestamp.getNanos() );
+				break;
+			}
+			case SQL_DATE:
+				writeVarLong( ( (java.sql.Date) value ).getTime() );
+				break;
+			case TIME:
+				writeVarLong( ( (java.sql.Time) value ).getTime() );
+				break;
+			case BYTES:
+				writeBytes( (byte[]) value );
+				break;
+			case OBJECT_ARRAY:
+			case SERIALIZABLE_ARRAY:
+				writeArrayElements( (Object[]) value );
+				break;
+			case UUID_VALUE: {
+				final UUID uuid = (UUID) value;
+				out.writeLong( uuid.getMostSignificantBits() );
+				out.writeLong( uuid.getLeastSignificantBits() );
+				break;
+			}
+			default:
+				writeBytes( SerializationHelper.serialize( (Serializable) value ) );
+		}
+	}
+
+	/**
+	 * Write a string, possibly as a back-reference to an identical string written before.
+	 *
+	 * @param value The string, may be {@code null}
+	 *
+	 * @throws IOException Indicates a problem writing to the underlying output
+	 */
+	public void writeString(String value) throws IOException {
+		if ( value == null ) {
+			out.writeByte( NULL );
+		}
+		else {
+			writeStringValue( value );
+		}
+	}
+
+	/**
+	 * Write a (zig-zag encoded) variable length integer.
+	 *
+	 * @param value The value
+	 *
+	 * @throws IOException Indicates a problem writing to the underlying output
+	 */
+	public void writeVarLong(long value) throws IOException {
+		writeUnsignedVarLong( ( value << 1 ) ^ ( value >> 63 ) );
+	}
+
+	private void writeUnsignedVarLong(long value) throws IOException {
+		while ( ( value & ~0x7FL ) != 0 ) {
+			out.writeByte( (int) ( ( value & 0x7F ) | 0x80 ) );
+			value >>>= 7;
+		}
+		out.writeByte( (int) value );
+	}
+
+	private void writeStringValue(String value) throws IOException {
+		final Integer index = strings.get( value );
+		if ( index != null ) {
+			out.writeByte( STRING_REF );
+			writeUnsignedVarLong( index );
+		}
+		else {
+			strings.put( value, strings.size() );
+			out.writeByte( STRING );
+			writeBytes( value.getBytes( UTF_8 ) );
+		}
+	}
+
+	private void writeBytes(byte[] bytes) throws IOException {
+		writeUnsignedVarLong( bytes.length );
+		out.write( bytes );
+	}
+
+	private void writeArrayElements(Object[] array) throws IOException {
+		writeUnsignedVarLong( array.length );
+		for ( Object element : array ) {
+			writeValue( element );
+		}
+	}
+}
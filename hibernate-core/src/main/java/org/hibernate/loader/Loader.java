@@ -29,6 +29,7 @@ import java.io.Serializable;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
@@ -40,6 +41,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.hibernate.AssertionFailure;
 import org.hibernate.HibernateException;
@@ -54,6 +56,7 @@ import org.hibernate.WrongClassException;
 import org.hibernate.cache.spi.FilterKey;
 import org.hibernate.cache.spi.QueryCache;
 import org.hibernate.cache.spi.QueryKey;
+import org.hibernate.cache.spi.ScopedQueryCache;
 import org.hibernate.cache.spi.entry.CacheEntry;
 import org.hibernate.cache.spi.entry.ReferenceCacheEntryImpl;
 import org.hibernate.collection.spi.PersistentCollection;
@@ -63,6 +66,7 @@ import org.hibernate.dialect.pagination.LimitHelper;
 import org.hibernate.dialect.pagination.NoopLimitHandler;
 import org.hibernate.engine.internal.CacheHelper;
 import org.hibernate.engine.internal.TwoPhaseLoad;
+import org.hibernate.engine.jdbc.ColumnIndexResultSet;
 import org.hibernate.engine.jdbc.ColumnNameCache;
 import org.hibernate.engine.spi.EntityEntry;
 import org.hibernate.engine.spi.EntityKey;
@@ -119,6 +123,7 @@ public abstract class Loader {
 	protected static final boolean DEBUG_ENABLED = LOG.isDebugEnabled();
 	private final SessionFactoryImplementor factory;
 	private volatile ColumnNameCache columnNameCache;
+	private volatile ColumnIndexPlan columnIndexPlan;
 
 	private final boolean referenceCachingEnabled;
 
@@ -2095,9 +2100,14 @@ public abstract class Loader {
 		if ( session.getFactory().getSettings().isWrapResultSetsEnabled() ) {
 			try {
 				LOG.debugf( "Wrapping result set [%s]", rs );
-				return session.getFactory()
+				final ResultSet wrapped = session.getFactory()
 						.getJdbcServices()
 						.getResultSetWrapper().wrap( rs, retreiveColumnNameToIndexCache( rs ) );
+				if ( wrapped instanceof ColumnIndexResultSet ) {
+					final ColumnIndexPlan plan = retrieveColumnIndexPlan( rs );
+					( (ColumnIndexResultSet) wrapped ).bind( plan.columnAliases, plan.columnIndexes );
+				}
+				return wrapped;
 			}
 			catch(SQLException e) {
 				LOG.unableToWrapResultSet( e );
@@ -2121,6 +2131,86 @@ public abstract class Loader {
 		return columnNameCache;
 	}
 
+	private ColumnIndexPlan retrieveColumnIndexPlan(final ResultSet rs) throws SQLException {
+		ColumnIndexPlan plan = columnIndexPlan;
+		if ( plan == null ) {
+			LOG.trace( "Building column alias -> column index plan" );
+			final List<String> aliases = new ArrayList<String>();
+			collectColumnAliases( aliases );
+			plan = new ColumnIndexPlan( aliases.toArray( new String[aliases.size()] ), rs.getMetaData() );
+			columnIndexPlan = plan;
+		}
+		return plan;
+	}
+
+	/**
+	 * Collect the column aliases this loader reads from each row, so that they can be resolved to column indexes
+	 * once per query rather than once per execution (or row) when result sets are wrapped.
+	 *
+	 * @param aliases The list to add the aliases to; the alias instances must be those used to read the columns
+	 */
+	protected void collectColumnAliases(List<String> aliases) {
+		final EntityAliases[] entityAliases = getEntityAliases();
+		if ( entityAliases != null ) {
+			for ( EntityAliases descriptor : entityAliases ) {
+				addColumnAliases( aliases, descriptor.getSuffixedKeyAliases() );
+				for ( String[] propertyAliases : descriptor.getSuffixedPropertyAliases() ) {
+					addColumnAliases( aliases, propertyAliases );
+				}
+				addColumnAliases( aliases, descriptor.getSuffixedVersionAliases() );
+				addColumnAlias( aliases, descriptor.getSuffixedDiscriminatorAlias() );
+				addColumnAlias( aliases, descriptor.getRowIdAlias() );
+			}
+		}
+		final CollectionAliases[] collectionAliases = getCollectionAliases();
+		if ( collectionAliases != null ) {
+			for ( CollectionAliases descriptor : collectionAliases ) {
+				addColumnAliases( aliases, descriptor.getSuffixedKeyAliases() );
+				addColumnAliases( aliases, descriptor.getSuffixedIndexAliases() );
+				addColumnAliases( aliases, descriptor.getSuffixedElementAliases() );
+				addColumnAlias( aliases, descriptor.getSuffixedIdentifierAlias() );
+			}
+		}
+	}
+
+	protected static void addColumnAliases(List<String> aliases, String[] columnAliases) {
+		if ( columnAliases != null ) {
+			for ( String columnAlias : columnAliases ) {
+				addColumnAlias( aliases, columnAlias );
+			}
+		}
+	}
+
+	private static void addColumnAlias(List<String> aliases, String columnAlias) {
+		if ( columnAlias != null ) {
+			aliases.add( columnAlias );
+		}
+	}
+
+	/**
+	 * The column aliases read by a loader, resolved to the indexes of their columns in the result sets of its query.
+	 * Aliases which are not part of the result set (for example those of lazy properties which were not fetched)
+	 * are left unresolved.
+	 */
+	private static final class ColumnIndexPlan {
+		private final String[] columnAliases;
+		private final int[] columnIndexes;
+
+		private ColumnIndexPlan(String[] columnAliases, ResultSetMetaData metaData) throws SQLException {
+			final Map<String,Integer> indexesByLabel = new TreeMap<String,Integer>( String.CASE_INSENSITIVE_ORDER );
+			for ( int i = metaData.getColumnCount(); i > 0; i-- ) {
+				// the first column with a given label wins, as with ResultSet#findColumn
+				indexesByLabel.put( metaData.getColumnLabel( i ), i );
+			}
+			this.columnAliases = columnAliases;
+			this.columnIndexes = new int[columnAliases.length];
+			for ( int i = 0; i < columnAliases.length; i++ ) {
+				final Integer index = indexesByLabel.get( columnAliases[i] );
+				columnIndexes[i] = index == null ? 0 : index;
+			}
+		}
+	}
+
 	/**
 	 * Called by subclasses that load entities
 	 * @param persister only needed for logging
@@ -2481,13 +2571,25 @@ public abstract class Loader {
 				queryParameters.setReadOnly( persistenceContext.isDefaultReadOnly() );
 			}
 			try {
-				result = queryCache.get(
-						key,
-						key.getResultTransformer().getCachedResultTypes( resultTypes ),
-						isImmutableNaturalKeyLookup,
-						querySpaces,
-						session
-				);
+				if ( queryParameters.getCacheScope() != null && queryCache instanceof ScopedQueryCache ) {
+					result = ( (ScopedQueryCache) queryCache ).get(
+							key,
+							key.getResultTransformer().getCachedResultTypes( resultTypes ),
+							isImmutableNaturalKeyLookup,
+							querySpaces,
+							queryParameters.getCacheScope(),
+							session
+					);
+				}
+				else {
+					result = queryCache.get(
+							key,
+							key.getResultTransformer().getCachedResultTypes( resultTypes ),
+							isImmutableNaturalKeyLookup,
+							querySpaces,
+							session
+					);
+				}
 			}
 			finally {
 				persistenceContext.setDefaultReadOnly( defaultReadOnlyOrig );
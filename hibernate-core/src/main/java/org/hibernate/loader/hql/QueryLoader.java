@@ -453,6 +453,16 @@ public class QueryLoader extends BasicLoader {
 		return resultRow;
 	}
 
+	@Override
+	protected void collectColumnAliases(List<String> aliases) {
+		super.collectColumnAliases( aliases );
+		if ( hasScalars ) {
+			for ( String[] scalarColumns : scalarColumnNames ) {
+				addColumnAliases( aliases, scalarColumns );
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	protected List getResultList(List results, ResultTransformer resultTransformer) throws QueryException {
@@ -38,6 +38,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.hibernate.AssertionFailure;
 import org.hibernate.EntityMode;
@@ -56,6 +57,7 @@ import org.hibernate.bytecode.spi.EntityInstrumentationMetadata;
 import org.hibernate.cache.spi.CacheKey;
 import org.hibernate.cache.spi.access.EntityRegionAccessStrategy;
 import org.hibernate.cache.spi.access.NaturalIdRegionAccessStrategy;
+import org.hibernate.cache.spi.entry.BinaryCacheEntry;
 import org.hibernate.cache.spi.entry.CacheEntry;
 import org.hibernate.cache.spi.entry.CacheEntryStructure;
 import org.hibernate.cache.spi.entry.ReferenceCacheEntryImpl;
@@ -79,6 +81,7 @@ import org.hibernate.engine.spi.FilterDefinition;
 import org.hibernate.engine.spi.LoadQueryInfluencers;
 import org.hibernate.engine.spi.Mapping;
 import org.hibernate.engine.spi.PersistenceContext.NaturalIdHelper;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.engine.spi.ValueInclusion;
@@ -238,14 +241,17 @@ public abstract class AbstractEntityPersister
 
 	private final Set<String> affectingFetchProfileNames = new HashSet<String>();
 
-	private final Map uniqueKeyLoaders = new HashMap();
-	private final Map lockers = new HashMap();
-	private final Map loaders = new HashMap();
+	// concurrent, as with lazy initialization these are populated on first use
+	private final Map uniqueKeyLoaders = new ConcurrentHashMap();
+	private final Map lockers = new ConcurrentHashMap();
+	private final Map loaders = new ConcurrentHashMap();
+	private final boolean lazyInitialization;
 
 	// SQL strings
 	private String sqlVersionSelectString;
 	private String sqlSnapshotSelectString;
 	private String sqlLazySelectString;
+	private volatile boolean selectStringsGenerated;
 
 	private String sqlIdentityInsertString;
 	private String sqlUpdateByRowIdString;
@@ -395,10 +401,12 @@ public abstract class AbstractEntityPersister
 	}
 
 	protected String getSQLSnapshotSelectString() {
+		ensureSelectStringsGenerated();
 		return sqlSnapshotSelectString;
 	}
 
 	protected String getSQLLazySelectString() {
+		ensureSelectStringsGenerated();
 		return sqlLazySelectString;
 	}
 
@@ -428,6 +436,7 @@ public abstract class AbstractEntityPersister
 	}
 
 	protected String getVersionSelectString() {
+		ensureSelectStringsGenerated();
 		return sqlVersionSelectString;
 	}
 
@@ -517,6 +526,7 @@ public abstract class AbstractEntityPersister
 		this.naturalIdRegionAccessStrategy = naturalIdRegionAccessStrategy;
 		isLazyPropertiesCacheable = persistentClass.isLazyPropertiesCacheable();
 
+		this.lazyInitialization = factory.getSettings().isLazyPersisterInitializationEnabled();
 		this.entityMetamodel = new EntityMetamodel( persistentClass, this, factory );
 		this.entityTuplizer = this.entityMetamodel.getTuplizer();
 		// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -806,9 +816,15 @@ public abstract class AbstractEntityPersister
 			return new ReferenceCacheEntryHelper( this );
 		}
 
-		return factory.getSettings().isStructuredCacheEntriesEnabled()
-				? new StructuredCacheEntryHelper( this )
-				: new StandardCacheEntryHelper( this );
+		if ( factory.getSettings().isStructuredCacheEntriesEnabled() ) {
+			return new StructuredCacheEntryHelper( this );
+		}
+		else if ( factory.getSettings().isBinaryCacheEntriesEnabled() ) {
+			return new BinaryCacheEntryHelper( this );
+		}
+		else {
+			return new StandardCacheEntryHelper( this );
+		}
 	}
 
 	public boolean canUseReferenceCacheEntries() {
@@ -847,6 +863,7 @@ public abstract class AbstractEntityPersister
 				entityBinding.getHierarchyDetails().getCaching() == null ?
 						false :
 						entityBinding.getHierarchyDetails().getCaching().isCacheLazyProperties();
+		this.lazyInitialization = factory.getSettings().isLazyPersisterInitializationEnabled();
 		this.entityMetamodel = new EntityMetamodel( entityBinding, this, factory );
 		this.entityTuplizer = this.entityMetamodel.getTuplizer();
 		int batch = entityBinding.getBatchSize();
@@ -1425,7 +1442,15 @@ public abstract class AbstractEntityPersister
 	 */
 	public boolean isCacheInvalidationRequired() {
 		return hasFormulaProperties() ||
-				( !isVersioned() && ( entityMetamodel.isDynamicUpdate() || getTableSpan() > 1 ) );
+				( !isVersioned() && ( isDynamicUpdateRequired() || getTableSpan() > 1 ) );
+	}
+
+	/**
+	 * Are UPDATE statements for this entity generated per flush from its dirty properties?  True
+	 * for dynamic-update mappings and for entities enhanced with {@link SelfDirtinessTracker}.
+	 */
+	private boolean isDynamicUpdateRequired() {
+		return entityMetamodel.isDynamicUpdate() || entityMetamodel.isSelfDirtinessTracked();
 	}
 
 	public boolean isLazyPropertiesCacheable() {
@@ -1916,6 +1941,10 @@ public abstract class AbstractEntityPersister
 	}
 
 	protected void initLockers() {
+		if ( lazyInitialization ) {
+			// generated on first use, see getLocker()
+			return;
+		}
 		lockers.put( LockMode.READ, generateLocker( LockMode.READ ) );
 		lockers.put( LockMode.UPGRADE, generateLocker( LockMode.UPGRADE ) );
 		lockers.put( LockMode.UPGRADE_NOWAIT, generateLocker( LockMode.UPGRADE_NOWAIT ) );
@@ -1933,7 +1962,13 @@ public abstract class AbstractEntityPersister
 	}
 
 	private LockingStrategy getLocker(LockMode lockMode) {
-		return ( LockingStrategy ) lockers.get( lockMode );
+		LockingStrategy locker = ( LockingStrategy ) lockers.get( lockMode );
+		if ( locker == null && lazyInitialization ) {
+			// a concurrent first use may generate it twice; either result is equivalent
+			locker = generateLocker( lockMode );
+			lockers.put( lockMode, locker );
+		}
+		return locker;
 	}
 
 	public void lock(
@@ -2156,13 +2191,23 @@ public abstract class AbstractEntityPersister
 
 	@Override
 	public int[] resolveAttributeIndexes(Set<String> properties) {
-		Iterator<String> iter = properties.iterator();
-		int[] fields = new int[properties.size()];
+		// collect into a per-attribute bitset first so that names which are not attributes of
+		// this entity are dropped, duplicates collapse and the result comes back ordered
+		final boolean[] dirty = new boolean[entityMetamodel.getPropertySpan()];
+		int count = 0;
+		for ( String property : properties ) {
+			final Integer index = entityMetamodel.getPropertyIndexOrNull( property );
+			if ( index != null && !dirty[index] ) {
+				dirty[index] = true;
+				count++;
+			}
+		}
+		final int[] fields = new int[count];
 		int counter = 0;
-		while(iter.hasNext()) {
-			Integer index = entityMetamodel.getPropertyIndexOrNull( iter.next() );
-			if ( index != null )
-				fields[counter++] = index;
+		for ( int i = 0; i < dirty.length && counter < count; i++ ) {
+			if ( dirty[i] ) {
+				fields[counter++] = i;
+			}
 		}
 		return fields;
 	}
@@ -2391,7 +2436,15 @@ public abstract class AbstractEntityPersister
 				&& propertyName.indexOf('.')<0; //ugly little workaround for fact that createUniqueKeyLoaders() does not handle component properties
 
 		if ( useStaticLoader ) {
-			return ( EntityLoader ) uniqueKeyLoaders.get( propertyName );
+			EntityLoader loader = ( EntityLoader ) uniqueKeyLoaders.get( propertyName );
+			if ( loader == null && lazyInitialization ) {
+				final Integer index = entityMetamodel.getPropertyIndexOrNull( propertyName );
+				if ( index != null && propertyUniqueness[index] ) {
+					loader = createUniqueKeyLoader( index );
+					uniqueKeyLoaders.put( propertyName, loader );
+				}
+			}
+			return loader;
 		}
 		else {
 			return createUniqueKeyLoader(
@@ -2407,24 +2460,28 @@ public abstract class AbstractEntityPersister
 	}
 
 	protected void createUniqueKeyLoaders() throws MappingException {
-		Type[] propertyTypes = getPropertyTypes();
+		if ( lazyInitialization ) {
+			// created on first use, see getAppropriateUniqueKeyLoader()
+			return;
+		}
 		String[] propertyNames = getPropertyNames();
 		for ( int i = 0; i < entityMetamodel.getPropertySpan(); i++ ) {
 			if ( propertyUniqueness[i] ) {
-				//don't need filters for the static loaders
-				uniqueKeyLoaders.put(
-						propertyNames[i],
-						createUniqueKeyLoader(
-								propertyTypes[i],
-								getPropertyColumnNames( i ),
-								LoadQueryInfluencers.NONE
-						)
-				);
+				uniqueKeyLoaders.put( propertyNames[i], createUniqueKeyLoader( i ) );
 				//TODO: create uk loaders for component properties
 			}
 		}
 	}
 
+	private EntityLoader createUniqueKeyLoader(int propertyIndex) {
+		//don't need filters for the static loaders
+		return createUniqueKeyLoader(
+				getPropertyTypes()[propertyIndex],
+				getPropertyColumnNames( propertyIndex ),
+				LoadQueryInfluencers.NONE
+		);
+	}
+
 	private EntityLoader createUniqueKeyLoader(
 			Type uniqueKeyType,
 			String[] columns,
@@ -3479,8 +3536,9 @@ public abstract class AbstractEntityPersister
 		if ( entry == null && ! isMutable() ) {
 			throw new IllegalStateException( "Updating immutable entity that is not in session yet!" );
 		}
-		if ( ( entityMetamodel.isDynamicUpdate() && dirtyFields != null ) ) {
-			// We need to generate the UPDATE SQL when dynamic-update="true"
+		if ( ( isDynamicUpdateRequired() && dirtyFields != null ) ) {
+			// We need to generate the UPDATE SQL when dynamic-update="true", or when the entity
+			// tracks its own dirty attributes (only the changed columns are then written)
 			propsToUpdate = getPropertiesToUpdate( dirtyFields, hasDirtyCollection );
 			// don't need to check laziness (dirty checking algorithm handles that)
 			updateStrings = new String[span];
@@ -3982,9 +4040,9 @@ public abstract class AbstractEntityPersister
 		}
 
 		//select SQL
-		sqlSnapshotSelectString = generateSnapshotSelectString();
-		sqlLazySelectString = generateLazySelectString();
-		sqlVersionSelectString = generateSelectVersionString();
+		if ( !lazyInitialization ) {
+			ensureSelectStringsGenerated();
+		}
 		if ( hasInsertGeneratedProperties() ) {
 			sqlInsertGeneratedValuesSelectString = generateInsertGeneratedValuesSelectString();
 		}
@@ -4005,6 +4063,17 @@ public abstract class AbstractEntityPersister
 		logStaticSQL();
 	}
 
+	private void ensureSelectStringsGenerated() {
+		if ( !selectStringsGenerated ) {
+			// a concurrent first use may generate them twice; either result is equivalent
+			sqlSnapshotSelectString = generateSnapshotSelectString();
+			sqlLazySelectString = generateLazySelectString();
+			sqlVersionSelectString = generateSelectVersionString();
+			// volatile write publishes the strings above
+			selectStringsGenerated = true;
+		}
+	}
+
 	public final void postInstantiate() throws MappingException {
 		doLateInit();
 
@@ -4023,72 +4092,65 @@ public abstract class AbstractEntityPersister
 		return loaders;
 	}
 
+	private static final Object[] STATIC_LOADER_KEYS = {
+			LockMode.NONE,
+			LockMode.READ,
+			LockMode.UPGRADE,
+			LockMode.UPGRADE_NOWAIT,
+			LockMode.UPGRADE_SKIPLOCKED,
+			LockMode.FORCE,
+			LockMode.PESSIMISTIC_READ,
+			LockMode.PESSIMISTIC_WRITE,
+			LockMode.PESSIMISTIC_FORCE_INCREMENT,
+			LockMode.OPTIMISTIC,
+			LockMode.OPTIMISTIC_FORCE_INCREMENT,
+			"merge",
+			"refresh"
+	};
+
 	//Relational based Persisters should be content with this implementation
 	protected void createLoaders() {
+		if ( lazyInitialization ) {
+			// created on first use, see getLoader()
+			return;
+		}
 		final Map loaders = getLoaders();
-		loaders.put( LockMode.NONE, createEntityLoader( LockMode.NONE ) );
-
-		UniqueEntityLoader readLoader = createEntityLoader( LockMode.READ );
-		loaders.put( LockMode.READ, readLoader );
+		for ( Object key : STATIC_LOADER_KEYS ) {
+			loaders.put( key, createLoader( key ) );
+		}
+	}
 
-		//TODO: inexact, what we really need to know is: are any outer joins used?
-		boolean disableForUpdate = getSubclassTableSpan() > 1 &&
-				hasSubclasses() &&
-				!getFactory().getDialect().supportsOuterJoinForUpdate();
+	private UniqueEntityLoader getLoader(Object key) {
+		UniqueEntityLoader loader = ( UniqueEntityLoader ) getLoaders().get( key );
+		if ( loader == null && lazyInitialization ) {
+			// a concurrent first use may create it twice; either result is equivalent
+			loader = createLoader( key );
+			getLoaders().put( key, loader );
+		}
+		return loader;
+	}
 
-		loaders.put(
-				LockMode.UPGRADE,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.UPGRADE )
-			);
-		loaders.put(
-				LockMode.UPGRADE_NOWAIT,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.UPGRADE_NOWAIT )
-			);
-		loaders.put(
-				LockMode.UPGRADE_SKIPLOCKED,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.UPGRADE_SKIPLOCKED )
-			);
-		loaders.put(
-				LockMode.FORCE,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.FORCE )
-			);
-		loaders.put(
-				LockMode.PESSIMISTIC_READ,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.PESSIMISTIC_READ )
-			);
-		loaders.put(
-				LockMode.PESSIMISTIC_WRITE,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.PESSIMISTIC_WRITE )
-			);
-		loaders.put(
-				LockMode.PESSIMISTIC_FORCE_INCREMENT,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.PESSIMISTIC_FORCE_INCREMENT )
-			);
-		loaders.put( LockMode.OPTIMISTIC, createEntityLoader( LockMode.OPTIMISTIC) );
-		loaders.put( LockMode.OPTIMISTIC_FORCE_INCREMENT, createEntityLoader(LockMode.OPTIMISTIC_FORCE_INCREMENT) );
+	private UniqueEntityLoader createLoader(Object key) {
+		if ( "merge".equals( key ) ) {
+			return new CascadeEntityLoader( this, CascadingActions.MERGE, getFactory() );
+		}
+		if ( "refresh".equals( key ) ) {
+			return new CascadeEntityLoader( this, CascadingActions.REFRESH, getFactory() );
+		}
 
-		loaders.put(
-				"merge",
-				new CascadeEntityLoader( this, CascadingActions.MERGE, getFactory() )
-			);
-		loaders.put(
-				"refresh",
-				new CascadeEntityLoader( this, CascadingActions.REFRESH, getFactory() )
-			);
+		final LockMode lockMode = (LockMode) key;
+		if ( lockMode.greaterThan( LockMode.READ )
+				&& lockMode != LockMode.OPTIMISTIC
+				&& lockMode != LockMode.OPTIMISTIC_FORCE_INCREMENT ) {
+			//TODO: inexact, what we really need to know is: are any outer joins used?
+			boolean disableForUpdate = getSubclassTableSpan() > 1 &&
+					hasSubclasses() &&
+					!getFactory().getDialect().supportsOuterJoinForUpdate();
+			if ( disableForUpdate ) {
+				return getLoader( LockMode.READ );
+			}
+		}
+		return createEntityLoader( lockMode );
 	}
 
 	protected void createQueryLoader() {
@@ -4158,7 +4220,7 @@ public abstract class AbstractEntityPersister
 			// Next, we consider whether an 'internal' fetch profile has been set.
 			// This indicates a special fetch profile Hibernate needs applied
 			// (for its merge loading process e.g.).
-			return ( UniqueEntityLoader ) getLoaders().get( session.getLoadQueryInfluencers().getInternalFetchProfile() );
+			return getLoader( session.getLoadQueryInfluencers().getInternalFetchProfile() );
 		}
 		else if ( isAffectedByEnabledFetchProfiles( session ) ) {
 			// If the session has associated influencers we need to adjust the
@@ -4172,7 +4234,7 @@ public abstract class AbstractEntityPersister
 			return createEntityLoader( lockOptions, session.getLoadQueryInfluencers() );
 		}
 		else {
-			return ( UniqueEntityLoader ) getLoaders().get( lockOptions.getLockMode() );
+			return getLoader( lockOptions.getLockMode() );
 		}
 	}
 
@@ -5292,6 +5354,33 @@ public abstract class AbstractEntityPersister
 		}
 	}
 
+	private static class BinaryCacheEntryHelper implements CacheEntryHelper {
+		private final EntityPersister persister;
+		private final BinaryCacheEntry structure;
+
+		private BinaryCacheEntryHelper(EntityPersister persister) {
+			this.persister = persister;
+			this.structure = new BinaryCacheEntry( persister );
+		}
+
+		@Override
+		public CacheEntryStructure getCacheEntryStructure() {
+			return structure;
+		}
+
+		@Override
+		public CacheEntry buildCacheEntry(Object entity, Object[] state, Object version, SessionImplementor session) {
+			return new StandardCacheEntryImpl(
+					state,
+					persister,
+					persister.hasUninitializedLazyProperties( entity ),
+					version,
+					session,
+					entity
+			);
+		}
+	}
+
 	private static class NoopCacheEntryHelper implements CacheEntryHelper {
 		public static final NoopCacheEntryHelper INSTANCE = new NoopCacheEntryHelper();
 
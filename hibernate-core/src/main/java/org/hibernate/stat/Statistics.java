@@ -189,6 +189,26 @@ public interface Statistics {
 	 * Global number of cacheable entities/collections put in the cache
 	 */
 	public long getSecondLevelCachePutCount();
+	/**
+	 * Global number of queries whose compiled plan was found in the query plan cache
+	 */
+	public long getQueryPlanCacheHitCount();
+	/**
+	 * Global number of queries whose plan had to be compiled because it was not in the query plan cache
+	 */
+	public long getQueryPlanCacheMissCount();
+	/**
+	 * Global number of plans evicted from the query plan cache
+	 */
+	public long getQueryPlanCacheEvictionCount();
+	/**
+	 * The total time in ms spent compiling query plans
+	 */
+	public long getQueryPlanCompilationTotalTime();
+	/**
+	 * The time in ms of the slowest query plan compilation
+	 */
+	public long getQueryPlanCompilationMaxTime();
 	/**
 	 * Global number of sessions closed
 	 */
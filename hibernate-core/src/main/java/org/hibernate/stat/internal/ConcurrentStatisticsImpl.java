@@ -92,6 +92,12 @@ public class ConcurrentStatisticsImpl implements StatisticsImplementor, Service
 	private AtomicLong queryCacheMissCount = new AtomicLong();
 	private AtomicLong queryCachePutCount = new AtomicLong();
 
+	private AtomicLong queryPlanCacheHitCount = new AtomicLong();
+	private AtomicLong queryPlanCacheMissCount = new AtomicLong();
+	private AtomicLong queryPlanCacheEvictionCount = new AtomicLong();
+	private AtomicLong queryPlanCompilationTotalTime = new AtomicLong();
+	private AtomicLong queryPlanCompilationMaxTime = new AtomicLong();
+
 	private AtomicLong updateTimestampsCacheHitCount = new AtomicLong();
 	private AtomicLong updateTimestampsCacheMissCount = new AtomicLong();
 	private AtomicLong updateTimestampsCachePutCount = new AtomicLong();
@@ -174,6 +180,12 @@ public class ConcurrentStatisticsImpl implements StatisticsImplementor, Service
 		queryCacheMissCount.set( 0 );
 		queryCachePutCount.set( 0 );
 
+		queryPlanCacheHitCount.set( 0 );
+		queryPlanCacheMissCount.set( 0 );
+		queryPlanCacheEvictionCount.set( 0 );
+		queryPlanCompilationTotalTime.set( 0 );
+		queryPlanCompilationMaxTime.set( 0 );
+
 		updateTimestampsCacheMissCount.set( 0 );
 		updateTimestampsCacheHitCount.set( 0 );
 		updateTimestampsCachePutCount.set( 0 );
@@ -424,6 +436,27 @@ public class ConcurrentStatisticsImpl implements StatisticsImplementor, Service
 			qs.executed( rows, time );
 		}
 	}
+	@Override
+	public void queryPlanCacheHit(String query) {
+		queryPlanCacheHitCount.getAndIncrement();
+	}
+
+	@Override
+	public void queryPlanCacheMiss(String query, long compilationTime) {
+		queryPlanCacheMissCount.getAndIncrement();
+		queryPlanCompilationTotalTime.addAndGet( compilationTime );
+		for ( long old = queryPlanCompilationMaxTime.get();
+			  ( compilationTime > old ) && ( !queryPlanCompilationMaxTime.compareAndSet( old, compilationTime ) );
+			  old = queryPlanCompilationMaxTime.get() ) {
+			// nothing to do here given the odd loop structure...
+		}
+	}
+
+	@Override
+	public void queryPlanCacheEviction(int count) {
+		queryPlanCacheEvictionCount.addAndGet( count );
+	}
+
 	@Override
 	public void queryCacheHit(String hql, String regionName) {
 		queryCacheHitCount.getAndIncrement();
@@ -636,6 +669,31 @@ public class ConcurrentStatisticsImpl implements StatisticsImplementor, Service
 		return naturalIdCachePutCount.get();
 	}
 
+	@Override
+	public long getQueryPlanCacheHitCount() {
+		return queryPlanCacheHitCount.get();
+	}
+
+	@Override
+	public long getQueryPlanCacheMissCount() {
+		return queryPlanCacheMissCount.get();
+	}
+
+	@Override
+	public long getQueryPlanCacheEvictionCount() {
+		return queryPlanCacheEvictionCount.get();
+	}
+
+	@Override
+	public long getQueryPlanCompilationTotalTime() {
+		return queryPlanCompilationTotalTime.get();
+	}
+
+	@Override
+	public long getQueryPlanCompilationMaxTime() {
+		return queryPlanCompilationMaxTime.get();
+	}
+
 	/**
 	 * @return session closing
 	 */
@@ -743,6 +801,10 @@ public class ConcurrentStatisticsImpl implements StatisticsImplementor, Service
 		LOG.queryCacheHits( queryCacheHitCount.get() );
 		LOG.queryCacheMisses( queryCacheMissCount.get() );
 		LOG.maxQueryTime( queryExecutionMaxTime.get() );
+		LOG.queryPlanCacheHits( queryPlanCacheHitCount.get() );
+		LOG.queryPlanCacheMisses( queryPlanCacheMissCount.get() );
+		LOG.queryPlanCacheEvictions( queryPlanCacheEvictionCount.get() );
+		LOG.maxQueryPlanCompilationTime( queryPlanCompilationMaxTime.get() );
 	}
 
 	/**
@@ -897,6 +959,10 @@ public class ConcurrentStatisticsImpl implements StatisticsImplementor, Service
 				.append(",update timestamps cache hits=").append(updateTimestampsCacheHitCount)
 				.append(",update timestamps cache misses=").append(updateTimestampsCacheMissCount)
 				.append( ",max query time=" ).append( queryExecutionMaxTime )
+				.append( ",query plan cache hits=" ).append( queryPlanCacheHitCount )
+				.append( ",query plan cache misses=" ).append( queryPlanCacheMissCount )
+				.append( ",query plan cache evictions=" ).append( queryPlanCacheEvictionCount )
+				.append( ",max query plan compilation time=" ).append( queryPlanCompilationMaxTime )
 				.append( ']' )
 				.toString();
 	}
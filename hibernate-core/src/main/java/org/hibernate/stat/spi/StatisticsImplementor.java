@@ -234,6 +234,28 @@ public interface StatisticsImplementor extends Statistics, Service {
 	 */
 	public void queryExecuted(String hql, int rows, long time);
 
+	/**
+	 * Callback indicating a compiled query plan was found in the query plan cache.
+	 *
+	 * @param query The query
+	 */
+	public void queryPlanCacheHit(String query);
+
+	/**
+	 * Callback indicating a query plan was not found in the query plan cache and had to be compiled.
+	 *
+	 * @param query The query
+	 * @param compilationTime The time in ms needed to compile the plan
+	 */
+	public void queryPlanCacheMiss(String query, long compilationTime);
+
+	/**
+	 * Callback indicating plans were evicted from the query plan cache.
+	 *
+	 * @param count The number of evicted plans
+	 */
+	public void queryPlanCacheEviction(int count);
+
 
 	/**
 	 * Callback indicating a hit to the timestamp cache
@@ -44,6 +44,7 @@ import org.hibernate.cfg.NotYetImplementedException;
 import org.hibernate.engine.OptimisticLockStyle;
 import org.hibernate.engine.spi.CascadeStyle;
 import org.hibernate.engine.spi.CascadeStyles;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.ValueInclusion;
 import org.hibernate.internal.CoreMessageLogger;
@@ -150,6 +151,7 @@ public class EntityMetamodel implements Serializable {
 	private final EntityMode entityMode;
 	private final EntityTuplizer entityTuplizer;
 	private final EntityInstrumentationMetadata instrumentationMetadata;
+	private final boolean selfDirtinessTracked;
 
 	public EntityMetamodel(
 			PersistentClass persistentClass,
@@ -172,6 +174,8 @@ public class EntityMetamodel implements Serializable {
 		instrumentationMetadata = persistentClass.hasPojoRepresentation()
 				? Environment.getBytecodeProvider().getEntityInstrumentationMetadata( persistentClass.getMappedClass() )
 				: new NonPojoInstrumentationMetadata( persistentClass.getEntityName() );
+		selfDirtinessTracked = persistentClass.hasPojoRepresentation()
+				&& SelfDirtinessTracker.class.isAssignableFrom( persistentClass.getMappedClass() );
 
 		boolean hasLazy = false;
 
@@ -805,6 +809,7 @@ public class EntityMetamodel implements Serializable {
 			proxyInterfaceClass = entityBinding.getProxyInterfaceType().getValue();
 		}
 		instrumentationMetadata = Environment.getBytecodeProvider().getEntityInstrumentationMetadata( mappedClass );
+		selfDirtinessTracked = mappedClass != null && SelfDirtinessTracker.class.isAssignableFrom( mappedClass );
 
 		boolean hasLazy = false;
 
@@ -1398,4 +1403,12 @@ public class EntityMetamodel implements Serializable {
 	public EntityInstrumentationMetadata getInstrumentationMetadata() {
 		return instrumentationMetadata;
 	}
+
+	/**
+	 * Whether or not instances of this class were enhanced to track their own dirty attributes
+	 * (see {@link SelfDirtinessTracker}).
+	 */
+	public boolean isSelfDirtinessTracked() {
+		return selfDirtinessTracked;
+	}
 }
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import org.hibernate.AssertionFailure;
 import org.hibernate.HibernateException;
 import org.hibernate.MappingException;
+import org.hibernate.cache.spi.CacheKey;
 import org.hibernate.engine.internal.ForeignKeys;
 import org.hibernate.engine.spi.EntityKey;
 import org.hibernate.engine.spi.Mapping;
@@ -210,6 +211,29 @@ public class ManyToOneType extends EntityType {
 		}
 	}
 	
+	/**
+	 * Register the entity for reading ahead from the second-level cache, if cached
+	 */
+	private void scheduleCacheReadAheadIfNeeded(Serializable id, SessionImplementor session) {
+		if ( uniqueKeyPropertyName == null && id != null && session.getCacheMode().isGetEnabled() ) {
+			final EntityPersister persister = session.getFactory().getEntityPersister( getAssociatedEntityName() );
+			if ( persister.hasCache() ) {
+				final EntityKey entityKey = session.generateEntityKey( id, persister );
+				if ( !session.getPersistenceContext().containsEntity( entityKey ) ) {
+					final CacheKey cacheKey = session.generateCacheKey(
+							id,
+							persister.getIdentifierType(),
+							persister.getRootEntityName()
+					);
+					session.getPersistenceContext().getBatchFetchQueue().addCacheReadAheadKey(
+							cacheKey,
+							persister.getCacheAccessStrategy()
+					);
+				}
+			}
+		}
+	}
+
 	public boolean useLHSPrimaryKey() {
 		return false;
 	}
@@ -289,7 +313,9 @@ public class ManyToOneType extends EntityType {
 	}
 
 	public void beforeAssemble(Serializable oid, SessionImplementor session) {
-		scheduleBatchLoadIfNeeded( assembleId( oid, session ), session );
+		final Serializable id = assembleId( oid, session );
+		scheduleBatchLoadIfNeeded( id, session );
+		scheduleCacheReadAheadIfNeeded( id, session );
 	}
 	
 	public boolean[] toColumnNullness(Object value, Mapping mapping) {
@@ -0,0 +1,93 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.spi.entry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.junit.Test;
+
+import org.hibernate.internal.util.SerializationHelper;
+import org.hibernate.testing.junit4.BaseUnitTestCase;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CompactCacheEntrySerializer}
+ */
+public class CompactCacheEntrySerializerTest extends BaseUnitTestCase {
+	@Test
+	public void testStandardEntry() throws Exception {
+		final StandardCacheEntryImpl entry = new StandardCacheEntryImpl(
+				new Serializable[] { 1L, "name", new BigDecimal( "12.50" ), null, new Date( 0 ) },
+				"org.hibernate.test.Item",
+				true,
+				3
+		);
+
+		final byte[] bytes = write( entry );
+		final StandardCacheEntryImpl read = (StandardCacheEntryImpl) read( bytes );
+		assertEquals( entry.getSubclass(), read.getSubclass() );
+		assertTrue( read.areLazyPropertiesUnfetched() );
+		assertEquals( 3, read.getVersion() );
+		assertArrayEquals( entry.getDisassembledState(), read.getDisassembledState() );
+
+		assertTrue( bytes.length < SerializationHelper.serialize( entry ).length / 4 );
+	}
+
+	@Test
+	public void testCollectionEntry() throws Exception {
+		final CollectionCacheEntry entry = new CollectionCacheEntry( new Serializable[] { 1L, 2L, 3L } );
+
+		final CollectionCacheEntry read = (CollectionCacheEntry) read( write( entry ) );
+		assertArrayEquals( entry.getState(), read.getState() );
+	}
+
+	@Test
+	public void testOtherValues() throws Exception {
+		assertEquals( 42L, read( write( 42L ) ) );
+		assertEquals( null, read( write( null ) ) );
+		assertFalse( (Boolean) read( write( false ) ) );
+	}
+
+	private static byte[] write(Object entry) throws Exception {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream( bytes );
+		CompactCacheEntrySerializer.write( entry, out );
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static Object read(byte[] bytes) throws Exception {
+		return CompactCacheEntrySerializer.read( new DataInputStream( new ByteArrayInputStream( bytes ) ) );
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.internal.ConnectionPoolMBean;
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+
+import org.junit.Test;
+
+import org.hibernate.testing.env.ConnectionProviderBuilder;
+import org.hibernate.testing.junit4.BaseUnitTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConnectionPoolTest extends BaseUnitTestCase {
+	@Test
+	public void testBlockingBorrowAndRelease() throws Exception {
+		Properties props = ConnectionProviderBuilder.getConnectionProviderProperties( "pool" );
+		props.put( AvailableSettings.POOL_SIZE, "2" );
+		props.put( DriverManagerConnectionProviderImpl.MIN_SIZE, "1" );
+		props.put( DriverManagerConnectionProviderImpl.BLOCKING, "true" );
+		props.put( DriverManagerConnectionProviderImpl.MAX_WAIT, "50" );
+		DriverManagerConnectionProviderImpl connectionProvider = new DriverManagerConnectionProviderImpl();
+		connectionProvider.configure( props );
+		try {
+			ConnectionPoolMBean pool = connectionProvider.getPool();
+			assertEquals( 1, pool.getIdleCount() );
+
+			Connection first = connectionProvider.getConnection();
+			Connection second = connectionProvider.getConnection();
+			assertEquals( 2, pool.getActiveCount() );
+			assertEquals( 2, pool.getOpenCount() );
+
+			try {
+				connectionProvider.getConnection();
+				fail( "Expecting the borrow to time out" );
+			}
+			catch (SQLException expected) {
+			}
+			assertEquals( 1, pool.getTimeoutCount() );
+
+			connectionProvider.closeConnection( first );
+			assertFalse( first.isClosed() );
+			assertEquals( 1, pool.getIdleCount() );
+
+			Connection third = connectionProvider.getConnection();
+			assertSame( first, third );
+			assertEquals( 2, pool.getCreatedCount() );
+			assertEquals( 3, pool.getBorrowCount() );
+
+			connectionProvider.closeConnection( second );
+			connectionProvider.closeConnection( third );
+			assertEquals( 0, pool.getActiveCount() );
+		}
+		finally {
+			connectionProvider.stop();
+		}
+	}
+
+	@Test
+	public void testBorrowBeyondPoolSizeByDefault() throws Exception {
+		Properties props = ConnectionProviderBuilder.getConnectionProviderProperties( "pool" );
+		props.put( AvailableSettings.POOL_SIZE, "1" );
+		props.put( DriverManagerConnectionProviderImpl.MIN_SIZE, "1" );
+		DriverManagerConnectionProviderImpl connectionProvider = new DriverManagerConnectionProviderImpl();
+		connectionProvider.configure( props );
+		try {
+			ConnectionPoolMBean pool = connectionProvider.getPool();
+			Connection first = connectionProvider.getConnection();
+			Connection second = connectionProvider.getConnection();
+			assertEquals( 2, pool.getActiveCount() );
+			assertEquals( 2, pool.getOpenCount() );
+			assertEquals( 0, pool.getTimeoutCount() );
+
+			connectionProvider.closeConnection( second );
+			assertTrue( second.isClosed() );
+			connectionProvider.closeConnection( first );
+			assertFalse( first.isClosed() );
+			assertEquals( 1, pool.getOpenCount() );
+			assertEquals( 1, pool.getIdleCount() );
+		}
+		finally {
+			connectionProvider.stop();
+		}
+	}
+
+	@Test
+	public void testInvalidConnectionIsReplaced() throws Exception {
+		Properties props = ConnectionProviderBuilder.getConnectionProviderProperties( "pool" );
+		props.put( DriverManagerConnectionProviderImpl.MIN_SIZE, "0" );
+		props.put( DriverManagerConnectionProviderImpl.INITIAL_SIZE, "0" );
+		props.put( DriverManagerConnectionProviderImpl.VALIDATION_IDLE_THRESHOLD, "0" );
+		DriverManagerConnectionProviderImpl connectionProvider = new DriverManagerConnectionProviderImpl();
+		connectionProvider.configure( props );
+		try {
+			Connection connection = connectionProvider.getConnection();
+			connectionProvider.closeConnection( connection );
+			// simulate a connection broken while idle
+			connection.close();
+
+			Connection replacement = connectionProvider.getConnection();
+			assertFalse( replacement.isClosed() );
+			assertTrue( connection != replacement );
+			assertEquals( 1, connectionProvider.getPool().getInvalidCount() );
+			connectionProvider.closeConnection( replacement );
+		}
+		finally {
+			connectionProvider.stop();
+		}
+	}
+
+	@Test
+	public void testValidationDisabledForDriverWithoutIsValid() throws Exception {
+		Properties props = ConnectionProviderBuilder.getConnectionProviderProperties( "pool" );
+		props.put( AvailableSettings.DRIVER, Jdbc3Driver.class.getName() );
+		props.put( DriverManagerConnectionProviderImpl.MIN_SIZE, "0" );
+		props.put( DriverManagerConnectionProviderImpl.INITIAL_SIZE, "0" );
+		props.put( DriverManagerConnectionProviderImpl.VALIDATION_IDLE_THRESHOLD, "0" );
+		DriverManagerConnectionProviderImpl connectionProvider = new DriverManagerConnectionProviderImpl();
+		connectionProvider.configure( props );
+		try {
+			Connection connection = connectionProvider.getConnection();
+			connectionProvider.closeConnection( connection );
+
+			for ( int i = 0; i < 3; i++ ) {
+				Connection borrowed = connectionProvider.getConnection();
+				assertSame( connection, borrowed );
+				connectionProvider.closeConnection( borrowed );
+			}
+			assertEquals( 1, Jdbc3Driver.isValidCalls );
+			assertEquals( 0, connectionProvider.getPool().getInvalidCount() );
+			assertEquals( 1, connectionProvider.getPool().getCreatedCount() );
+		}
+		finally {
+			connectionProvider.stop();
+		}
+	}
+
+	/**
+	 * A driver whose connections predate JDBC 4, and so do not implement {@link Connection#isValid}.
+	 */
+	public static class Jdbc3Driver implements Driver {
+		private static volatile int isValidCalls;
+
+		private final Driver delegate = new org.h2.Driver();
+
+		@Override
+		public Connection connect(String url, Properties info) throws SQLException {
+			final Connection connection = delegate.connect( url, info );
+			return (Connection) Proxy.newProxyInstance(
+					Connection.class.getClassLoader(),
+					new Class[] { Connection.class },
+					new InvocationHandler() {
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+							if ( "isValid".equals( method.getName() ) ) {
+								isValidCalls++;
+								throw new AbstractMethodError( method.toString() );
+							}
+							try {
+								return method.invoke( connection, args );
+							}
+							catch (InvocationTargetException e) {
+								throw e.getCause();
+							}
+						}
+					}
+			);
+		}
+
+		@Override
+		public boolean acceptsURL(String url) throws SQLException {
+			return delegate.acceptsURL( url );
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+			return delegate.getPropertyInfo( url, info );
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return delegate.getMajorVersion();
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return delegate.getMinorVersion();
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+			throw new SQLFeatureNotSupportedException();
+		}
+	}
+}
@@ -23,6 +23,14 @@
  */
 package org.hibernate.id.enhanced;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 
 import org.hibernate.id.IdentifierGeneratorHelper;
@@ -254,6 +262,71 @@ public class OptimizerUnitTest extends BaseUnitTestCase {
 		assertEquals( 4, sequence.getCurrentValue() );
 	}
 
+	@Test
+	public void testBasicConcurrentPooledLoOptimizerUsage() {
+		final SourceMock sequence = new SourceMock( 1, 4 );
+		final Optimizer optimizer = buildOptimizer( StandardOptimizerDescriptor.POOLED_LO_CONCURRENT, 1, 4 );
+
+		Long next = ( Long ) optimizer.generate( sequence );
+		assertEquals( 1, next.intValue() );
+		assertEquals( 1, sequence.getTimesCalled() );
+
+		next = ( Long ) optimizer.generate( sequence );
+		assertEquals( 2, next.intValue() );
+		assertEquals( 1, sequence.getTimesCalled() );
+
+		// half of the block is used; the next block gets reserved
+		next = ( Long ) optimizer.generate( sequence );
+		assertEquals( 3, next.intValue() );
+		assertEquals( 2, sequence.getTimesCalled() );
+		assertEquals( (1+4), sequence.getCurrentValue() );
+
+		next = ( Long ) optimizer.generate( sequence );
+		assertEquals( 4, next.intValue() );
+
+		// the switch to the reserved block needs no call
+		next = ( Long ) optimizer.generate( sequence );
+		assertEquals( 5, next.intValue() );
+		assertEquals( 2, sequence.getTimesCalled() );
+	}
+
+	@Test
+	public void testConcurrentPooledLoOptimizerFromSeveralThreads() throws Exception {
+		final SourceMock sequence = new SourceMock( 1, 10 );
+		final Optimizer optimizer = buildOptimizer( StandardOptimizerDescriptor.POOLED_LO_CONCURRENT, 1, 10 );
+		final Set<Long> generated = Collections.synchronizedSet( new HashSet<Long>() );
+		final int threads = 4;
+		final int perThread = 500;
+
+		final ExecutorService executor = Executors.newFixedThreadPool( threads );
+		try {
+			final Set<Future<?>> futures = new HashSet<Future<?>>();
+			for ( int i = 0; i < threads; i++ ) {
+				futures.add(
+						executor.submit(
+								new Callable<Object>() {
+									@Override
+									public Object call() throws Exception {
+										for ( int j = 0; j < perThread; j++ ) {
+											generated.add( (Long) optimizer.generate( sequence ) );
+										}
+										return null;
+									}
+								}
+						)
+				);
+			}
+			for ( Future<?> future : futures ) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertEquals( threads * perThread, generated.size() );
+	}
+
 	private static Optimizer buildNoneOptimizer(long initial, int increment) {
 		return buildOptimizer( StandardOptimizerDescriptor.NONE, initial, increment );
 	}
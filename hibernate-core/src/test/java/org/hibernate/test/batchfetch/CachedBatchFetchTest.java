@@ -0,0 +1,148 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.batchfetch;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.junit.Test;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that entities already held by the second level cache are left out of the batches.
+ */
+public class CachedBatchFetchTest extends BaseCoreFunctionalTestCase {
+	private static final int SIZE = 32;
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] { CachedBatchLoadableEntity.class };
+	}
+
+	@Override
+	protected void configure(Configuration configuration) {
+		super.configure( configuration );
+		configuration.setProperty( AvailableSettings.GENERATE_STATISTICS, "true" );
+		configuration.setProperty( AvailableSettings.USE_SECOND_LEVEL_CACHE, "true" );
+	}
+
+	@Test
+	public void testCachedEntitiesAreNotBatchFetched() {
+		Session s = openSession();
+		s.beginTransaction();
+		for ( int i = 0; i < SIZE; i++ ) {
+			s.save( new CachedBatchLoadableEntity( i ) );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		sessionFactory().getCache().evictEntityRegion( CachedBatchLoadableEntity.class );
+
+		// put the even ones in the second level cache
+		s = openSession();
+		s.beginTransaction();
+		for ( int i = 0; i < SIZE; i += 2 ) {
+			s.get( CachedBatchLoadableEntity.class, i );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		for ( int i = 0; i < SIZE; i++ ) {
+			assertFalse( Hibernate.isInitialized( s.load( CachedBatchLoadableEntity.class, i ) ) );
+		}
+		final Statistics statistics = sessionFactory().getStatistics();
+		statistics.clear();
+
+		// the batch holds the requested entity plus all the others which are not cached
+		Hibernate.initialize( s.load( CachedBatchLoadableEntity.class, 1 ) );
+		assertEquals( 1, statistics.getEntityStatistics( CachedBatchLoadableEntity.class.getName() ).getFetchCount() );
+		assertEquals( SIZE / 2, statistics.getEntityLoadCount() );
+
+		// so none of the entities is fetched again, and the cached ones come from the second level cache
+		for ( int i = 0; i < SIZE; i++ ) {
+			Hibernate.initialize( s.load( CachedBatchLoadableEntity.class, i ) );
+		}
+		assertEquals( 1, statistics.getEntityStatistics( CachedBatchLoadableEntity.class.getName() ).getFetchCount() );
+		assertEquals( SIZE / 2, statistics.getEntityLoadCount() );
+		assertEquals( SIZE / 2, statistics.getSecondLevelCacheHitCount() );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete CachedBatchLoadableEntity" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	@Entity( name = "CachedBatchLoadableEntity" )
+	@Cacheable
+	@Cache( usage = CacheConcurrencyStrategy.READ_WRITE )
+	@BatchSize( size = SIZE )
+	public static class CachedBatchLoadableEntity {
+		private Integer id;
+		private String name;
+
+		public CachedBatchLoadableEntity() {
+		}
+
+		public CachedBatchLoadableEntity(int id) {
+			this.id = id;
+			this.name = "Entity #" + id;
+		}
+
+		@Id
+		public Integer getId() {
+			return id;
+		}
+
+		public void setId(Integer id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.bytecode.enhancement;
+
+import java.util.Date;
+
+import org.hibernate.Session;
+
+import org.junit.Test;
+
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that flushing entities which track their own dirtiness relies on the tracker
+ * rather than on a comparison with the loaded state.
+ */
+public class DirtyTrackingFlushTest extends BaseCoreFunctionalTestCase {
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] { TrackedEntity.class, TrackedEvent.class };
+	}
+
+	@Test
+	public void testOnlyTrackedChangesAreFlushed() {
+		Session s = openSession();
+		s.beginTransaction();
+		s.save( new TrackedEntity( 1L, "name", "description" ) );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		TrackedEntity entity = (TrackedEntity) s.get( TrackedEntity.class, 1L );
+		assertFalse( entity.$$_hibernate_hasDirtyAttributes() );
+		// not reported by the tracker, so the entity counts as clean and is skipped
+		entity.setDescriptionUntracked( "untracked" );
+		s.flush();
+		// only the name column is written by the dynamic update
+		entity.setName( "changed" );
+		s.getTransaction().commit();
+		s.close();
+
+		assertFalse( entity.$$_hibernate_hasDirtyAttributes() );
+
+		s = openSession();
+		s.beginTransaction();
+		entity = (TrackedEntity) s.get( TrackedEntity.class, 1L );
+		assertEquals( "changed", entity.getName() );
+		assertEquals( "description", entity.getDescription() );
+		s.delete( entity );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	@Test
+	public void testInPlaceChangesOfMutableValuesAreFlushed() {
+		Session s = openSession();
+		s.beginTransaction();
+		s.save( new TrackedEvent( 1L, "name", new Date( 1000000000L ) ) );
+		s.getTransaction().commit();
+		s.close();
+
+		// the date is changed in place, which the tracker does not see
+		s = openSession();
+		s.beginTransaction();
+		TrackedEvent event = (TrackedEvent) s.get( TrackedEvent.class, 1L );
+		event.getOccurredOn().setTime( 2000000000L );
+		assertFalse( event.$$_hibernate_hasDirtyAttributes() );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		event = (TrackedEvent) s.get( TrackedEvent.class, 1L );
+		assertEquals( 2000000000L, event.getOccurredOn().getTime() );
+		// and again, along with a tracked change
+		event.setName( "changed" );
+		event.getOccurredOn().setTime( 3000000000L );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		event = (TrackedEvent) s.get( TrackedEvent.class, 1L );
+		assertEquals( "changed", event.getName() );
+		assertEquals( 3000000000L, event.getOccurredOn().getTime() );
+		s.delete( event );
+		s.getTransaction().commit();
+		s.close();
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.bytecode.enhancement;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.Transient;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+
+/**
+ * Hand-written equivalent of what the enhancer generates for inline dirty tracking, for an entity holding a
+ * mutable value.
+ */
+@Entity
+public class TrackedEvent implements SelfDirtinessTracker {
+	@Transient
+	private transient Set<String> dirtyAttributes = new HashSet<String>();
+
+	@Id
+	private Long id;
+	private String name;
+	@Temporal( TemporalType.TIMESTAMP )
+	private Date occurredOn;
+
+	public TrackedEvent() {
+	}
+
+	public TrackedEvent(Long id, String name, Date occurredOn) {
+		this.id = id;
+		this.name = name;
+		this.occurredOn = occurredOn;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+		dirtyAttributes.add( "name" );
+	}
+
+	public Date getOccurredOn() {
+		return occurredOn;
+	}
+
+	public void setOccurredOn(Date occurredOn) {
+		this.occurredOn = occurredOn;
+		dirtyAttributes.add( "occurredOn" );
+	}
+
+	@Override
+	public boolean $$_hibernate_hasDirtyAttributes() {
+		return !dirtyAttributes.isEmpty();
+	}
+
+	@Override
+	public Set<String> $$_hibernate_getDirtyAttributes() {
+		return dirtyAttributes;
+	}
+
+	@Override
+	public void $$_hibernate_clearDirtyAttributes() {
+		dirtyAttributes.clear();
+	}
+}
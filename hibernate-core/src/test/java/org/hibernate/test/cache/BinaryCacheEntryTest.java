@@ -0,0 +1,278 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cache;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import javax.persistence.Cacheable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.hibernate.Session;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.cache.spi.CacheKey;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.internal.util.SerializationHelper;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.StandardBasicTypes;
+
+import org.junit.Test;
+
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryCacheEntryTest extends BaseCoreFunctionalTestCase {
+	@Override
+	protected void configure(Configuration configuration) {
+		super.configure( configuration );
+		configuration.setProperty( AvailableSettings.USE_BINARY_CACHE_ENTRIES, "true" );
+		configuration.setProperty( AvailableSettings.GENERATE_STATISTICS, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] { MyBinaryData.class, MyBinarySubData.class };
+	}
+
+	@Test
+	public void testEntityRoundTripsThroughBinaryEntry() throws Exception {
+		EntityPersister persister = (EntityPersister) sessionFactory().getClassMetadata( MyBinaryData.class );
+		final Date created = new Date( 1234567890123L );
+
+		Session s = openSession();
+		s.beginTransaction();
+		s.save( new MyBinaryData( 1L, "first item", new BigDecimal( "12.50" ), created ) );
+		s.getTransaction().commit();
+		s.close();
+
+		sessionFactory().getStatistics().clear();
+
+		s = openSession();
+		s.beginTransaction();
+		MyBinaryData loaded = (MyBinaryData) s.get( MyBinaryData.class, 1L );
+		assertEquals( "first item", loaded.getName() );
+		assertEquals( new BigDecimal( "12.50" ), loaded.getAmount() );
+		assertEquals( created.getTime(), loaded.getCreated().getTime() );
+		s.getTransaction().commit();
+		s.close();
+
+		assertEquals( 1, sessionFactory().getStatistics().getSecondLevelCacheHitCount() );
+
+		Object[] state = new Object[] { new BigDecimal( "12.50" ), created, "first item" };
+		CacheEntry entry = persister.buildCacheEntry( null, state, null, null );
+		Object structured = persister.getCacheEntryStructure().structure( entry );
+		assertTrue( structured instanceof byte[] );
+		CacheEntry destructured = (CacheEntry) persister.getCacheEntryStructure().destructure( structured, sessionFactory() );
+		assertEquals( entry.getSubclass(), destructured.getSubclass() );
+		assertEquals( entry.getDisassembledState().length, destructured.getDisassembledState().length );
+		for ( int i = 0; i < entry.getDisassembledState().length; i++ ) {
+			assertEquals( entry.getDisassembledState()[i], destructured.getDisassembledState()[i] );
+		}
+
+		// values which do not match the class of the mapped type fall back to the tagged encoding
+		state = new Object[] { null, new Timestamp( 1234567890123L ), "first item" };
+		entry = persister.buildCacheEntry( null, state, null, null );
+		structured = persister.getCacheEntryStructure().structure( entry );
+		destructured = (CacheEntry) persister.getCacheEntryStructure().destructure( structured, sessionFactory() );
+		assertNull( destructured.getDisassembledState()[0] );
+		assertEquals( Timestamp.class, destructured.getDisassembledState()[1].getClass() );
+		assertEquals( state[1], destructured.getDisassembledState()[1] );
+		assertEquals( "first item", destructured.getDisassembledState()[2] );
+
+		s = openSession();
+		s.beginTransaction();
+		s.delete( s.get( MyBinaryData.class, 1L ) );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	@Test
+	public void testSubclassEntryReadThroughRootClass() throws Exception {
+		final Date created = new Date( 1234567890123L );
+
+		Session s = openSession();
+		s.beginTransaction();
+		s.save( new MyBinarySubData( 2L, "sub item", new BigDecimal( "7.25" ), created, 42, 99L ) );
+		s.getTransaction().commit();
+		s.close();
+
+		sessionFactory().getStatistics().clear();
+
+		s = openSession();
+		s.beginTransaction();
+		MyBinaryData loaded = (MyBinaryData) s.get( MyBinaryData.class, 2L );
+		assertTrue( loaded instanceof MyBinarySubData );
+		assertEquals( "sub item", loaded.getName() );
+		assertEquals( new BigDecimal( "7.25" ), loaded.getAmount() );
+		assertEquals( Integer.valueOf( 42 ), ( (MyBinarySubData) loaded ).getQuantity() );
+		assertEquals( Long.valueOf( 99L ), ( (MyBinarySubData) loaded ).getReference() );
+		s.getTransaction().commit();
+		s.close();
+
+		assertEquals( 1, sessionFactory().getStatistics().getSecondLevelCacheHitCount() );
+
+		// an entry structured for the subclass reads back through the root persister
+		EntityPersister rootPersister = (EntityPersister) sessionFactory().getClassMetadata( MyBinaryData.class );
+		EntityPersister subPersister = (EntityPersister) sessionFactory().getClassMetadata( MyBinarySubData.class );
+		Object[] state = subPersister.getPropertyValues( loaded );
+		CacheEntry entry = subPersister.buildCacheEntry( null, state, null, null );
+		Object structured = subPersister.getCacheEntryStructure().structure( entry );
+		CacheEntry destructured = (CacheEntry) rootPersister.getCacheEntryStructure().destructure( structured, sessionFactory() );
+		assertEquals( subPersister.getEntityName(), destructured.getSubclass() );
+		for ( int i = 0; i < state.length; i++ ) {
+			assertEquals( state[i], destructured.getDisassembledState()[i] );
+		}
+
+		s = openSession();
+		s.beginTransaction();
+		s.delete( s.get( MyBinaryData.class, 2L ) );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	@Test
+	public void testCacheKeySerialization() throws Exception {
+		CacheKey key = new CacheKey( 1L, StandardBasicTypes.LONG, MyBinaryData.class.getName(), null, sessionFactory() );
+		CacheKey copy = (CacheKey) SerializationHelper.clone( key );
+		assertNotSame( key, copy );
+		assertEquals( key, copy );
+		assertEquals( key.hashCode(), copy.hashCode() );
+
+		Serializable timestampId = new Date( 1234567890123L );
+		key = new CacheKey( timestampId, StandardBasicTypes.TIMESTAMP, "some.Role", "tenant", sessionFactory() );
+		copy = (CacheKey) SerializationHelper.clone( key );
+		assertEquals( key, copy );
+		assertEquals( "tenant", copy.getTenantId() );
+	}
+
+	@Test
+	public void testCacheKeyKeepsDefaultSerialFormWithoutBinaryEntries() throws Exception {
+		CacheKey compact = new CacheKey( 1L, StandardBasicTypes.LONG, "some.Entity", null, sessionFactory() );
+		CacheKey standard = new CacheKey( 1L, StandardBasicTypes.LONG, "some.Entity", null, null );
+		byte[] compactBytes = SerializationHelper.serialize( compact );
+		byte[] standardBytes = SerializationHelper.serialize( standard );
+		assertTrue( compactBytes.length < standardBytes.length );
+		assertFalse( new String( standardBytes, "ISO-8859-1" ).contains( "SerialForm" ) );
+		assertEquals( compact, SerializationHelper.deserialize( standardBytes ) );
+	}
+
+	@Entity( name="MyBinaryData" )
+	@Cacheable
+	@Cache( usage = CacheConcurrencyStrategy.READ_WRITE )
+	@SuppressWarnings("UnusedDeclaration")
+	public static class MyBinaryData {
+		@Id
+		private Long id;
+		private String name;
+		private BigDecimal amount;
+		@Temporal( TemporalType.TIMESTAMP )
+		private Date created;
+
+		public MyBinaryData(Long id, String name, BigDecimal amount, Date created) {
+			this.id = id;
+			this.name = name;
+			this.amount = amount;
+			this.created = created;
+		}
+
+		protected MyBinaryData() {
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public BigDecimal getAmount() {
+			return amount;
+		}
+
+		public void setAmount(BigDecimal amount) {
+			this.amount = amount;
+		}
+
+		public Date getCreated() {
+			return created;
+		}
+
+		public void setCreated(Date created) {
+			this.created = created;
+		}
+	}
+
+	@Entity( name="MyBinarySubData" )
+	@SuppressWarnings("UnusedDeclaration")
+	public static class MyBinarySubData extends MyBinaryData {
+		private Integer quantity;
+		private Long reference;
+
+		public MyBinarySubData(Long id, String name, BigDecimal amount, Date created, Integer quantity, Long reference) {
+			super( id, name, amount, created );
+			this.quantity = quantity;
+			this.reference = reference;
+		}
+
+		protected MyBinarySubData() {
+		}
+
+		public Integer getQuantity() {
+			return quantity;
+		}
+
+		public void setQuantity(Integer quantity) {
+			this.quantity = quantity;
+		}
+
+		public Long getReference() {
+			return reference;
+		}
+
+		public void setReference(Long reference) {
+			this.reference = reference;
+		}
+	}
+}
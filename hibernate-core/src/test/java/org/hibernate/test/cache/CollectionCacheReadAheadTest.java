@@ -0,0 +1,201 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cache;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.Cacheable;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+
+import org.junit.Test;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Checks that the elements of a cached collection are read from the second level cache in a single call, and that
+ * the ones missing from it are loaded in a single batch.
+ */
+public class CollectionCacheReadAheadTest extends BaseCoreFunctionalTestCase {
+	private static final int SIZE = 16;
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] { Basket.class, Fruit.class };
+	}
+
+	@Override
+	protected void configure(Configuration configuration) {
+		super.configure( configuration );
+		configuration.setProperty( AvailableSettings.GENERATE_STATISTICS, "true" );
+		configuration.setProperty( AvailableSettings.USE_SECOND_LEVEL_CACHE, "true" );
+	}
+
+	@Test
+	public void testCachedElementsAreReadAhead() {
+		Session s = openSession();
+		s.beginTransaction();
+		final Basket basket = new Basket( 1 );
+		s.save( basket );
+		for ( int i = 0; i < SIZE; i++ ) {
+			final Fruit fruit = new Fruit( i, basket );
+			basket.getFruits().add( fruit );
+			s.save( fruit );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		// put the basket, its collection and all the fruits in the second level cache
+		s = openSession();
+		s.beginTransaction();
+		Hibernate.initialize( ( (Basket) s.get( Basket.class, 1 ) ).getFruits() );
+		s.getTransaction().commit();
+		s.close();
+
+		// then leave the odd fruits out
+		for ( int i = 1; i < SIZE; i += 2 ) {
+			sessionFactory().getCache().evictEntity( Fruit.class, i );
+		}
+
+		final CacheGetCounter counter = new CacheGetCounter();
+		s = sessionFactory().withOptions().eventListeners( counter ).openSession();
+		s.beginTransaction();
+		final Set<Fruit> fruits = ( (Basket) s.get( Basket.class, 1 ) ).getFruits();
+		assertFalse( Hibernate.isInitialized( fruits ) );
+		final Statistics statistics = sessionFactory().getStatistics();
+		statistics.clear();
+		counter.gets = 0;
+
+		Hibernate.initialize( fruits );
+		assertEquals( SIZE, fruits.size() );
+		// one lookup for the collection, one for all of its elements
+		assertEquals( 2, counter.gets );
+		assertEquals( SIZE / 2, statistics.getSecondLevelCacheHitCount() - 1 );
+		// and a single batch for the elements which were not cached
+		assertEquals( 1, statistics.getEntityStatistics( Fruit.class.getName() ).getFetchCount() );
+		assertEquals( SIZE / 2, statistics.getEntityLoadCount() );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete Fruit" ).executeUpdate();
+		s.createQuery( "delete Basket" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	private static class CacheGetCounter extends BaseSessionEventListener {
+		private int gets;
+
+		@Override
+		public void cacheGetStart() {
+			gets++;
+		}
+	}
+
+	@Entity( name = "Basket" )
+	@Cacheable
+	@Cache( usage = CacheConcurrencyStrategy.READ_WRITE )
+	public static class Basket {
+		private Integer id;
+		private Set<Fruit> fruits = new HashSet<Fruit>();
+
+		public Basket() {
+		}
+
+		public Basket(int id) {
+			this.id = id;
+		}
+
+		@Id
+		public Integer getId() {
+			return id;
+		}
+
+		public void setId(Integer id) {
+			this.id = id;
+		}
+
+		@OneToMany( mappedBy = "basket" )
+		@Cache( usage = CacheConcurrencyStrategy.READ_WRITE )
+		public Set<Fruit> getFruits() {
+			return fruits;
+		}
+
+		public void setFruits(Set<Fruit> fruits) {
+			this.fruits = fruits;
+		}
+	}
+
+	@Entity( name = "Fruit" )
+	@Cacheable
+	@Cache( usage = CacheConcurrencyStrategy.READ_WRITE )
+	@BatchSize( size = SIZE )
+	public static class Fruit {
+		private Integer id;
+		private Basket basket;
+
+		public Fruit() {
+		}
+
+		public Fruit(int id, Basket basket) {
+			this.id = id;
+			this.basket = basket;
+		}
+
+		@Id
+		public Integer getId() {
+			return id;
+		}
+
+		public void setId(Integer id) {
+			this.id = id;
+		}
+
+		@ManyToOne
+		public Basket getBasket() {
+			return basket;
+		}
+
+		public void setBasket(Basket basket) {
+			this.basket = basket;
+		}
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cfg;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.archetype.ArchetypeRepository;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.ConfigurationSnapshot;
+import org.hibernate.cfg.Environment;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.testing.ServiceRegistryBuilder;
+import org.hibernate.testing.junit4.BaseUnitTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests writing and reading {@link ConfigurationSnapshot}s
+ */
+public class ConfigurationSnapshotTest extends BaseUnitTestCase {
+	private static final String[] FILES = new String[] {
+			"org/hibernate/test/version/PersonThing.hbm.xml",
+			"org/hibernate/test/joinfetch/ItemBid.hbm.xml"
+	};
+
+	private static final String ARCHETYPE = "org/hibernate/test/cfg/openEHR-EHR-OBSERVATION.snapshot_test.v1.adl";
+	private static final String ARCHETYPE_ID = "openEHR-EHR-OBSERVATION.snapshot_test.v1";
+
+	private File snapshot;
+	private File extraSource;
+	private URL[] sources;
+
+	@Before
+	public void setUp() throws IOException {
+		snapshot = File.createTempFile( "hibernate", ".snapshot" );
+		snapshot.delete();
+		extraSource = File.createTempFile( "hibernate", ".hbm.xml" );
+		sources = new URL[FILES.length];
+		for ( int i = 0; i < FILES.length; i++ ) {
+			sources[i] = getClass().getClassLoader().getResource( FILES[i] );
+		}
+	}
+
+	@After
+	public void tearDown() {
+		snapshot.delete();
+		extraSource.delete();
+	}
+
+	private Configuration buildConfiguration() {
+		Configuration cfg = new Configuration();
+		for ( String file : FILES ) {
+			cfg.addResource( file );
+		}
+		return cfg;
+	}
+
+	@Test
+	public void testRoundTrip() {
+		assertNull( ConfigurationSnapshot.read( snapshot, sources ) );
+		ConfigurationSnapshot.write( buildConfiguration(), snapshot, sources );
+
+		Configuration cfg = ConfigurationSnapshot.read( snapshot, sources );
+		assertNotNull( cfg );
+		assertNotNull( cfg.getClassMapping( "org.hibernate.test.version.Person" ) );
+		assertNotNull( cfg.getCollectionMapping( "org.hibernate.test.joinfetch.Item.bids" ) );
+		assertEquals( 1, cfg.getNamedSQLQueries().size() );
+		cfg.setProperty( Environment.HBM2DDL_AUTO, "create-drop" );
+
+		SessionFactory factory = null;
+		ServiceRegistry serviceRegistry = null;
+		try {
+			serviceRegistry = ServiceRegistryBuilder.buildServiceRegistry( cfg.getProperties() );
+			factory = cfg.buildSessionFactory( serviceRegistry );
+			Session s = factory.openSession();
+			s.createQuery( "from Person p join fetch p.things" ).list();
+			s.close();
+		}
+		finally {
+			if ( factory != null ) {
+				factory.close();
+			}
+			if ( serviceRegistry != null ) {
+				ServiceRegistryBuilder.destroy( serviceRegistry );
+			}
+		}
+	}
+
+	@Test
+	public void testArchetypesAreRestored() throws Exception {
+		Configuration cfg = buildConfiguration();
+		InputStream is = getClass().getClassLoader().getResourceAsStream( ARCHETYPE );
+		try {
+			cfg.addArchetype( is );
+		}
+		finally {
+			is.close();
+		}
+		assertNotNull( cfg.getArchetypeString( ARCHETYPE_ID ) );
+		ConfigurationSnapshot.write( cfg, snapshot, sources );
+
+		// simulate a cold start, with no archetype parsed yet
+		unregisterArchetype( ARCHETYPE_ID );
+		assertNull( ArchetypeRepository.INSTANCE.getArchetype( ARCHETYPE_ID ) );
+
+		cfg = ConfigurationSnapshot.read( snapshot, sources );
+		assertNotNull( cfg );
+		assertNotNull( ArchetypeRepository.INSTANCE.getArchetype( ARCHETYPE_ID ) );
+		assertEquals(
+				ARCHETYPE_ID,
+				ArchetypeRepository.INSTANCE.getArchetype( ARCHETYPE_ID ).getArchetypeId().getValue()
+		);
+		assertNotNull( cfg.getArchetypeString( ARCHETYPE_ID ) );
+	}
+
+	private static void unregisterArchetype(String archetypeId) throws Exception {
+		for ( String fieldName : new String[] { "archetypes", "archetypeStrings" } ) {
+			Field field = ArchetypeRepository.class.getDeclaredField( fieldName );
+			field.setAccessible( true );
+			( (Map) field.get( ArchetypeRepository.INSTANCE ) ).remove( archetypeId );
+		}
+	}
+
+	@Test
+	public void testStaleSnapshotIsIgnored() throws IOException {
+		final URL[] withExtraSource = withExtraSource();
+		ConfigurationSnapshot.write( buildConfiguration(), snapshot, withExtraSource );
+		assertNotNull( ConfigurationSnapshot.read( snapshot, withExtraSource ) );
+
+		assertTrue( extraSource.setLastModified( extraSource.lastModified() + 10000 ) );
+		assertNull( ConfigurationSnapshot.read( snapshot, withExtraSource ) );
+	}
+
+	@Test
+	public void testRemovedSourceIsDetected() throws IOException {
+		ConfigurationSnapshot.write( buildConfiguration(), snapshot, withExtraSource() );
+		assertNull( ConfigurationSnapshot.read( snapshot, sources ) );
+	}
+
+	@Test
+	public void testAddedOlderSourceIsDetected() throws IOException {
+		ConfigurationSnapshot.write( buildConfiguration(), snapshot, sources );
+		// older than any of the other sources, so the newest modification time is unchanged
+		assertTrue( extraSource.setLastModified( 1000 ) );
+		assertNull( ConfigurationSnapshot.read( snapshot, withExtraSource() ) );
+	}
+
+	@Test
+	public void testSourceWithUnknownModificationTime() throws IOException {
+		final URL[] withUnknownSource = Arrays.copyOf( sources, sources.length + 1 );
+		withUnknownSource[sources.length] = new URL(
+				null,
+				"test:unknown.hbm.xml",
+				new URLStreamHandler() {
+					@Override
+					protected URLConnection openConnection(URL url) {
+						return new URLConnection( url ) {
+							@Override
+							public void connect() {
+							}
+
+							@Override
+							public InputStream getInputStream() {
+								return new ByteArrayInputStream( new byte[0] );
+							}
+						};
+					}
+				}
+		);
+		ConfigurationSnapshot.write( buildConfiguration(), snapshot, withUnknownSource );
+		assertFalse( snapshot.exists() );
+
+		ConfigurationSnapshot.write( buildConfiguration(), snapshot, sources );
+		assertNull( ConfigurationSnapshot.read( snapshot, withUnknownSource ) );
+	}
+
+	private URL[] withExtraSource() throws IOException {
+		final URL[] result = Arrays.copyOf( sources, sources.length + 1 );
+		result[sources.length] = extraSource.toURI().toURL();
+		return result;
+	}
+
+	@Test
+	public void testUnreadableSnapshotIsIgnored() throws IOException {
+		FileOutputStream out = new FileOutputStream( snapshot );
+		out.write( new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 } );
+		out.close();
+		assertNull( ConfigurationSnapshot.read( snapshot, sources ) );
+	}
+}
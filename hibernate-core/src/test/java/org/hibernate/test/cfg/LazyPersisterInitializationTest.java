@@ -0,0 +1,87 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cfg;
+
+import org.junit.Test;
+
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+import org.hibernate.test.version.Person;
+import org.hibernate.test.version.Thing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Exercises loaders, locking strategies and select SQL which, with
+ * {@link AvailableSettings#LAZY_PERSISTER_INITIALIZATION}, are only generated on first use
+ */
+public class LazyPersisterInitializationTest extends BaseCoreFunctionalTestCase {
+	@Override
+	public String[] getMappings() {
+		return new String[] { "version/PersonThing.hbm.xml" };
+	}
+
+	@Override
+	public void configure(Configuration cfg) {
+		cfg.setProperty( AvailableSettings.LAZY_PERSISTER_INITIALIZATION, "true" );
+	}
+
+	@Test
+	public void testLoadLockMergeAndRefresh() {
+		Session s = openSession();
+		s.beginTransaction();
+		Person gavin = new Person( "Gavin" );
+		new Thing( "Passport", gavin );
+		s.persist( gavin );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		Person person = (Person) s.get( Person.class, "Gavin", new LockOptions( LockMode.PESSIMISTIC_WRITE ) );
+		assertNotNull( person );
+		Thing thing = (Thing) s.get( Thing.class, "Passport" );
+		s.buildLockRequest( new LockOptions( LockMode.OPTIMISTIC_FORCE_INCREMENT ) ).lock( thing );
+		s.getTransaction().commit();
+		s.close();
+		assertEquals( 1, thing.getVersion() );
+
+		thing.setLongDescription( "blue" );
+		s = openSession();
+		s.beginTransaction();
+		Thing merged = (Thing) s.merge( thing );
+		s.flush();
+		s.refresh( merged );
+		assertEquals( "blue", merged.getLongDescription() );
+		assertEquals( 2, merged.getVersion() );
+		s.delete( s.get( Person.class, "Gavin" ) );
+		s.getTransaction().commit();
+		s.close();
+	}
+}
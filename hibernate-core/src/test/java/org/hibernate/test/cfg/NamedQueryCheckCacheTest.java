@@ -0,0 +1,80 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cfg;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests recording checked named queries via {@link AvailableSettings#QUERY_STARTUP_CHECK_CACHE}
+ */
+public class NamedQueryCheckCacheTest extends BaseCoreFunctionalTestCase {
+	private File checkCache;
+
+	@Override
+	public String[] getMappings() {
+		return new String[] { "iterate/Item.hbm.xml" };
+	}
+
+	@Override
+	public void configure(Configuration cfg) {
+		if ( checkCache == null ) {
+			try {
+				checkCache = File.createTempFile( "hibernate", ".queries" );
+			}
+			catch (IOException e) {
+				throw new HibernateException( e );
+			}
+			checkCache.delete();
+			checkCache.deleteOnExit();
+		}
+		cfg.setProperty( AvailableSettings.QUERY_STARTUP_CHECKING, "true" );
+		cfg.setProperty( AvailableSettings.QUERY_STARTUP_CHECK_CACHE, checkCache.getAbsolutePath() );
+	}
+
+	@Test
+	public void testCheckedQueriesAreRecordedAndReused() {
+		assertTrue( checkCache.isFile() );
+
+		// the recorded queries still match, so rebuilding must not rewrite the file
+		assertTrue( checkCache.setLastModified( 1000L ) );
+		rebuildSessionFactory();
+		assertEquals( 1000L, checkCache.lastModified() );
+
+		Session s = openSession();
+		assertEquals( 0, s.getNamedQuery( "Item.nameDesc" ).list().size() );
+		s.close();
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cfg;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+import org.hibernate.test.joinfetch.Bid;
+import org.hibernate.test.joinfetch.Category;
+import org.hibernate.test.joinfetch.Item;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Builds the SessionFactory with {@link AvailableSettings#SESSION_FACTORY_BUILD_THREADS} and checks
+ * the resulting persisters, loaders and named queries
+ */
+public class ParallelSessionFactoryBuildTest extends BaseCoreFunctionalTestCase {
+	@Override
+	public String[] getMappings() {
+		return new String[] { "joinfetch/ItemBid.hbm.xml", "joinfetch/UserGroup.hbm.xml" };
+	}
+
+	@Override
+	public void configure(Configuration cfg) {
+		cfg.setProperty( AvailableSettings.SESSION_FACTORY_BUILD_THREADS, "4" );
+		cfg.setProperty( AvailableSettings.QUERY_STARTUP_CHECKING, "true" );
+	}
+
+	@Test
+	public void testPersistersAreBuilt() {
+		assertNotNull( sessionFactory().getEntityPersister( Item.class.getName() ) );
+		assertNotNull( sessionFactory().getCollectionPersister( Item.class.getName() + ".bids" ) );
+		assertNotNull( sessionFactory().getNamedSQLQuery( Item.class.getName() + ".all" ) );
+	}
+
+	@Test
+	public void testLoadersWork() {
+		Session s = openSession();
+		s.beginTransaction();
+		Category cat = new Category( "books" );
+		Item item = new Item( cat, "Hibernate in Action" );
+		new Bid( item, 10.0f );
+		new Bid( item, 20.0f );
+		s.persist( cat );
+		s.persist( item );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		Item loaded = (Item) s.get( Item.class, item.getId() );
+		assertTrue( Hibernate.isInitialized( loaded.getBids() ) );
+		assertEquals( 2, loaded.getBids().size() );
+		List items = s.createQuery( "from Item i join fetch i.bids" ).list();
+		assertEquals( 2, items.size() );
+		s.createQuery( "delete Bid" ).executeUpdate();
+		s.createQuery( "delete Item" ).executeUpdate();
+		s.createQuery( "delete Category" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.hibernate.Criteria;
+import org.hibernate.Session;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for keyset ("seek") pagination via {@link Restrictions#keysetAfter}
+ */
+public class KeysetPaginationTest extends BaseCoreFunctionalTestCase {
+	private static final String[] KEY = { "text", "id" };
+
+	@Override
+	public String[] getMappings() {
+		return new String[] { "criteria/TestObject.hbm.xml" };
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testKeysetPagesMatchOffsetPages() {
+		Session s = openSession();
+		s.beginTransaction();
+		for ( int i = 0; i < 10; i++ ) {
+			TestObject obj = new TestObject();
+			// duplicated texts so that the second key column decides the order within a group
+			obj.setText( "text-" + ( i % 4 ) );
+			s.save( obj );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		List<TestObject> expected = s.createCriteria( TestObject.class )
+				.addOrder( Order.asc( "text" ) )
+				.addOrder( Order.asc( "id" ) )
+				.list();
+		assertEquals( 10, expected.size() );
+
+		List<TestObject> seen = new ArrayList<TestObject>();
+		TestObject last = null;
+		while ( true ) {
+			Criteria criteria = s.createCriteria( TestObject.class )
+					.addOrder( Order.asc( "text" ) )
+					.addOrder( Order.asc( "id" ) )
+					.setMaxResults( 3 );
+			if ( last != null ) {
+				criteria.add( Restrictions.keysetAfter( KEY, new Object[] { last.getText(), last.getId() } ) );
+			}
+			List<TestObject> page = criteria.list();
+			if ( page.isEmpty() ) {
+				break;
+			}
+			seen.addAll( page );
+			last = page.get( page.size() - 1 );
+		}
+		assertEquals( expected, seen );
+
+		List<TestObject> previous = s.createCriteria( TestObject.class )
+				.add( Restrictions.keysetBefore( KEY, new Object[] { expected.get( 5 ).getText(), expected.get( 5 ).getId() } ) )
+				.addOrder( Order.desc( "text" ) )
+				.addOrder( Order.desc( "id" ) )
+				.setMaxResults( 3 )
+				.list();
+		assertEquals( 3, previous.size() );
+		assertEquals( expected.get( 4 ), previous.get( 0 ) );
+		assertEquals( expected.get( 2 ), previous.get( 2 ) );
+
+		s.createQuery( "delete TestObject" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+}
@@ -118,5 +118,45 @@ public class IterateTest extends BaseCoreFunctionalTestCase {
 		s.close();
 		assertEquals( sessionFactory().getStatistics().getEntityFetchCount(), 0 );
 	}
-}
 
+	@Test
+	public void testStream() throws Exception {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		Item i1 = new Item("foo");
+		Item i2 = new Item("bar");
+		s.persist("Item", i1);
+		s.persist("Item", i2);
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		Iterator iter = s.getNamedQuery("Item.nameDesc").stream();
+		assertTrue( iter.hasNext() );
+		i1 = (Item) iter.next();
+		i2 = (Item) iter.next();
+		assertTrue( Hibernate.isInitialized(i1) );
+		assertEquals( i1.getName(), "foo" );
+		assertEquals( i2.getName(), "bar" );
+		assertFalse( iter.hasNext() );
+		assertTrue( s.contains( i1 ) );
+		assertTrue( s.contains( i2 ) );
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		iter = s.getNamedQuery("Item.nameDesc").stream( true );
+		i1 = (Item) iter.next();
+		assertTrue( s.contains( i1 ) );
+		i2 = (Item) iter.next();
+		assertFalse( s.contains( i1 ) );
+		assertTrue( s.contains( i2 ) );
+		assertFalse( iter.hasNext() );
+		assertFalse( s.contains( i2 ) );
+		s.createQuery( "delete Item" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+}
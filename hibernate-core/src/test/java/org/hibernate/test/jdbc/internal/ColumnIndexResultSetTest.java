@@ -0,0 +1,164 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.jdbc.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.ColumnIndexResultSet;
+import org.hibernate.engine.jdbc.ColumnNameCache;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+import org.junit.Test;
+
+public class ColumnIndexResultSetTest extends BaseCoreFunctionalTestCase {
+	@Override
+	protected void configure(Configuration configuration) {
+		super.configure( configuration );
+		configuration.setProperty( AvailableSettings.WRAP_RESULT_SETS, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] { Gadget.class };
+	}
+
+	@Test
+	public void testAccessByLabel() throws Exception {
+		Session session = openSession();
+		session.beginTransaction();
+		JdbcCoordinator jdbcCoord = ( (SessionImplementor) session ).getTransactionCoordinator().getJdbcCoordinator();
+
+		Statement statement = jdbcCoord.getStatementPreparer().createStatement();
+		jdbcCoord.getResultSetReturn().execute( statement,
+				"create table SANDBOX_COLUMN_INDEX ( ID integer, NAME varchar(100) )" );
+		jdbcCoord.getResultSetReturn().execute( statement,
+				"insert into SANDBOX_COLUMN_INDEX ( ID, NAME ) values ( 1, 'first' )" );
+		jdbcCoord.getResultSetReturn().execute( statement,
+				"insert into SANDBOX_COLUMN_INDEX ( ID, NAME ) values ( 2, 'second' )" );
+		jdbcCoord.release( statement );
+
+		PreparedStatement ps = jdbcCoord.getStatementPreparer().prepareStatement(
+				"select ID as ID_0, NAME as NAME_0 from SANDBOX_COLUMN_INDEX order by ID" );
+		ResultSet rs = new ColumnIndexResultSet( jdbcCoord.getResultSetReturn().extract( ps ), new ColumnNameCache( 2 ) );
+
+		final String idAlias = "ID_0";
+		final String nameAlias = "NAME_0";
+		assertTrue( rs.next() );
+		assertEquals( 1, rs.getInt( idAlias ) );
+		assertEquals( "first", rs.getString( nameAlias ) );
+		assertEquals( 2, rs.findColumn( nameAlias ) );
+		assertTrue( rs.next() );
+		assertEquals( 2, rs.getInt( idAlias ) );
+		// distinct label instances resolve the same way
+		for ( int i = 0; i < 100; i++ ) {
+			assertEquals( "second", rs.getString( new String( nameAlias ) ) );
+		}
+		assertEquals( "second", rs.getString( nameAlias ) );
+		assertFalse( rs.wasNull() );
+		try {
+			assertEquals( 2, rs.getObject( idAlias, Integer.class ).intValue() );
+		}
+		catch (SQLFeatureNotSupportedException e) {
+			// JDBC 4.0 driver
+		}
+		assertFalse( rs.next() );
+		jdbcCoord.release( ps );
+
+		// labels bound up front are read from the bound index, unresolved ones are looked up as usual
+		ps = jdbcCoord.getStatementPreparer().prepareStatement(
+				"select ID as ID_0, NAME as NAME_0 from SANDBOX_COLUMN_INDEX order by ID" );
+		ColumnIndexResultSet wrapped = new ColumnIndexResultSet( jdbcCoord.getResultSetReturn().extract( ps ), new ColumnNameCache( 2 ) );
+		final String swappedAlias = "SWAPPED";
+		wrapped.bind( new String[] { swappedAlias, idAlias }, new int[] { 2, 0 } );
+		assertTrue( wrapped.next() );
+		assertEquals( "first", wrapped.getString( swappedAlias ) );
+		assertEquals( 1, wrapped.getInt( idAlias ) );
+		jdbcCoord.release( ps );
+
+		statement = jdbcCoord.getStatementPreparer().createStatement();
+		jdbcCoord.getResultSetReturn().execute( statement, "drop table SANDBOX_COLUMN_INDEX" );
+		jdbcCoord.release( statement );
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	@Test
+	public void testQueriesReadThroughColumnIndexPlan() {
+		Session session = openSession();
+		session.beginTransaction();
+		session.save( new Gadget( 1, "first" ) );
+		session.save( new Gadget( 2, "second" ) );
+		session.getTransaction().commit();
+		session.close();
+
+		// the second execution of each query re-uses the plan resolved by the first one
+		for ( int i = 0; i < 2; i++ ) {
+			session = openSession();
+			session.beginTransaction();
+			List gadgets = session.createQuery( "from Gadget g order by g.id" ).list();
+			assertEquals( 2, gadgets.size() );
+			assertEquals( "second", ( (Gadget) gadgets.get( 1 ) ).name );
+			List names = session.createQuery( "select g.name, g.id from Gadget g order by g.id" ).list();
+			assertEquals( "first", ( (Object[]) names.get( 0 ) )[0] );
+			assertEquals( 2, ( (Object[]) names.get( 1 ) )[1] );
+			session.getTransaction().commit();
+			session.close();
+		}
+
+		session = openSession();
+		session.beginTransaction();
+		session.createQuery( "delete from Gadget" ).executeUpdate();
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	@Entity( name = "Gadget" )
+	public static class Gadget {
+		@Id
+		private Integer id;
+		private String name;
+
+		public Gadget() {
+		}
+
+		public Gadget(Integer id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.jdbc.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+import org.junit.Test;
+
+public class StatementCacheTest extends BaseCoreFunctionalTestCase {
+	@Override
+	protected void configure(Configuration configuration) {
+		super.configure( configuration );
+		configuration.setProperty( AvailableSettings.STATEMENT_CACHE_SIZE, "1" );
+	}
+
+	@Test
+	public void testReleasedStatementsAreReused() throws Exception {
+		Session session = openSession();
+		session.beginTransaction();
+		JdbcCoordinator jdbcCoord = ( (SessionImplementor) session ).getTransactionCoordinator().getJdbcCoordinator();
+
+		Statement statement = jdbcCoord.getStatementPreparer().createStatement();
+		jdbcCoord.getResultSetReturn().execute( statement,
+				"create table SANDBOX_STMT_CACHE ( ID integer, NAME varchar(100) )" );
+		jdbcCoord.release( statement );
+
+		final String insert = "insert into SANDBOX_STMT_CACHE( ID, NAME ) values ( ?, ? )";
+		PreparedStatement first = jdbcCoord.getStatementPreparer().prepareStatement( insert );
+		first.setLong( 1, 1 );
+		first.setString( 2, "first" );
+		jdbcCoord.getResultSetReturn().executeUpdate( first );
+		jdbcCoord.release( first );
+		assertFalse( first.isClosed() );
+
+		PreparedStatement second = jdbcCoord.getStatementPreparer().prepareStatement( insert );
+		assertSame( first, second );
+		second.setLong( 1, 2 );
+		second.setString( 2, "second" );
+		jdbcCoord.getResultSetReturn().executeUpdate( second );
+
+		// in use, so another statement has to be prepared
+		PreparedStatement third = jdbcCoord.getStatementPreparer().prepareStatement( insert );
+		assertNotSame( second, third );
+		jdbcCoord.release( third );
+		jdbcCoord.release( second );
+		assertTrue( third.isClosed() );
+
+		// LRU eviction
+		PreparedStatement select = jdbcCoord.getStatementPreparer().prepareStatement( "select * from SANDBOX_STMT_CACHE" );
+		jdbcCoord.release( select );
+		assertTrue( second.isClosed() );
+
+		statement = jdbcCoord.getStatementPreparer().createStatement();
+		jdbcCoord.getResultSetReturn().execute( statement, "drop table SANDBOX_STMT_CACHE" );
+		jdbcCoord.release( statement );
+		session.getTransaction().commit();
+		session.close();
+
+		assertTrue( select.isClosed() );
+	}
+}
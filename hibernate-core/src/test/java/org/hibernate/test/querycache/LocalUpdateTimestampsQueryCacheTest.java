@@ -0,0 +1,98 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.querycache;
+
+import static org.junit.Assert.assertEquals;
+
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.stat.QueryStatistics;
+import org.junit.Test;
+
+/**
+ * Runs the {@link QueryCacheTest} tests with the up-to-date checks served from the local
+ * update timestamps snapshot, re-read from the region on every check.
+ */
+public class LocalUpdateTimestampsQueryCacheTest extends QueryCacheTest {
+	@Override
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.USE_LOCAL_UPDATE_TIMESTAMPS, "true" );
+		cfg.setProperty( Environment.LOCAL_UPDATE_TIMESTAMPS_TTL, "0" );
+	}
+
+	@Test
+	public void testInvalidationThroughRegionIsSeen() {
+		sessionFactory().getCache().evictQueryRegions();
+		sessionFactory().getStatistics().clear();
+
+		final String queryString = "from Item i where i.name = 'remote'";
+
+		// puts the Items space into the local snapshot
+		Session s = openSession();
+		s.beginTransaction();
+		Item item = new Item();
+		item.setName( "local" );
+		item.setDescription( "local" );
+		s.persist( item );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( queryString ).setCacheable( true ).list();
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( queryString ).setCacheable( true ).list();
+		s.getTransaction().commit();
+		s.close();
+
+		QueryStatistics qs = sessionFactory().getStatistics().getQueryStatistics( queryString );
+		assertEquals( 1, qs.getCacheHitCount() );
+
+		// simulate an invalidation made by another node sharing the timestamps region
+		final TimestampsRegion region = sessionFactory().getUpdateTimestampsCache().getRegion();
+		region.put( "Items", region.nextTimestamp() );
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( queryString ).setCacheable( true ).list();
+		s.getTransaction().commit();
+		s.close();
+
+		assertEquals( 1, qs.getCacheHitCount() );
+		assertEquals( 2, qs.getCacheMissCount() );
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete from Item" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.querycache;
+
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.hibernate.QueryCacheScope;
+import org.hibernate.QueryException;
+import org.hibernate.Session;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.QueryStatistics;
+
+import org.junit.Test;
+
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that the cached results of queries declaring a {@link QueryCacheScope} are only invalidated by writes
+ * within that scope.
+ */
+public class ScopedQueryCacheInvalidationTest extends BaseCoreFunctionalTestCase {
+	private static final String RANGE_QUERY = "from Product p where p.id between 1 and 10 order by p.id";
+	private static final String NATURAL_ID_QUERY = "from Product p where p.sku = 'A-1'";
+
+	@Override
+	protected void configure(Configuration configuration) {
+		super.configure( configuration );
+		configuration.setProperty( AvailableSettings.USE_QUERY_CACHE, "true" );
+		configuration.setProperty( AvailableSettings.USE_LOCAL_UPDATE_TIMESTAMPS, "true" );
+		configuration.setProperty( AvailableSettings.GENERATE_STATISTICS, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] { Product.class, Unrelated.class };
+	}
+
+	@Override
+	protected boolean isCleanupTestDataRequired() {
+		return true;
+	}
+
+	@Test
+	public void testIdRangeScope() {
+		createProducts();
+		final QueryCacheScope scope = QueryCacheScope.idRange( Product.class, 1L, 10L );
+		final QueryStatistics stats = sessionFactory().getStatistics().getQueryStatistics( RANGE_QUERY );
+
+		assertEquals( 2, listScoped( RANGE_QUERY, scope ).size() );
+		assertEquals( 2, listScoped( RANGE_QUERY, scope ).size() );
+		assertEquals( 1, stats.getCacheHitCount() );
+
+		// outside of the range
+		rename( 20L, "renamed" );
+		listScoped( RANGE_QUERY, scope );
+		assertEquals( 2, stats.getCacheHitCount() );
+
+		// the same write invalidates the results of the query without a scope
+		listScoped( RANGE_QUERY, null );
+		rename( 20L, "renamed again" );
+		listScoped( RANGE_QUERY, null );
+		assertEquals( 2, stats.getCacheHitCount() );
+
+		// within the range
+		rename( 5L, "renamed" );
+		List results = listScoped( RANGE_QUERY, scope );
+		assertEquals( 2, stats.getCacheHitCount() );
+		assertEquals( "renamed", ( (Product) results.get( 1 ) ).getName() );
+
+		// a new instance within the range
+		Session s = openSession();
+		s.beginTransaction();
+		s.persist( new Product( 7L, "B-7", "seven" ) );
+		s.getTransaction().commit();
+		s.close();
+		assertEquals( 3, listScoped( RANGE_QUERY, scope ).size() );
+		assertEquals( 2, stats.getCacheHitCount() );
+	}
+
+	@Test
+	public void testNaturalIdScope() {
+		createProducts();
+		final QueryCacheScope scope = QueryCacheScope.naturalId(
+				Product.class,
+				Collections.singletonMap( "sku", "A-1" )
+		);
+		final QueryStatistics stats = sessionFactory().getStatistics().getQueryStatistics( NATURAL_ID_QUERY );
+
+		assertEquals( 1, listScoped( NATURAL_ID_QUERY, scope ).size() );
+		rename( 5L, "renamed" );
+		listScoped( NATURAL_ID_QUERY, scope );
+		assertEquals( 1, stats.getCacheHitCount() );
+
+		rename( 1L, "renamed" );
+		List results = listScoped( NATURAL_ID_QUERY, scope );
+		assertEquals( 1, stats.getCacheHitCount() );
+		assertEquals( "renamed", ( (Product) results.get( 0 ) ).getName() );
+
+		Session s = openSession();
+		s.beginTransaction();
+		s.delete( s.get( Product.class, 1L ) );
+		s.getTransaction().commit();
+		s.close();
+		assertEquals( 0, listScoped( NATURAL_ID_QUERY, scope ).size() );
+		assertEquals( 1, stats.getCacheHitCount() );
+	}
+
+	@Test
+	public void testBulkUpdateInvalidatesScopedResults() {
+		createProducts();
+		final QueryCacheScope scope = QueryCacheScope.idRange( Product.class, 1L, 10L );
+		final QueryStatistics stats = sessionFactory().getStatistics().getQueryStatistics( RANGE_QUERY );
+
+		listScoped( RANGE_QUERY, scope );
+		Session s = openSession();
+		s.beginTransaction();
+		s.createQuery( "update Product set name = 'bulk' where id = 20" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+		listScoped( RANGE_QUERY, scope );
+		assertEquals( 0, stats.getCacheHitCount() );
+	}
+
+	@Test
+	public void testWritesToOtherSpacesAreIgnored() {
+		createProducts();
+		final QueryCacheScope scope = QueryCacheScope.idRange( Product.class, 1L, 10L );
+		final QueryStatistics stats = sessionFactory().getStatistics().getQueryStatistics( RANGE_QUERY );
+
+		listScoped( RANGE_QUERY, scope );
+		Session s = openSession();
+		s.beginTransaction();
+		s.persist( new Unrelated( 1L ) );
+		s.getTransaction().commit();
+		s.close();
+		listScoped( RANGE_QUERY, scope );
+		assertEquals( 1, stats.getCacheHitCount() );
+	}
+
+	@Test
+	public void testNaturalIdScopeRequiresNaturalId() {
+		Session s = openSession();
+		try {
+			s.createQuery( "from Unrelated" ).setCacheScope(
+					QueryCacheScope.naturalId( Unrelated.class, Collections.singletonMap( "id", 1L ) )
+			);
+			fail( "Expecting the natural id scope to be rejected" );
+		}
+		catch (QueryException expected) {
+		}
+		finally {
+			s.close();
+		}
+	}
+
+	private void createProducts() {
+		Session s = openSession();
+		s.beginTransaction();
+		s.persist( new Product( 1L, "A-1", "one" ) );
+		s.persist( new Product( 5L, "A-5", "five" ) );
+		s.persist( new Product( 20L, "A-20", "twenty" ) );
+		s.getTransaction().commit();
+		s.close();
+		sessionFactory().getStatistics().clear();
+	}
+
+	private void rename(Long id, String name) {
+		Session s = openSession();
+		s.beginTransaction();
+		( (Product) s.get( Product.class, id ) ).setName( name );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	private List listScoped(String queryString, QueryCacheScope scope) {
+		Session s = openSession();
+		s.beginTransaction();
+		List results = s.createQuery( queryString ).setCacheable( true ).setCacheScope( scope ).list();
+		s.getTransaction().commit();
+		s.close();
+		return results;
+	}
+
+	@Entity( name = "Product" )
+	@SuppressWarnings("UnusedDeclaration")
+	public static class Product {
+		@Id
+		private Long id;
+		@NaturalId
+		private String sku;
+		private String name;
+
+		public Product() {
+		}
+
+		public Product(Long id, String sku, String name) {
+			this.id = id;
+			this.sku = sku;
+			this.name = name;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getSku() {
+			return sku;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	@Entity( name = "Unrelated" )
+	@SuppressWarnings("UnusedDeclaration")
+	public static class Unrelated {
+		@Id
+		private Long id;
+
+		public Unrelated() {
+		}
+
+		public Unrelated(Long id) {
+			this.id = id;
+		}
+
+		public Long getId() {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.queryplan;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.hibernate.Filter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.query.spi.HQLQueryPlan;
+import org.hibernate.engine.query.spi.QueryPlanCache;
+import org.hibernate.stat.Statistics;
+import org.hibernate.testing.junit4.BaseCoreFunctionalTestCase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the size-aware eviction and the statistics of the query plan cache
+ */
+public class QueryPlanCacheWeightTest extends BaseCoreFunctionalTestCase {
+	private static final long MAX_WEIGHT = 64 * 1024;
+
+	@Override
+	public String[] getMappings() {
+		return new String[] {
+				"queryplan/filter-defs.hbm.xml",
+				"queryplan/Joined.hbm.xml"
+		};
+	}
+
+	@Override
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( AvailableSettings.GENERATE_STATISTICS, "true" );
+		cfg.setProperty( AvailableSettings.QUERY_PLAN_CACHE_MAX_WEIGHT, Long.toString( MAX_WEIGHT ) );
+	}
+
+	@Test
+	public void testHitAndMissStatistics() {
+		final QueryPlanCache cache = sessionFactory().getQueryPlanCache();
+		final Statistics statistics = sessionFactory().getStatistics();
+		statistics.clear();
+
+		final HQLQueryPlan plan = cache.getHQLQueryPlan( "from Person where name = :name", false, noFilters() );
+		assertEquals( 0, statistics.getQueryPlanCacheHitCount() );
+		assertEquals( 1, statistics.getQueryPlanCacheMissCount() );
+
+		assertSame( plan, cache.getHQLQueryPlan( "from Person where name = :name", false, noFilters() ) );
+		assertEquals( 1, statistics.getQueryPlanCacheHitCount() );
+		assertEquals( 1, statistics.getQueryPlanCacheMissCount() );
+		assertTrue( statistics.getQueryPlanCompilationMaxTime() <= statistics.getQueryPlanCompilationTotalTime() );
+	}
+
+	@Test
+	public void testLargePlansAreEvictedByWeight() {
+		final QueryPlanCache cache = sessionFactory().getQueryPlanCache();
+		final Statistics statistics = sessionFactory().getStatistics();
+		statistics.clear();
+
+		final String small = "from Person where name is null";
+		final HQLQueryPlan smallPlan = cache.getHQLQueryPlan( small, false, noFilters() );
+
+		final int inListQueries = 6;
+		for ( int i = 0; i < inListQueries; i++ ) {
+			// keep the small plan recently used, so the large ones are evicted first
+			assertSame( smallPlan, cache.getHQLQueryPlan( small, false, noFilters() ) );
+			cache.getHQLQueryPlan( inListQuery( 400 + i ), false, noFilters() );
+			assertTrue( cache.getQueryPlanWeight() <= MAX_WEIGHT );
+		}
+
+		assertTrue( statistics.getQueryPlanCacheEvictionCount() > 0 );
+		assertTrue( cache.getQueryPlanCount() < inListQueries + 1 );
+		assertSame( smallPlan, cache.getHQLQueryPlan( small, false, noFilters() ) );
+
+		// the first IN-list plan is gone, so it has to be compiled again
+		final long misses = statistics.getQueryPlanCacheMissCount();
+		final HQLQueryPlan recompiled = cache.getHQLQueryPlan( inListQuery( 400 ), false, noFilters() );
+		assertEquals( misses + 1, statistics.getQueryPlanCacheMissCount() );
+		assertNotSame( smallPlan, recompiled );
+	}
+
+	@Test
+	public void testOversizedPlanIsKeptAside() {
+		final QueryPlanCache cache = sessionFactory().getQueryPlanCache();
+		final Statistics statistics = sessionFactory().getStatistics();
+		statistics.clear();
+
+		final HQLQueryPlan oversized = cache.getHQLQueryPlan( inListQuery( 1000 ), false, noFilters() );
+		assertTrue( cache.getQueryPlanWeight() <= MAX_WEIGHT );
+
+		final long misses = statistics.getQueryPlanCacheMissCount();
+		assertSame( oversized, cache.getHQLQueryPlan( inListQuery( 1000 ), false, noFilters() ) );
+		assertEquals( misses, statistics.getQueryPlanCacheMissCount() );
+
+		// only the most recent oversized plan is kept
+		cache.getHQLQueryPlan( inListQuery( 1001 ), false, noFilters() );
+		assertEquals( 1, statistics.getQueryPlanCacheEvictionCount() );
+		assertNotSame( oversized, cache.getHQLQueryPlan( inListQuery( 1000 ), false, noFilters() ) );
+	}
+
+	private static String inListQuery(int size) {
+		final StringBuilder hql = new StringBuilder( "from Person where id in (" );
+		for ( int i = 0; i < size; i++ ) {
+			if ( i > 0 ) {
+				hql.append( ", " );
+			}
+			hql.append( '?' );
+		}
+		return hql.append( ')' ).toString();
+	}
+
+	private static Map<String, Filter> noFilters() {
+		return Collections.emptyMap();
+	}
+}
@@ -31,10 +31,13 @@ import org.junit.Test;
 
 import org.hibernate.CacheMode;
 import org.hibernate.Hibernate;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
 import org.hibernate.Query;
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.SessionException;
 import org.hibernate.Transaction;
 import org.hibernate.proxy.HibernateProxy;
 
@@ -43,6 +46,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Gail Badner
@@ -1201,4 +1205,72 @@ public class ReadOnlySessionTest extends AbstractReadOnlyTest {
 		s.close();
 
 	}
+
+	@Test
+	public void testReadOnlySessionOption() {
+		Session s = openSession();
+		s.beginTransaction();
+		DataPoint dp = new DataPoint();
+		dp.setX( new BigDecimal( 0.1d ).setScale(19, BigDecimal.ROUND_DOWN) );
+		dp.setY( new BigDecimal( Math.cos( dp.getX().doubleValue() ) ).setScale(19, BigDecimal.ROUND_DOWN) );
+		dp.setDescription( "original" );
+		s.save( dp );
+		s.getTransaction().commit();
+		s.close();
+
+		clearCounts();
+
+		s = sessionFactory().withOptions().readOnly( true ).openSession();
+		s.setCacheMode( CacheMode.IGNORE );
+		s.beginTransaction();
+		assertTrue( s.isDefaultReadOnly() );
+		dp = ( DataPoint ) s.get( DataPoint.class, dp.getId() );
+		assertTrue( s.isReadOnly( dp ) );
+		assertSame( dp, s.createQuery( "from DataPoint" ).uniqueResult() );
+		dp.setDescription( "changed" );
+		s.flush();
+		try {
+			s.delete( dp );
+			fail( "read-only session should not allow write operations" );
+		}
+		catch (SessionException expected) {
+		}
+		try {
+			s.setDefaultReadOnly( false );
+			fail( "read-only session should not become modifiable" );
+		}
+		catch (SessionException expected) {
+		}
+		try {
+			s.setReadOnly( dp, false );
+			fail( "read-only session should not allow modifiable entities" );
+		}
+		catch (SessionException expected) {
+		}
+		try {
+			s.buildLockRequest( new LockOptions( LockMode.PESSIMISTIC_FORCE_INCREMENT ) ).lock( dp );
+			fail( "read-only session should not allow forced version increments" );
+		}
+		catch (SessionException expected) {
+		}
+		try {
+			s.lock( dp, LockMode.OPTIMISTIC_FORCE_INCREMENT );
+			fail( "read-only session should not allow forced version increments" );
+		}
+		catch (SessionException expected) {
+		}
+		s.lock( dp, LockMode.NONE );
+		s.getTransaction().commit();
+		s.close();
+
+		assertUpdateCount( 0 );
+
+		s = openSession();
+		s.beginTransaction();
+		dp = ( DataPoint ) s.get( DataPoint.class, dp.getId() );
+		assertEquals( "original", dp.getDescription() );
+		s.delete( dp );
+		s.getTransaction().commit();
+		s.close();
+	}
 }
@@ -27,8 +27,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Properties;
 
+import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
 import net.sf.ehcache.util.ClassLoaderUtil;
 
 import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
@@ -76,6 +78,22 @@ abstract class AbstractEhcacheRegionFactory implements RegionFactory {
 	 */
 	public static final String NET_SF_EHCACHE_CONFIGURATION_RESOURCE_NAME = "net.sf.ehcache.configurationResourceName";
 
+	/**
+	 * The Hibernate system property specifying the off-heap store size (for example 512m) of the entity and
+	 * collection regions the ehcache configuration does not define.
+	 * <p/>
+	 * If set, such regions are created from the default cache configuration but overflow to an off-heap store of
+	 * that size, which needs BigMemory on the classpath.  Regions overflowing off-heap, whether configured here or in
+	 * the ehcache configuration, store their entries in a compact serialized form.
+	 * <p/>
+	 * That only covers the values.  The keys are the {@link org.hibernate.cache.spi.CacheKey} instances built by
+	 * Hibernate, which only use their compact serialized form when
+	 * {@link org.hibernate.cfg.AvailableSettings#USE_BINARY_CACHE_ENTRIES} is enabled; otherwise they are stored
+	 * off-heap with the default Java serialization of the key and its identifier type.  Enable both settings
+	 * together to keep off-heap keys small.
+	 */
+	public static final String NET_SF_EHCACHE_HIBERNATE_OFFHEAP_MAX_MEMORY = "net.sf.ehcache.hibernate.offheap_max_memory";
+
 	private static final EhCacheMessageLogger LOG = Logger.getMessageLogger(
 			EhCacheMessageLogger.class,
 			AbstractEhcacheRegionFactory.class.getName()
@@ -124,7 +142,13 @@ abstract class AbstractEhcacheRegionFactory implements RegionFactory {
 	@Override
 	public EntityRegion buildEntityRegion(String regionName, Properties properties, CacheDataDescription metadata)
 			throws CacheException {
-		return new EhcacheEntityRegion( accessStrategyFactory, getCache( regionName ), settings, metadata, properties );
+		return new EhcacheEntityRegion(
+				accessStrategyFactory,
+				getCache( regionName, properties.getProperty( NET_SF_EHCACHE_HIBERNATE_OFFHEAP_MAX_MEMORY ) ),
+				settings,
+				metadata,
+				properties
+		);
 	}
 
 	@Override
@@ -147,7 +171,7 @@ abstract class AbstractEhcacheRegionFactory implements RegionFactory {
 			throws CacheException {
 		return new EhcacheCollectionRegion(
 				accessStrategyFactory,
-				getCache( regionName ),
+				getCache( regionName, properties.getProperty( NET_SF_EHCACHE_HIBERNATE_OFFHEAP_MAX_MEMORY ) ),
 				settings,
 				metadata,
 				properties
@@ -173,12 +197,25 @@ abstract class AbstractEhcacheRegionFactory implements RegionFactory {
 	}
 
 	private Ehcache getCache(String name) throws CacheException {
+		return getCache( name, null );
+	}
+
+	private Ehcache getCache(String name, String offHeapMaxMemory) throws CacheException {
 		try {
 			Ehcache cache = manager.getEhcache( name );
 			if ( cache == null ) {
 				LOG.unableToFindEhCacheConfiguration( name );
 				manager.addCache( name );
 				cache = manager.getEhcache( name );
+				if ( offHeapMaxMemory != null ) {
+					// the default cache configuration is only reachable through a cache created from it
+					final CacheConfiguration configuration = cache.getCacheConfiguration().clone()
+							.overflowToOffHeap( true )
+							.maxMemoryOffHeap( offHeapMaxMemory );
+					manager.removeCache( name );
+					manager.addCache( new Cache( configuration ) );
+					cache = manager.getEhcache( name );
+				}
 				LOG.debug( "started EHCache region: " + name );
 			}
 			HibernateEhcacheUtils.validateEhcache( cache );
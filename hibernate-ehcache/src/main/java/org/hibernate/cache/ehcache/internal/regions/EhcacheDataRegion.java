@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Properties;
 
 import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
 import net.sf.ehcache.constructs.nonstop.NonStopCacheException;
 import net.sf.ehcache.util.Timestamper;
 
@@ -85,6 +86,13 @@ public abstract class EhcacheDataRegion implements Region {
 		return cache;
 	}
 
+	/**
+	 * The value held by the given element, as handed to the region when it was stored.
+	 */
+	protected Object valueOf(Element element) {
+		return element.getObjectValue();
+	}
+
 	/**
 	 * The {@link org.hibernate.cache.ehcache.internal.strategy.EhcacheAccessStrategyFactory} used for creating
 	 * various access strategies
@@ -159,6 +167,45 @@ public abstract class EhcacheDataRegion implements Region {
 		}
 	}
 
+	/**
+	 * The number of bytes this region takes in the off-heap store.
+	 *
+	 * @return The off-heap size in bytes, or -1 if it could not be computed
+	 */
+	public long getSizeOffHeap() {
+		try {
+			return getCache().calculateOffHeapSize();
+		}
+		catch (Throwable t) {
+			if ( t instanceof NonStopCacheException ) {
+				HibernateNonstopCacheExceptionHandler.getInstance()
+						.handleNonstopCacheException( (NonStopCacheException) t );
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * The number of entries this region holds in the off-heap store.
+	 *
+	 * @return The off-heap entry count, or -1 if it could not be computed
+	 */
+	public long getElementCountOffHeap() {
+		try {
+			return getCache().getOffHeapStoreSize();
+		}
+		catch (net.sf.ehcache.CacheException ce) {
+			if ( ce instanceof NonStopCacheException ) {
+				HibernateNonstopCacheExceptionHandler.getInstance()
+						.handleNonstopCacheException( (NonStopCacheException) ce );
+				return -1;
+			}
+			else {
+				throw new CacheException( ce );
+			}
+		}
+	}
+
 	@Override
 	public long getElementCountOnDisk() {
 		try {
@@ -181,7 +228,7 @@ public abstract class EhcacheDataRegion implements Region {
 		try {
 			final Map<Object, Object> result = new HashMap<Object, Object>();
 			for ( Object key : getCache().getKeys() ) {
-				result.put( key, getCache().get( key ).getObjectValue() );
+				result.put( key, valueOf( getCache().get( key ) ) );
 			}
 			return result;
 		}
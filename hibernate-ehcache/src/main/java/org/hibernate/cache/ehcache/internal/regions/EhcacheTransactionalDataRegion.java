@@ -23,6 +23,9 @@
  */
 package org.hibernate.cache.ehcache.internal.regions;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import net.sf.ehcache.Ehcache;
@@ -34,6 +37,7 @@ import net.sf.ehcache.constructs.nonstop.NonStopCacheException;
 
 import org.hibernate.cache.CacheException;
 import org.hibernate.cache.ehcache.internal.nonstop.HibernateNonstopCacheExceptionHandler;
+import org.hibernate.cache.ehcache.internal.strategy.CompactEntrySerializer;
 import org.hibernate.cache.ehcache.internal.strategy.EhcacheAccessStrategyFactory;
 import org.hibernate.cache.spi.CacheDataDescription;
 import org.hibernate.cache.spi.TransactionalDataRegion;
@@ -62,6 +66,8 @@ public class EhcacheTransactionalDataRegion extends EhcacheDataRegion implements
 
 	private final CacheLockProvider lockProvider;
 
+	private final boolean compactEntries;
+
 	/**
 	 * Construct an transactional Hibernate cache region around the given Ehcache instance.
 	 */
@@ -79,6 +85,22 @@ public class EhcacheTransactionalDataRegion extends EhcacheDataRegion implements
 		else {
 			this.lockProvider = new StripedReadWriteLockSync( LOCAL_LOCK_PROVIDER_CONCURRENCY );
 		}
+
+		// entries stored off-heap are serialized anyway, so store them in their compact form; transactional caches
+		// are read and written by their access strategies directly and keep the plain entries
+		this.compactEntries = cache.getCacheConfiguration().isOverflowToOffHeap()
+				&& !cache.getCacheConfiguration().getTransactionalMode().isTransactional();
+	}
+
+	/**
+	 * Are the entries of this region stored in their compact serialized form?  This only applies to the values;
+	 * keys use their compact form when {@link org.hibernate.cfg.AvailableSettings#USE_BINARY_CACHE_ENTRIES} is
+	 * enabled.
+	 *
+	 * @return {@code true} if entries are stored as compact byte arrays
+	 */
+	public boolean isCompactEntries() {
+		return compactEntries;
 	}
 
 	/**
@@ -100,6 +122,12 @@ public class EhcacheTransactionalDataRegion extends EhcacheDataRegion implements
 		return metadata;
 	}
 
+	@Override
+	protected Object valueOf(Element element) {
+		final Object value = element.getObjectValue();
+		return compactEntries && value != null ? CompactEntrySerializer.deserialize( (byte[]) value ) : value;
+	}
+
 	/**
 	 * Get the value mapped to this key, or null if no value is mapped to this key.
 	 *
@@ -114,7 +142,7 @@ public class EhcacheTransactionalDataRegion extends EhcacheDataRegion implements
 				return null;
 			}
 			else {
-				return element.getObjectValue();
+				return valueOf( element );
 			}
 		}
 		catch (net.sf.ehcache.CacheException e) {
@@ -129,6 +157,38 @@ public class EhcacheTransactionalDataRegion extends EhcacheDataRegion implements
 		}
 	}
 
+	/**
+	 * Get the values mapped to the given keys.  Keys with no value mapped are not included in the returned map.
+	 * <p/>
+	 * Ehcache 2.4 has no bulk read, so the keys are looked up one by one; but a nonstop timeout ends the whole
+	 * lookup instead of being paid again for every remaining key of the batch.
+	 *
+	 * @param keys The cache keys
+	 *
+	 * @return The cached data, keyed by cache key
+	 */
+	public final Map<Object, Object> getAll(Collection<?> keys) {
+		final Map<Object, Object> result = new HashMap<Object, Object>( keys.size() );
+		try {
+			for ( Object key : keys ) {
+				final Element element = getCache().get( key );
+				if ( element != null && element.getObjectValue() != null ) {
+					result.put( key, valueOf( element ) );
+				}
+			}
+		}
+		catch (net.sf.ehcache.CacheException e) {
+			if ( e instanceof NonStopCacheException ) {
+				HibernateNonstopCacheExceptionHandler.getInstance()
+						.handleNonstopCacheException( (NonStopCacheException) e );
+			}
+			else {
+				throw new CacheException( e );
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Map the given value to the given key, replacing any existing mapping for this key
 	 *
@@ -139,7 +199,7 @@ public class EhcacheTransactionalDataRegion extends EhcacheDataRegion implements
 	 */
 	public final void put(Object key, Object value) throws CacheException {
 		try {
-			final Element element = new Element( key, value );
+			final Element element = new Element( key, compactEntries ? CompactEntrySerializer.serialize( value ) : value );
 			getCache().put( element );
 		}
 		catch (IllegalArgumentException e) {
@@ -23,8 +23,12 @@
  */
 package org.hibernate.cache.ehcache.internal.strategy;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.hibernate.cache.CacheException;
 import org.hibernate.cache.ehcache.internal.regions.EhcacheTransactionalDataRegion;
+import org.hibernate.cache.spi.access.BulkRegionAccessStrategy;
 import org.hibernate.cache.spi.access.SoftLock;
 import org.hibernate.cfg.Settings;
 
@@ -36,7 +40,7 @@ import org.hibernate.cfg.Settings;
  * @author Chris Dennis
  * @author Alex Snaps
  */
-abstract class AbstractEhcacheAccessStrategy<T extends EhcacheTransactionalDataRegion> {
+abstract class AbstractEhcacheAccessStrategy<T extends EhcacheTransactionalDataRegion> implements BulkRegionAccessStrategy {
 	private final T region;
 	private final Settings settings;
 
@@ -86,6 +90,37 @@ abstract class AbstractEhcacheAccessStrategy<T extends EhcacheTransactionalDataR
 	public abstract boolean putFromLoad(Object key, Object value, long txTimestamp, Object version, boolean minimalPutOverride)
 			throws CacheException;
 
+	/**
+	 * Looks all the keys up in the wrapped region in one pass.  Strategies storing the values as-is can use this
+	 * directly; the others have to override it.
+	 *
+	 * @see org.hibernate.cache.spi.access.BulkRegionAccessStrategy#getAll(java.util.Collection, long)
+	 */
+	public Map<Object, Object> getAll(Collection<?> keys, long txTimestamp) throws CacheException {
+		return region.getAll( keys );
+	}
+
+	/**
+	 * Puts every item through {@link #putFromLoad(Object, Object, long, Object, boolean)}, so the strategy specific
+	 * put rules apply to each of them.
+	 *
+	 * @see org.hibernate.cache.spi.access.BulkRegionAccessStrategy#putFromLoadAll(Object[], Object[], long, Object[], boolean)
+	 */
+	public final int putFromLoadAll(
+			Object[] keys,
+			Object[] values,
+			long txTimestamp,
+			Object[] versions,
+			boolean minimalPutOverride) throws CacheException {
+		int count = 0;
+		for ( int i = 0; i < keys.length; i++ ) {
+			if ( putFromLoad( keys[i], values[i], txTimestamp, versions[i], minimalPutOverride ) ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * Region locks are not supported.
 	 *
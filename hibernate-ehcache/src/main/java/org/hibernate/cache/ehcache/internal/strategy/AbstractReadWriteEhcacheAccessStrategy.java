@@ -24,7 +24,11 @@
 package org.hibernate.cache.ehcache.internal.strategy;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -91,6 +95,40 @@ abstract class AbstractReadWriteEhcacheAccessStrategy<T
 		}
 	}
 
+	/**
+	 * Only returns the readable items.  When the region locks are independent of the cache each key still has to be
+	 * read under its own lock, otherwise the whole batch is read from the region in one pass.
+	 *
+	 * @see org.hibernate.cache.spi.access.BulkRegionAccessStrategy#getAll(java.util.Collection, long)
+	 */
+	@Override
+	public final Map<Object, Object> getAll(Collection<?> keys, long txTimestamp) throws CacheException {
+		if ( region().locksAreIndependentOfCache() ) {
+			final Map<Object, Object> result = new HashMap<Object, Object>( keys.size() );
+			for ( Object key : keys ) {
+				final Object value = get( key, txTimestamp );
+				if ( value != null ) {
+					result.put( key, value );
+				}
+			}
+			return result;
+		}
+
+		final Map<Object, Object> result = region().getAll( keys );
+		final Iterator<Map.Entry<Object, Object>> itr = result.entrySet().iterator();
+		while ( itr.hasNext() ) {
+			final Map.Entry<Object, Object> entry = itr.next();
+			final Lockable item = (Lockable) entry.getValue();
+			if ( item.isReadable( txTimestamp ) ) {
+				entry.setValue( item.getValue() );
+			}
+			else {
+				itr.remove();
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Returns <code>false</code> and fails to put the value if there is an existing un-writeable item mapped to this
 	 * key.
@@ -280,6 +318,20 @@ abstract class AbstractReadWriteEhcacheAccessStrategy<T
 			return value;
 		}
 
+		/**
+		 * Returns the version of the enclosed value.
+		 */
+		Object getVersion() {
+			return version;
+		}
+
+		/**
+		 * Returns the creation timestamp of this item.
+		 */
+		long getTimestamp() {
+			return timestamp;
+		}
+
 		@Override
 		public boolean isUnlockable(SoftLock lock) {
 			return false;
@@ -0,0 +1,111 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.ehcache.internal.strategy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.entry.CompactCacheEntrySerializer;
+import org.hibernate.internal.util.io.CompactValueInput;
+import org.hibernate.internal.util.io.CompactValueOutput;
+
+/**
+ * Turns the values stored by the access strategies into compact byte arrays, for regions whose entries are kept
+ * serialized off-heap.  The read/write {@link AbstractReadWriteEhcacheAccessStrategy.Item} wrapper is written field
+ * by field around its value, and the values themselves through {@link CompactCacheEntrySerializer}; soft locks are
+ * short lived and simply fall back to Java serialization.
+ */
+public final class CompactEntrySerializer {
+	private static final byte ENTRY = 0;
+	private static final byte ITEM = 1;
+
+	private CompactEntrySerializer() {
+	}
+
+	/**
+	 * Serialize a value stored by an access strategy.
+	 *
+	 * @param value The value
+	 *
+	 * @return The compact form of the value
+	 */
+	public static byte[] serialize(Object value) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream( 64 );
+		try {
+			final DataOutputStream out = new DataOutputStream( bytes );
+			if ( value instanceof AbstractReadWriteEhcacheAccessStrategy.Item ) {
+				final AbstractReadWriteEhcacheAccessStrategy.Item item = (AbstractReadWriteEhcacheAccessStrategy.Item) value;
+				out.writeByte( ITEM );
+				out.writeLong( item.getTimestamp() );
+				new CompactValueOutput( out ).writeValue( item.getVersion() );
+				CompactCacheEntrySerializer.write( item.getValue(), out );
+			}
+			else {
+				out.writeByte( ENTRY );
+				CompactCacheEntrySerializer.write( value, out );
+			}
+			out.flush();
+		}
+		catch (IOException e) {
+			throw new CacheException( "Unable to serialize cache entry", e );
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Deserialize a value written by {@link #serialize}.
+	 *
+	 * @param serialized The compact form of the value
+	 *
+	 * @return The value
+	 */
+	public static Object deserialize(byte[] serialized) {
+		final DataInputStream in = new DataInputStream( new ByteArrayInputStream( serialized ) );
+		try {
+			final byte kind = in.readByte();
+			if ( kind == ITEM ) {
+				final long timestamp = in.readLong();
+				final Object version = new CompactValueInput( in ).readValue();
+				return new AbstractReadWriteEhcacheAccessStrategy.Item(
+						CompactCacheEntrySerializer.read( in ),
+						version,
+						timestamp
+				);
+			}
+			else if ( kind == ENTRY ) {
+				return CompactCacheEntrySerializer.read( in );
+			}
+			else {
+				throw new CacheException( "Unknown serialized cache entry kind : " + kind );
+			}
+		}
+		catch (IOException e) {
+			throw new CacheException( "Unable to deserialize cache entry", e );
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.ehcache.internal.strategy;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.internal.util.compare.ComparableComparator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Round trips of the values stored by the access strategies through {@link CompactEntrySerializer}.
+ */
+public class CompactEntrySerializerTest {
+	private static final long NOW = 1000L;
+	private static final long TIMEOUT = 5000L;
+
+	@Test
+	public void testItemRoundTrip() throws Exception {
+		final StandardCacheEntryImpl entry = standardEntry(
+				new Serializable[] { "widget", new BigDecimal( "12.50" ), null },
+				"org.hibernate.test.domain.Item",
+				3
+		);
+		final AbstractReadWriteEhcacheAccessStrategy.Item item = new AbstractReadWriteEhcacheAccessStrategy.Item(
+				entry,
+				3,
+				NOW
+		);
+
+		final AbstractReadWriteEhcacheAccessStrategy.Item read = roundTrip( item );
+		assertEquals( NOW, read.getTimestamp() );
+		assertEquals( 3, read.getVersion() );
+		assertFalse( read.isReadable( NOW ) );
+		assertTrue( read.isReadable( NOW + 1 ) );
+
+		final StandardCacheEntryImpl readEntry = (StandardCacheEntryImpl) read.getValue();
+		assertEquals( entry.getSubclass(), readEntry.getSubclass() );
+		assertEquals( 3, readEntry.getVersion() );
+		assertArrayEquals( entry.getDisassembledState(), readEntry.getDisassembledState() );
+	}
+
+	@Test
+	public void testMultiplyLockedLockRoundTrip() {
+		final UUID uuid = UUID.randomUUID();
+		final AbstractReadWriteEhcacheAccessStrategy.Lock lock = new AbstractReadWriteEhcacheAccessStrategy.Item(
+				"value",
+				1,
+				NOW
+		).lock( TIMEOUT, uuid, 7L );
+		lock.lock( TIMEOUT, uuid, 8L );
+
+		AbstractReadWriteEhcacheAccessStrategy.Lock read = roundTrip( lock );
+		// the soft lock handed out by lockItem() has to unlock the copy read back from the region
+		assertEquals( lock, read );
+		assertEquals( lock.hashCode(), read.hashCode() );
+		assertTrue( read.isUnlockable( lock ) );
+		assertTrue( read.wasLockedConcurrently() );
+		assertFalse( read.isReadable( NOW + 1 ) );
+
+		// still held by the second locker after the first unlock
+		read.unlock( NOW + 1 );
+		read = roundTrip( read );
+		assertFalse( read.isWriteable( NOW + 2, 2, ComparableComparator.INSTANCE ) );
+
+		read.unlock( NOW + 2 );
+		read = roundTrip( read );
+		assertTrue( read.isWriteable( NOW + 3, 2, ComparableComparator.INSTANCE ) );
+		assertFalse( read.isWriteable( NOW + 3, 1, ComparableComparator.INSTANCE ) );
+	}
+
+	@Test
+	public void testNaturalIdValueRoundTrip() {
+		// natural id regions map the natural id to the entity identifier
+		assertEquals( 42L, CompactEntrySerializer.deserialize( CompactEntrySerializer.serialize( 42L ) ) );
+
+		final AbstractReadWriteEhcacheAccessStrategy.Item read = roundTrip(
+				new AbstractReadWriteEhcacheAccessStrategy.Item( 42L, null, NOW )
+		);
+		assertEquals( 42L, read.getValue() );
+		assertNull( read.getVersion() );
+		assertEquals( NOW, read.getTimestamp() );
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T roundTrip(T value) {
+		return (T) CompactEntrySerializer.deserialize( CompactEntrySerializer.serialize( value ) );
+	}
+
+	private static StandardCacheEntryImpl standardEntry(Serializable[] state, String subclass, Object version)
+			throws Exception {
+		final Constructor<StandardCacheEntryImpl> constructor = StandardCacheEntryImpl.class.getDeclaredConstructor(
+				Serializable[].class,
+				String.class,
+				boolean.class,
+				Object.class
+		);
+		constructor.setAccessible( true );
+		return constructor.newInstance( state, subclass, false, version );
+	}
+}
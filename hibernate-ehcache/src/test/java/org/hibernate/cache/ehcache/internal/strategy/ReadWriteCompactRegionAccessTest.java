@@ -0,0 +1,126 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.ehcache.internal.strategy;
+
+import java.util.Properties;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import net.sf.ehcache.constructs.EhcacheDecoratorAdapter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.hibernate.cache.ehcache.internal.regions.EhcacheEntityRegion;
+import org.hibernate.cache.internal.CacheDataDescriptionImpl;
+import org.hibernate.cache.spi.access.SoftLock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Read/write access to a region keeping its entries in their compact serialized form, where every read of the
+ * region hands out a fresh copy of the stored soft lock.
+ */
+public class ReadWriteCompactRegionAccessTest {
+	private static final String KEY = "key";
+
+	private CacheManager manager;
+	private EhcacheEntityRegion region;
+	private ReadWriteEhcacheEntityRegionAccessStrategy access;
+
+	@Before
+	public void createRegion() {
+		manager = new CacheManager(
+				new Configuration().defaultCache( new CacheConfiguration( "default", 100 ) )
+		);
+		final Cache cache = new Cache( new CacheConfiguration( "compact", 100 ) );
+		manager.addCache( cache );
+
+		// off-heap stores need the enterprise edition; an on-heap cache claiming to overflow off-heap still makes
+		// the region store its entries compacted
+		final CacheConfiguration offHeapConfiguration = new CacheConfiguration( "compact", 100 )
+				.overflowToOffHeap( true );
+		region = new EhcacheEntityRegion(
+				new EhcacheAccessStrategyFactoryImpl(),
+				new EhcacheDecoratorAdapter( cache ) {
+					@Override
+					public CacheConfiguration getCacheConfiguration() {
+						return offHeapConfiguration;
+					}
+				},
+				null,
+				new CacheDataDescriptionImpl( true, false, null ),
+				new Properties()
+		);
+		access = new ReadWriteEhcacheEntityRegionAccessStrategy( region, null );
+	}
+
+	@After
+	public void shutdown() {
+		manager.shutdown();
+	}
+
+	@Test
+	public void testEntriesAreCompacted() {
+		assertTrue( region.isCompactEntries() );
+
+		assertTrue( access.putFromLoad( KEY, "value", region.nextTimestamp(), null, false ) );
+		assertTrue( region.getEhcache().get( KEY ).getObjectValue() instanceof byte[] );
+		assertEquals( "value", access.get( KEY, region.nextTimestamp() ) );
+	}
+
+	@Test
+	public void testLockAndUnlockItem() {
+		assertTrue( access.putFromLoad( KEY, "value", region.nextTimestamp(), null, false ) );
+
+		final SoftLock lock = access.lockItem( KEY, null );
+		assertNull( access.get( KEY, region.nextTimestamp() ) );
+		assertFalse( access.putFromLoad( KEY, "stale", region.nextTimestamp(), null, false ) );
+
+		access.unlockItem( KEY, lock );
+		// an expired lock would have been replaced by one blocking loads for the whole lock timeout
+		assertTrue( access.putFromLoad( KEY, "reloaded", region.nextTimestamp(), null, false ) );
+		assertEquals( "reloaded", access.get( KEY, region.nextTimestamp() ) );
+	}
+
+	@Test
+	public void testConcurrentlyLockedItem() {
+		assertTrue( access.putFromLoad( KEY, "value", region.nextTimestamp(), null, false ) );
+
+		final SoftLock first = access.lockItem( KEY, null );
+		final SoftLock second = access.lockItem( KEY, null );
+
+		access.unlockItem( KEY, first );
+		assertFalse( access.putFromLoad( KEY, "stale", region.nextTimestamp(), null, false ) );
+
+		access.unlockItem( KEY, second );
+		assertTrue( access.putFromLoad( KEY, "reloaded", region.nextTimestamp(), null, false ) );
+		assertEquals( "reloaded", access.get( KEY, region.nextTimestamp() ) );
+	}
+}
@@ -131,4 +131,67 @@ public interface EnversSettings {
 	 * Exactly one row with {@code null} end date exists for each identifier.
 	 */
 	public static final String ALLOW_IDENTIFIER_REUSE = "org.hibernate.envers.allow_identifier_reuse";
+
+	/**
+	 * Write audit rows straight into JDBC (batches, if {@code hibernate.jdbc.batch_size} is set) using the insert
+	 * statements of the audit entity persisters, instead of saving them through the session. Audit rows then never
+	 * enter the persistence context, and no events or interceptor callbacks are triggered for them.
+	 * Defaults to {@code false}.
+	 */
+	public static final String STATELESS_AUDIT_WRITES = "org.hibernate.envers.stateless_audit_writes";
+
+	/**
+	 * Directory of the local queue used for asynchronous auditing. When set, audit data is not written to the audit
+	 * tables within the audited transaction: it is appended to a file in this directory (made durable before the
+	 * transaction commits, and discarded if it rolls back), and written to the audit tables by a background worker.
+	 * Revision entities are still persisted within the audited transaction. Audit data, apart from references to the
+	 * revision entity, has to be serializable. Not set by default (synchronous auditing).
+	 * <p/>
+	 * Queued transactions are written in the order of revision numbers only with respect to the other transactions
+	 * of the same JVM. With several nodes, each writing its own queue, the revision end columns of the
+	 * {@link org.hibernate.envers.strategy.ValidityAuditStrategy} could be updated out of order, so combining the two
+	 * is rejected unless {@link #ASYNC_AUDIT_SINGLE_NODE} is set.
+	 */
+	public static final String ASYNC_AUDIT_QUEUE_DIRECTORY = "org.hibernate.envers.async_audit_queue_directory";
+
+	/**
+	 * Delay in milliseconds between two runs of the asynchronous audit worker. A value of {@literal 0} disables the
+	 * worker. Defaults to {@literal 1000}.
+	 */
+	public static final String ASYNC_AUDIT_INTERVAL = "org.hibernate.envers.async_audit_interval";
+
+	/**
+	 * Maximum number of queued transactions written to the audit tables in a single transaction of the asynchronous
+	 * audit worker. Defaults to {@literal 100}.
+	 */
+	public static final String ASYNC_AUDIT_BATCH_SIZE = "org.hibernate.envers.async_audit_batch_size";
+
+	/**
+	 * Declares that a single node audits the database, so that the asynchronous audit queue (see
+	 * {@link #ASYNC_AUDIT_QUEUE_DIRECTORY}) may be used with the
+	 * {@link org.hibernate.envers.strategy.ValidityAuditStrategy}. Defaults to {@code false}.
+	 */
+	public static final String ASYNC_AUDIT_SINGLE_NODE = "org.hibernate.envers.async_audit_single_node";
+
+	/**
+	 * Whether {@link org.hibernate.envers.strategy.DefaultAuditStrategy} should select the revision of an entity or
+	 * association at a given revision with a {@code NOT EXISTS} sub-query for later revisions, instead of comparing it
+	 * with a correlated {@code max(...)} sub-query. Databases can usually execute the former as an anti-join, which
+	 * performs much better on large audit tables. Defaults to {@code false}.
+	 */
+	public static final String USE_NOT_EXISTS_REVISION_RESTRICTION = "org.hibernate.envers.use_not_exists_revision_restriction";
+
+	/**
+	 * Whether audit data read by {@link org.hibernate.envers.AuditReader#find} should be cached in a second level cache
+	 * region, shared by all audit readers. Only the state of entities at revisions in which they were changed is
+	 * cached, which never has to be invalidated. Requires a {@link org.hibernate.cache.spi.RegionFactory}.
+	 * Defaults to {@code false}.
+	 */
+	public static final String AUDIT_SNAPSHOT_CACHE = "org.hibernate.envers.audit_snapshot_cache";
+
+	/**
+	 * Name of the second level cache region used when {@link #AUDIT_SNAPSHOT_CACHE} is enabled. Defaults to
+	 * {@literal org.hibernate.envers.AuditSnapshotCache}.
+	 */
+	public static final String AUDIT_SNAPSHOT_CACHE_REGION = "org.hibernate.envers.audit_snapshot_cache_region";
 }
@@ -81,6 +81,22 @@ public class GlobalConfiguration {
 	// Support reused identifiers of previously deleted entities
 	private final boolean allowIdentifierReuse;
 
+	// Write audit rows directly through the audit entity persisters, bypassing the session
+	private final boolean statelessAuditWrites;
+
+	// Queue audit data locally and write it to the audit tables asynchronously
+	private final String asyncAuditQueueDirectory;
+	private final long asyncAuditInterval;
+	private final int asyncAuditBatchSize;
+	private final boolean asyncAuditSingleNode;
+
+	// Restrict revisions of the default audit strategy with NOT EXISTS sub-queries
+	private final boolean useNotExistsRevisionRestriction;
+
+	// Share the audit data read at revisions, in which entities were changed, in a second level cache region
+	private final boolean auditSnapshotCache;
+	private final String auditSnapshotCacheRegion;
+
 	/*
 		 Which operator to use in correlated subqueries (when we want a property to be equal to the result of
 		 a correlated subquery, for example: e.p <operator> (select max(e2.p) where e2.p2 = e.p2 ...).
@@ -144,6 +160,34 @@ public class GlobalConfiguration {
 		allowIdentifierReuse = ConfigurationHelper.getBoolean(
 				EnversSettings.ALLOW_IDENTIFIER_REUSE, properties, false
 		);
+
+		statelessAuditWrites = ConfigurationHelper.getBoolean(
+				EnversSettings.STATELESS_AUDIT_WRITES, properties, false
+		);
+
+		asyncAuditQueueDirectory = ConfigurationHelper.getString(
+				EnversSettings.ASYNC_AUDIT_QUEUE_DIRECTORY, properties, null
+		);
+		asyncAuditInterval = ConfigurationHelper.getLong(
+				EnversSettings.ASYNC_AUDIT_INTERVAL, properties, 1000
+		);
+		asyncAuditBatchSize = ConfigurationHelper.getInt(
+				EnversSettings.ASYNC_AUDIT_BATCH_SIZE, properties, 100
+		);
+		asyncAuditSingleNode = ConfigurationHelper.getBoolean(
+				EnversSettings.ASYNC_AUDIT_SINGLE_NODE, properties, false
+		);
+
+		useNotExistsRevisionRestriction = ConfigurationHelper.getBoolean(
+				EnversSettings.USE_NOT_EXISTS_REVISION_RESTRICTION, properties, false
+		);
+
+		auditSnapshotCache = ConfigurationHelper.getBoolean(
+				EnversSettings.AUDIT_SNAPSHOT_CACHE, properties, false
+		);
+		auditSnapshotCacheRegion = ConfigurationHelper.getString(
+				EnversSettings.AUDIT_SNAPSHOT_CACHE_REGION, properties, "org.hibernate.envers.AuditSnapshotCache"
+		);
 	}
 
 	public boolean isGenerateRevisionsForCollections() {
@@ -205,4 +249,36 @@ public class GlobalConfiguration {
 	public boolean isAllowIdentifierReuse() {
 		return allowIdentifierReuse;
 	}
+
+	public boolean isStatelessAuditWrites() {
+		return statelessAuditWrites;
+	}
+
+	public String getAsyncAuditQueueDirectory() {
+		return asyncAuditQueueDirectory;
+	}
+
+	public long getAsyncAuditInterval() {
+		return asyncAuditInterval;
+	}
+
+	public int getAsyncAuditBatchSize() {
+		return asyncAuditBatchSize;
+	}
+
+	public boolean isAsyncAuditSingleNode() {
+		return asyncAuditSingleNode;
+	}
+
+	public boolean isUseNotExistsRevisionRestriction() {
+		return useNotExistsRevisionRestriction;
+	}
+
+	public boolean isAuditSnapshotCache() {
+		return auditSnapshotCache;
+	}
+
+	public String getAuditSnapshotCacheRegion() {
+		return auditSnapshotCacheRegion;
+	}
 }
@@ -32,6 +32,7 @@ import org.hibernate.MappingException;
 import org.hibernate.annotations.common.reflection.ReflectionManager;
 import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.envers.configuration.EnversSettings;
 import org.hibernate.envers.configuration.internal.AuditEntitiesConfiguration;
 import org.hibernate.envers.configuration.internal.EntitiesConfigurator;
 import org.hibernate.envers.configuration.internal.GlobalConfiguration;
@@ -39,12 +40,16 @@ import org.hibernate.envers.configuration.internal.RevisionInfoConfiguration;
 import org.hibernate.envers.configuration.internal.RevisionInfoConfigurationResult;
 import org.hibernate.envers.internal.entities.EntitiesConfigurations;
 import org.hibernate.envers.internal.entities.PropertyData;
+import org.hibernate.envers.internal.reader.AuditSnapshotCache;
 import org.hibernate.envers.internal.revisioninfo.ModifiedEntityNamesReader;
 import org.hibernate.envers.internal.revisioninfo.RevisionInfoNumberReader;
 import org.hibernate.envers.internal.revisioninfo.RevisionInfoQueryCreator;
+import org.hibernate.envers.internal.synchronization.AsyncAuditQueue;
 import org.hibernate.envers.internal.synchronization.AuditProcessManager;
+import org.hibernate.envers.internal.synchronization.QueueingAuditStrategy;
 import org.hibernate.envers.internal.tools.ReflectionTools;
 import org.hibernate.envers.strategy.AuditStrategy;
+import org.hibernate.envers.strategy.DefaultAuditStrategy;
 import org.hibernate.envers.strategy.ValidityAuditStrategy;
 import org.hibernate.internal.util.ClassLoaderHelper;
 import org.hibernate.internal.util.ReflectHelper;
@@ -59,6 +64,8 @@ public class AuditConfiguration {
 	private final AuditEntitiesConfiguration auditEntCfg;
 	private final AuditProcessManager auditProcessManager;
 	private final AuditStrategy auditStrategy;
+	private final AsyncAuditQueue asyncAuditQueue;
+	private final AuditSnapshotCache auditSnapshotCache;
 	private final EntitiesConfigurations entCfg;
 	private final RevisionInfoQueryCreator revisionInfoQueryCreator;
 	private final RevisionInfoNumberReader revisionInfoNumberReader;
@@ -97,6 +104,21 @@ public class AuditConfiguration {
 		return auditStrategy;
 	}
 
+	/**
+	 * @return Queue of the audit data written asynchronously, or {@code null}, if audit data is written in the
+	 * audited transactions.
+	 */
+	public AsyncAuditQueue getAsyncAuditQueue() {
+		return asyncAuditQueue;
+	}
+
+	/**
+	 * @return Second level cache of audit data, shared by all audit readers, or {@code null}, if disabled.
+	 */
+	public AuditSnapshotCache getAuditSnapshotCache() {
+		return auditSnapshotCache;
+	}
+
 	public ClassLoaderService getClassLoaderService() {
 		return classLoaderService;
 	}
@@ -118,19 +140,35 @@ public class AuditConfiguration {
 		final RevisionInfoConfiguration revInfoCfg = new RevisionInfoConfiguration( globalCfg );
 		final RevisionInfoConfigurationResult revInfoCfgResult = revInfoCfg.configure( cfg, reflectionManager );
 		this.auditEntCfg = new AuditEntitiesConfiguration( properties, revInfoCfgResult.getRevisionInfoEntityName() );
-		this.auditProcessManager = new AuditProcessManager( revInfoCfgResult.getRevisionInfoGenerator() );
 		this.revisionInfoQueryCreator = revInfoCfgResult.getRevisionInfoQueryCreator();
 		this.revisionInfoNumberReader = revInfoCfgResult.getRevisionInfoNumberReader();
 		this.modifiedEntityNamesReader = revInfoCfgResult.getModifiedEntityNamesReader();
 		this.classLoaderService = classLoaderService;
-		this.auditStrategy = initializeAuditStrategy(
+		final AuditStrategy strategy = initializeAuditStrategy(
 				revInfoCfgResult.getRevisionInfoClass(),
 				revInfoCfgResult.getRevisionInfoTimestampData()
 		);
 		this.entCfg = new EntitiesConfigurator().configure(
-				cfg, reflectionManager, globalCfg, auditEntCfg, auditStrategy, classLoaderService,
+				cfg, reflectionManager, globalCfg, auditEntCfg, strategy, classLoaderService,
 				revInfoCfgResult.getRevisionInfoXmlMapping(), revInfoCfgResult.getRevisionInfoRelationMapping()
 		);
+		if ( globalCfg.getAsyncAuditQueueDirectory() != null ) {
+			if ( strategy instanceof ValidityAuditStrategy && !globalCfg.isAsyncAuditSingleNode() ) {
+				throw new MappingException(
+						"The asynchronous audit queue can only be used with the validity audit strategy on a single "
+								+ "node; set " + EnversSettings.ASYNC_AUDIT_SINGLE_NODE + " to declare it"
+				);
+			}
+			// The mappings are generated for the configured strategy, which writes the queued audit data.
+			this.asyncAuditQueue = new AsyncAuditQueue( this, strategy );
+			this.auditStrategy = new QueueingAuditStrategy( strategy, asyncAuditQueue );
+		}
+		else {
+			this.asyncAuditQueue = null;
+			this.auditStrategy = strategy;
+		}
+		this.auditProcessManager = new AuditProcessManager( revInfoCfgResult.getRevisionInfoGenerator(), asyncAuditQueue );
+		this.auditSnapshotCache = globalCfg.isAuditSnapshotCache() ? new AuditSnapshotCache( this ) : null;
 
 		Thread.currentThread().setContextClassLoader( tccl );
 	}
@@ -163,6 +201,11 @@ public class AuditConfiguration {
 			final Getter revisionTimestampGetter = ReflectionTools.getGetter( revisionInfoClass, revisionInfoTimestampData );
 			( (ValidityAuditStrategy) strategy ).setRevisionTimestampGetter( revisionTimestampGetter );
 		}
+		else if ( strategy instanceof DefaultAuditStrategy ) {
+			( (DefaultAuditStrategy) strategy ).setNotExistsRevisionRestriction(
+					globalCfg.isUseNotExistsRevisionRestriction()
+			);
+		}
 
 		return strategy;
 	}
@@ -108,12 +108,24 @@ public class EnversIntegrator implements Integrator {
 					EventType.PRE_COLLECTION_UPDATE,
 					new EnversPreCollectionUpdateEventListenerImpl( enversConfiguration )
 			);
+			if ( enversConfiguration.getAsyncAuditQueue() != null ) {
+				enversConfiguration.getAsyncAuditQueue().start( sessionFactory );
+			}
+			if ( enversConfiguration.getAuditSnapshotCache() != null ) {
+				enversConfiguration.getAuditSnapshotCache().start( sessionFactory );
+			}
 		}
 	}
 
 	@Override
 	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
 		if ( enversConfiguration != null ) {
+			if ( enversConfiguration.getAsyncAuditQueue() != null ) {
+				enversConfiguration.getAsyncAuditQueue().stop();
+			}
+			if ( enversConfiguration.getAuditSnapshotCache() != null ) {
+				enversConfiguration.getAuditSnapshotCache().stop();
+			}
 			enversConfiguration.destroy();
 		}
 	}
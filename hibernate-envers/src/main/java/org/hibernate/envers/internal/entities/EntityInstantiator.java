@@ -34,6 +34,7 @@ import org.hibernate.envers.exception.AuditException;
 import org.hibernate.envers.internal.entities.mapper.id.IdMapper;
 import org.hibernate.envers.internal.entities.mapper.relation.lazy.ToOneDelegateSessionImplementor;
 import org.hibernate.envers.internal.reader.AuditReaderImplementor;
+import org.hibernate.envers.internal.reader.AuditSnapshotCache;
 import org.hibernate.envers.internal.tools.ReflectionTools;
 import org.hibernate.internal.util.ReflectHelper;
 import org.hibernate.proxy.HibernateProxy;
@@ -67,6 +68,8 @@ public class EntityInstantiator {
 			return null;
 		}
 
+		final String requestedEntityName = entityName;
+
 		// The $type$ property holds the name of the (versions) entity
 		final String type = verCfg.getEntCfg().getEntityNameForVersionsEntityName( (String) versionsEntity.get( "$type$" ) );
 
@@ -85,6 +88,12 @@ public class EntityInstantiator {
 
 		final Object primaryKey = idMapper.mapToIdFromMap( originalId );
 
+		// Sharing the audit data with other versions readers, if the entity was changed at this revision
+		final AuditSnapshotCache snapshotCache = verCfg.getAuditSnapshotCache();
+		if ( snapshotCache != null ) {
+			snapshotCache.put( versionsReader, requestedEntityName, primaryKey, versionsEntity, revision );
+		}
+
 		// Checking if the entity is in cache
 		if ( versionsReader.getFirstLevelCache().contains( entityName, revision, primaryKey ) ) {
 			return versionsReader.getFirstLevelCache().get( entityName, revision, primaryKey );
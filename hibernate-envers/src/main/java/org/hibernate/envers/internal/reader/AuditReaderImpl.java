@@ -37,10 +37,12 @@ import org.hibernate.NonUniqueResultException;
 import org.hibernate.Session;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.envers.CrossTypeRevisionChangesReader;
+import org.hibernate.envers.RevisionType;
 import org.hibernate.envers.configuration.spi.AuditConfiguration;
 import org.hibernate.envers.exception.AuditException;
 import org.hibernate.envers.exception.NotAuditedException;
 import org.hibernate.envers.exception.RevisionDoesNotExistException;
+import org.hibernate.envers.internal.entities.EntityInstantiator;
 import org.hibernate.envers.internal.synchronization.AuditProcess;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQueryCreator;
@@ -132,6 +134,22 @@ public class AuditReaderImpl implements AuditReaderImplementor {
 			return (T) firstLevelCache.get( entityName, revision, primaryKey );
 		}
 
+		final AuditSnapshotCache snapshotCache = verCfg.getAuditSnapshotCache();
+		if ( snapshotCache != null ) {
+			final Map versionsEntity = snapshotCache.get( this, entityName, primaryKey, revision );
+			if ( versionsEntity != null ) {
+				if ( !includeDeletions
+						&& RevisionType.DEL.equals( versionsEntity.get( verCfg.getAuditEntCfg().getRevisionTypePropName() ) ) ) {
+					return null;
+				}
+				return (T) new EntityInstantiator( verCfg, this ).createInstanceFromVersionsEntity(
+						entityName,
+						versionsEntity,
+						revision
+				);
+			}
+		}
+
 		Object result;
 		try {
 			// The result is put into the cache by the entity instantiator called from the query
@@ -0,0 +1,270 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.internal.reader;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.logging.Logger;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.GeneralDataRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.envers.configuration.internal.AuditEntitiesConfiguration;
+import org.hibernate.envers.configuration.spi.AuditConfiguration;
+import org.hibernate.envers.internal.EnversLogging;
+import org.hibernate.internal.util.compare.EqualsHelper;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+
+/**
+ * Second level cache of audit data, shared by all versions readers of a session factory (see
+ * {@link org.hibernate.envers.configuration.EnversSettings#AUDIT_SNAPSHOT_CACHE}). It is stored in a region of the
+ * configured {@link org.hibernate.cache.spi.RegionFactory}.
+ * <p/>
+ * Only the audit data of an entity at a revision in which it was changed is cached: audit rows are never modified
+ * (except for the revision end columns, which are not cached), so the state of an entity at such a revision never
+ * changes, and the cache never has to be invalidated. The state of an entity at any other revision depends on
+ * whether a later change, up to that revision, has been audited yet, and is always read from the database.
+ *
+ */
+public class AuditSnapshotCache {
+	private static final Logger LOG = EnversLogging.logger( AuditSnapshotCache.class );
+
+	private final AuditConfiguration verCfg;
+	private final String regionName;
+
+	private volatile SessionFactoryImplementor sessionFactory;
+	private volatile GeneralDataRegion region;
+
+	public AuditSnapshotCache(AuditConfiguration verCfg) {
+		this.verCfg = verCfg;
+		this.regionName = verCfg.getGlobalCfg().getAuditSnapshotCacheRegion();
+	}
+
+	/**
+	 * Builds the cache region.
+	 *
+	 * @param sessionFactory Session factory, whose region factory stores the cached data.
+	 */
+	public void start(SessionFactoryImplementor sessionFactory) {
+		this.sessionFactory = sessionFactory;
+		final String prefix = sessionFactory.getSettings().getCacheRegionPrefix();
+		region = sessionFactory.getSettings().getRegionFactory().buildQueryResultsRegion(
+				prefix == null ? regionName : prefix + "." + regionName,
+				sessionFactory.getProperties()
+		);
+	}
+
+	/**
+	 * Releases the cache region.
+	 */
+	public void stop() {
+		final GeneralDataRegion region = this.region;
+		this.region = null;
+		if ( region != null ) {
+			try {
+				region.destroy();
+			}
+			catch (RuntimeException e) {
+				// The region factory may have been stopped already.
+				LOG.debugf( e, "Unable to destroy the audit snapshot cache region %s", region.getName() );
+			}
+		}
+	}
+
+	/**
+	 * @param versionsReader Versions reader.
+	 * @param entityName Name of the entity.
+	 * @param id Id of the entity.
+	 * @param revision Revision.
+	 *
+	 * @return A copy of the audit data of the given entity, if it was changed at the given revision and the data is
+	 *         cached, {@code null} otherwise.
+	 */
+	public Map get(AuditReaderImplementor versionsReader, String entityName, Object id, Number revision) {
+		final GeneralDataRegion region = this.region;
+		if ( region == null ) {
+			return null;
+		}
+		final Map cached;
+		try {
+			cached = (Map) region.get( new SnapshotKey( versionsReader, entityName, id, revision ) );
+		}
+		catch (CacheException e) {
+			LOG.debugf( e, "Unable to read from the audit snapshot cache" );
+			return null;
+		}
+		return cached == null ? null : new CachedAuditData( copy( cached ) );
+	}
+
+	/**
+	 * Caches the audit data of an entity, read at the given revision, if the entity was changed at that revision.
+	 *
+	 * @param versionsReader Versions reader, which read the data.
+	 * @param entityName Name of the entity.
+	 * @param id Id of the entity.
+	 * @param versionsEntity Audit data, as read from the database.
+	 * @param revision Revision, at which the data was read.
+	 */
+	@SuppressWarnings({"unchecked"})
+	public void put(
+			AuditReaderImplementor versionsReader, String entityName, Object id, Map versionsEntity,
+			Number revision) {
+		final GeneralDataRegion region = this.region;
+		if ( region == null || versionsEntity instanceof CachedAuditData ) {
+			return;
+		}
+
+		final AuditEntitiesConfiguration auditEntCfg = verCfg.getAuditEntCfg();
+		final Map originalId = (Map) versionsEntity.get( auditEntCfg.getOriginalIdPropName() );
+		final Number changeRevision = getRevisionNumber( originalId.get( auditEntCfg.getRevisionFieldName() ) );
+		if ( changeRevision == null || changeRevision.longValue() != revision.longValue() ) {
+			return;
+		}
+
+		final Map<Object, Object> cachedOriginalId = new HashMap<Object, Object>( originalId );
+		// The revision entity is bound to the session which read it.
+		cachedOriginalId.remove( auditEntCfg.getRevisionFieldName() );
+		final Map<Object, Object> cached = copy( versionsEntity );
+		cached.put( auditEntCfg.getOriginalIdPropName(), cachedOriginalId );
+		// Updated when the entity is changed again.
+		cached.remove( auditEntCfg.getRevisionEndFieldName() );
+		if ( auditEntCfg.isRevisionEndTimestampEnabled() ) {
+			cached.remove( auditEntCfg.getRevisionEndTimestampFieldName() );
+		}
+		if ( containsProxies( cached ) || containsProxies( cachedOriginalId ) ) {
+			// Proxies are bound to the session which created them.
+			return;
+		}
+
+		try {
+			region.put( new SnapshotKey( versionsReader, entityName, id, revision ), cached );
+		}
+		catch (CacheException e) {
+			LOG.debugf( e, "Unable to write to the audit snapshot cache" );
+		}
+	}
+
+	private Number getRevisionNumber(Object revisionEntity) {
+		if ( revisionEntity == null ) {
+			return null;
+		}
+		if ( revisionEntity instanceof HibernateProxy ) {
+			return (Number) ( (HibernateProxy) revisionEntity ).getHibernateLazyInitializer().getIdentifier();
+		}
+		return verCfg.getRevisionInfoNumberReader().getRevisionNumber( revisionEntity );
+	}
+
+	/**
+	 * Copies audit data, deep copying the values of mutable property types, so that entities created from cached data
+	 * never share state.
+	 */
+	@SuppressWarnings({"unchecked"})
+	private Map<Object, Object> copy(Map versionsEntity) {
+		final Map<Object, Object> copy = new HashMap<Object, Object>( versionsEntity );
+		final String originalIdPropName = verCfg.getAuditEntCfg().getOriginalIdPropName();
+		copy.put( originalIdPropName, new HashMap<Object, Object>( (Map) versionsEntity.get( originalIdPropName ) ) );
+
+		// The $type$ property holds the name of the (versions) entity
+		final String auditEntityName = (String) versionsEntity.get( "$type$" );
+		if ( auditEntityName == null ) {
+			return copy;
+		}
+		final EntityPersister persister = sessionFactory.getEntityPersister( auditEntityName );
+		final String[] propertyNames = persister.getPropertyNames();
+		final Type[] propertyTypes = persister.getPropertyTypes();
+		for ( int i = 0; i < propertyNames.length; i++ ) {
+			if ( copy.containsKey( propertyNames[i] ) && propertyTypes[i].isMutable() ) {
+				copy.put( propertyNames[i], propertyTypes[i].deepCopy( copy.get( propertyNames[i] ), sessionFactory ) );
+			}
+		}
+		return copy;
+	}
+
+	private static boolean containsProxies(Map<Object, Object> data) {
+		for ( Object value : data.values() ) {
+			if ( value instanceof HibernateProxy ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Copy of cached audit data, which may be modified while an entity is created from it.
+	 */
+	private static final class CachedAuditData extends HashMap<Object, Object> {
+		private CachedAuditData(Map<Object, Object> copy) {
+			super( copy );
+		}
+	}
+
+	private static final class SnapshotKey implements Serializable {
+		private final String entityName;
+		private final Object id;
+		private final long revision;
+		private final String tenantId;
+		private final int hashCode;
+
+		private SnapshotKey(AuditReaderImplementor versionsReader, String entityName, Object id, Number revision) {
+			this.entityName = entityName;
+			this.id = id;
+			this.revision = revision.longValue();
+			this.tenantId = versionsReader.getSessionImplementor().getTenantIdentifier();
+			int result = entityName.hashCode();
+			result = 31 * result + id.hashCode();
+			result = 31 * result + (int) ( this.revision ^ ( this.revision >>> 32 ) );
+			result = 31 * result + ( tenantId != null ? tenantId.hashCode() : 0 );
+			this.hashCode = result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( !( o instanceof SnapshotKey ) ) {
+				return false;
+			}
+			final SnapshotKey that = (SnapshotKey) o;
+			return revision == that.revision
+					&& entityName.equals( that.entityName )
+					&& id.equals( that.id )
+					&& EqualsHelper.equals( tenantId, that.tenantId );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return entityName + "#" + id + "@" + revision;
+		}
+	}
+}
@@ -0,0 +1,636 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.internal.synchronization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.envers.configuration.spi.AuditConfiguration;
+import org.hibernate.envers.exception.AuditException;
+import org.hibernate.envers.internal.EnversLogging;
+import org.hibernate.envers.internal.entities.mapper.PersistentCollectionChangeData;
+import org.hibernate.envers.strategy.AuditStrategy;
+import org.hibernate.event.spi.EventSource;
+
+/**
+ * Durable queue of audit work, written asynchronously (see
+ * {@link org.hibernate.envers.configuration.EnversSettings#ASYNC_AUDIT_QUEUE_DIRECTORY}).
+ * <p/>
+ * The revision entity is still persisted in the audited transaction. The audit data of the transaction is serialized
+ * to a file in the queue directory, which is synced before the transaction commits. The file is named after the
+ * revision number, with a {@code .pending} extension, which is changed to {@code .queued} once the transaction
+ * commits, and which is deleted if it rolls back. Files left pending by a crash are promoted or deleted depending on
+ * whether their revision exists, the first time the queue is processed.
+ * <p/>
+ * A background thread replays the queued audit data against the configured {@link AuditStrategy}, in the order of
+ * revision numbers, writing a batch of transactions at a time. Transactions may commit in a different order than
+ * their revision numbers; as strategies such as {@link org.hibernate.envers.strategy.ValidityAuditStrategy} depend on
+ * the previous revision being written first, a queued transaction is only replayed once all transactions of this
+ * JVM with a lower revision number have completed. A committed transaction whose file could not be renamed is
+ * retried each time the queue is processed. Audit data is written at least once; a transaction which can't be
+ * written is renamed to {@code .failed} and skipped.
+ *
+ */
+public class AsyncAuditQueue {
+	private static final Logger LOG = EnversLogging.logger( AsyncAuditQueue.class );
+
+	private static final String PENDING_SUFFIX = ".pending";
+	private static final String QUEUED_SUFFIX = ".queued";
+	private static final String FAILED_SUFFIX = ".failed";
+
+	private static final int MAGIC = 0x45415151;
+	private static final int FORMAT_VERSION = 1;
+
+	private final AuditConfiguration auditCfg;
+	private final AuditStrategy auditStrategy;
+	private final File directory;
+	private final long interval;
+	private final int batchSize;
+	private final long startTime;
+
+	/**
+	 * Revision numbers of the transactions of this JVM, whose audit data may still be queued.
+	 */
+	private final ConcurrentSkipListSet<Long> pendingRevisions = new ConcurrentSkipListSet<Long>();
+	/**
+	 * Files of committed transactions which could not be renamed to {@code .queued}, with their revision numbers.
+	 */
+	private final ConcurrentMap<File, Long> committedPendingFiles = new ConcurrentHashMap<File, Long>();
+
+	private volatile SessionFactory sessionFactory;
+	private ScheduledExecutorService executor;
+	private boolean recovered;
+
+	public AsyncAuditQueue(AuditConfiguration auditCfg, AuditStrategy auditStrategy) {
+		this.auditCfg = auditCfg;
+		this.auditStrategy = auditStrategy;
+		this.directory = new File( auditCfg.getGlobalCfg().getAsyncAuditQueueDirectory() );
+		this.interval = auditCfg.getGlobalCfg().getAsyncAuditInterval();
+		this.batchSize = auditCfg.getGlobalCfg().getAsyncAuditBatchSize();
+		this.startTime = System.currentTimeMillis();
+
+		if ( !directory.isDirectory() && !directory.mkdirs() ) {
+			throw new AuditException( "Unable to create the audit queue directory " + directory.getAbsolutePath() );
+		}
+	}
+
+	/**
+	 * @return The strategy writing the audit data, when the queue is processed.
+	 */
+	public AuditStrategy getAuditStrategy() {
+		return auditStrategy;
+	}
+
+	/**
+	 * Starts processing the queue in the background.
+	 *
+	 * @param sessionFactory Session factory used to write the audit data.
+	 */
+	public synchronized void start(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+		if ( interval <= 0 ) {
+			// Processed only on demand.
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable runnable) {
+						final Thread thread = new Thread( runnable, "hibernate-envers-async-audit" );
+						thread.setDaemon( true );
+						return thread;
+					}
+				}
+		);
+		executor.scheduleWithFixedDelay(
+				new Runnable() {
+					@Override
+					public void run() {
+						try {
+							while ( process() >= batchSize ) {
+								// More transactions are probably queued.
+							}
+						}
+						catch (RuntimeException e) {
+							LOG.error( "Unable to process the audit queue", e );
+						}
+					}
+				},
+				interval,
+				interval,
+				TimeUnit.MILLISECONDS
+		);
+	}
+
+	/**
+	 * Stops processing the queue. Queued audit data is kept, and written once the queue is started again.
+	 */
+	public void stop() {
+		final ScheduledExecutorService executor;
+		synchronized ( this ) {
+			executor = this.executor;
+			this.executor = null;
+		}
+		if ( executor != null ) {
+			executor.shutdown();
+			try {
+				if ( !executor.awaitTermination( 1, TimeUnit.MINUTES ) ) {
+					LOG.warn( "Timed out waiting for the audit queue to be processed" );
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		synchronized ( this ) {
+			sessionFactory = null;
+		}
+	}
+
+	void enqueueEntityChange(Session session, Object revision, String entityName, Serializable id, Object data) {
+		getQueuedTransaction( session, revision ).operations.add(
+				new QueuedOperation( entityName, null, id, null, data )
+		);
+	}
+
+	void enqueueCollectionChange(
+			Session session, Object revision, String entityName, String propertyName,
+			PersistentCollectionChangeData persistentCollectionChangeData) {
+		// The changed element is only used while generating the data.
+		getQueuedTransaction( session, revision ).operations.add(
+				new QueuedOperation(
+						entityName,
+						propertyName,
+						null,
+						persistentCollectionChangeData.getEntityName(),
+						persistentCollectionChangeData.getData()
+				)
+		);
+	}
+
+	/**
+	 * Records that the given revision has been persisted by a transaction of this JVM. Queued transactions with
+	 * higher revision numbers are not written until that transaction has completed.
+	 *
+	 * @param auditProcess Audit process of the transaction.
+	 * @param revision The revision entity.
+	 */
+	void registerRevision(AuditProcess auditProcess, Object revision) {
+		getQueuedTransaction( auditProcess, revision );
+	}
+
+	private QueuedTransaction getQueuedTransaction(Session session, Object revision) {
+		return getQueuedTransaction( auditCfg.getSyncManager().get( (EventSource) session ), revision );
+	}
+
+	private QueuedTransaction getQueuedTransaction(AuditProcess auditProcess, Object revision) {
+		QueuedTransaction queuedTransaction = (QueuedTransaction) auditProcess.getDeferredProcess( this );
+		if ( queuedTransaction == null ) {
+			queuedTransaction = new QueuedTransaction( auditProcess, revision );
+			auditProcess.registerDeferredProcess( this, queuedTransaction );
+		}
+		return queuedTransaction;
+	}
+
+	/**
+	 * Writes the next batch of queued transactions.
+	 *
+	 * @return Number of transactions processed.
+	 */
+	public synchronized int process() {
+		if ( sessionFactory == null ) {
+			return 0;
+		}
+		if ( !recovered ) {
+			recoverPendingFiles();
+			recovered = true;
+		}
+		queueCommittedPendingFiles();
+
+		// Read before listing the files: a transaction is queued before its revision is released.
+		final Long watermark = pendingRevisions.ceiling( Long.MIN_VALUE );
+		final File[] files = listFiles( QUEUED_SUFFIX );
+		int size = 0;
+		while ( size < files.length && size < batchSize
+				&& ( watermark == null || getRevisionNumber( files[size] ) < watermark ) ) {
+			size++;
+		}
+		if ( size == 0 ) {
+			return 0;
+		}
+		final List<File> batch = Arrays.asList( files ).subList( 0, size );
+		try {
+			write( batch );
+			delete( batch );
+		}
+		catch (RuntimeException e) {
+			if ( batch.size() == 1 ) {
+				quarantine( batch.get( 0 ), e );
+			}
+			else {
+				LOG.debugf( e, "Unable to write %s queued audit transactions at once, writing them separately", batch.size() );
+				for ( File file : batch ) {
+					try {
+						write( Collections.singletonList( file ) );
+						delete( Collections.singletonList( file ) );
+					}
+					catch (RuntimeException fileException) {
+						quarantine( file, fileException );
+					}
+				}
+			}
+		}
+		return batch.size();
+	}
+
+	private void write(List<File> files) {
+		final Session session = sessionFactory.openSession();
+		try {
+			final Transaction transaction = session.beginTransaction();
+			try {
+				for ( File file : files ) {
+					write( session, file );
+				}
+				transaction.commit();
+			}
+			catch (RuntimeException e) {
+				transaction.rollback();
+				throw e;
+			}
+		}
+		finally {
+			session.close();
+		}
+	}
+
+	private void write(Session session, File file) {
+		final QueuedTransactionReader reader = new QueuedTransactionReader( session, file );
+		final List<QueuedOperation> operations = reader.readOperations();
+		final Object revision = reader.getRevision();
+		for ( QueuedOperation operation : operations ) {
+			if ( operation.collectionEntityName == null ) {
+				auditStrategy.perform( session, operation.entityName, auditCfg, operation.id, operation.data, revision );
+			}
+			else {
+				@SuppressWarnings("unchecked")
+				final Map<String, Object> data = (Map<String, Object>) operation.data;
+				auditStrategy.performCollectionChange(
+						session,
+						operation.entityName,
+						operation.propertyName,
+						auditCfg,
+						new PersistentCollectionChangeData( operation.collectionEntityName, data, null ),
+						revision
+				);
+			}
+		}
+		auditCfg.getSyncManager().get( (EventSource) session ).executeDeferredProcesses( session );
+		session.flush();
+	}
+
+	private void recoverPendingFiles() {
+		for ( File file : listFiles( PENDING_SUFFIX ) ) {
+			if ( file.lastModified() >= startTime ) {
+				// Possibly written by a transaction which is still running.
+				continue;
+			}
+			final Session session = sessionFactory.openSession();
+			try {
+				final QueuedTransactionReader reader = new QueuedTransactionReader( session, file );
+				if ( reader.getRevision() != null ) {
+					rename( file, QUEUED_SUFFIX );
+				}
+				else {
+					delete( Collections.singletonList( file ) );
+				}
+			}
+			catch (RuntimeException e) {
+				quarantine( file, e );
+			}
+			finally {
+				session.close();
+			}
+		}
+	}
+
+	private void queueCommittedPendingFiles() {
+		for ( Map.Entry<File, Long> entry : committedPendingFiles.entrySet() ) {
+			try {
+				rename( entry.getKey(), QUEUED_SUFFIX );
+			}
+			catch (AuditException e) {
+				LOG.debug( e.getMessage() );
+				continue;
+			}
+			committedPendingFiles.remove( entry.getKey() );
+			pendingRevisions.remove( entry.getValue() );
+		}
+	}
+
+	private static long getRevisionNumber(File file) {
+		final String name = file.getName();
+		return Long.parseLong( name.substring( 0, name.indexOf( '-' ) ) );
+	}
+
+	private File[] listFiles(final String suffix) {
+		final File[] files = directory.listFiles(
+				new FilenameFilter() {
+					@Override
+					public boolean accept(File dir, String name) {
+						return name.endsWith( suffix );
+					}
+				}
+		);
+		if ( files == null ) {
+			throw new AuditException( "Unable to list the audit queue directory " + directory.getAbsolutePath() );
+		}
+		// File names start with the zero-padded revision number.
+		Arrays.sort( files );
+		return files;
+	}
+
+	private void quarantine(File file, RuntimeException e) {
+		LOG.errorf( e, "Unable to write the queued audit transaction %s, skipping it", file.getName() );
+		rename( file, FAILED_SUFFIX );
+	}
+
+	private static File rename(File file, String suffix) {
+		final String name = file.getName();
+		final File target = new File( file.getParentFile(), name.substring( 0, name.lastIndexOf( '.' ) ) + suffix );
+		if ( !file.renameTo( target ) ) {
+			throw new AuditException( "Unable to rename the audit queue file " + file.getAbsolutePath() );
+		}
+		return target;
+	}
+
+	private static void delete(List<File> files) {
+		for ( File file : files ) {
+			if ( !file.delete() && file.exists() ) {
+				LOG.warnf( "Unable to delete the audit queue file %s", file.getAbsolutePath() );
+			}
+		}
+	}
+
+	/**
+	 * Audit data of a single transaction, written to the queue directory before the transaction completes. The
+	 * revision is pending from the time it is persisted, until the transaction has completed.
+	 */
+	private class QueuedTransaction implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+		private final Object revision;
+		private final Number revisionNumber;
+		private final List<QueuedOperation> operations = new ArrayList<QueuedOperation>();
+		private File file;
+
+		private QueuedTransaction(AuditProcess auditProcess, Object revision) {
+			this.revision = revision;
+			this.revisionNumber = auditCfg.getRevisionInfoNumberReader().getRevisionNumber( revision );
+			pendingRevisions.add( revisionNumber.longValue() );
+			auditProcess.registerAfterTransactionCompletionProcess( this );
+		}
+
+		@Override
+		public void doBeforeTransactionCompletion(SessionImplementor session) {
+			if ( operations.isEmpty() ) {
+				return;
+			}
+
+			final File pendingFile = new File(
+					directory,
+					String.format( "%019d-%s%s", revisionNumber.longValue(), UUID.randomUUID(), PENDING_SUFFIX )
+			);
+			try {
+				final FileOutputStream fileOutput = new FileOutputStream( pendingFile );
+				try {
+					final ObjectOutputStream output = new RevisionReplacingOutputStream(
+							new BufferedOutputStream( fileOutput ),
+							revision
+					);
+					output.writeInt( MAGIC );
+					output.writeInt( FORMAT_VERSION );
+					output.writeObject( revisionNumber );
+					output.writeObject( operations );
+					output.flush();
+					fileOutput.getFD().sync();
+				}
+				finally {
+					fileOutput.close();
+				}
+			}
+			catch (IOException e) {
+				pendingFile.delete();
+				throw new AuditException( "Unable to write the audit data to the queue directory", e );
+			}
+			file = pendingFile;
+		}
+
+		@Override
+		public void doAfterTransactionCompletion(boolean success, SessionImplementor session) {
+			if ( file != null ) {
+				if ( success ) {
+					try {
+						rename( file, QUEUED_SUFFIX );
+					}
+					catch (AuditException e) {
+						// Retried when the queue is processed; later revisions wait until then.
+						LOG.warn( e.getMessage() );
+						committedPendingFiles.put( file, revisionNumber.longValue() );
+						return;
+					}
+				}
+				else {
+					delete( Collections.singletonList( file ) );
+				}
+			}
+			pendingRevisions.remove( revisionNumber.longValue() );
+		}
+	}
+
+	/**
+	 * Reads a queued transaction, resolving references to its revision entity in the given session.
+	 */
+	private class QueuedTransactionReader {
+		private final Session session;
+		private final File file;
+		private Serializable revisionNumber;
+		private Object revision;
+
+		private QueuedTransactionReader(Session session, File file) {
+			this.session = session;
+			this.file = file;
+			readOperations( false );
+		}
+
+		Object getRevision() {
+			return revision;
+		}
+
+		List<QueuedOperation> readOperations() {
+			if ( revision == null ) {
+				throw new AuditException( "Revision " + revisionNumber + " of the queued audit data does not exist" );
+			}
+			return readOperations( true );
+		}
+
+		@SuppressWarnings("unchecked")
+		private List<QueuedOperation> readOperations(boolean full) {
+			try {
+				final InputStream fileInput = new FileInputStream( file );
+				try {
+					final ObjectInputStream input = new RevisionResolvingInputStream(
+							new BufferedInputStream( fileInput ),
+							this
+					);
+					if ( input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION ) {
+						throw new AuditException( "Unsupported audit queue file " + file.getName() );
+					}
+					revisionNumber = (Serializable) input.readObject();
+					if ( revision == null ) {
+						revision = session.get(
+								auditCfg.getAuditEntCfg().getRevisionInfoEntityName(),
+								revisionNumber
+						);
+					}
+					return full ? (List<QueuedOperation>) input.readObject() : null;
+				}
+				finally {
+					fileInput.close();
+				}
+			}
+			catch (IOException e) {
+				throw new AuditException( "Unable to read the audit queue file " + file.getName(), e );
+			}
+			catch (ClassNotFoundException e) {
+				throw new AuditException( "Unable to read the audit queue file " + file.getName(), e );
+			}
+		}
+	}
+
+	private static class RevisionReplacingOutputStream extends ObjectOutputStream {
+		private final Object revision;
+
+		private RevisionReplacingOutputStream(OutputStream out, Object revision) throws IOException {
+			super( out );
+			this.revision = revision;
+			enableReplaceObject( true );
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			return obj == revision ? RevisionReference.INSTANCE : obj;
+		}
+	}
+
+	private class RevisionResolvingInputStream extends ObjectInputStream {
+		private final QueuedTransactionReader reader;
+
+		private RevisionResolvingInputStream(InputStream in, QueuedTransactionReader reader) throws IOException {
+			super( in );
+			this.reader = reader;
+			enableResolveObject( true );
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return super.resolveClass( desc );
+			}
+			catch (ClassNotFoundException e) {
+				if ( auditCfg.getClassLoaderService() == null ) {
+					throw e;
+				}
+				try {
+					return auditCfg.getClassLoaderService().classForName( desc.getName() );
+				}
+				catch (RuntimeException classLoadingException) {
+					throw e;
+				}
+			}
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			return obj instanceof RevisionReference ? reader.getRevision() : obj;
+		}
+	}
+
+	/**
+	 * Stands for the revision entity in serialized audit data.
+	 */
+	private static final class RevisionReference implements Serializable {
+		private static final RevisionReference INSTANCE = new RevisionReference();
+
+		private Object readResolve() {
+			return INSTANCE;
+		}
+	}
+
+	private static final class QueuedOperation implements Serializable {
+		private final String entityName;
+		private final String propertyName;
+		private final Serializable id;
+		private final String collectionEntityName;
+		private final Object data;
+
+		private QueuedOperation(
+				String entityName, String propertyName, Serializable id, String collectionEntityName, Object data) {
+			this.entityName = entityName;
+			this.propertyName = propertyName;
+			this.id = id;
+			this.collectionEntityName = collectionEntityName;
+			this.data = data;
+		}
+	}
+}
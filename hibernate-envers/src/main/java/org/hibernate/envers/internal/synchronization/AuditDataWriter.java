@@ -0,0 +1,95 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.internal.synchronization;
+
+import java.io.Serializable;
+
+import org.hibernate.Session;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.envers.configuration.spi.AuditConfiguration;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.id.PostInsertIdentifierGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Saves audit data (entity snapshots and collection changes) on behalf of the audit strategies.
+ * <p/>
+ * By default the data is saved through the session, and evicted from it after transaction completion (see
+ * {@link SessionCacheCleaner}). When {@link org.hibernate.envers.configuration.EnversSettings#STATELESS_AUDIT_WRITES}
+ * is enabled, the rows are handed directly to the insert statements of the audit entity persisters, which add them to
+ * the JDBC batch of the session, so that audit rows never enter the persistence context.
+ *
+ */
+public class AuditDataWriter {
+	private final SessionCacheCleaner sessionCacheCleaner = new SessionCacheCleaner();
+
+	/**
+	 * Saves audit data.
+	 *
+	 * @param session Active Hibernate session.
+	 * @param auditCfg Audit configuration.
+	 * @param auditEntityName Name of the audit entity.
+	 * @param data Audit data.
+	 */
+	public void save(Session session, AuditConfiguration auditCfg, String auditEntityName, Object data) {
+		final SessionImplementor sessionImplementor = (SessionImplementor) session;
+		final EntityPersister persister = sessionImplementor.getFactory().getEntityPersister( auditEntityName );
+		if ( !auditCfg.getGlobalCfg().isStatelessAuditWrites()
+				|| persister.getIdentifierGenerator() instanceof PostInsertIdentifierGenerator ) {
+			session.save( auditEntityName, data );
+			sessionCacheCleaner.scheduleAuditDataRemoval( session, data );
+			return;
+		}
+
+		final AuditProcess auditProcess = auditCfg.getSyncManager().get( (EventSource) session );
+		if ( auditProcess.getDeferredProcess( this ) == null ) {
+			// The revision entity, referenced by all audit rows, has to be inserted before them.
+			session.flush();
+			auditProcess.registerDeferredProcess(
+					this,
+					new BeforeTransactionCompletionProcess() {
+						@Override
+						public void doBeforeTransactionCompletion(SessionImplementor session) {
+							executePendingWrites( (Session) session );
+						}
+					}
+			);
+		}
+
+		final Serializable id = persister.getIdentifierGenerator().generate( sessionImplementor, data );
+		final Object[] state = persister.getPropertyValuesToInsert( data, null, sessionImplementor );
+		persister.insert( id, state, data, sessionImplementor );
+	}
+
+	/**
+	 * Executes audit rows which have been written, but are still waiting in the current JDBC batch. Has to be called
+	 * before querying audit tables within the audit process.
+	 *
+	 * @param session Active Hibernate session.
+	 */
+	public void executePendingWrites(Session session) {
+		( (SessionImplementor) session ).getTransactionCoordinator().getJdbcCoordinator().executeBatch();
+	}
+}
@@ -23,14 +23,18 @@
  */
 package org.hibernate.envers.internal.synchronization;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 
 import org.hibernate.ConnectionReleaseMode;
 import org.hibernate.FlushMode;
 import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
 import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.envers.internal.revisioninfo.RevisionInfoGenerator;
@@ -42,23 +46,82 @@ import org.hibernate.envers.tools.Pair;
  */
 public class AuditProcess implements BeforeTransactionCompletionProcess {
 	private final RevisionInfoGenerator revisionInfoGenerator;
+	private final AsyncAuditQueue asyncAuditQueue;
 	private final SessionImplementor session;
 
 	private final LinkedList<AuditWorkUnit> workUnits;
 	private final Queue<AuditWorkUnit> undoQueue;
 	private final Map<Pair<String, Object>, AuditWorkUnit> usedIds;
 	private final EntityChangeNotifier entityChangeNotifier;
+	private final Map<Object, BeforeTransactionCompletionProcess> deferredProcesses;
+	private final List<AfterTransactionCompletionProcess> afterTransactionCompletionProcesses;
 
 	private Object revisionData;
 
 	public AuditProcess(RevisionInfoGenerator revisionInfoGenerator, SessionImplementor session) {
+		this( revisionInfoGenerator, null, session );
+	}
+
+	public AuditProcess(
+			RevisionInfoGenerator revisionInfoGenerator, AsyncAuditQueue asyncAuditQueue, SessionImplementor session) {
 		this.revisionInfoGenerator = revisionInfoGenerator;
+		this.asyncAuditQueue = asyncAuditQueue;
 		this.session = session;
 
 		workUnits = new LinkedList<AuditWorkUnit>();
 		undoQueue = new LinkedList<AuditWorkUnit>();
 		usedIds = new HashMap<Pair<String, Object>, AuditWorkUnit>();
 		entityChangeNotifier = new EntityChangeNotifier( revisionInfoGenerator, session );
+		deferredProcesses = new LinkedHashMap<Object, BeforeTransactionCompletionProcess>();
+		afterTransactionCompletionProcesses = new ArrayList<AfterTransactionCompletionProcess>();
+	}
+
+	/**
+	 * @param key Key under which the process has been registered.
+	 *
+	 * @return Process registered through {@link #registerDeferredProcess}, which has not been executed yet.
+	 */
+	public BeforeTransactionCompletionProcess getDeferredProcess(Object key) {
+		return deferredProcesses.get( key );
+	}
+
+	/**
+	 * Registers a process executed once all queued work units have been performed, in the same session. This allows
+	 * audit strategies to accumulate work (e.g. updates of previous audit rows) and execute it in bulk.
+	 *
+	 * @param key Key, under which the process can be looked up until it is executed.
+	 * @param process Process to execute.
+	 */
+	public void registerDeferredProcess(Object key, BeforeTransactionCompletionProcess process) {
+		deferredProcesses.put( key, process );
+	}
+
+	/**
+	 * Executes the processes registered through {@link #registerDeferredProcess}. Happens automatically once the work
+	 * units of this process have been performed; has to be called explicitly when the audit strategy is invoked
+	 * outside of the work units (e.g. when replaying queued audit work).
+	 *
+	 * @param session Session, in which the work units have been performed.
+	 */
+	public void executeDeferredProcesses(Session session) {
+		if ( !deferredProcesses.isEmpty() ) {
+			final BeforeTransactionCompletionProcess[] processes = deferredProcesses.values().toArray(
+					new BeforeTransactionCompletionProcess[deferredProcesses.size()]
+			);
+			deferredProcesses.clear();
+			for ( BeforeTransactionCompletionProcess process : processes ) {
+				process.doBeforeTransactionCompletion( (SessionImplementor) session );
+			}
+		}
+	}
+
+	/**
+	 * Registers a process executed after completion of the transaction this audit process belongs to.
+	 *
+	 * @param process Process to execute.
+	 */
+	public void registerAfterTransactionCompletionProcess(AfterTransactionCompletionProcess process) {
+		afterTransactionCompletionProcesses.add( process );
 	}
 
 	private void removeWorkUnit(AuditWorkUnit vwu) {
@@ -119,6 +182,8 @@ public class AuditProcess implements BeforeTransactionCompletionProcess {
 			vwu.perform( session, revisionData );
 			entityChangeNotifier.entityChanged( session, currentRevisionData, vwu );
 		}
+
+		executeDeferredProcesses( session );
 	}
 
 	public Object getCurrentRevisionData(Session session, boolean persist) {
@@ -130,6 +195,10 @@ public class AuditProcess implements BeforeTransactionCompletionProcess {
 		// Saving the revision data, if not yet saved and persist is true
 		if ( !session.contains( revisionData ) && persist ) {
 			revisionInfoGenerator.saveRevisionData( session, revisionData );
+			if ( asyncAuditQueue != null ) {
+				// The revision number is known from now on; later revisions are held back until this one completes.
+				asyncAuditQueue.registerRevision( this, revisionData );
+			}
 		}
 
 		return revisionData;
@@ -164,4 +233,11 @@ public class AuditProcess implements BeforeTransactionCompletionProcess {
 			session.flush();
 		}
 	}
+
+	public void doAfterTransactionCompletion(boolean success, SessionImplementor session) {
+		for ( AfterTransactionCompletionProcess process : afterTransactionCompletionProcesses ) {
+			process.doAfterTransactionCompletion( success, session );
+		}
+		afterTransactionCompletionProcesses.clear();
+	}
 }
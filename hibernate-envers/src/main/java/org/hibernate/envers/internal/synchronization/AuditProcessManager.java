@@ -39,11 +39,17 @@ import org.hibernate.event.spi.EventSource;
 public class AuditProcessManager {
 	private final Map<Transaction, AuditProcess> auditProcesses;
 	private final RevisionInfoGenerator revisionInfoGenerator;
+	private final AsyncAuditQueue asyncAuditQueue;
 
 	public AuditProcessManager(RevisionInfoGenerator revisionInfoGenerator) {
+		this( revisionInfoGenerator, null );
+	}
+
+	public AuditProcessManager(RevisionInfoGenerator revisionInfoGenerator, AsyncAuditQueue asyncAuditQueue) {
 		auditProcesses = new ConcurrentHashMap<Transaction, AuditProcess>();
 
 		this.revisionInfoGenerator = revisionInfoGenerator;
+		this.asyncAuditQueue = asyncAuditQueue;
 	}
 
 	public AuditProcess get(EventSource session) {
@@ -52,7 +58,7 @@ public class AuditProcessManager {
 		AuditProcess auditProcess = auditProcesses.get( transaction );
 		if ( auditProcess == null ) {
 			// No worries about registering a transaction twice - a transaction is single thread
-			auditProcess = new AuditProcess( revisionInfoGenerator, session );
+			auditProcess = new AuditProcess( revisionInfoGenerator, asyncAuditQueue, session );
 			auditProcesses.put( transaction, auditProcess );
 
 			session.getActionQueue().registerProcess(
@@ -69,7 +75,10 @@ public class AuditProcessManager {
 			session.getActionQueue().registerProcess(
 					new AfterTransactionCompletionProcess() {
 						public void doAfterTransactionCompletion(boolean success, SessionImplementor session) {
-							auditProcesses.remove( transaction );
+							final AuditProcess process = auditProcesses.remove( transaction );
+							if ( process != null ) {
+								process.doAfterTransactionCompletion( success, session );
+							}
 						}
 					}
 			);
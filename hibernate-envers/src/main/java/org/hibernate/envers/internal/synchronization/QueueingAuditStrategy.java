@@ -0,0 +1,98 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.internal.synchronization;
+
+import java.io.Serializable;
+
+import org.hibernate.Session;
+import org.hibernate.envers.configuration.internal.GlobalConfiguration;
+import org.hibernate.envers.configuration.spi.AuditConfiguration;
+import org.hibernate.envers.internal.entities.mapper.PersistentCollectionChangeData;
+import org.hibernate.envers.internal.entities.mapper.relation.MiddleComponentData;
+import org.hibernate.envers.internal.entities.mapper.relation.MiddleIdData;
+import org.hibernate.envers.internal.tools.query.Parameters;
+import org.hibernate.envers.internal.tools.query.QueryBuilder;
+import org.hibernate.envers.strategy.AuditStrategy;
+
+/**
+ * Audit strategy used when {@link org.hibernate.envers.configuration.EnversSettings#ASYNC_AUDIT_QUEUE_DIRECTORY} is
+ * set. Instead of writing the audit data, it is recorded in an {@link AsyncAuditQueue}, which later replays it against
+ * the configured strategy. Query restrictions are delegated to the configured strategy.
+ *
+ */
+public class QueueingAuditStrategy implements AuditStrategy {
+	private final AuditStrategy delegate;
+	private final AsyncAuditQueue queue;
+
+	public QueueingAuditStrategy(AuditStrategy delegate, AsyncAuditQueue queue) {
+		this.delegate = delegate;
+		this.queue = queue;
+	}
+
+	/**
+	 * @return The strategy writing the audit data, when the queue is processed.
+	 */
+	public AuditStrategy getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public void perform(
+			Session session, String entityName, AuditConfiguration auditCfg, Serializable id, Object data,
+			Object revision) {
+		queue.enqueueEntityChange( session, revision, entityName, id, data );
+	}
+
+	@Override
+	public void performCollectionChange(
+			Session session, String entityName, String propertyName, AuditConfiguration auditCfg,
+			PersistentCollectionChangeData persistentCollectionChangeData, Object revision) {
+		queue.enqueueCollectionChange( session, revision, entityName, propertyName, persistentCollectionChangeData );
+	}
+
+	@Override
+	public void addEntityAtRevisionRestriction(
+			GlobalConfiguration globalCfg, QueryBuilder rootQueryBuilder, Parameters parameters,
+			String revisionProperty, String revisionEndProperty, boolean addAlias, MiddleIdData idData,
+			String revisionPropertyPath, String originalIdPropertyName, String alias1, String alias2,
+			boolean inclusive) {
+		delegate.addEntityAtRevisionRestriction(
+				globalCfg, rootQueryBuilder, parameters, revisionProperty, revisionEndProperty, addAlias, idData,
+				revisionPropertyPath, originalIdPropertyName, alias1, alias2, inclusive
+		);
+	}
+
+	@Override
+	public void addAssociationAtRevisionRestriction(
+			QueryBuilder rootQueryBuilder, Parameters parameters, String revisionProperty,
+			String revisionEndProperty, boolean addAlias, MiddleIdData referencingIdData,
+			String versionsMiddleEntityName, String eeOriginalIdPropertyPath, String revisionPropertyPath,
+			String originalIdPropertyName, String alias1, boolean inclusive, MiddleComponentData... componentDatas) {
+		delegate.addAssociationAtRevisionRestriction(
+				rootQueryBuilder, parameters, revisionProperty, revisionEndProperty, addAlias, referencingIdData,
+				versionsMiddleEntityName, eeOriginalIdPropertyPath, revisionPropertyPath, originalIdPropertyName,
+				alias1, inclusive, componentDatas
+		);
+	}
+}
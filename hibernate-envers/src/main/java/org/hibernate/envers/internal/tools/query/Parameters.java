@@ -267,6 +267,19 @@ public class Parameters {
 		expressions.add( expression.toString() );
 	}
 
+	/**
+	 * Adds <code>NOT EXISTS</code> restriction.
+	 *
+	 * @param subQuery Sub-query, which must not return any rows.
+	 */
+	public void addNotExistsRestriction(QueryBuilder subQuery) {
+		final StringBuilder expression = new StringBuilder( "not exists (" );
+		subQuery.build( expression, localQueryParamValues );
+		expression.append( ")" );
+
+		expressions.add( expression.toString() );
+	}
+
 	private void append(StringBuilder sb, String toAppend, MutableBoolean isFirst) {
 		if ( !isFirst.isSet() ) {
 			sb.append( " " ).append( connective ).append( " " );
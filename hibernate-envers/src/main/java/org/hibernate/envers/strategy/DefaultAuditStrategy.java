@@ -8,7 +8,7 @@ import org.hibernate.envers.configuration.spi.AuditConfiguration;
 import org.hibernate.envers.internal.entities.mapper.PersistentCollectionChangeData;
 import org.hibernate.envers.internal.entities.mapper.relation.MiddleComponentData;
 import org.hibernate.envers.internal.entities.mapper.relation.MiddleIdData;
-import org.hibernate.envers.internal.synchronization.SessionCacheCleaner;
+import org.hibernate.envers.internal.synchronization.AuditDataWriter;
 import org.hibernate.envers.internal.tools.query.Parameters;
 import org.hibernate.envers.internal.tools.query.QueryBuilder;
 
@@ -22,24 +22,37 @@ import static org.hibernate.envers.internal.entities.mapper.relation.query.Query
  * @author Stephanie Pau
  */
 public class DefaultAuditStrategy implements AuditStrategy {
-	private final SessionCacheCleaner sessionCacheCleaner;
+	private final AuditDataWriter auditDataWriter;
+	private boolean notExistsRevisionRestriction;
 
 	public DefaultAuditStrategy() {
-		sessionCacheCleaner = new SessionCacheCleaner();
+		auditDataWriter = new AuditDataWriter();
+	}
+
+	/**
+	 * @param notExistsRevisionRestriction Whether to restrict the revision of entities and associations with a
+	 * {@code NOT EXISTS} sub-query instead of a {@code max(...)} sub-query, see
+	 * {@link org.hibernate.envers.configuration.EnversSettings#USE_NOT_EXISTS_REVISION_RESTRICTION}.
+	 */
+	public void setNotExistsRevisionRestriction(boolean notExistsRevisionRestriction) {
+		this.notExistsRevisionRestriction = notExistsRevisionRestriction;
 	}
 
 	public void perform(
 			Session session, String entityName, AuditConfiguration auditCfg, Serializable id, Object data,
 			Object revision) {
-		session.save( auditCfg.getAuditEntCfg().getAuditEntityName( entityName ), data );
-		sessionCacheCleaner.scheduleAuditDataRemoval( session, data );
+		auditDataWriter.save( session, auditCfg, auditCfg.getAuditEntCfg().getAuditEntityName( entityName ), data );
 	}
 
 	public void performCollectionChange(
 			Session session, String entityName, String propertyName, AuditConfiguration auditCfg,
 			PersistentCollectionChangeData persistentCollectionChangeData, Object revision) {
-		session.save( persistentCollectionChangeData.getEntityName(), persistentCollectionChangeData.getData() );
-		sessionCacheCleaner.scheduleAuditDataRemoval( session, persistentCollectionChangeData.getData() );
+		auditDataWriter.save(
+				session,
+				auditCfg,
+				persistentCollectionChangeData.getEntityName(),
+				persistentCollectionChangeData.getData()
+		);
 	}
 
 
@@ -56,6 +69,14 @@ public class DefaultAuditStrategy implements AuditStrategy {
 			String alias1,
 			String alias2,
 			boolean inclusive) {
+		if ( notExistsRevisionRestriction ) {
+			addEntityAtRevisionNotExistsRestriction(
+					rootQueryBuilder, parameters, revisionProperty, addAlias, idData, revisionPropertyPath,
+					originalIdPropertyName, alias1, alias2, inclusive
+			);
+			return;
+		}
+
 		// create a subquery builder
 		// SELECT max(e.revision) FROM versionsReferencedEntity e2
 		QueryBuilder maxERevQb = rootQueryBuilder.newSubQueryBuilder( idData.getAuditEntityName(), alias2 );
@@ -89,6 +110,15 @@ public class DefaultAuditStrategy implements AuditStrategy {
 			String alias1,
 			boolean inclusive,
 			MiddleComponentData... componentDatas) {
+		if ( notExistsRevisionRestriction ) {
+			addAssociationAtRevisionNotExistsRestriction(
+					rootQueryBuilder, parameters, revisionProperty, addAlias, referencingIdData,
+					versionsMiddleEntityName, eeOriginalIdPropertyPath, revisionPropertyPath, originalIdPropertyName,
+					alias1, inclusive, componentDatas
+			);
+			return;
+		}
+
 		// SELECT max(ee2.revision) FROM middleEntity ee2
 		QueryBuilder maxEeRevQb = rootQueryBuilder.newSubQueryBuilder(
 				versionsMiddleEntityName,
@@ -120,4 +150,96 @@ public class DefaultAuditStrategy implements AuditStrategy {
 		parameters.addWhere( revisionProperty, addAlias, "=", maxEeRevQb );
 	}
 
+	/**
+	 * Restricts the revision of an entity to the latest one not after the given revision, by checking that no later
+	 * such revision exists. Unlike the correlated {@code max(...)} sub-query, this can be executed as an anti-join.
+	 */
+	private void addEntityAtRevisionNotExistsRestriction(
+			QueryBuilder rootQueryBuilder,
+			Parameters parameters,
+			String revisionProperty,
+			boolean addAlias,
+			MiddleIdData idData,
+			String revisionPropertyPath,
+			String originalIdPropertyName,
+			String alias1,
+			String alias2,
+			boolean inclusive) {
+		// e.revision <= :revision
+		parameters.addWhereWithNamedParam( revisionProperty, addAlias, inclusive ? "<=" : "<", REVISION_PARAMETER );
+		// SELECT e2.revision FROM versionsReferencedEntity e2
+		QueryBuilder laterRevQb = rootQueryBuilder.newSubQueryBuilder( idData.getAuditEntityName(), alias2 );
+		laterRevQb.addProjection( null, revisionPropertyPath, false );
+		// WHERE
+		Parameters laterRevQbParameters = laterRevQb.getRootParameters();
+		// e2.revision <= :revision
+		laterRevQbParameters.addWhereWithNamedParam( revisionPropertyPath, inclusive ? "<=" : "<", REVISION_PARAMETER );
+		// e2.revision > e.revision
+		laterRevQbParameters.addWhere(
+				revisionPropertyPath, true, ">", addAlias ? alias1 + "." + revisionProperty : revisionProperty, false
+		);
+		// e2.id_ref_ed = e.id_ref_ed
+		idData.getOriginalMapper().addIdsEqualToQuery(
+				laterRevQbParameters,
+				alias1 + "." + originalIdPropertyName, alias2 + "." + originalIdPropertyName
+		);
+
+		// add subquery to rootParameters
+		parameters.addNotExistsRestriction( laterRevQb );
+	}
+
+	/**
+	 * Restricts the revision of a middle-entity association in the same way as
+	 * {@link #addEntityAtRevisionNotExistsRestriction}.
+	 */
+	private void addAssociationAtRevisionNotExistsRestriction(
+			QueryBuilder rootQueryBuilder,
+			Parameters parameters,
+			String revisionProperty,
+			boolean addAlias,
+			MiddleIdData referencingIdData,
+			String versionsMiddleEntityName,
+			String eeOriginalIdPropertyPath,
+			String revisionPropertyPath,
+			String originalIdPropertyName,
+			String alias1,
+			boolean inclusive,
+			MiddleComponentData... componentDatas) {
+		// ee.revision <= :revision
+		parameters.addWhereWithNamedParam( revisionProperty, addAlias, inclusive ? "<=" : "<", REVISION_PARAMETER );
+		// SELECT ee2.revision FROM middleEntity ee2
+		QueryBuilder laterEeRevQb = rootQueryBuilder.newSubQueryBuilder(
+				versionsMiddleEntityName,
+				MIDDLE_ENTITY_ALIAS_DEF_AUD_STR
+		);
+		laterEeRevQb.addProjection( null, revisionPropertyPath, false );
+		// WHERE
+		Parameters laterEeRevQbParameters = laterEeRevQb.getRootParameters();
+		// ee2.revision <= :revision
+		laterEeRevQbParameters.addWhereWithNamedParam( revisionPropertyPath, inclusive ? "<=" : "<", REVISION_PARAMETER );
+		// ee2.revision > ee.revision
+		laterEeRevQbParameters.addWhere(
+				revisionPropertyPath, true, ">", addAlias ? alias1 + "." + revisionProperty : revisionProperty, false
+		);
+		// ee2.originalId.* = ee.originalId.*
+		String ee2OriginalIdPropertyPath = MIDDLE_ENTITY_ALIAS_DEF_AUD_STR + "." + originalIdPropertyName;
+		referencingIdData.getPrefixedMapper().addIdsEqualToQuery(
+				laterEeRevQbParameters,
+				eeOriginalIdPropertyPath,
+				ee2OriginalIdPropertyPath
+		);
+		for ( MiddleComponentData componentData : componentDatas ) {
+			componentData.getComponentMapper().addMiddleEqualToQuery(
+					laterEeRevQbParameters,
+					eeOriginalIdPropertyPath,
+					alias1,
+					ee2OriginalIdPropertyPath,
+					MIDDLE_ENTITY_ALIAS_DEF_AUD_STR
+			);
+		}
+
+		// add subquery to rootParameters
+		parameters.addNotExistsRestriction( laterEeRevQb );
+	}
+
 }
@@ -4,15 +4,23 @@ import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.hibernate.LockOptions;
 import org.hibernate.Session;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.envers.RevisionType;
@@ -22,6 +30,8 @@ import org.hibernate.envers.configuration.spi.AuditConfiguration;
 import org.hibernate.envers.internal.entities.mapper.PersistentCollectionChangeData;
 import org.hibernate.envers.internal.entities.mapper.relation.MiddleComponentData;
 import org.hibernate.envers.internal.entities.mapper.relation.MiddleIdData;
+import org.hibernate.envers.internal.synchronization.AuditDataWriter;
+import org.hibernate.envers.internal.synchronization.AuditProcess;
 import org.hibernate.envers.internal.synchronization.SessionCacheCleaner;
 import org.hibernate.envers.internal.tools.query.Parameters;
 import org.hibernate.envers.internal.tools.query.QueryBuilder;
@@ -77,8 +87,17 @@ public class ValidityAuditStrategy implements AuditStrategy {
 
 	private final SessionCacheCleaner sessionCacheCleaner;
 
+	private final AuditDataWriter auditDataWriter;
+
+	/**
+	 * SQL and types needed to set the end revision of previous audit rows, per audit entity name
+	 */
+	private final ConcurrentMap<String, RevisionEndUpdate> revisionEndUpdates =
+			new ConcurrentHashMap<String, RevisionEndUpdate>();
+
 	public ValidityAuditStrategy() {
 		sessionCacheCleaner = new SessionCacheCleaner();
+		auditDataWriter = new AuditDataWriter();
 	}
 
 	public void perform(
@@ -90,13 +109,10 @@ public class ValidityAuditStrategy implements AuditStrategy {
 			final Object revision) {
 		final AuditEntitiesConfiguration audEntitiesCfg = auditCfg.getAuditEntCfg();
 		final String auditedEntityName = audEntitiesCfg.getAuditEntityName( entityName );
-		final String revisionInfoEntityName = auditCfg.getAuditEntCfg().getRevisionInfoEntityName();
 		final SessionImplementor sessionImplementor = (SessionImplementor) session;
-		final Dialect dialect = sessionImplementor.getFactory().getDialect();
 
 		// Save the audit data
-		session.save( auditedEntityName, data );
-		sessionCacheCleaner.scheduleAuditDataRemoval( session, data );
+		auditDataWriter.save( session, auditCfg, auditedEntityName, data );
 
 		// Update the end date of the previous row.
 		//
@@ -106,151 +122,111 @@ public class ValidityAuditStrategy implements AuditStrategy {
 		// reused, this guarantees correct strategy behavior: exactly one row with
 		// null end date exists for each identifier.
 		final boolean reuseEntityIdentifier = auditCfg.getGlobalCfg().isAllowIdentifierReuse();
-		if ( reuseEntityIdentifier || getRevisionType( auditCfg, data ) != RevisionType.ADD ) {
-			final Queryable productionEntityQueryable = getQueryable( entityName, sessionImplementor );
-			final Queryable rootProductionEntityQueryable = getQueryable(
-					productionEntityQueryable.getRootEntityName(),
-					sessionImplementor
-			);
-			final Queryable auditedEntityQueryable = getQueryable( auditedEntityName, sessionImplementor );
-			final Queryable rootAuditedEntityQueryable = getQueryable(
-					auditedEntityQueryable.getRootEntityName(),
-					sessionImplementor
-			);
-			final Queryable revisionInfoEntityQueryable = getQueryable( revisionInfoEntityName, sessionImplementor );
-
-			final String updateTableName;
-			if ( UnionSubclassEntityPersister.class.isInstance( rootProductionEntityQueryable ) ) {
-				// this is the condition causing all the problems in terms of the generated SQL UPDATE
-				// the problem being that we currently try to update the in-line view made up of the union query
-				//
-				// this is extremely hacky means to get the root table name for the union subclass style entities.
-				// hacky because it relies on internal behavior of UnionSubclassEntityPersister
-				// !!!!!! NOTICE - using subclass persister, not root !!!!!!
-				updateTableName = auditedEntityQueryable.getSubclassTableName( 0 );
-			}
-			else {
-				updateTableName = rootAuditedEntityQueryable.getTableName();
+		final boolean added = getRevisionType( auditCfg, data ) == RevisionType.ADD;
+		if ( reuseEntityIdentifier || !added ) {
+			// The updates are collected for the whole audit process and executed in JDBC batches, once all
+			// audit rows of the revision have been saved.
+			final AuditProcess auditProcess = auditCfg.getSyncManager().get( (EventSource) session );
+			RevisionEndUpdates revisionEndUpdates = (RevisionEndUpdates) auditProcess.getDeferredProcess( this );
+			if ( revisionEndUpdates == null ) {
+				revisionEndUpdates = new RevisionEndUpdates( auditCfg, revision );
+				auditProcess.registerDeferredProcess( this, revisionEndUpdates );
 			}
-
-
-			// first we need to flush the session in order to have the new audit data inserted
-			// todo: expose org.hibernate.internal.SessionImpl.autoFlushIfRequired via SessionImplementor
-			// for now, we duplicate some of that logic here
-			autoFlushIfRequired( sessionImplementor, rootAuditedEntityQueryable, revisionInfoEntityQueryable );
-
-			final Type revisionInfoIdType = sessionImplementor.getFactory()
-					.getEntityPersister( revisionInfoEntityName )
-					.getIdentifierType();
-			final String revEndColumnName = rootAuditedEntityQueryable.toColumns(
-					auditCfg.getAuditEntCfg()
-							.getRevisionEndFieldName()
-			)[0];
-
-			final boolean isRevisionEndTimestampEnabled = auditCfg.getAuditEntCfg().isRevisionEndTimestampEnabled();
-
-			// update audit_ent set REVEND = ? [, REVEND_TSTMP = ?] where (prod_ent_id) = ? and REV <> ? and REVEND is null
-			final Update update = new Update( dialect ).setTableName( updateTableName );
-			// set REVEND = ?
-			update.addColumn( revEndColumnName );
-			// set [, REVEND_TSTMP = ?]
-			if ( isRevisionEndTimestampEnabled ) {
-				update.addColumn(
-						rootAuditedEntityQueryable.toColumns(
-								auditCfg.getAuditEntCfg().getRevisionEndTimestampFieldName()
-						)[0]
-				);
-			}
-
-			// where (prod_ent_id) = ?
-			update.addPrimaryKeyColumns( rootProductionEntityQueryable.getIdentifierColumnNames() );
-			// where REV <> ?
-			update.addWhereColumn(
-					rootAuditedEntityQueryable.toColumns(
-							auditCfg.getAuditEntCfg().getRevisionNumberPath()
-					)[0],
-					"<> ?"
+			revisionEndUpdates.add(
+					getRevisionEndUpdate( entityName, auditedEntityName, auditCfg, sessionImplementor ),
+					id,
+					!reuseEntityIdentifier || !added
 			);
-			// where REVEND is null
-			update.addWhereColumn( revEndColumnName, " is null" );
-
-			// Now lets execute the sql...
-			final String updateSql = update.toStatementString();
+		}
+	}
 
-			int rowCount = session.doReturningWork(
-					new ReturningWork<Integer>() {
-						@Override
-						public Integer execute(Connection connection) throws SQLException {
-							PreparedStatement preparedStatement = sessionImplementor.getTransactionCoordinator()
-									.getJdbcCoordinator()
-									.getStatementPreparer()
-									.prepareStatement( updateSql );
+	private RevisionEndUpdate getRevisionEndUpdate(
+			String entityName,
+			String auditedEntityName,
+			AuditConfiguration auditCfg,
+			SessionImplementor sessionImplementor) {
+		RevisionEndUpdate revisionEndUpdate = revisionEndUpdates.get( auditedEntityName );
+		if ( revisionEndUpdate == null ) {
+			revisionEndUpdate = buildRevisionEndUpdate( entityName, auditedEntityName, auditCfg, sessionImplementor );
+			revisionEndUpdates.put( auditedEntityName, revisionEndUpdate );
+		}
+		return revisionEndUpdate;
+	}
 
-							try {
-								int index = 1;
-
-								// set REVEND = ?
-								final Number revisionNumber = auditCfg.getRevisionInfoNumberReader().getRevisionNumber(
-										revision
-								);
-								revisionInfoIdType.nullSafeSet(
-										preparedStatement,
-										revisionNumber,
-										index,
-										sessionImplementor
-								);
-								index += revisionInfoIdType.getColumnSpan( sessionImplementor.getFactory() );
-
-								// set [, REVEND_TSTMP = ?]
-								if ( isRevisionEndTimestampEnabled ) {
-									final Object revEndTimestampObj = revisionTimestampGetter.get( revision );
-									final Date revisionEndTimestamp = convertRevEndTimestampToDate( revEndTimestampObj );
-									final Type revEndTsType = rootAuditedEntityQueryable.getPropertyType(
-											auditCfg.getAuditEntCfg().getRevisionEndTimestampFieldName()
-									);
-									revEndTsType.nullSafeSet(
-											preparedStatement,
-											revisionEndTimestamp,
-											index,
-											sessionImplementor
-									);
-									index += revEndTsType.getColumnSpan( sessionImplementor.getFactory() );
-								}
+	private RevisionEndUpdate buildRevisionEndUpdate(
+			String entityName,
+			String auditedEntityName,
+			AuditConfiguration auditCfg,
+			SessionImplementor sessionImplementor) {
+		final AuditEntitiesConfiguration audEntitiesCfg = auditCfg.getAuditEntCfg();
+		final String revisionInfoEntityName = audEntitiesCfg.getRevisionInfoEntityName();
+		final Dialect dialect = sessionImplementor.getFactory().getDialect();
 
-								// where (prod_ent_id) = ?
-								final Type idType = rootProductionEntityQueryable.getIdentifierType();
-								idType.nullSafeSet( preparedStatement, id, index, sessionImplementor );
-								index += idType.getColumnSpan( sessionImplementor.getFactory() );
+		final Queryable productionEntityQueryable = getQueryable( entityName, sessionImplementor );
+		final Queryable rootProductionEntityQueryable = getQueryable(
+				productionEntityQueryable.getRootEntityName(),
+				sessionImplementor
+		);
+		final Queryable auditedEntityQueryable = getQueryable( auditedEntityName, sessionImplementor );
+		final Queryable rootAuditedEntityQueryable = getQueryable(
+				auditedEntityQueryable.getRootEntityName(),
+				sessionImplementor
+		);
+		final Queryable revisionInfoEntityQueryable = getQueryable( revisionInfoEntityName, sessionImplementor );
+
+		final String updateTableName;
+		if ( UnionSubclassEntityPersister.class.isInstance( rootProductionEntityQueryable ) ) {
+			// this is the condition causing all the problems in terms of the generated SQL UPDATE
+			// the problem being that we currently try to update the in-line view made up of the union query
+			//
+			// this is extremely hacky means to get the root table name for the union subclass style entities.
+			// hacky because it relies on internal behavior of UnionSubclassEntityPersister
+			// !!!!!! NOTICE - using subclass persister, not root !!!!!!
+			updateTableName = auditedEntityQueryable.getSubclassTableName( 0 );
+		}
+		else {
+			updateTableName = rootAuditedEntityQueryable.getTableName();
+		}
 
-								// where REV <> ?
-								final Type revType = rootAuditedEntityQueryable.getPropertyType(
-										auditCfg.getAuditEntCfg().getRevisionNumberPath()
-								);
-								revType.nullSafeSet( preparedStatement, revisionNumber, index, sessionImplementor );
+		final String revEndColumnName = rootAuditedEntityQueryable.toColumns(
+				audEntitiesCfg.getRevisionEndFieldName()
+		)[0];
 
-								// where REVEND is null
-								// 		nothing to bind....
+		final boolean isRevisionEndTimestampEnabled = audEntitiesCfg.isRevisionEndTimestampEnabled();
 
-								return sessionImplementor.getTransactionCoordinator()
-										.getJdbcCoordinator()
-										.getResultSetReturn()
-										.executeUpdate( preparedStatement );
-							}
-							finally {
-								sessionImplementor.getTransactionCoordinator().getJdbcCoordinator().release(
-										preparedStatement
-								);
-							}
-						}
-					}
+		// update audit_ent set REVEND = ? [, REVEND_TSTMP = ?] where (prod_ent_id) = ? and REV <> ? and REVEND is null
+		final Update update = new Update( dialect ).setTableName( updateTableName );
+		// set REVEND = ?
+		update.addColumn( revEndColumnName );
+		// set [, REVEND_TSTMP = ?]
+		if ( isRevisionEndTimestampEnabled ) {
+			update.addColumn(
+					rootAuditedEntityQueryable.toColumns( audEntitiesCfg.getRevisionEndTimestampFieldName() )[0]
 			);
-
-			if ( rowCount != 1 && ( !reuseEntityIdentifier || ( getRevisionType( auditCfg, data ) != RevisionType.ADD ) ) ) {
-				throw new RuntimeException(
-						"Cannot update previous revision for entity " + auditedEntityName + " and id " + id
-				);
-			}
 		}
+
+		// where (prod_ent_id) = ?
+		update.addPrimaryKeyColumns( rootProductionEntityQueryable.getIdentifierColumnNames() );
+		// where REV <> ?
+		update.addWhereColumn(
+				rootAuditedEntityQueryable.toColumns( audEntitiesCfg.getRevisionNumberPath() )[0],
+				"<> ?"
+		);
+		// where REVEND is null
+		update.addWhereColumn( revEndColumnName, " is null" );
+
+		return new RevisionEndUpdate(
+				auditedEntityName,
+				update.toStatementString(),
+				rootAuditedEntityQueryable,
+				revisionInfoEntityQueryable,
+				sessionImplementor.getFactory().getEntityPersister( revisionInfoEntityName ).getIdentifierType(),
+				isRevisionEndTimestampEnabled
+						? rootAuditedEntityQueryable.getPropertyType( audEntitiesCfg.getRevisionEndTimestampFieldName() )
+						: null,
+				rootProductionEntityQueryable.getIdentifierType(),
+				rootAuditedEntityQueryable.getPropertyType( audEntitiesCfg.getRevisionNumberPath() )
+		);
 	}
 
 	private Queryable getQueryable(String entityName, SessionImplementor sessionImplementor) {
@@ -314,6 +290,8 @@ public class ValidityAuditStrategy implements AuditStrategy {
 
 		addEndRevisionNullRestriction( auditCfg, qb.getRootParameters() );
 
+		// Audit rows written in this process have to be visible to the query.
+		auditDataWriter.executePendingWrites( session );
 		final List<Object> l = qb.toQuery( session ).setLockOptions( LockOptions.UPGRADE ).list();
 
 		// Update the last revision if one exists.
@@ -331,8 +309,12 @@ public class ValidityAuditStrategy implements AuditStrategy {
 		}
 
 		// Save the audit data
-		session.save( persistentCollectionChangeData.getEntityName(), persistentCollectionChangeData.getData() );
-		sessionCacheCleaner.scheduleAuditDataRemoval( session, persistentCollectionChangeData.getData() );
+		auditDataWriter.save(
+				session,
+				auditCfg,
+				persistentCollectionChangeData.getEntityName(),
+				persistentCollectionChangeData.getData()
+		);
 	}
 
 	private void addEndRevisionNullRestriction(AuditConfiguration auditCfg, Parameters rootParameters) {
@@ -416,5 +398,174 @@ public class ValidityAuditStrategy implements AuditStrategy {
 		}
 		return new Date( (Long) revEndTimestampObj );
 	}
-}
 
+	/**
+	 * The (cached) statement updating the end revision of the previous audit row of an entity.
+	 */
+	private static class RevisionEndUpdate {
+		private final String auditedEntityName;
+		private final String sql;
+		private final Queryable rootAuditedEntityQueryable;
+		private final Queryable revisionInfoEntityQueryable;
+		private final Type revisionInfoIdType;
+		private final Type revisionEndTimestampType;
+		private final Type idType;
+		private final Type revisionType;
+
+		private RevisionEndUpdate(
+				String auditedEntityName,
+				String sql,
+				Queryable rootAuditedEntityQueryable,
+				Queryable revisionInfoEntityQueryable,
+				Type revisionInfoIdType,
+				Type revisionEndTimestampType,
+				Type idType,
+				Type revisionType) {
+			this.auditedEntityName = auditedEntityName;
+			this.sql = sql;
+			this.rootAuditedEntityQueryable = rootAuditedEntityQueryable;
+			this.revisionInfoEntityQueryable = revisionInfoEntityQueryable;
+			this.revisionInfoIdType = revisionInfoIdType;
+			this.revisionEndTimestampType = revisionEndTimestampType;
+			this.idType = idType;
+			this.revisionType = revisionType;
+		}
+	}
+
+	/**
+	 * Updates of the end revision of previous audit rows collected during a single audit process, grouped by
+	 * statement, so that each group is executed as JDBC batches once all audit rows have been saved.
+	 */
+	private class RevisionEndUpdates implements BeforeTransactionCompletionProcess {
+		private final AuditConfiguration auditCfg;
+		private final Object revision;
+		private final Map<RevisionEndUpdate, List<Serializable>> ids =
+				new LinkedHashMap<RevisionEndUpdate, List<Serializable>>();
+		private final Map<RevisionEndUpdate, List<Boolean>> singleRowExpectations =
+				new HashMap<RevisionEndUpdate, List<Boolean>>();
+
+		private RevisionEndUpdates(AuditConfiguration auditCfg, Object revision) {
+			this.auditCfg = auditCfg;
+			this.revision = revision;
+		}
+
+		private void add(RevisionEndUpdate update, Serializable id, boolean expectSingleRow) {
+			List<Serializable> updateIds = ids.get( update );
+			if ( updateIds == null ) {
+				updateIds = new ArrayList<Serializable>();
+				ids.put( update, updateIds );
+				singleRowExpectations.put( update, new ArrayList<Boolean>() );
+			}
+			updateIds.add( id );
+			singleRowExpectations.get( update ).add( expectSingleRow );
+		}
+
+		@Override
+		public void doBeforeTransactionCompletion(final SessionImplementor session) {
+			final Number revisionNumber = auditCfg.getRevisionInfoNumberReader().getRevisionNumber( revision );
+			final Date revisionEndTimestamp = auditCfg.getAuditEntCfg().isRevisionEndTimestampEnabled()
+					? convertRevEndTimestampToDate( revisionTimestampGetter.get( revision ) )
+					: null;
+
+			for ( final Map.Entry<RevisionEndUpdate, List<Serializable>> entry : ids.entrySet() ) {
+				final RevisionEndUpdate update = entry.getKey();
+
+				// first we need to flush the session in order to have the new audit data inserted
+				// todo: expose org.hibernate.internal.SessionImpl.autoFlushIfRequired via SessionImplementor
+				// for now, we duplicate some of that logic here
+				autoFlushIfRequired( session, update.rootAuditedEntityQueryable, update.revisionInfoEntityQueryable );
+
+				final List<Serializable> updateIds = entry.getValue();
+				final List<Boolean> expectations = singleRowExpectations.get( update );
+				final int batchSize = Math.max( session.getFactory().getSettings().getJdbcBatchSize(), 1 );
+				for ( int start = 0; start < updateIds.size(); start += batchSize ) {
+					final int end = Math.min( start + batchSize, updateIds.size() );
+					final int[] rowCounts = executeBatch(
+							session,
+							update,
+							updateIds.subList( start, end ),
+							revisionNumber,
+							revisionEndTimestamp
+					);
+					for ( int i = 0; i < rowCounts.length; i++ ) {
+						if ( rowCounts[i] != 1
+								&& rowCounts[i] != Statement.SUCCESS_NO_INFO
+								&& expectations.get( start + i ) ) {
+							throw new RuntimeException(
+									"Cannot update previous revision for entity " + update.auditedEntityName
+											+ " and id " + updateIds.get( start + i )
+							);
+						}
+					}
+				}
+			}
+			ids.clear();
+			singleRowExpectations.clear();
+		}
+
+		private int[] executeBatch(
+				final SessionImplementor session,
+				final RevisionEndUpdate update,
+				final List<Serializable> batchIds,
+				final Number revisionNumber,
+				final Date revisionEndTimestamp) {
+			return ( (Session) session ).doReturningWork(
+					new ReturningWork<int[]>() {
+						@Override
+						public int[] execute(Connection connection) throws SQLException {
+							final JdbcCoordinator jdbcCoordinator = session.getTransactionCoordinator()
+									.getJdbcCoordinator();
+							final PreparedStatement preparedStatement = jdbcCoordinator.getStatementPreparer()
+									.prepareStatement( update.sql );
+							try {
+								for ( Serializable id : batchIds ) {
+									int index = 1;
+
+									// set REVEND = ?
+									update.revisionInfoIdType.nullSafeSet(
+											preparedStatement,
+											revisionNumber,
+											index,
+											session
+									);
+									index += update.revisionInfoIdType.getColumnSpan( session.getFactory() );
+
+									// set [, REVEND_TSTMP = ?]
+									if ( update.revisionEndTimestampType != null ) {
+										update.revisionEndTimestampType.nullSafeSet(
+												preparedStatement,
+												revisionEndTimestamp,
+												index,
+												session
+										);
+										index += update.revisionEndTimestampType.getColumnSpan( session.getFactory() );
+									}
+
+									// where (prod_ent_id) = ?
+									update.idType.nullSafeSet( preparedStatement, id, index, session );
+									index += update.idType.getColumnSpan( session.getFactory() );
+
+									// where REV <> ?
+									update.revisionType.nullSafeSet( preparedStatement, revisionNumber, index, session );
+
+									// where REVEND is null
+									// 		nothing to bind....
+
+									if ( batchIds.size() == 1 ) {
+										return new int[] {
+												jdbcCoordinator.getResultSetReturn().executeUpdate( preparedStatement )
+										};
+									}
+									preparedStatement.addBatch();
+								}
+								return preparedStatement.executeBatch();
+							}
+							finally {
+								jdbcCoordinator.release( preparedStatement );
+							}
+						}
+					}
+			);
+		}
+	}
+}
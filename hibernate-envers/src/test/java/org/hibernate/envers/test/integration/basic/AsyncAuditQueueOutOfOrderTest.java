@@ -0,0 +1,125 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.test.integration.basic;
+
+import javax.persistence.EntityManager;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.configuration.EnversSettings;
+import org.hibernate.envers.configuration.spi.AuditConfiguration;
+import org.hibernate.envers.internal.synchronization.AsyncAuditQueue;
+import org.hibernate.envers.strategy.ValidityAuditStrategy;
+import org.hibernate.envers.test.BaseEnversJPAFunctionalTestCase;
+import org.hibernate.envers.test.Priority;
+import org.hibernate.envers.test.entities.StrTestEntity;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Transactions committing in a different order than their revision numbers are written in the order of revision
+ * numbers, so that the revision end columns of the {@link ValidityAuditStrategy} are correct.
+ */
+public class AsyncAuditQueueOutOfOrderTest extends BaseEnversJPAFunctionalTestCase {
+	private File queueDirectory;
+	private Integer id;
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] {StrTestEntity.class};
+	}
+
+	@Override
+	protected void addConfigOptions(Map options) {
+		super.addConfigOptions( options );
+		try {
+			queueDirectory = File.createTempFile( "envers-queue", "" );
+		}
+		catch (IOException e) {
+			throw new RuntimeException( e );
+		}
+		queueDirectory.delete();
+		options.put( EnversSettings.AUDIT_STRATEGY, ValidityAuditStrategy.class.getName() );
+		options.put( EnversSettings.ASYNC_AUDIT_QUEUE_DIRECTORY, queueDirectory.getAbsolutePath() );
+		options.put( EnversSettings.ASYNC_AUDIT_SINGLE_NODE, "true" );
+		// processed on demand only
+		options.put( EnversSettings.ASYNC_AUDIT_INTERVAL, "0" );
+	}
+
+	private AsyncAuditQueue getQueue() {
+		return AuditConfiguration.getFor( getCfg() ).getAsyncAuditQueue();
+	}
+
+	@Test
+	@Priority(10)
+	public void initData() {
+		EntityManager em = getEntityManager();
+
+		// Revision 1
+		em.getTransaction().begin();
+		final StrTestEntity entity = new StrTestEntity( "a" );
+		em.persist( entity );
+		em.getTransaction().commit();
+		id = entity.getId();
+		Assert.assertEquals( 1, getQueue().process() );
+
+		// Revision 2, persisted before revision 3 but committed after it
+		em.getTransaction().begin();
+		AuditReaderFactory.get( em ).getCurrentRevision( Object.class, true );
+		em.find( StrTestEntity.class, id ).setStr( "b" );
+
+		// Revision 3
+		final EntityManager otherEm = createIsolatedEntityManager();
+		otherEm.getTransaction().begin();
+		otherEm.find( StrTestEntity.class, id ).setStr( "c" );
+		otherEm.getTransaction().commit();
+		otherEm.close();
+
+		// Revision 3 waits for revision 2
+		Assert.assertEquals( 1, queueDirectory.list().length );
+		Assert.assertEquals( 0, getQueue().process() );
+
+		em.getTransaction().commit();
+		em.close();
+
+		Assert.assertEquals( 2, getQueue().process() );
+		Assert.assertEquals( 0, queueDirectory.list().length );
+	}
+
+	@Test
+	public void testRevisionsCounts() {
+		Assert.assertEquals( Arrays.asList( 1, 2, 3 ), getAuditReader().getRevisions( StrTestEntity.class, id ) );
+	}
+
+	@Test
+	public void testHistory() {
+		Assert.assertEquals( new StrTestEntity( "a", id ), getAuditReader().find( StrTestEntity.class, id, 1 ) );
+		Assert.assertEquals( new StrTestEntity( "b", id ), getAuditReader().find( StrTestEntity.class, id, 2 ) );
+		Assert.assertEquals( new StrTestEntity( "c", id ), getAuditReader().find( StrTestEntity.class, id, 3 ) );
+	}
+}
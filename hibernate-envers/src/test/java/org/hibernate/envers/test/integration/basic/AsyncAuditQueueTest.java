@@ -0,0 +1,156 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.test.integration.basic;
+
+import javax.persistence.EntityManager;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.hibernate.envers.configuration.EnversSettings;
+import org.hibernate.envers.configuration.spi.AuditConfiguration;
+import org.hibernate.envers.internal.synchronization.AsyncAuditQueue;
+import org.hibernate.envers.test.BaseEnversJPAFunctionalTestCase;
+import org.hibernate.envers.test.Priority;
+import org.hibernate.envers.test.entities.StrTestEntity;
+import org.hibernate.envers.test.entities.collection.StringSetEntity;
+import org.hibernate.envers.test.tools.TestTools;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Audit data queued with {@link EnversSettings#ASYNC_AUDIT_QUEUE_DIRECTORY} is written once the queue is processed,
+ * and produces the same history.
+ */
+public class AsyncAuditQueueTest extends BaseEnversJPAFunctionalTestCase {
+	private File queueDirectory;
+	private Integer id1;
+	private Integer id2;
+	private Integer setId;
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] {StrTestEntity.class, StringSetEntity.class};
+	}
+
+	@Override
+	protected void addConfigOptions(Map options) {
+		super.addConfigOptions( options );
+		try {
+			queueDirectory = File.createTempFile( "envers-queue", "" );
+		}
+		catch (IOException e) {
+			throw new RuntimeException( e );
+		}
+		queueDirectory.delete();
+		options.put( EnversSettings.ASYNC_AUDIT_QUEUE_DIRECTORY, queueDirectory.getAbsolutePath() );
+		// run with both audit strategies
+		options.put( EnversSettings.ASYNC_AUDIT_SINGLE_NODE, "true" );
+		// processed on demand only
+		options.put( EnversSettings.ASYNC_AUDIT_INTERVAL, "0" );
+		options.put( EnversSettings.ASYNC_AUDIT_BATCH_SIZE, "2" );
+	}
+
+	private AsyncAuditQueue getQueue() {
+		return AuditConfiguration.getFor( getCfg() ).getAsyncAuditQueue();
+	}
+
+	@Test
+	@Priority(10)
+	public void initData() {
+		EntityManager em = getEntityManager();
+
+		// Revision 1
+		em.getTransaction().begin();
+		final StrTestEntity entity1 = new StrTestEntity( "a" );
+		final StrTestEntity entity2 = new StrTestEntity( "b" );
+		em.persist( entity1 );
+		em.persist( entity2 );
+		em.getTransaction().commit();
+		id1 = entity1.getId();
+		id2 = entity2.getId();
+
+		Assert.assertEquals( 1, queueDirectory.list().length );
+		Assert.assertEquals( Collections.emptyList(), getAuditReader().getRevisions( StrTestEntity.class, id1 ) );
+
+		// Rolled back, nothing queued
+		em.getTransaction().begin();
+		em.find( StrTestEntity.class, id1 ).setStr( "rolled back" );
+		em.flush();
+		em.getTransaction().rollback();
+		em.clear();
+		Assert.assertEquals( 1, queueDirectory.list().length );
+
+		// Revision 2
+		em.getTransaction().begin();
+		em.find( StrTestEntity.class, id1 ).setStr( "c" );
+		final StringSetEntity set = new StringSetEntity();
+		set.getStrings().add( "x" );
+		set.getStrings().add( "y" );
+		em.persist( set );
+		setId = set.getId();
+		em.getTransaction().commit();
+		em.clear();
+
+		// Revision 3
+		em.getTransaction().begin();
+		em.remove( em.find( StrTestEntity.class, id2 ) );
+		em.find( StringSetEntity.class, setId ).getStrings().remove( "x" );
+		em.getTransaction().commit();
+		em.close();
+
+		Assert.assertEquals( 3, queueDirectory.list().length );
+		Assert.assertEquals( 2, getQueue().process() );
+		Assert.assertEquals( 1, getQueue().process() );
+		Assert.assertEquals( 0, getQueue().process() );
+		Assert.assertEquals( 0, queueDirectory.list().length );
+	}
+
+	@Test
+	public void testRevisionsCounts() {
+		Assert.assertEquals( Arrays.asList( 1, 2 ), getAuditReader().getRevisions( StrTestEntity.class, id1 ) );
+		Assert.assertEquals( Arrays.asList( 1, 3 ), getAuditReader().getRevisions( StrTestEntity.class, id2 ) );
+		Assert.assertEquals( Arrays.asList( 2, 3 ), getAuditReader().getRevisions( StringSetEntity.class, setId ) );
+	}
+
+	@Test
+	public void testHistory() {
+		Assert.assertEquals( new StrTestEntity( "a", id1 ), getAuditReader().find( StrTestEntity.class, id1, 1 ) );
+		Assert.assertEquals( new StrTestEntity( "c", id1 ), getAuditReader().find( StrTestEntity.class, id1, 2 ) );
+		Assert.assertEquals( new StrTestEntity( "b", id2 ), getAuditReader().find( StrTestEntity.class, id2, 2 ) );
+		Assert.assertNull( getAuditReader().find( StrTestEntity.class, id2, 3 ) );
+
+		Assert.assertEquals(
+				TestTools.makeSet( "x", "y" ),
+				getAuditReader().find( StringSetEntity.class, setId, 2 ).getStrings()
+		);
+		Assert.assertEquals(
+				TestTools.makeSet( "y" ),
+				getAuditReader().find( StringSetEntity.class, setId, 3 ).getStrings()
+		);
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.test.integration.basic;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.envers.configuration.EnversSettings;
+import org.hibernate.envers.test.BaseEnversJPAFunctionalTestCase;
+import org.hibernate.envers.test.Priority;
+import org.hibernate.envers.test.entities.StrTestEntity;
+import org.hibernate.envers.test.entities.collection.StringSetEntity;
+import org.hibernate.envers.test.tools.TestTools;
+import org.hibernate.stat.Statistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Audit rows written with {@link EnversSettings#STATELESS_AUDIT_WRITES} bypass the session, yet produce the same
+ * history.
+ */
+public class StatelessAuditWritesTest extends BaseEnversJPAFunctionalTestCase {
+	private static final int ENTITY_COUNT = 7;
+
+	private final List<Integer> ids = new ArrayList<Integer>();
+	private Integer setId;
+	private long rev1EntityInserts;
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] {StrTestEntity.class, StringSetEntity.class};
+	}
+
+	@Override
+	protected void addConfigOptions(Map options) {
+		super.addConfigOptions( options );
+		options.put( EnversSettings.STATELESS_AUDIT_WRITES, "true" );
+		options.put( AvailableSettings.STATEMENT_BATCH_SIZE, "3" );
+		options.put( AvailableSettings.GENERATE_STATISTICS, "true" );
+	}
+
+	@Test
+	@Priority(10)
+	public void initData() {
+		EntityManager em = getEntityManager();
+		final Statistics statistics = em.unwrap( Session.class ).getSessionFactory().getStatistics();
+
+		// Revision 1
+		statistics.clear();
+		em.getTransaction().begin();
+		for ( int i = 0; i < ENTITY_COUNT; i++ ) {
+			final StrTestEntity entity = new StrTestEntity( "a" + i );
+			em.persist( entity );
+			ids.add( entity.getId() );
+		}
+		em.getTransaction().commit();
+		rev1EntityInserts = statistics.getEntityInsertCount();
+		em.clear();
+
+		// Revision 2
+		em.getTransaction().begin();
+		for ( Integer id : ids ) {
+			final StrTestEntity entity = em.find( StrTestEntity.class, id );
+			entity.setStr( entity.getStr().replace( 'a', 'b' ) );
+		}
+		final StringSetEntity set = new StringSetEntity();
+		set.getStrings().add( "x" );
+		set.getStrings().add( "y" );
+		em.persist( set );
+		setId = set.getId();
+		em.getTransaction().commit();
+		em.clear();
+
+		// Revision 3
+		em.getTransaction().begin();
+		em.remove( em.find( StrTestEntity.class, ids.get( 0 ) ) );
+		em.find( StringSetEntity.class, setId ).getStrings().remove( "x" );
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@Test
+	public void testAuditRowsBypassSession() {
+		// the audited entities and the revision entity only
+		Assert.assertEquals( ENTITY_COUNT + 1, rev1EntityInserts );
+	}
+
+	@Test
+	public void testRevisionsCounts() {
+		Assert.assertEquals( Arrays.asList( 1, 2, 3 ), getAuditReader().getRevisions( StrTestEntity.class, ids.get( 0 ) ) );
+		Assert.assertEquals( Arrays.asList( 1, 2 ), getAuditReader().getRevisions( StrTestEntity.class, ids.get( 1 ) ) );
+		Assert.assertEquals( Arrays.asList( 2, 3 ), getAuditReader().getRevisions( StringSetEntity.class, setId ) );
+	}
+
+	@Test
+	public void testHistory() {
+		for ( int i = 0; i < ENTITY_COUNT; i++ ) {
+			final Integer id = ids.get( i );
+			Assert.assertEquals( new StrTestEntity( "a" + i, id ), getAuditReader().find( StrTestEntity.class, id, 1 ) );
+			Assert.assertEquals( new StrTestEntity( "b" + i, id ), getAuditReader().find( StrTestEntity.class, id, 2 ) );
+		}
+		Assert.assertNull( getAuditReader().find( StrTestEntity.class, ids.get( 0 ), 3 ) );
+
+		Assert.assertEquals(
+				TestTools.makeSet( "x", "y" ),
+				getAuditReader().find( StringSetEntity.class, setId, 2 ).getStrings()
+		);
+		Assert.assertEquals(
+				TestTools.makeSet( "y" ),
+				getAuditReader().find( StringSetEntity.class, setId, 3 ).getStrings()
+		);
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.test.integration.cache;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.envers.AuditReader;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.configuration.EnversSettings;
+import org.hibernate.envers.test.BaseEnversJPAFunctionalTestCase;
+import org.hibernate.envers.test.Priority;
+import org.hibernate.envers.test.entities.StrTestEntity;
+import org.hibernate.stat.Statistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Entities read at revisions, in which they were changed, are shared by all audit readers through
+ * {@link EnversSettings#AUDIT_SNAPSHOT_CACHE}.
+ */
+public class AuditSnapshotCacheTest extends BaseEnversJPAFunctionalTestCase {
+	private Integer id1;
+	private Integer id2;
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] {StrTestEntity.class};
+	}
+
+	@Override
+	protected void addConfigOptions(Map options) {
+		super.addConfigOptions( options );
+		options.put( EnversSettings.AUDIT_SNAPSHOT_CACHE, "true" );
+		options.put( AvailableSettings.GENERATE_STATISTICS, "true" );
+	}
+
+	@Test
+	@Priority(10)
+	public void initData() {
+		EntityManager em = getEntityManager();
+
+		// Revision 1
+		em.getTransaction().begin();
+		final StrTestEntity entity1 = new StrTestEntity( "a" );
+		final StrTestEntity entity2 = new StrTestEntity( "b" );
+		em.persist( entity1 );
+		em.persist( entity2 );
+		em.getTransaction().commit();
+		id1 = entity1.getId();
+		id2 = entity2.getId();
+
+		// Revision 2
+		em.getTransaction().begin();
+		em.find( StrTestEntity.class, id1 ).setStr( "c" );
+		em.getTransaction().commit();
+
+		// Revision 3
+		em.getTransaction().begin();
+		em.remove( em.find( StrTestEntity.class, id2 ) );
+		em.getTransaction().commit();
+	}
+
+	private AuditReader newAuditReader() {
+		// with an empty first level cache
+		return AuditReaderFactory.get( getEntityManager() );
+	}
+
+	private Statistics getStatistics() {
+		return getEntityManager().unwrap( Session.class ).getSessionFactory().getStatistics();
+	}
+
+	@Test
+	public void testChangeRevisionShared() {
+		final StrTestEntity first = newAuditReader().find( StrTestEntity.class, id1, 2 );
+
+		getStatistics().clear();
+		final StrTestEntity second = newAuditReader().find( StrTestEntity.class, id1, 2 );
+		Assert.assertEquals( 0, getStatistics().getQueryExecutionCount() );
+
+		Assert.assertEquals( new StrTestEntity( "c", id1 ), second );
+		Assert.assertEquals( first, second );
+		Assert.assertNotSame( first, second );
+	}
+
+	@Test
+	public void testOtherRevisionNotShared() {
+		// entity 2 was not changed in revision 2
+		newAuditReader().find( StrTestEntity.class, id2, 2 );
+
+		getStatistics().clear();
+		final StrTestEntity entity = newAuditReader().find( StrTestEntity.class, id2, 2 );
+		Assert.assertEquals( 1, getStatistics().getQueryExecutionCount() );
+		Assert.assertEquals( new StrTestEntity( "b", id2 ), entity );
+	}
+
+	@Test
+	public void testDeletionShared() {
+		final AuditReader reader = newAuditReader();
+		Assert.assertNotNull( reader.find( StrTestEntity.class, StrTestEntity.class.getName(), id2, 3, true ) );
+
+		getStatistics().clear();
+		Assert.assertNull( newAuditReader().find( StrTestEntity.class, id2, 3 ) );
+		Assert.assertNotNull(
+				newAuditReader().find( StrTestEntity.class, StrTestEntity.class.getName(), id2, 3, true )
+		);
+		Assert.assertEquals( 0, getStatistics().getQueryExecutionCount() );
+	}
+}
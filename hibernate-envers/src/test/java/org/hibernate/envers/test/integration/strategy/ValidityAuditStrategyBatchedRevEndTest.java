@@ -0,0 +1,132 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.envers.test.integration.strategy;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.envers.configuration.EnversSettings;
+import org.hibernate.envers.strategy.ValidityAuditStrategy;
+import org.hibernate.envers.test.BaseEnversJPAFunctionalTestCase;
+import org.hibernate.envers.test.Priority;
+import org.hibernate.envers.test.entities.StrTestEntity;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the end revisions set by {@link ValidityAuditStrategy} are correct when the updates of the previous
+ * audit rows span several JDBC batches.
+ */
+public class ValidityAuditStrategyBatchedRevEndTest extends BaseEnversJPAFunctionalTestCase {
+	private static final int ENTITY_COUNT = 7;
+
+	private final List<Integer> ids = new ArrayList<Integer>();
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[] {StrTestEntity.class};
+	}
+
+	@Override
+	protected void addConfigOptions(Map options) {
+		super.addConfigOptions( options );
+		options.put( EnversSettings.AUDIT_STRATEGY, ValidityAuditStrategy.class.getName() );
+		options.put( AvailableSettings.STATEMENT_BATCH_SIZE, "3" );
+	}
+
+	@Test
+	@Priority(10)
+	public void initData() {
+		EntityManager em = getEntityManager();
+
+		// Revision 1
+		em.getTransaction().begin();
+		for ( int i = 0; i < ENTITY_COUNT; i++ ) {
+			final StrTestEntity entity = new StrTestEntity( "a" + i );
+			em.persist( entity );
+			ids.add( entity.getId() );
+		}
+		em.getTransaction().commit();
+		em.clear();
+
+		// Revision 2 - all entities modified
+		em.getTransaction().begin();
+		for ( Integer id : ids ) {
+			final StrTestEntity entity = em.find( StrTestEntity.class, id );
+			entity.setStr( entity.getStr().replace( 'a', 'b' ) );
+		}
+		em.getTransaction().commit();
+		em.clear();
+
+		// Revision 3 - first entity removed, the next four modified
+		em.getTransaction().begin();
+		em.remove( em.find( StrTestEntity.class, ids.get( 0 ) ) );
+		for ( Integer id : ids.subList( 1, 5 ) ) {
+			final StrTestEntity entity = em.find( StrTestEntity.class, id );
+			entity.setStr( entity.getStr().replace( 'b', 'c' ) );
+		}
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@Test
+	public void testRevisionsCounts() {
+		Assert.assertEquals( Arrays.asList( 1, 2, 3 ), getAuditReader().getRevisions( StrTestEntity.class, ids.get( 0 ) ) );
+		Assert.assertEquals( Arrays.asList( 1, 2, 3 ), getAuditReader().getRevisions( StrTestEntity.class, ids.get( 4 ) ) );
+		Assert.assertEquals( Arrays.asList( 1, 2 ), getAuditReader().getRevisions( StrTestEntity.class, ids.get( 5 ) ) );
+	}
+
+	@Test
+	public void testSingleOpenAuditRowPerEntity() {
+		final EntityManager em = getEntityManager();
+		for ( Integer id : ids ) {
+			final Number openRows = (Number) em.createNativeQuery(
+					"select count(*) from STR_TEST_AUD where id = :id and REVEND is null"
+			).setParameter( "id", id ).getSingleResult();
+			Assert.assertEquals( 1, openRows.intValue() );
+		}
+		final Number closedRows = (Number) em.createNativeQuery(
+				"select count(*) from STR_TEST_AUD where REVEND is not null"
+		).getSingleResult();
+		// revision 1 rows closed by revision 2, and five revision 2 rows closed by revision 3
+		Assert.assertEquals( ENTITY_COUNT + 5, closedRows.intValue() );
+	}
+
+	@Test
+	public void testHistory() {
+		for ( int i = 0; i < ENTITY_COUNT; i++ ) {
+			final Integer id = ids.get( i );
+			Assert.assertEquals( new StrTestEntity( "a" + i, id ), getAuditReader().find( StrTestEntity.class, id, 1 ) );
+			Assert.assertEquals( new StrTestEntity( "b" + i, id ), getAuditReader().find( StrTestEntity.class, id, 2 ) );
+		}
+		Assert.assertNull( getAuditReader().find( StrTestEntity.class, ids.get( 0 ), 3 ) );
+		Assert.assertEquals( new StrTestEntity( "c4", ids.get( 4 ) ), getAuditReader().find( StrTestEntity.class, ids.get( 4 ), 3 ) );
+		Assert.assertEquals( new StrTestEntity( "b6", ids.get( 6 ) ), getAuditReader().find( StrTestEntity.class, ids.get( 6 ), 3 ) );
+	}
+}
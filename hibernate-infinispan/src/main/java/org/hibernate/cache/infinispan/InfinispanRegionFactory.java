@@ -18,6 +18,7 @@ import org.hibernate.cache.CacheException;
 import org.hibernate.cache.infinispan.collection.CollectionRegionImpl;
 import org.hibernate.cache.infinispan.entity.EntityRegionImpl;
 import org.hibernate.cache.infinispan.impl.BaseRegion;
+import org.hibernate.cache.infinispan.impl.NearCache;
 import org.hibernate.cache.infinispan.naturalid.NaturalIdRegionImpl;
 import org.hibernate.cache.infinispan.query.QueryResultsRegionImpl;
 import org.hibernate.cache.infinispan.timestamp.ClusteredTimestampsRegionImpl;
@@ -81,6 +82,8 @@ public class InfinispanRegionFactory implements RegionFactory {
 
 	private static final String MAX_IDLE_SUFFIX = ".expiration.max_idle";
 
+	private static final String NEAR_CACHE_MAX_ENTRIES_SUFFIX = ".near_cache.max_entries";
+
 //   private static final String STATISTICS_SUFFIX = ".statistics";
 
 	/**
@@ -224,6 +227,7 @@ public class InfinispanRegionFactory implements RegionFactory {
 		}
 		final AdvancedCache cache = getCache( regionName, COLLECTION_KEY, properties );
 		final CollectionRegionImpl region = new CollectionRegionImpl( cache, regionName, metadata, this );
+		configureNearCache( region, regionName, COLLECTION_KEY );
 		startRegion( region, regionName );
 		return region;
 	}
@@ -236,6 +240,7 @@ public class InfinispanRegionFactory implements RegionFactory {
 		}
 		final AdvancedCache cache = getCache( regionName, ENTITY_KEY, properties );
 		final EntityRegionImpl region = new EntityRegionImpl( cache, regionName, metadata, this );
+		configureNearCache( region, regionName, ENTITY_KEY );
 		startRegion( region, regionName );
 		return region;
 	}
@@ -248,6 +253,7 @@ public class InfinispanRegionFactory implements RegionFactory {
 		}
 		final AdvancedCache cache = getCache( regionName, NATURAL_ID_KEY, properties );
 		final NaturalIdRegionImpl region = new NaturalIdRegionImpl( cache, regionName, metadata, this );
+		configureNearCache( region, regionName, NATURAL_ID_KEY );
 		startRegion( region, regionName );
 		return region;
 	}
@@ -433,6 +439,25 @@ public class InfinispanRegionFactory implements RegionFactory {
 		return new DefaultCacheManager( holder, true );
 	}
 
+	private void configureNearCache(BaseRegion region, String regionName, String typeKey) {
+		TypeOverrides override = typeOverrides.get( regionName );
+		if ( override == null || !override.isNearCacheMaxEntriesOverridden() ) {
+			override = typeOverrides.get( typeKey );
+		}
+		final int maxEntries = override.getNearCacheMaxEntries();
+		if ( maxEntries <= 0 ) {
+			return;
+		}
+		if ( Caches.isDistributedCache( region.getCache() ) ) {
+			log.debugf( "Near cache not supported for distributed region %s, ignoring it", regionName );
+			return;
+		}
+		if ( log.isDebugEnabled() ) {
+			log.debug( "Fronting cache region [" + regionName + "] with a near cache of " + maxEntries + " entries" );
+		}
+		region.setNearCache( new NearCache( region.getCache(), maxEntries ) );
+	}
+
 	private void startRegion(BaseRegion region, String regionName) {
 		regionNames.add( regionName );
 		getCacheCommandFactory( region.getCache() ).addRegion( regionName, region );
@@ -484,6 +509,10 @@ public class InfinispanRegionFactory implements RegionFactory {
 			cfgOverride = getOrCreateConfig( prefixLoc, key, suffixLoc );
 			cfgOverride.setExpirationMaxIdle( Long.parseLong( extractProperty( key, properties ) ) );
 		}
+		else if ( (suffixLoc = key.indexOf( NEAR_CACHE_MAX_ENTRIES_SUFFIX )) != -1 ) {
+			cfgOverride = getOrCreateConfig( prefixLoc, key, suffixLoc );
+			cfgOverride.setNearCacheMaxEntries( Integer.parseInt( extractProperty( key, properties ) ) );
+		}
 	}
 
 	private String extractProperty(String key, Properties properties) {
@@ -57,6 +57,8 @@ public class TypeOverrides {
 
 	private boolean isExposeStatistics;
 
+	private int nearCacheMaxEntries;
+
 	public String getCacheName() {
 		return cacheName;
 	}
@@ -163,6 +165,31 @@ public class TypeOverrides {
 		this.isExposeStatistics = isExposeStatistics;
 	}
 
+	public int getNearCacheMaxEntries() {
+		return nearCacheMaxEntries;
+	}
+
+   /**
+    * Maximum number of entries in the on-heap near cache fronting the cache
+    * of this cached type. 0, the default, means no near cache. Near caches
+    * are not supported for distributed caches.
+    *
+    * @param nearCacheMaxEntries number of maximum near cache entries
+    */
+	public void setNearCacheMaxEntries(int nearCacheMaxEntries) {
+		markAsOverriden( "nearCacheMaxEntries" );
+		this.nearCacheMaxEntries = nearCacheMaxEntries;
+	}
+
+   /**
+    * Whether the maximum number of near cache entries is set for this cached type.
+    *
+    * @return true if {@link #setNearCacheMaxEntries(int)} was called
+    */
+	public boolean isNearCacheMaxEntriesOverridden() {
+		return overridden.contains( "nearCacheMaxEntries" );
+	}
+
    /**
     * Apply the configuration overrides in this {@link TypeOverrides} instance
     * to the cache configuration builder passed as parameter.
@@ -210,6 +237,7 @@ public class TypeOverrides {
 				+ ", maxEntries=" + evictionMaxEntries
 				+ ", lifespan=" + expirationLifespan
 				+ ", maxIdle=" + expirationMaxIdle
+				+ ", nearCacheMaxEntries=" + nearCacheMaxEntries
 				+ '}';
 	}
 
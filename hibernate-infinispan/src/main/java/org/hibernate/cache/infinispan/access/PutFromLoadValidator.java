@@ -23,15 +23,14 @@
  */
 package org.hibernate.cache.infinispan.access;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import javax.transaction.SystemException;
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
@@ -79,6 +78,12 @@ import org.infinispan.manager.EmbeddedCacheManager;
  * {@link #acquirePutFromLoadLock(Object)} without a preceding {@link #registerPendingPut(Object)}
  * call.
  * </p>
+ * <p/>
+ * <p>
+ * None of the put from load operations block: pending puts are tracked in a concurrent map per key,
+ * and acquiring or releasing the put from load "lock" is a compare-and-set on a per key state word.
+ * Only invalidations wait, and only for the put from load calls that were already in progress.
+ * </p>
  *
  * @author Brian Stansberry
  * @version $Revision: $
@@ -107,18 +112,10 @@ public class PutFromLoadValidator {
 
 	private final ConcurrentMap<Object, Long> recentRemovals = new ConcurrentHashMap<Object, Long>();
 	/**
-	 * List of recent removals. Used to ensure we don't leak memory via the recentRemovals map
+	 * Queue of recent removals, holding at most one element per key of recentRemovals. Used to ensure
+	 * we don't leak memory via the recentRemovals map
 	 */
-	private final List<RecentRemoval> removalsQueue = new LinkedList<RecentRemoval>();
-	/**
-	 * The time when the first element in removalsQueue will expire. No reason to do housekeeping on
-	 * the queue before this time.
-	 */
-	private volatile long earliestRemovalTimestamp;
-	/**
-	 * Lock controlling access to removalsQueue
-	 */
-	private final Lock removalsLock = new ReentrantLock();
+	private final ConcurrentLinkedQueue<RecentRemoval> removalsQueue = new ConcurrentLinkedQueue<RecentRemoval>();
 
 	/**
 	 * The time of the last call to regionRemoved(), plus NAKED_PUT_INVALIDATION_PERIOD. All naked
@@ -181,6 +178,11 @@ public class PutFromLoadValidator {
 	 * <strong>NOTE:</strong> A call to this method that returns <code>true</code>
 	 * should always be matched with a call to {@link #releasePutFromLoadLock(Object)}.
 	 * </p>
+	 * <p>
+	 * This method never blocks. Several threads may hold the lock for the same key at
+	 * once; the lock only excludes the put from load calls from a concurrent invalidation.
+	 * A put attempted while an invalidation of the key is in progress is refused.
+	 * </p>
 	 *
 	 * @param key the key
 	 *
@@ -188,67 +190,27 @@ public class PutFromLoadValidator {
 	 *         can proceed; <code>false</code> if the data should not be cached
 	 */
 	public boolean acquirePutFromLoadLock(Object key) {
-		boolean valid = false;
-		boolean locked = false;
-		final long now = System.currentTimeMillis();
-
-		try {
-			final PendingPutMap pending = pendingPuts.get( key );
-			if ( pending != null ) {
-				locked = pending.acquireLock( 100, TimeUnit.MILLISECONDS );
-				if ( locked ) {
-					try {
-						final PendingPut toCancel = pending.remove( getOwnerForPut() );
-						if ( toCancel != null ) {
-							valid = !toCancel.completed;
-							toCancel.completed = true;
-						}
-					}
-					finally {
-						if ( !valid ) {
-							pending.releaseLock();
-							locked = false;
-						}
-					}
-				}
-			}
-			else {
-				// Key wasn't in pendingPuts, so either this is a "naked put"
-				// or regionRemoved has been called. Check if we can proceed
-				if ( now > invalidationTimestamp ) {
-					final Long removedTime = recentRemovals.get( key );
-					if ( removedTime == null || now > removedTime ) {
-						// It's legal to proceed. But we have to record this key
-						// in pendingPuts so releasePutFromLoadLock can find it.
-						// To do this we basically simulate a normal "register
-						// then acquire lock" pattern
-						registerPendingPut( key );
-						locked = acquirePutFromLoadLock( key );
-						valid = locked;
-					}
-				}
-			}
+		final PendingPutMap pending = pendingPuts.get( key );
+		if ( pending != null ) {
+			final PendingPut toCancel = pending.remove( getOwnerForPut() );
+			return toCancel != null && pending.acquire( toCancel );
 		}
-		catch (Throwable t) {
-			if ( locked ) {
-				final PendingPutMap toRelease = pendingPuts.get( key );
-				if ( toRelease != null ) {
-					toRelease.releaseLock();
-				}
-			}
 
-			if ( t instanceof RuntimeException ) {
-				throw (RuntimeException) t;
-			}
-			else if ( t instanceof Error ) {
-				throw (Error) t;
-			}
-			else {
-				throw new RuntimeException( t );
+		// Key wasn't in pendingPuts, so either this is a "naked put"
+		// or regionRemoved has been called. Check if we can proceed
+		final long now = System.currentTimeMillis();
+		if ( now > invalidationTimestamp ) {
+			final Long removedTime = recentRemovals.get( key );
+			if ( removedTime == null || now > removedTime ) {
+				// It's legal to proceed. But we have to record this key
+				// in pendingPuts so releasePutFromLoadLock can find it.
+				// To do this we basically simulate a normal "register
+				// then acquire lock" pattern
+				registerPendingPut( key );
+				return acquirePutFromLoadLock( key );
 			}
 		}
-
-		return valid;
+		return false;
 	}
 
 	/**
@@ -259,11 +221,8 @@ public class PutFromLoadValidator {
 	 */
 	public void releasePutFromLoadLock(Object key) {
 		final PendingPutMap pending = pendingPuts.get( key );
-		if ( pending != null ) {
-			if ( pending.size() == 0 ) {
-				pendingPuts.remove( key, pending );
-			}
-			pending.releaseLock();
+		if ( pending != null && pending.release() && pending.markRemoved() ) {
+			pendingPuts.remove( key, pending );
 		}
 	}
 
@@ -285,55 +244,28 @@ public class PutFromLoadValidator {
 		// Invalidate any pending puts
 		final PendingPutMap pending = pendingPuts.get( key );
 		if ( pending != null ) {
-			// This lock should be available very quickly, but we'll be
-			// very patient waiting for it as callers should treat not
-			// acquiring it as an exception condition
-			if ( pending.acquireLock( 60, TimeUnit.SECONDS ) ) {
-				try {
-					pending.invalidate();
-				}
-				finally {
-					pending.releaseLock();
-				}
+			pending.beginInvalidation();
+			try {
+				// In progress puts should complete very quickly, but we'll be
+				// very patient waiting for them as callers should treat not
+				// seeing them complete as an exception condition
+				success = pending.awaitPutters( TimeUnit.SECONDS.toNanos( 60 ) );
 			}
-			else {
-				success = false;
+			finally {
+				pending.endInvalidation();
 			}
 		}
 
-		// Record when this occurred to invalidate later naked puts
-		final RecentRemoval removal = new RecentRemoval( key, this.nakedPutInvalidationPeriod );
-		recentRemovals.put( key, removal.timestamp );
-
-		// Don't let recentRemovals map become a memory leak
-		RecentRemoval toClean = null;
-		final boolean attemptClean = removal.timestamp > earliestRemovalTimestamp;
-		removalsLock.lock();
-		try {
-			removalsQueue.add( removal );
-
-			if ( attemptClean ) {
-				if ( removalsQueue.size() > 1 ) {
-					// we have at least one as we just added it
-					toClean = removalsQueue.remove( 0 );
-				}
-				earliestRemovalTimestamp = removalsQueue.get( 0 ).timestamp;
-			}
-		}
-		finally {
-			removalsLock.unlock();
+		// Record when this occurred to invalidate later naked puts. A key already
+		// in recentRemovals is already queued; its cleanup will notice the new timestamp
+		final long now = System.currentTimeMillis();
+		final Long timestamp = now + this.nakedPutInvalidationPeriod;
+		if ( recentRemovals.put( key, timestamp ) == null ) {
+			removalsQueue.add( new RecentRemoval( key, timestamp ) );
 		}
 
-		if ( toClean != null ) {
-			Long cleaned = recentRemovals.get( toClean.key );
-			if ( cleaned != null && cleaned.equals( toClean.timestamp ) ) {
-				cleaned = recentRemovals.remove( toClean.key );
-				if ( cleaned != null && !cleaned.equals( toClean.timestamp ) ) {
-					// Oops; removed the wrong timestamp; restore it
-					recentRemovals.putIfAbsent( toClean.key, cleaned );
-				}
-			}
-		}
+		// Don't let recentRemovals map become a memory leak
+		cleanRecentRemovals( now );
 
 		return success;
 	}
@@ -350,44 +282,35 @@ public class PutFromLoadValidator {
 	 */
 	public boolean invalidateRegion() {
 
-		boolean ok = false;
+		boolean ok = true;
 		invalidationTimestamp = System.currentTimeMillis() + this.nakedPutInvalidationPeriod;
 
+		final List<PendingPutMap> invalidated = new ArrayList<PendingPutMap>();
 		try {
-
-			// Acquire the lock for each entry to ensure any ongoing
-			// work associated with it is completed before we return
+			// Invalidate every entry first, then wait for the ongoing work
+			// associated with any of them to complete before we return
 			for ( PendingPutMap entry : pendingPuts.values() ) {
-				if ( entry.acquireLock( 60, TimeUnit.SECONDS ) ) {
-					try {
-						entry.invalidate();
-					}
-					finally {
-						entry.releaseLock();
-					}
-				}
-				else {
+				entry.beginInvalidation();
+				invalidated.add( entry );
+			}
+
+			final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 60 );
+			for ( PendingPutMap entry : invalidated ) {
+				if ( !entry.awaitPutters( deadline - System.nanoTime() ) ) {
 					ok = false;
 				}
 			}
 
-			removalsLock.lock();
-			try {
-				recentRemovals.clear();
-				removalsQueue.clear();
-
-				ok = true;
-
-			}
-			finally {
-				removalsLock.unlock();
-			}
+			recentRemovals.clear();
+			removalsQueue.clear();
 		}
 		catch (Exception e) {
 			ok = false;
 		}
 		finally {
-			earliestRemovalTimestamp = invalidationTimestamp;
+			for ( PendingPutMap entry : invalidated ) {
+				entry.endInvalidation();
+			}
 		}
 
 		return ok;
@@ -405,35 +328,23 @@ public class PutFromLoadValidator {
 	 * @param key key that will be used for subsequent cache put
 	 */
 	public void registerPendingPut(Object key) {
-		final PendingPut pendingPut = new PendingPut( getOwnerForPut() );
-		final PendingPutMap pendingForKey = new PendingPutMap( pendingPut );
+		final Object owner = getOwnerForPut();
 
 		for (; ; ) {
-			final PendingPutMap existing = pendingPuts.putIfAbsent( key, pendingForKey );
-			if ( existing != null ) {
-				if ( existing.acquireLock( 10, TimeUnit.SECONDS ) ) {
-
-					try {
-						existing.put( pendingPut );
-						final PendingPutMap doublecheck = pendingPuts.putIfAbsent( key, existing );
-						if ( doublecheck == null || doublecheck == existing ) {
-							break;
-						}
-						// else we hit a race and need to loop to try again
-					}
-					finally {
-						existing.releaseLock();
-					}
-				}
-				else {
-					// Can't get the lock; when we come back we'll be a "naked put"
-					break;
+			PendingPutMap pending = pendingPuts.get( key );
+			if ( pending == null ) {
+				final PendingPutMap created = new PendingPutMap();
+				pending = pendingPuts.putIfAbsent( key, created );
+				if ( pending == null ) {
+					pending = created;
 				}
 			}
-			else {
-				// normal case
+			if ( pending.register( owner ) ) {
 				break;
 			}
+			// else we hit a race with the removal of an empty entry;
+			// finish removing it and try again
+			pendingPuts.remove( key, pending );
 		}
 	}
 
@@ -443,13 +354,7 @@ public class PutFromLoadValidator {
 	 * Only for use by unit tests; may be removed at any time
 	 */
 	protected int getRemovalQueueLength() {
-		removalsLock.lock();
-		try {
-			return removalsQueue.size();
-		}
-		finally {
-			removalsLock.unlock();
-		}
+		return removalsQueue.size();
 	}
 
 	// ---------------------------------------------------------------- Private
@@ -468,96 +373,150 @@ public class PutFromLoadValidator {
 
 	}
 
+	private void cleanRecentRemovals(long now) {
+		for (; ; ) {
+			final RecentRemoval toClean = removalsQueue.peek();
+			if ( toClean == null || toClean.timestamp >= now ) {
+				return;
+			}
+			if ( !removalsQueue.remove( toClean ) ) {
+				// another thread is cleaning it
+				continue;
+			}
+			if ( !recentRemovals.remove( toClean.key, toClean.timestamp ) ) {
+				// The key was removed again since it was queued; queue it
+				// with its current timestamp
+				final Long current = recentRemovals.get( toClean.key );
+				if ( current != null ) {
+					removalsQueue.add( new RecentRemoval( toClean.key, current ) );
+				}
+			}
+		}
+	}
+
 	/**
-	 * Lazy-initialization map for PendingPut. Optimized for the expected usual case where only a
-	 * single put is pending for a given key.
+	 * The pending puts of a single key, along with a state word tracking, from the least to the most
+	 * significant bits: the number of threads holding the put from load lock, the number of invalidations
+	 * in progress, whether the entry is being removed from pendingPuts and the number of invalidations
+	 * so far (the "epoch").
 	 * <p/>
-	 * This class is NOT THREAD SAFE. All operations on it must be performed with the lock held.
+	 * A pending put records the epoch in which it was registered, and may only acquire the lock while that
+	 * epoch is current and no invalidation is in progress. An invalidation bumps the epoch, which dooms any
+	 * previously registered put, and then waits for the lock holders to drain.
 	 */
 	private static class PendingPutMap {
-		private PendingPut singlePendingPut;
-		private Map<Object, PendingPut> fullMap;
-		private final Lock lock = new ReentrantLock();
+		private static final long PUTTERS_MASK = 0xFFFFFFL;
+		private static final long INVALIDATOR = 1L << 24;
+		private static final long INVALIDATORS_MASK = 0xFFFFL << 24;
+		private static final long REMOVED = 1L << 40;
+		private static final int EPOCH_SHIFT = 41;
+		private static final long EPOCH = 1L << EPOCH_SHIFT;
+
+		private static final int MAX_SPINS = 16;
+		private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 100 );
+
+		private final ConcurrentMap<Object, PendingPut> puts = new ConcurrentHashMap<Object, PendingPut>( 4, 0.75f, 1 );
+		private final AtomicLong state = new AtomicLong();
+
+		/**
+		 * @return <code>false</code> if this entry is being removed from pendingPuts
+		 */
+		public boolean register(Object owner) {
+			final PendingPut pendingPut = new PendingPut( state.get() >>> EPOCH_SHIFT );
+			puts.put( owner, pendingPut );
+			if ( ( state.get() & REMOVED ) != 0 ) {
+				puts.remove( owner, pendingPut );
+				return false;
+			}
+			return true;
+		}
 
-		PendingPutMap(PendingPut singleItem) {
-			this.singlePendingPut = singleItem;
+		public PendingPut remove(Object owner) {
+			return puts.remove( owner );
 		}
 
-		public void put(PendingPut pendingPut) {
-			if ( singlePendingPut == null ) {
-				if ( fullMap == null ) {
-					// initial put
-					singlePendingPut = pendingPut;
+		public boolean acquire(PendingPut pendingPut) {
+			for (; ; ) {
+				final long current = state.get();
+				if ( ( current >>> EPOCH_SHIFT ) != pendingPut.epoch
+						|| ( current & ( INVALIDATORS_MASK | REMOVED ) ) != 0 ) {
+					return false;
 				}
-				else {
-					fullMap.put( pendingPut.owner, pendingPut );
+				if ( state.compareAndSet( current, current + 1 ) ) {
+					return true;
 				}
 			}
-			else {
-				// 2nd put; need a map
-				fullMap = new HashMap<Object, PendingPut>( 4 );
-				fullMap.put( singlePendingPut.owner, singlePendingPut );
-				singlePendingPut = null;
-				fullMap.put( pendingPut.owner, pendingPut );
-			}
 		}
 
-		public PendingPut remove(Object ownerForPut) {
-			PendingPut removed = null;
-			if ( fullMap == null ) {
-				if ( singlePendingPut != null
-						&& singlePendingPut.owner.equals( ownerForPut ) ) {
-					removed = singlePendingPut;
-					singlePendingPut = null;
+		/**
+		 * @return <code>true</code> if the entry is left with neither lock holders nor pending puts
+		 */
+		public boolean release() {
+			for (; ; ) {
+				final long current = state.get();
+				if ( ( current & PUTTERS_MASK ) == 0 ) {
+					// unmatched release
+					return false;
+				}
+				final long next = current - 1;
+				if ( state.compareAndSet( current, next ) ) {
+					return ( next & ( PUTTERS_MASK | INVALIDATORS_MASK ) ) == 0 && puts.isEmpty();
 				}
 			}
-			else {
-				removed = fullMap.remove( ownerForPut );
-			}
-			return removed;
 		}
 
-		public int size() {
-			return fullMap == null ? (singlePendingPut == null ? 0 : 1)
-					: fullMap.size();
+		/**
+		 * Flags an idle entry as removed. A removed entry accepts neither registrations nor lock holders,
+		 * so whoever sees the flag may remove it from pendingPuts; a put registered concurrently is
+		 * then lost, which only means it won't be cached.
+		 *
+		 * @return <code>true</code> if the entry was flagged and should be removed from pendingPuts
+		 */
+		public boolean markRemoved() {
+			final long current = state.get();
+			return ( current & ( PUTTERS_MASK | INVALIDATORS_MASK | REMOVED ) ) == 0
+					&& state.compareAndSet( current, current | REMOVED );
 		}
 
-		public boolean acquireLock(long time, TimeUnit unit) {
-			try {
-				return lock.tryLock( time, unit );
-			}
-			catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				return false;
-			}
+		public void beginInvalidation() {
+			state.addAndGet( EPOCH + INVALIDATOR );
+			// Nothing registered so far may acquire the lock anymore; drop it
+			puts.clear();
 		}
 
-		public void releaseLock() {
-			lock.unlock();
+		public void endInvalidation() {
+			state.addAndGet( -INVALIDATOR );
 		}
 
-		public void invalidate() {
-			if ( singlePendingPut != null ) {
-				singlePendingPut.completed = true;
-				// Nullify to avoid leaking completed pending puts
-				singlePendingPut = null;
-			}
-			else if ( fullMap != null ) {
-				for ( PendingPut pp : fullMap.values() ) {
-					pp.completed = true;
+		/**
+		 * Waits for the threads holding the lock to release it.
+		 *
+		 * @return <code>false</code> if they didn't within the timeout or the thread was interrupted
+		 */
+		public boolean awaitPutters(long timeoutNanos) {
+			final long deadline = System.nanoTime() + timeoutNanos;
+			int spins = 0;
+			while ( ( state.get() & PUTTERS_MASK ) != 0 ) {
+				if ( spins < MAX_SPINS ) {
+					spins++;
+					Thread.yield();
+				}
+				else if ( System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted() ) {
+					return false;
+				}
+				else {
+					LockSupport.parkNanos( this, PARK_NANOS );
 				}
-				// Nullify to avoid leaking completed pending puts
-				fullMap = null;
 			}
+			return true;
 		}
 	}
 
 	private static class PendingPut {
-		private final Object owner;
-		private volatile boolean completed;
+		private final long epoch;
 
-		private PendingPut(Object owner) {
-			this.owner = owner;
+		private PendingPut(long epoch) {
+			this.epoch = epoch;
 		}
 	}
 
@@ -565,9 +524,9 @@ public class PutFromLoadValidator {
 		private final Object key;
 		private final Long timestamp;
 
-		private RecentRemoval(Object key, long nakedPutInvalidationPeriod) {
+		private RecentRemoval(Object key, Long timestamp) {
 			this.key = key;
-			timestamp = System.currentTimeMillis() + nakedPutInvalidationPeriod;
+			this.timestamp = timestamp;
 		}
 	}
 
@@ -23,8 +23,17 @@
  */
 package org.hibernate.cache.infinispan.access;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
 import org.hibernate.cache.CacheException;
 import org.hibernate.cache.infinispan.impl.BaseRegion;
+import org.hibernate.cache.infinispan.impl.NearCache;
 import org.hibernate.cache.infinispan.util.Caches;
 
 import org.infinispan.AdvancedCache;
@@ -49,6 +58,8 @@ public class TransactionalAccessDelegate {
 	private final BaseRegion region;
 	private final PutFromLoadValidator putValidator;
 	private final AdvancedCache<Object, Object> writeCache;
+	private final NearCache nearCache;
+	private final boolean distributed;
 
    /**
     * Create a new transactional access delegate instance.
@@ -62,6 +73,8 @@ public class TransactionalAccessDelegate {
 		this.cache = region.getCache();
 		this.putValidator = validator;
 		this.writeCache = Caches.ignoreReturnValuesCache( cache );
+		this.nearCache = region.getNearCache();
+		this.distributed = Caches.isDistributedCache( cache );
 	}
 
    /**
@@ -77,13 +90,70 @@ public class TransactionalAccessDelegate {
 		if ( !region.checkValid() ) {
 			return null;
 		}
-		final Object val = cache.get( key );
+		final Object val = nearCache != null ? nearCache.get( key ) : cache.get( key );
 		if ( val == null ) {
 			putValidator.registerPendingPut( key );
 		}
 		return val;
 	}
 
+   /**
+    * Attempt to retrieve several objects from the cache at once. In a distributed
+    * cache all the lookups are sent before waiting for any of them, so that a batch
+    * costs a single remote round trip instead of one per key; otherwise the data is
+    * local and the keys are simply read one after the other.
+    *
+    * @param keys The keys of the items to be retrieved
+    * @param txTimestamp a timestamp prior to the transaction start time
+    * @return the cached objects, keyed by their key
+    * @throws CacheException if the cache retrieval failed
+    */
+	@SuppressWarnings("unchecked")
+	public Map<Object, Object> getAll(Collection<?> keys, long txTimestamp) throws CacheException {
+		final Map<Object, Object> result = new HashMap<Object, Object>( keys.size() );
+		if ( !region.checkValid() ) {
+			return result;
+		}
+		if ( !distributed ) {
+			for ( Object key : keys ) {
+				final Object val = get( key, txTimestamp );
+				if ( val != null ) {
+					result.put( key, val );
+				}
+			}
+			return result;
+		}
+
+		final List<Future<Object>> futures = new ArrayList<Future<Object>>( keys.size() );
+		for ( Object key : keys ) {
+			futures.add( cache.getAsync( key ) );
+		}
+		int i = 0;
+		for ( Object key : keys ) {
+			final Object val = waitFor( futures.get( i++ ) );
+			if ( val == null ) {
+				putValidator.registerPendingPut( key );
+			}
+			else {
+				result.put( key, val );
+			}
+		}
+		return result;
+	}
+
+	private static Object waitFor(Future<Object> future) throws CacheException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CacheException( e );
+		}
+		catch (ExecutionException e) {
+			throw new CacheException( e.getCause() );
+		}
+	}
+
    /**
     * Attempt to cache an object, after loading from the database.
     *
@@ -152,6 +222,30 @@ public class TransactionalAccessDelegate {
 		return true;
 	}
 
+   /**
+    * Attempt to cache several objects, after loading them from the database.
+    * <tt>putForExternalRead</tt> does not wait for the other nodes, so the items
+    * are put one by one, each under its own put from load lock.
+    *
+    * @param keys The item keys
+    * @param values The items
+    * @param txTimestamp a timestamp prior to the transaction start time
+    * @param versions the item version numbers
+    * @param minimalPutOverride Explicit minimalPut flag
+    * @return the number of objects successfully cached
+    * @throws CacheException if storing the objects failed
+    */
+	public int putFromLoadAll(Object[] keys, Object[] values, long txTimestamp, Object[] versions, boolean minimalPutOverride)
+			throws CacheException {
+		int count = 0;
+		for ( int i = 0; i < keys.length; i++ ) {
+			if ( putFromLoad( keys[i], values[i], txTimestamp, versions[i], minimalPutOverride ) ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
    /**
     * Called after an item has been inserted (before the transaction completes),
     * instead of calling evict().
@@ -168,7 +262,7 @@ public class TransactionalAccessDelegate {
 			return false;
 		}
 
-		writeCache.put( key, value );
+		putInCache( key, value );
 		return true;
 	}
 
@@ -189,7 +283,7 @@ public class TransactionalAccessDelegate {
 		// We update whether or not the region is valid. Other nodes
 		// may have already restored the region so they need to
 		// be informed of the change.
-		writeCache.put( key, value );
+		putInCache( key, value );
 		return true;
 	}
 
@@ -208,7 +302,7 @@ public class TransactionalAccessDelegate {
 		// We update whether or not the region is valid. Other nodes
 		// may have already restored the region so they need to
 		// be informed of the change.
-		writeCache.remove( key );
+		removeFromCache( key );
 	}
 
    /**
@@ -220,7 +314,17 @@ public class TransactionalAccessDelegate {
 		if ( !putValidator.invalidateRegion() ) {
 			throw new CacheException( "Failed to invalidate pending putFromLoad calls for region " + region.getName() );
 		}
-		cache.clear();
+		if ( nearCache == null ) {
+			cache.clear();
+			return;
+		}
+		nearCache.beforeClear();
+		try {
+			cache.clear();
+		}
+		finally {
+			nearCache.afterClear();
+		}
 	}
 
    /**
@@ -236,7 +340,7 @@ public class TransactionalAccessDelegate {
 					"Failed to invalidate pending putFromLoad calls for key " + key + " from region " + region.getName()
 			);
 		}
-		writeCache.remove( key );
+		removeFromCache( key );
 	}
 
    /**
@@ -255,4 +359,32 @@ public class TransactionalAccessDelegate {
 		Caches.broadcastEvictAll( cache );
 	}
 
+	private void putInCache(Object key, Object value) {
+		if ( nearCache == null ) {
+			writeCache.put( key, value );
+			return;
+		}
+		nearCache.beforeWrite( key );
+		try {
+			writeCache.put( key, value );
+		}
+		finally {
+			nearCache.afterWrite( key );
+		}
+	}
+
+	private void removeFromCache(Object key) {
+		if ( nearCache == null ) {
+			writeCache.remove( key );
+			return;
+		}
+		nearCache.beforeWrite( key );
+		try {
+			writeCache.remove( key );
+		}
+		finally {
+			nearCache.afterWrite( key );
+		}
+	}
+
 }
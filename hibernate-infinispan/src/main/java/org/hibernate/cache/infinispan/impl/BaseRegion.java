@@ -72,6 +72,8 @@ public abstract class BaseRegion implements Region {
 
 	protected final AdvancedCache cache;
 
+	private volatile NearCache nearCache;
+
    /**
     * Base region constructor.
     *
@@ -146,6 +148,9 @@ public abstract class BaseRegion implements Region {
 	@Override
 	public void destroy() throws CacheException {
 		try {
+			if ( nearCache != null ) {
+				nearCache.stop();
+			}
 			cache.stop();
 		}
 		finally {
@@ -186,6 +191,11 @@ public abstract class BaseRegion implements Region {
 							} );
 						}
 
+						if ( nearCache != null ) {
+							// Entries read while the region was being invalidated
+							nearCache.clear();
+						}
+
 						invalidateState.compareAndSet(
 								InvalidateState.CLEARING, InvalidateState.VALID
 						);
@@ -262,6 +272,10 @@ public abstract class BaseRegion implements Region {
 		} else {
 			invalidateState.set( InvalidateState.INVALID );
 		}
+
+		if ( nearCache != null ) {
+			nearCache.clear();
+		}
 	}
 
 	public TransactionManager getTransactionManager() {
@@ -278,6 +292,25 @@ public abstract class BaseRegion implements Region {
 		return cache;
 	}
 
+   /**
+    * Gets the near cache fronting the region's cache.
+    *
+    * @return the near cache, or <code>null</code> if the region has none
+    */
+	public NearCache getNearCache() {
+		return nearCache;
+	}
+
+   /**
+    * Fronts the region's cache with a near cache. Must be called before
+    * any access strategy is built for the region.
+    *
+    * @param nearCache near cache for the region
+    */
+	public void setNearCache(NearCache nearCache) {
+		this.nearCache = nearCache;
+	}
+
 	public boolean isRegionInvalidatedInCurrentTx() {
 		Transaction tx = getCurrentTransaction();
 		return tx != null && tx.equals(invalidateTransaction);
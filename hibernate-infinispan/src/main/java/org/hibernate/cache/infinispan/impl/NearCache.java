@@ -0,0 +1,330 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.infinispan.impl;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryInvalidated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * A small, bounded, on-heap copy of the most recently read entries of a region's cache, so that
+ * hot entries are read without going through the cache's invocation chain.
+ * <p/>
+ * The near cache never holds anything the underlying cache wouldn't return: entries are only added
+ * on reads, and dropped whenever the cache notifies that an entry was modified, removed, invalidated
+ * or evicted, whether locally or by another node, and whenever the region is invalidated (which is how
+ * {@link org.hibernate.cache.infinispan.util.EvictAllCommand} reaches it). An entry never outlives the
+ * expiry time of the cache entry it was read from, since the cache doesn't notify expirations. While
+ * a local transaction writes a key, the key is read from the cache only, so that the transaction
+ * sees its own writes.
+ * <p/>
+ * Distributed caches can't be fronted, as a node isn't notified of changes to the keys it doesn't own.
+ *
+ * @since 4.3
+ */
+@Listener
+public class NearCache {
+	private static final Log log = LogFactory.getLog( NearCache.class );
+
+	/**
+	 * Number of stripes the keys are hashed to in order to detect concurrent invalidations
+	 * and local writes; must be a power of two.
+	 */
+	private static final int STRIPES = 64;
+
+	private final AdvancedCache cache;
+	private final TransactionManager tm;
+	private final BoundedConcurrentHashMap<Object, NearEntry> entries;
+
+	/**
+	 * Incremented on each invalidation of a key of the stripe, so that a read racing with an
+	 * invalidation doesn't leave a stale entry behind.
+	 */
+	private final AtomicLongArray stamps = new AtomicLongArray( STRIPES );
+
+	/**
+	 * Number of local writes in progress on the keys of the stripe.
+	 */
+	private final AtomicIntegerArray writes = new AtomicIntegerArray( STRIPES );
+
+   /**
+    * Near cache constructor.
+    *
+    * @param cache the region's cache
+    * @param maxEntries maximum number of entries held by the near cache
+    */
+	public NearCache(AdvancedCache cache, int maxEntries) {
+		this.cache = cache;
+		this.tm = cache.getTransactionManager();
+		// Each segment of the map must be able to hold at least one entry
+		this.entries = new BoundedConcurrentHashMap<Object, NearEntry>(
+				maxEntries, Integer.highestOneBit( Math.min( maxEntries, 16 ) ), BoundedConcurrentHashMap.Eviction.LRU
+		);
+		cache.addListener( this );
+	}
+
+   /**
+    * Reads an entry from the near cache, or from the underlying cache on a near cache miss.
+    *
+    * @param key the key of the entry
+    * @return the value, or <code>null</code> if the underlying cache doesn't hold it
+    */
+	public Object get(Object key) {
+		final int stripe = stripe( key );
+		if ( writes.get( stripe ) == 0 ) {
+			final NearEntry entry = entries.get( key );
+			if ( entry != null ) {
+				if ( !entry.isExpired( System.currentTimeMillis() ) ) {
+					return entry.value;
+				}
+				entries.remove( key, entry );
+			}
+		}
+
+		final long stamp = stamps.get( stripe );
+		final CacheEntry cacheEntry = cache.getCacheEntry( key );
+		if ( cacheEntry == null ) {
+			return null;
+		}
+		final Object value = cacheEntry.getValue();
+		if ( value != null && writes.get( stripe ) == 0 ) {
+			final long expiryTime = expiryTime( cacheEntry );
+			if ( expiryTime != 0 ) {
+				final NearEntry entry = new NearEntry( value, expiryTime );
+				entries.put( key, entry );
+				if ( stamps.get( stripe ) != stamp || writes.get( stripe ) != 0 ) {
+					// Invalidated while we read it
+					entries.remove( key, entry );
+				}
+			}
+		}
+		return value;
+	}
+
+   /**
+    * Notifies the near cache that the key is about to be written to the underlying cache. The key is
+    * kept away from the near cache until the write completes or, within a transaction, until the
+    * transaction completes.
+    *
+    * @param key the key of the entry being written
+    */
+	public void beforeWrite(Object key) {
+		writes.incrementAndGet( stripe( key ) );
+		invalidate( key );
+		endWriteOnCompletion( key );
+	}
+
+   /**
+    * Notifies the near cache that the key was written to the underlying cache.
+    *
+    * @param key the key of the entry written
+    */
+	public void afterWrite(Object key) {
+		if ( getCurrentTransaction() == null ) {
+			endWrite( key );
+		}
+	}
+
+   /**
+    * Notifies the near cache that the underlying cache is about to be cleared. Like
+    * {@link #beforeWrite(Object)}, for all keys.
+    */
+	public void beforeClear() {
+		for ( int i = 0; i < STRIPES; i++ ) {
+			writes.incrementAndGet( i );
+		}
+		clear();
+		endWriteOnCompletion( null );
+	}
+
+   /**
+    * Notifies the near cache that the underlying cache was cleared.
+    */
+	public void afterClear() {
+		if ( getCurrentTransaction() == null ) {
+			endWrite( null );
+		}
+	}
+
+   /**
+    * Drops the entry of the given key.
+    *
+    * @param key the key of the entry
+    */
+	public void invalidate(Object key) {
+		stamps.incrementAndGet( stripe( key ) );
+		entries.remove( key );
+	}
+
+   /**
+    * Drops all entries.
+    */
+	public void clear() {
+		for ( int i = 0; i < STRIPES; i++ ) {
+			stamps.incrementAndGet( i );
+		}
+		entries.clear();
+	}
+
+   /**
+    * @return the number of entries held by the near cache
+    */
+	public int size() {
+		return entries.size();
+	}
+
+   /**
+    * Stops listening to the underlying cache and drops all entries.
+    */
+	public void stop() {
+		cache.removeListener( this );
+		clear();
+	}
+
+	@CacheEntryModified
+	@CacheEntryRemoved
+	@CacheEntryInvalidated
+	@SuppressWarnings("unused")
+	public void entryChanged(CacheEntryEvent event) {
+		// Drop the entry both before and after the change is applied; a read in
+		// between either sees the old value and is invalidated by the later event,
+		// or sees the new one
+		invalidate( event.getKey() );
+	}
+
+	@CacheEntriesEvicted
+	@SuppressWarnings("unused")
+	public void entriesEvicted(CacheEntriesEvictedEvent event) {
+		for ( Object key : event.getEntries().keySet() ) {
+			invalidate( key );
+		}
+	}
+
+	/**
+	 * @param key the key written, or <code>null</code> for a clear
+	 */
+	private void endWriteOnCompletion(final Object key) {
+		final Transaction tx = getCurrentTransaction();
+		if ( tx == null ) {
+			return;
+		}
+		try {
+			tx.registerSynchronization(
+					new Synchronization() {
+						@Override
+						public void beforeCompletion() {
+						}
+
+						@Override
+						public void afterCompletion(int status) {
+							endWrite( key );
+						}
+					}
+			);
+		}
+		catch (Exception e) {
+			// The transaction can't commit anymore
+			if ( log.isTraceEnabled() ) {
+				log.tracef( "Unable to register synchronization for key %s: %s", key, e.getMessage() );
+			}
+			endWrite( key );
+		}
+	}
+
+	/**
+	 * @param key the key written, or <code>null</code> for a clear
+	 */
+	private void endWrite(Object key) {
+		if ( key == null ) {
+			clear();
+			for ( int i = 0; i < STRIPES; i++ ) {
+				writes.decrementAndGet( i );
+			}
+		}
+		else {
+			invalidate( key );
+			writes.decrementAndGet( stripe( key ) );
+		}
+	}
+
+	/**
+	 * @return the time the entry expires in the underlying cache, -1 if it never does, or 0 if it isn't known
+	 */
+	private long expiryTime(CacheEntry cacheEntry) {
+		if ( cacheEntry instanceof InternalCacheEntry ) {
+			return ( (InternalCacheEntry) cacheEntry ).getExpiryTime();
+		}
+		return cacheEntry.getLifespan() < 0 && cacheEntry.getMaxIdle() < 0 ? -1 : 0;
+	}
+
+	private Transaction getCurrentTransaction() {
+		try {
+			// Transaction manager could be null
+			return tm != null ? tm.getTransaction() : null;
+		}
+		catch (SystemException e) {
+			throw new CacheException( "Unable to get current transaction", e );
+		}
+	}
+
+	private static int stripe(Object key) {
+		int h = key.hashCode();
+		h ^= ( h >>> 20 ) ^ ( h >>> 12 );
+		h ^= ( h >>> 7 ) ^ ( h >>> 4 );
+		return h & ( STRIPES - 1 );
+	}
+
+	private static final class NearEntry {
+		private final Object value;
+		private final long expiryTime;
+
+		private NearEntry(Object value, long expiryTime) {
+			this.value = value;
+			this.expiryTime = expiryTime;
+		}
+
+		private boolean isExpired(long now) {
+			return expiryTime >= 0 && now >= expiryTime;
+		}
+	}
+}
@@ -23,16 +23,20 @@
  */
 package org.hibernate.cache.infinispan.naturalid;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.hibernate.cache.CacheException;
 import org.hibernate.cache.infinispan.access.TransactionalAccessDelegate;
 import org.hibernate.cache.spi.NaturalIdRegion;
+import org.hibernate.cache.spi.access.BulkRegionAccessStrategy;
 import org.hibernate.cache.spi.access.NaturalIdRegionAccessStrategy;
 import org.hibernate.cache.spi.access.SoftLock;
 
 /**
  * @author Strong Liu <stliu@hibernate.org>
  */
-class TransactionalAccess implements NaturalIdRegionAccessStrategy {
+class TransactionalAccess implements NaturalIdRegionAccessStrategy, BulkRegionAccessStrategy {
 	private final NaturalIdRegionImpl region;
 	private final TransactionalAccessDelegate delegate;
 
@@ -82,6 +86,21 @@ class TransactionalAccess implements NaturalIdRegionAccessStrategy {
 		return delegate.putFromLoad( key, value, txTimestamp, version, minimalPutOverride );
 	}
 
+	@Override
+	public Map<Object, Object> getAll(Collection<?> keys, long txTimestamp) throws CacheException {
+		return delegate.getAll( keys, txTimestamp );
+	}
+
+	@Override
+	public int putFromLoadAll(
+			Object[] keys,
+			Object[] values,
+			long txTimestamp,
+			Object[] versions,
+			boolean minimalPutOverride) throws CacheException {
+		return delegate.putFromLoadAll( keys, values, txTimestamp, versions, minimalPutOverride );
+	}
+
 	@Override
 	public void remove(Object key) throws CacheException {
 		delegate.remove( key );
@@ -265,4 +265,17 @@ public class Caches {
 				.clustering().cacheMode().isClustered();
 	}
 
+   /**
+    * Indicates whether the given cache is configured with
+    * {@link org.infinispan.configuration.cache.CacheMode#DIST_ASYNC} or
+    * {@link org.infinispan.configuration.cache.CacheMode#DIST_SYNC}.
+    *
+    * @param cache to check for distribution configuration
+    * @return true if the cache is configured with distribution, false otherwise
+    */
+	public static boolean isDistributedCache(AdvancedCache cache) {
+		return cache.getCacheConfiguration()
+				.clustering().cacheMode().isDistributed();
+	}
+
 }
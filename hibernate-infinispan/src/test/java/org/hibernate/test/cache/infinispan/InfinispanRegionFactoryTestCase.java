@@ -290,6 +290,29 @@ public class InfinispanRegionFactoryTestCase  {
       }
    }
 
+   @Test
+   public void testBuildRegionsWithNearCache() {
+      Properties p = new Properties();
+      p.setProperty("hibernate.cache.infinispan.entity.near_cache.max_entries", "100");
+      p.setProperty("hibernate.cache.infinispan.com.acme.Person.near_cache.max_entries", "0");
+      p.setProperty("hibernate.cache.infinispan.com.acme.Person.addresses.near_cache.max_entries", "50");
+      InfinispanRegionFactory factory = createRegionFactory(p);
+      try {
+         EntityRegionImpl address = (EntityRegionImpl) factory.buildEntityRegion("com.acme.Address", p, null);
+         assertNotNull(address.getNearCache());
+         EntityRegionImpl person = (EntityRegionImpl) factory.buildEntityRegion("com.acme.Person", p, null);
+         assertNull(person.getNearCache());
+         CollectionRegionImpl addresses = (CollectionRegionImpl)
+               factory.buildCollectionRegion("com.acme.Person.addresses", p, null);
+         assertNotNull(addresses.getNearCache());
+         CollectionRegionImpl cars = (CollectionRegionImpl)
+               factory.buildCollectionRegion("com.acme.Person.cars", p, null);
+         assertNull(cars.getNearCache());
+      } finally {
+         factory.stop();
+      }
+   }
+
    @Test
    public void testTimestampValidation() {
       Properties p = new Properties();
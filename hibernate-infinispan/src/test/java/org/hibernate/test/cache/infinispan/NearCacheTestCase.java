@@ -0,0 +1,126 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cache.infinispan;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.test.CacheManagerCallable;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.junit.Test;
+
+import org.hibernate.cache.infinispan.impl.NearCache;
+
+import static org.infinispan.test.TestingUtil.withCacheManager;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of {@link NearCache}.
+ */
+public class NearCacheTestCase {
+
+   private static final Object KEY1 = "KEY1";
+
+   @Test
+   public void testReadThrough() throws Exception {
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            AdvancedCache cache = cm.getCache().getAdvancedCache();
+            NearCache nearCache = new NearCache(cache, 10);
+            try {
+               assertNull(nearCache.get(KEY1));
+               assertEquals(0, nearCache.size());
+
+               cache.put(KEY1, "v1");
+               assertEquals("v1", nearCache.get(KEY1));
+               assertEquals(1, nearCache.size());
+               assertEquals("v1", nearCache.get(KEY1));
+            } finally {
+               nearCache.stop();
+            }
+         }
+      });
+   }
+
+   @Test
+   public void testInvalidatedByCacheEvents() throws Exception {
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            AdvancedCache cache = cm.getCache().getAdvancedCache();
+            NearCache nearCache = new NearCache(cache, 10);
+            try {
+               cache.put(KEY1, "v1");
+               assertEquals("v1", nearCache.get(KEY1));
+
+               cache.put(KEY1, "v2");
+               assertEquals(0, nearCache.size());
+               assertEquals("v2", nearCache.get(KEY1));
+
+               cache.remove(KEY1);
+               assertEquals(0, nearCache.size());
+               assertNull(nearCache.get(KEY1));
+
+               cache.put(KEY1, "v3");
+               assertEquals("v3", nearCache.get(KEY1));
+               cache.evict(KEY1);
+               assertEquals(0, nearCache.size());
+            } finally {
+               nearCache.stop();
+            }
+         }
+      });
+   }
+
+   @Test
+   public void testWriteKeepsKeyAway() throws Exception {
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            AdvancedCache cache = cm.getCache().getAdvancedCache();
+            NearCache nearCache = new NearCache(cache, 10);
+            try {
+               cache.put(KEY1, "v1");
+               assertEquals("v1", nearCache.get(KEY1));
+
+               nearCache.beforeWrite(KEY1);
+               assertEquals(0, nearCache.size());
+               assertEquals("v1", nearCache.get(KEY1));
+               // Not cached while the write is in progress
+               assertEquals(0, nearCache.size());
+               nearCache.afterWrite(KEY1);
+
+               assertEquals("v1", nearCache.get(KEY1));
+               assertEquals(1, nearCache.size());
+            } finally {
+               nearCache.stop();
+            }
+         }
+      });
+   }
+
+}
@@ -0,0 +1,432 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cache.infinispan.stress;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.infinispan.InfinispanRegionFactory;
+import org.hibernate.cache.infinispan.access.PutFromLoadValidator;
+import org.infinispan.manager.EmbeddedCacheManager;
+
+/**
+ * The lock based {@link PutFromLoadValidator} that preceded the current, non blocking one; kept
+ * as the baseline of {@link PutFromLoadValidatorStressTestCase}.
+ */
+public class LockingPutFromLoadValidator extends PutFromLoadValidator {
+   private final TransactionManager transactionManager;
+
+   private final long nakedPutInvalidationPeriod;
+
+   private final ConcurrentMap<Object, PendingPutMap> pendingPuts;
+
+   private final ConcurrentMap<Object, Long> recentRemovals = new ConcurrentHashMap<Object, Long>();
+   /**
+    * List of recent removals. Used to ensure we don't leak memory via the recentRemovals map
+    */
+   private final List<RecentRemoval> removalsQueue = new LinkedList<RecentRemoval>();
+   /**
+    * The time when the first element in removalsQueue will expire. No reason to do housekeeping on
+    * the queue before this time.
+    */
+   private volatile long earliestRemovalTimestamp;
+   /**
+    * Lock controlling access to removalsQueue
+    */
+   private final Lock removalsLock = new ReentrantLock();
+
+   /**
+    * The time of the last call to regionRemoved(), plus NAKED_PUT_INVALIDATION_PERIOD. All naked
+    * puts will be rejected until the current time is greater than this value.
+    */
+   private volatile long invalidationTimestamp;
+
+   public LockingPutFromLoadValidator(
+         EmbeddedCacheManager cacheManager,
+         TransactionManager tm, long nakedPutInvalidationPeriod) {
+      super( cacheManager, tm, nakedPutInvalidationPeriod );
+      this.pendingPuts = cacheManager
+            .getCache( InfinispanRegionFactory.PENDING_PUTS_CACHE_NAME );
+      this.transactionManager = tm;
+      this.nakedPutInvalidationPeriod = nakedPutInvalidationPeriod;
+   }
+
+   @Override
+   public boolean acquirePutFromLoadLock(Object key) {
+      boolean valid = false;
+      boolean locked = false;
+      final long now = System.currentTimeMillis();
+
+      try {
+         final PendingPutMap pending = pendingPuts.get( key );
+         if ( pending != null ) {
+            locked = pending.acquireLock( 100, TimeUnit.MILLISECONDS );
+            if ( locked ) {
+               try {
+                  final PendingPut toCancel = pending.remove( getOwnerForPut() );
+                  if ( toCancel != null ) {
+                     valid = !toCancel.completed;
+                     toCancel.completed = true;
+                  }
+               }
+               finally {
+                  if ( !valid ) {
+                     pending.releaseLock();
+                     locked = false;
+                  }
+               }
+            }
+         }
+         else {
+            // Key wasn't in pendingPuts, so either this is a "naked put"
+            // or regionRemoved has been called. Check if we can proceed
+            if ( now > invalidationTimestamp ) {
+               final Long removedTime = recentRemovals.get( key );
+               if ( removedTime == null || now > removedTime ) {
+                  // It's legal to proceed. But we have to record this key
+                  // in pendingPuts so releasePutFromLoadLock can find it.
+                  // To do this we basically simulate a normal "register
+                  // then acquire lock" pattern
+                  registerPendingPut( key );
+                  locked = acquirePutFromLoadLock( key );
+                  valid = locked;
+               }
+            }
+         }
+      }
+      catch (Throwable t) {
+         if ( locked ) {
+            final PendingPutMap toRelease = pendingPuts.get( key );
+            if ( toRelease != null ) {
+               toRelease.releaseLock();
+            }
+         }
+
+         if ( t instanceof RuntimeException ) {
+            throw (RuntimeException) t;
+         }
+         else if ( t instanceof Error ) {
+            throw (Error) t;
+         }
+         else {
+            throw new RuntimeException( t );
+         }
+      }
+
+      return valid;
+   }
+
+   @Override
+   public void releasePutFromLoadLock(Object key) {
+      final PendingPutMap pending = pendingPuts.get( key );
+      if ( pending != null ) {
+         if ( pending.size() == 0 ) {
+            pendingPuts.remove( key, pending );
+         }
+         pending.releaseLock();
+      }
+   }
+
+   @Override
+   public boolean invalidateKey(Object key) {
+      boolean success = true;
+
+      // Invalidate any pending puts
+      final PendingPutMap pending = pendingPuts.get( key );
+      if ( pending != null ) {
+         // This lock should be available very quickly, but we'll be
+         // very patient waiting for it as callers should treat not
+         // acquiring it as an exception condition
+         if ( pending.acquireLock( 60, TimeUnit.SECONDS ) ) {
+            try {
+               pending.invalidate();
+            }
+            finally {
+               pending.releaseLock();
+            }
+         }
+         else {
+            success = false;
+         }
+      }
+
+      // Record when this occurred to invalidate later naked puts
+      final RecentRemoval removal = new RecentRemoval( key, this.nakedPutInvalidationPeriod );
+      recentRemovals.put( key, removal.timestamp );
+
+      // Don't let recentRemovals map become a memory leak
+      RecentRemoval toClean = null;
+      final boolean attemptClean = removal.timestamp > earliestRemovalTimestamp;
+      removalsLock.lock();
+      try {
+         removalsQueue.add( removal );
+
+         if ( attemptClean ) {
+            if ( removalsQueue.size() > 1 ) {
+               // we have at least one as we just added it
+               toClean = removalsQueue.remove( 0 );
+            }
+            earliestRemovalTimestamp = removalsQueue.get( 0 ).timestamp;
+         }
+      }
+      finally {
+         removalsLock.unlock();
+      }
+
+      if ( toClean != null ) {
+         Long cleaned = recentRemovals.get( toClean.key );
+         if ( cleaned != null && cleaned.equals( toClean.timestamp ) ) {
+            cleaned = recentRemovals.remove( toClean.key );
+            if ( cleaned != null && !cleaned.equals( toClean.timestamp ) ) {
+               // Oops; removed the wrong timestamp; restore it
+               recentRemovals.putIfAbsent( toClean.key, cleaned );
+            }
+         }
+      }
+
+      return success;
+   }
+
+   @Override
+   public boolean invalidateRegion() {
+
+      boolean ok = false;
+      invalidationTimestamp = System.currentTimeMillis() + this.nakedPutInvalidationPeriod;
+
+      try {
+
+         // Acquire the lock for each entry to ensure any ongoing
+         // work associated with it is completed before we return
+         for ( PendingPutMap entry : pendingPuts.values() ) {
+            if ( entry.acquireLock( 60, TimeUnit.SECONDS ) ) {
+               try {
+                  entry.invalidate();
+               }
+               finally {
+                  entry.releaseLock();
+               }
+            }
+            else {
+               ok = false;
+            }
+         }
+
+         removalsLock.lock();
+         try {
+            recentRemovals.clear();
+            removalsQueue.clear();
+
+            ok = true;
+
+         }
+         finally {
+            removalsLock.unlock();
+         }
+      }
+      catch (Exception e) {
+         ok = false;
+      }
+      finally {
+         earliestRemovalTimestamp = invalidationTimestamp;
+      }
+
+      return ok;
+   }
+
+   @Override
+   public void registerPendingPut(Object key) {
+      final PendingPut pendingPut = new PendingPut( getOwnerForPut() );
+      final PendingPutMap pendingForKey = new PendingPutMap( pendingPut );
+
+      for (; ; ) {
+         final PendingPutMap existing = pendingPuts.putIfAbsent( key, pendingForKey );
+         if ( existing != null ) {
+            if ( existing.acquireLock( 10, TimeUnit.SECONDS ) ) {
+
+               try {
+                  existing.put( pendingPut );
+                  final PendingPutMap doublecheck = pendingPuts.putIfAbsent( key, existing );
+                  if ( doublecheck == null || doublecheck == existing ) {
+                     break;
+                  }
+                  // else we hit a race and need to loop to try again
+               }
+               finally {
+                  existing.releaseLock();
+               }
+            }
+            else {
+               // Can't get the lock; when we come back we'll be a "naked put"
+               break;
+            }
+         }
+         else {
+            // normal case
+            break;
+         }
+      }
+   }
+
+   @Override
+   protected int getRemovalQueueLength() {
+      removalsLock.lock();
+      try {
+         return removalsQueue.size();
+      }
+      finally {
+         removalsLock.unlock();
+      }
+   }
+
+   // ---------------------------------------------------------------- Private
+
+   private Object getOwnerForPut() {
+      Transaction tx = null;
+      try {
+         if ( transactionManager != null ) {
+            tx = transactionManager.getTransaction();
+         }
+      }
+      catch (SystemException se) {
+         throw new CacheException( "Could not obtain transaction", se );
+      }
+      return tx == null ? Thread.currentThread() : tx;
+
+   }
+
+   /**
+    * Lazy-initialization map for PendingPut. Optimized for the expected usual case where only a
+    * single put is pending for a given key.
+    * <p/>
+    * This class is NOT THREAD SAFE. All operations on it must be performed with the lock held.
+    */
+   private static class PendingPutMap {
+      private PendingPut singlePendingPut;
+      private Map<Object, PendingPut> fullMap;
+      private final Lock lock = new ReentrantLock();
+
+      PendingPutMap(PendingPut singleItem) {
+         this.singlePendingPut = singleItem;
+      }
+
+      public void put(PendingPut pendingPut) {
+         if ( singlePendingPut == null ) {
+            if ( fullMap == null ) {
+               // initial put
+               singlePendingPut = pendingPut;
+            }
+            else {
+               fullMap.put( pendingPut.owner, pendingPut );
+            }
+         }
+         else {
+            // 2nd put; need a map
+            fullMap = new HashMap<Object, PendingPut>( 4 );
+            fullMap.put( singlePendingPut.owner, singlePendingPut );
+            singlePendingPut = null;
+            fullMap.put( pendingPut.owner, pendingPut );
+         }
+      }
+
+      public PendingPut remove(Object ownerForPut) {
+         PendingPut removed = null;
+         if ( fullMap == null ) {
+            if ( singlePendingPut != null
+                  && singlePendingPut.owner.equals( ownerForPut ) ) {
+               removed = singlePendingPut;
+               singlePendingPut = null;
+            }
+         }
+         else {
+            removed = fullMap.remove( ownerForPut );
+         }
+         return removed;
+      }
+
+      public int size() {
+         return fullMap == null ? (singlePendingPut == null ? 0 : 1)
+               : fullMap.size();
+      }
+
+      public boolean acquireLock(long time, TimeUnit unit) {
+         try {
+            return lock.tryLock( time, unit );
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+         }
+      }
+
+      public void releaseLock() {
+         lock.unlock();
+      }
+
+      public void invalidate() {
+         if ( singlePendingPut != null ) {
+            singlePendingPut.completed = true;
+            // Nullify to avoid leaking completed pending puts
+            singlePendingPut = null;
+         }
+         else if ( fullMap != null ) {
+            for ( PendingPut pp : fullMap.values() ) {
+               pp.completed = true;
+            }
+            // Nullify to avoid leaking completed pending puts
+            fullMap = null;
+         }
+      }
+   }
+
+   private static class PendingPut {
+      private final Object owner;
+      private volatile boolean completed;
+
+      private PendingPut(Object owner) {
+         this.owner = owner;
+      }
+   }
+
+   private static class RecentRemoval {
+      private final Object key;
+      private final Long timestamp;
+
+      private RecentRemoval(Object key, long nakedPutInvalidationPeriod) {
+         this.key = key;
+         timestamp = System.currentTimeMillis() + nakedPutInvalidationPeriod;
+      }
+   }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2014, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.test.cache.infinispan.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.test.CacheManagerCallable;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import org.hibernate.cache.infinispan.access.PutFromLoadValidator;
+
+import static org.infinispan.test.TestingUtil.withCacheManager;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A stress test comparing the throughput of {@link PutFromLoadValidator} with the lock based
+ * {@link LockingPutFromLoadValidator} when many threads load a few hot keys which get
+ * invalidated concurrently.
+ */
+@Ignore
+public class PutFromLoadValidatorStressTestCase {
+
+   static final Log log = LogFactory.getLog(PutFromLoadValidatorStressTestCase.class);
+   static final int NUM_THREADS = Integer.getInteger("threads", 64);
+   static final int NUM_KEYS = Integer.getInteger("keys", 8);
+   static final long WARMUP_TIME_SECS = 5;
+   static final long RUNNING_TIME_SECS = Integer.getInteger("time", 30);
+   static final long INVALIDATION_INTERVAL_MILLIS = 1;
+
+   @Test
+   public void testLockFreeValidator() throws Exception {
+      stress(false);
+   }
+
+   @Test
+   public void testLockingValidator() throws Exception {
+      stress(true);
+   }
+
+   private void stress(final boolean locking) throws Exception {
+      withCacheManager(new CacheManagerCallable(
+            TestCacheManagerFactory.createCacheManager(false)) {
+         @Override
+         public void call() {
+            PutFromLoadValidator validator = locking
+                  ? new LockingPutFromLoadValidator(cm, null, PutFromLoadValidator.NAKED_PUT_INVALIDATION_PERIOD)
+                  : new PutFromLoadValidator(cm, null, PutFromLoadValidator.NAKED_PUT_INVALIDATION_PERIOD);
+            try {
+               // Warm up the JIT on the validator before measuring
+               run(validator, WARMUP_TIME_SECS);
+               long[] result = run(validator, RUNNING_TIME_SECS);
+               long millis = TimeUnit.SECONDS.toMillis(RUNNING_TIME_SECS);
+               log.infof("%s: %d loads/ms (%d%% cached), %d invalidations/ms, %d threads on %d keys",
+                     validator.getClass().getSimpleName(), result[0] / millis,
+                     result[0] == 0 ? 0 : result[1] * 100 / result[0], result[2] / millis,
+                     NUM_THREADS, NUM_KEYS);
+            } catch (Exception e) {
+               throw new RuntimeException(e);
+            }
+         }
+      });
+   }
+
+   /**
+    * @return the number of loads, of loads that acquired the lock and of invalidations
+    */
+   private long[] run(final PutFromLoadValidator validator, long seconds) throws Exception {
+      final AtomicBoolean run = new AtomicBoolean(true);
+      final CyclicBarrier barrier = new CyclicBarrier(NUM_THREADS + 2);
+      ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS + 1);
+      try {
+         List<Future<long[]>> loaders = new ArrayList<Future<long[]>>();
+         for (int i = 0; i < NUM_THREADS; i++) {
+            loaders.add(executor.submit(new Callable<long[]>() {
+               @Override
+               public long[] call() throws Exception {
+                  Random random = new Random();
+                  long loads = 0;
+                  long acquired = 0;
+                  barrier.await();
+                  while (run.get()) {
+                     Object key = random.nextInt(NUM_KEYS);
+                     validator.registerPendingPut(key);
+                     if (validator.acquirePutFromLoadLock(key)) {
+                        try {
+                           acquired++;
+                        } finally {
+                           validator.releasePutFromLoadLock(key);
+                        }
+                     }
+                     loads++;
+                  }
+                  return new long[] {loads, acquired};
+               }
+            }));
+         }
+         Future<Long> invalidator = executor.submit(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+               Random random = new Random();
+               long invalidations = 0;
+               barrier.await();
+               while (run.get()) {
+                  assertTrue(validator.invalidateKey(random.nextInt(NUM_KEYS)));
+                  invalidations++;
+                  Thread.sleep(INVALIDATION_INTERVAL_MILLIS);
+               }
+               return invalidations;
+            }
+         });
+
+         barrier.await();
+         Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+         run.set(false);
+
+         long[] result = new long[3];
+         for (Future<long[]> loader : loaders) {
+            long[] counts = loader.get(1, TimeUnit.MINUTES);
+            result[0] += counts[0];
+            result[1] += counts[1];
+         }
+         result[2] = invalidator.get(1, TimeUnit.MINUTES);
+         return result;
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+}